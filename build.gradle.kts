@@ -20,12 +20,32 @@ repositories {
     maven { url = uri("https://jitpack.io") }
 }
 
+// Benchmarks live in src/jmh/java, in the main package to reach internal hot paths
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations[jmh.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[jmh.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+
+// Jackson tree support is an optional feature: published as an optional dependency, required only by callers
+// of the JsonNode overloads
+java {
+    registerFeature("jackson") {
+        usingSourceSet(sourceSets.main.get())
+    }
+}
+
 dependencies {
     implementation("org.json:json:20251224")
-    implementation("org.skyscreamer:jsonassert:1.5.3")
     implementation("org.testng:testng:7.12.0")
     implementation("io.rest-assured:rest-assured:6.0.0")
-    implementation("com.github.wnameless.json:json-flattener:0.18.0")
+    "jacksonImplementation"("com.fasterxml.jackson.core:jackson-databind:2.19.2")
+    testImplementation("com.fasterxml.jackson.core:jackson-databind:2.19.2")
+
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
 }
 
 tasks.test {
@@ -42,6 +62,24 @@ tasks.test {
     }
 }
 
+// Runs all benchmarks with the GC profiler: ./gradlew jmh
+// JMH options can be passed as a property, e.g.: ./gradlew jmh -Pjmh.args="HotPathBenchmark -p depth=1"
+tasks.register<JavaExec>("jmh") {
+    group = "verification"
+    description = "Runs JMH benchmarks and reports allocation rates with the GC profiler."
+    classpath = jmh.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+
+    val results = layout.buildDirectory.file("reports/jmh/results.json")
+    val options = providers.gradleProperty("jmh.args").map { it.trim().split(Regex("\\s+")) }.orElse(listOf())
+    outputs.file(results)
+    outputs.upToDateWhen { false }
+    argumentProviders.add(CommandLineArgumentProvider {
+        options.get() + listOf("-prof", "gc", "-rf", "json", "-rff", results.get().asFile.absolutePath)
+    })
+    doFirst { results.get().asFile.parentFile.mkdirs() }
+}
+
 tasks.jacocoTestReport {
     reports {
         xml.required.set(true)
@@ -76,6 +114,9 @@ tasks {
     named("checkstyleTest") { enabled = false }
     named("pmdTest") { enabled = false }
     named("spotbugsTest") { enabled = false }
+    named("checkstyleJmh") { enabled = false }
+    named("pmdJmh") { enabled = false }
+    named("spotbugsJmh") { enabled = false }
 }
 
 tasks.check {
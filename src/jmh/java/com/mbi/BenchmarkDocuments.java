@@ -0,0 +1,105 @@
+package com.mbi;
+
+import io.restassured.response.Response;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generated documents for benchmarks.
+ * <p>
+ * A document is an object with {@code fields} scalar fields, an {@code items} array of {@code arrayLength} small
+ * objects and, down to {@code depth} levels, a nested {@code child} object of the same shape.
+ */
+final class BenchmarkDocuments {
+
+    private BenchmarkDocuments() {
+    }
+
+    static JSONObject object(final int fields, final int depth, final int arrayLength) {
+        final var object = new JSONObject();
+        for (int i = 0; i < fields; i++) {
+            object.put("f" + i, i % 2 == 0 ? "value" + i : i);
+        }
+        object.put("items", items(arrayLength));
+        if (depth > 1) {
+            object.put("child", object(fields, depth - 1, arrayLength));
+        }
+        return object;
+    }
+
+    static JSONArray items(final int length) {
+        final var items = new JSONArray();
+        for (int i = 0; i < length; i++) {
+            items.put(new JSONObject()
+                    .put("id", i)
+                    .put("name", "item" + i)
+                    .put("tags", new JSONArray().put("t" + i % 7).put(i % 3)));
+        }
+        return items;
+    }
+
+    /**
+     * Returns a deep copy of a document that equals it in the given mode: arrays are reversed in unordered modes.
+     */
+    static Object equalIn(final CompareMode mode, final Object value) {
+        final Object copy;
+        if (value instanceof JSONObject object) {
+            final var result = new JSONObject();
+            object.keySet().forEach(key -> result.put(key, equalIn(mode, object.get(key))));
+            copy = result;
+        } else if (value instanceof JSONArray array) {
+            final var result = new JSONArray();
+            for (int i = 0; i < array.length(); i++) {
+                result.put(equalIn(mode, array.get(mode.isOrdered() ? i : array.length() - 1 - i)));
+            }
+            copy = result;
+        } else {
+            copy = value;
+        }
+        return copy;
+    }
+
+    /**
+     * Returns existing field paths of a document to ignore: top-level fields, nested fields and array element fields.
+     */
+    static String[] ignorePaths(final int count, final int depth) {
+        final List<String> paths = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            switch (i % 3) {
+                case 0 -> paths.add("f" + i);
+                case 1 -> paths.add(depth > 1 ? "child.f" + i : "items[].name");
+                default -> paths.add("items[].tags");
+            }
+        }
+        return paths.stream().distinct().toArray(String[]::new);
+    }
+
+    static String jsonLines(final JSONArray records) {
+        final var lines = new StringBuilder();
+        records.forEach(record -> lines.append(record).append('\n'));
+        return lines.toString();
+    }
+
+    static ByteArrayInputStream stream(final String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns a response with the given body; only the body accessors are supported.
+     */
+    static Response response(final String body) {
+        return (Response) Proxy.newProxyInstance(Response.class.getClassLoader(), new Class<?>[]{Response.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "asInputStream" -> stream(body);
+                    case "asString" -> body;
+                    case "asByteArray" -> body.getBytes(StandardCharsets.UTF_8);
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
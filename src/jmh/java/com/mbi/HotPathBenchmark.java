@@ -0,0 +1,89 @@
+package com.mbi;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Internal hot paths of an assertion: field filtering, common elements of extensible arrays and element equality.
+ * Compare modes are covered by {@link JsonAssertBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class HotPathBenchmark {
+
+    /**
+     * Number of scalar fields of every object level.
+     */
+    @Param({"10", "100"})
+    public int fields;
+
+    /**
+     * Number of nested object levels.
+     */
+    @Param({"1", "4"})
+    public int depth;
+
+    /**
+     * Number of elements of every array.
+     */
+    @Param({"10", "1000"})
+    public int arrayLength;
+
+    /**
+     * Number of ignored paths.
+     */
+    @Param({"0", "4"})
+    public int ignorePaths;
+
+    private FieldFilter filter;
+
+    private JSONObject expected;
+
+    private JSONObject actual;
+
+    private JSONArray expectedArray;
+
+    private JSONArray actualArray;
+
+    @Setup
+    public void setUp() {
+        filter = FieldFilter.of(Set.of(BenchmarkDocuments.ignorePaths(ignorePaths, depth)), Set.of());
+        expected = BenchmarkDocuments.object(fields, depth, arrayLength);
+        actual = (JSONObject) BenchmarkDocuments.equalIn(CompareMode.NOT_ORDERED, expected);
+        expectedArray = expected.getJSONArray("items");
+        actualArray = (JSONArray) BenchmarkDocuments.equalIn(CompareMode.NOT_ORDERED, expectedArray);
+    }
+
+    @Benchmark
+    public JSONObject filterFields() {
+        return AssertionUtils.filterFields(expected, filter);
+    }
+
+    @Benchmark
+    public JSONArray getCommonArray() {
+        return AssertionUtils.getCommonArray(expectedArray, actualArray);
+    }
+
+    @Benchmark
+    public boolean comparableObjectEquals() {
+        return new ComparableObject(expected).equals(new ComparableObject(actual));
+    }
+}
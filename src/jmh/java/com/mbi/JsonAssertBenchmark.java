@@ -0,0 +1,160 @@
+package com.mbi;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Public {@link JsonAssert} entry points on equal documents (or different ones for {@code jsonNotEquals}),
+ * with the configuration built on every call as tests do. Documents equal in the benchmarked mode: arrays of
+ * the actual side are reversed in unordered modes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JsonAssertBenchmark {
+
+    /**
+     * Compare mode; all modes if not given.
+     */
+    @Param
+    public CompareMode mode;
+
+    /**
+     * Number of scalar fields of every object level.
+     */
+    @Param({"10", "100"})
+    public int fields;
+
+    /**
+     * Number of nested object levels.
+     */
+    @Param({"1", "4"})
+    public int depth;
+
+    /**
+     * Number of elements of every array.
+     */
+    @Param({"10", "1000"})
+    public int arrayLength;
+
+    /**
+     * Number of ignored paths.
+     */
+    @Param({"0", "4"})
+    public int ignorePaths;
+
+    private final JsonAssert assertion = new JsonAssert();
+
+    private String[] ignore;
+
+    private JSONObject expected;
+
+    private JSONObject actual;
+
+    private JSONObject different;
+
+    private JSONArray expectedArray;
+
+    private JSONArray actualArray;
+
+    private JSONObject[] expectedObjects;
+
+    private String actualBody;
+
+    private String expectedLines;
+
+    private String actualLines;
+
+    private Path expectedFile;
+
+    private Path actualFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        ignore = BenchmarkDocuments.ignorePaths(ignorePaths, depth);
+        expected = BenchmarkDocuments.object(fields, depth, arrayLength);
+        actual = (JSONObject) BenchmarkDocuments.equalIn(mode, expected);
+        different = ((JSONObject) BenchmarkDocuments.equalIn(mode, expected)).put("f1", "changed");
+        expectedArray = expected.getJSONArray("items");
+        actualArray = actual.getJSONArray("items");
+        expectedObjects = new JSONObject[expectedArray.length()];
+        for (int i = 0; i < expectedObjects.length; i++) {
+            expectedObjects[i] = expectedArray.getJSONObject(i);
+        }
+        actualBody = actual.toString();
+        expectedLines = BenchmarkDocuments.jsonLines(expectedArray);
+        actualLines = BenchmarkDocuments.jsonLines(actualArray);
+        expectedFile = Files.createTempFile("expected", ".json");
+        actualFile = Files.createTempFile("actual", ".json");
+        Files.writeString(expectedFile, expected.toString());
+        Files.writeString(actualFile, actualBody);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(expectedFile);
+        Files.deleteIfExists(actualFile);
+    }
+
+    @Benchmark
+    public void jsonEqualsObjects() {
+        assertion.withMode(mode).ignore(ignore).jsonEquals(actual, expected);
+    }
+
+    @Benchmark
+    public void jsonEqualsArrays() {
+        assertion.withMode(mode).ignore(ignore).jsonEquals(actualArray, expectedArray);
+    }
+
+    @Benchmark
+    public void jsonEqualsArrayOfObjects() {
+        assertion.withMode(mode).ignore(ignore).jsonEquals(actualArray, expectedObjects);
+    }
+
+    @Benchmark
+    public void jsonEqualsResponse() {
+        assertion.withMode(mode).ignore(ignore).jsonEquals(BenchmarkDocuments.response(actualBody), expected);
+    }
+
+    @Benchmark
+    public void jsonEqualsStreamedResponse() {
+        assertion.withMode(mode).ignore(ignore).withStreaming()
+                .jsonEquals(BenchmarkDocuments.response(actualBody), expected);
+    }
+
+    @Benchmark
+    public void jsonEqualsFiles() {
+        assertion.withMode(mode).ignore(ignore).jsonEquals(actualFile, expectedFile);
+    }
+
+    @Benchmark
+    public void jsonLinesEquals() {
+        assertion.withMode(mode).ignore(ignore).jsonLinesEquals(
+                BenchmarkDocuments.stream(actualLines), BenchmarkDocuments.stream(expectedLines));
+    }
+
+    @Benchmark
+    public void jsonNotEqualsObjects() {
+        assertion.withMode(mode).ignore(ignore).jsonNotEquals(different, expected);
+    }
+}
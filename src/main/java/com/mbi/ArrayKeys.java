@@ -0,0 +1,243 @@
+package com.mbi;
+
+import org.apache.commons.lang3.Validate;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Identity keys of array elements declared with {@code matchArrayBy}, by array path.
+ * <p>
+ * Arrays are addressed by the path of their elements in flattened notation with {@code []} for any index,
+ * e.g. {@code items[]}, {@code orders[].lines[]}, or {@code []} for a root array. An element's key is made of
+ * the values of its key fields, normalized so that keys are equal exactly when the values are equal scalars;
+ * elements that are not objects, miss a key field or have a container as key value have no key.
+ * Array paths are compiled into a tree of field and element segments, so the keys of an array are found by walking
+ * the segments of its path, without rendering it. Instances are immutable and can be shared.
+ */
+final class ArrayKeys {
+
+    /**
+     * Configuration without keyed arrays.
+     */
+    public static final ArrayKeys NONE = new ArrayKeys(Map.of());
+
+    /**
+     * Suffix of element paths.
+     */
+    private static final String ELEMENTS = "[]";
+
+    /**
+     * Explicit index or quoted name in brackets, which array paths do not support.
+     */
+    private static final Pattern INDEX = Pattern.compile("\\[[^\\]]");
+
+    /**
+     * Key fields by array path, with {@code []} for every index and without the trailing element segment.
+     */
+    private final Map<String, List<String>> keys;
+
+    /**
+     * Array paths compiled into segments; {@code null} if no key is declared.
+     */
+    private final Node root;
+
+    /**
+     * Constructor.
+     *
+     * @param keys key fields by array path.
+     */
+    private ArrayKeys(final Map<String, List<String>> keys) {
+        this.keys = keys;
+        this.root = keys.isEmpty() ? null : new Node();
+        keys.forEach((arrayPath, keyFields) -> root.insert(arrayPath, keyFields));
+    }
+
+    /**
+     * Returns a configuration matching the elements at a path by the given fields, in addition to the current
+     * arrays; a key already declared for the path is replaced.
+     *
+     * @param elements  path of the elements, ending with {@code []}.
+     * @param keyFields fields identifying an element.
+     * @return new configuration.
+     */
+    public ArrayKeys with(final String elements, final String... keyFields) {
+        Validate.notNull(elements, "Array path is null");
+        Validate.isTrue(elements.endsWith(ELEMENTS), "Array path must end with []: %s", elements);
+        Validate.isTrue(!INDEX.matcher(elements).find(), "Array path must use [] for indexes: %s", elements);
+        Validate.notEmpty(keyFields, "Key fields are empty");
+        Validate.noNullElements(keyFields, "Key field is null");
+        final var all = new HashMap<>(keys);
+        all.put(elements.substring(0, elements.length() - ELEMENTS.length()), List.of(keyFields));
+        return new ArrayKeys(Map.copyOf(all));
+    }
+
+    /**
+     * Returns whether no array is matched by key.
+     *
+     * @return true if no key is declared.
+     */
+    public boolean isEmpty() {
+        return keys.isEmpty();
+    }
+
+    /**
+     * Returns whether the elements of a root array are matched by key.
+     *
+     * @return true if a key is declared for {@code []}.
+     */
+    public boolean hasRoot() {
+        return root != null && root.keyFields != null;
+    }
+
+    /**
+     * Returns the key fields of the array at the current path of a walk. The path is matched segment by segment,
+     * every index matching {@code []}; nothing is allocated.
+     *
+     * @param path path of the array.
+     * @return key fields; {@code null} if the array is not matched by key.
+     */
+    public List<String> find(final ComparisonPath path) {
+        Node node = root;
+        for (int level = 0; node != null && level < path.getDepth(); level++) {
+            final var name = path.getName(level);
+            node = name == null ? node.elements : node.fields.get(name);
+        }
+        return node == null ? null : node.keyFields;
+    }
+
+    /**
+     * Returns the key of an element.
+     *
+     * @param element   array element.
+     * @param keyFields key fields of the array.
+     * @return key; {@code null} if the element has no key.
+     */
+    public static Object keyOf(final Object element, final List<String> keyFields) {
+        Object result = null;
+        if (element instanceof JSONObject object) {
+            if (keyFields.size() == 1) {
+                result = normalize(object.opt(keyFields.get(0)));
+            } else {
+                final var values = new ArrayList<>(keyFields.size());
+                for (final var field : keyFields) {
+                    values.add(normalize(object.opt(field)));
+                }
+                result = values.contains(null) ? null : values;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Configurations declaring the same keys for the same arrays are equal.
+     *
+     * @param obj object to compare with.
+     * @return true if the same arrays are matched by the same fields.
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        return obj instanceof ArrayKeys other && keys.equals(other.keys);
+    }
+
+    /**
+     * Returns a hash code consistent with {@link #equals(Object)}.
+     *
+     * @return hash code.
+     */
+    @Override
+    public int hashCode() {
+        return keys.hashCode();
+    }
+
+    /**
+     * Normalizes a key value: numbers equal by {@link JsonComparator#scalarsEqual} become equal objects.
+     *
+     * @param value field value; {@code null} if the field is missing.
+     * @return normalized value; {@code null} if the value cannot be a key.
+     */
+    private static Object normalize(final Object value) {
+        final Object result;
+        if (value instanceof Number number) {
+            result = normalizeNumber(number);
+        } else {
+            result = JsonComparator.isContainer(value) ? null : value;
+        }
+        return result;
+    }
+
+    /**
+     * Normalizes a number: integral values as {@link Long}, others as {@link Double}.
+     *
+     * @param number number.
+     * @return normalized number.
+     */
+    private static Object normalizeNumber(final Number number) {
+        final double value = number.doubleValue();
+        final Object result;
+        if (number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte) {
+            result = number.longValue();
+        } else if (value == (long) value && Math.abs(value) < Long.MAX_VALUE) {
+            result = (long) value; // e.g. 1.0 equals 1
+        } else {
+            result = value;
+        }
+        return result;
+    }
+
+    /**
+     * Segment of compiled array paths.
+     */
+    private static final class Node {
+
+        /**
+         * Children by field name.
+         */
+        private final Map<String, Node> fields = new HashMap<>();
+
+        /**
+         * Child for the elements of an array; {@code null} if no path continues with {@code []}.
+         */
+        private Node elements;
+
+        /**
+         * Key fields of the array ending here; {@code null} if none is declared.
+         */
+        private List<String> keyFields;
+
+        /**
+         * Adds an array path below this node, creating its segments if needed.
+         *
+         * @param arrayPath array path in flattened notation, without the trailing {@code []}.
+         * @param keyNames  key fields of the array.
+         */
+        private void insert(final String arrayPath, final List<String> keyNames) {
+            Node node = this;
+            int position = 0;
+            while (position < arrayPath.length()) {
+                final char current = arrayPath.charAt(position);
+                if (current == '.') {
+                    position++;
+                } else if (arrayPath.startsWith(ELEMENTS, position)) {
+                    if (node.elements == null) {
+                        node.elements = new Node();
+                    }
+                    node = node.elements;
+                    position += ELEMENTS.length();
+                } else {
+                    int end = position;
+                    while (end < arrayPath.length() && arrayPath.charAt(end) != '.' && arrayPath.charAt(end) != '[') {
+                        end++;
+                    }
+                    node = node.fields.computeIfAbsent(arrayPath.substring(position, end), name -> new Node());
+                    position = end;
+                }
+            }
+            node.keyFields = keyNames;
+        }
+    }
+}
@@ -4,6 +4,10 @@ import io.restassured.response.Response;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
 /**
  * Assertion interface for verifying JSON equality or inequality.
  * <p>
@@ -12,6 +16,9 @@ import org.json.JSONObject;
  * - Comparison modes (ordered, extensible, etc.)
  * - Ignoring specific fields
  * - Comparing only specific fields
+ * <p>
+ * Methods added after the first release have default implementations built on the original ones, so existing
+ * implementations keep working.
  */
 public interface Assert {
 
@@ -99,6 +106,129 @@ public interface Assert {
      */
     void jsonEquals(Response actual, JSONObject... expected);
 
+    /**
+     * Asserts two JSON files are equal.
+     * <p>
+     * Both files are memory-mapped and read without copying them to the heap, in segments if larger than 2 GB.
+     * Byte-identical files are equal without their trees being compared, so identical golden files cost a single
+     * pass over the bytes. Otherwise the actual file is compared while it is read, stopping at the first difference;
+     * unless {@link #withMaxDifferences(int)} is 1, different files are then compared as trees to report every
+     * difference.
+     * <p>
+     * The default implementation parses the documents and compares them with
+     * {@link #jsonEquals(JSONObject, JSONObject)} or {@link #jsonEquals(JSONArray, JSONArray)}.
+     *
+     * @param actual   actual JSON file
+     * @param expected expected JSON file
+     * @throws AssertionError if assertion failed.
+     */
+    default void jsonEquals(final Path actual, final Path expected) {
+        AssertDefaults.assertEquals(this, JsonReader.parse(MappedInputStream.open(actual)),
+                JsonReader.parse(MappedInputStream.open(expected)));
+    }
+
+    /**
+     * Asserts two JSON documents are equal.
+     * <p>
+     * Each text is parsed once, straight into the compared document, without intermediate strings or trees.
+     * With field filters, fields left out of the comparison are skipped while the actual text is parsed, and
+     * the text is parsed again only to render a failure message. Documents may be of any JSON type; documents
+     * of different types are not equal.
+     * <p>
+     * The default implementation parses the documents and compares them with
+     * {@link #jsonEquals(JSONObject, JSONObject)} or {@link #jsonEquals(JSONArray, JSONArray)}.
+     *
+     * @param actual   actual JSON text
+     * @param expected expected JSON text
+     * @throws AssertionError if assertion failed.
+     */
+    default void jsonEquals(final String actual, final String expected) {
+        AssertDefaults.assertEquals(this, JsonReader.parse(actual), JsonReader.parse(expected));
+    }
+
+    /**
+     * Asserts two UTF-8 encoded JSON documents are equal.
+     * <p>
+     * The bytes are parsed in place, as described in {@link #jsonEquals(String, String)}.
+     * <p>
+     * The default implementation parses the documents and compares them with
+     * {@link #jsonEquals(JSONObject, JSONObject)} or {@link #jsonEquals(JSONArray, JSONArray)}.
+     *
+     * @param actual   actual JSON bytes
+     * @param expected expected JSON bytes
+     * @throws AssertionError if assertion failed.
+     */
+    default void jsonEquals(final byte[] actual, final byte[] expected) {
+        AssertDefaults.assertEquals(this, JsonReader.parse(actual), JsonReader.parse(expected));
+    }
+
+    /**
+     * Asserts two UTF-8 encoded JSON documents held by buffers are equal.
+     * <p>
+     * Heap and direct buffers are parsed in place, as described in {@link #jsonEquals(String, String)}.
+     * <p>
+     * The default implementation parses the documents and compares them with
+     * {@link #jsonEquals(JSONObject, JSONObject)} or {@link #jsonEquals(JSONArray, JSONArray)}.
+     *
+     * @param actual   actual JSON between the position and the limit; the position is not changed
+     * @param expected expected JSON between the position and the limit; the position is not changed
+     * @throws AssertionError if assertion failed.
+     */
+    default void jsonEquals(final ByteBuffer actual, final ByteBuffer expected) {
+        AssertDefaults.assertEquals(this, JsonReader.parse(actual), JsonReader.parse(expected));
+    }
+
+    /**
+     * Asserts two JSON streams hold equal documents.
+     * <p>
+     * Each stream is parsed while it is read, as described in {@link #jsonEquals(String, String)}.
+     * <p>
+     * The default implementation parses the documents and compares them with
+     * {@link #jsonEquals(JSONObject, JSONObject)} or {@link #jsonEquals(JSONArray, JSONArray)}.
+     *
+     * @param actual   actual JSON stream (UTF-8); closed after reading
+     * @param expected expected JSON stream (UTF-8); closed after reading
+     * @throws AssertionError if assertion failed.
+     */
+    default void jsonEquals(final InputStream actual, final InputStream expected) {
+        AssertDefaults.assertEquals(this, JsonReader.parse(actual), JsonReader.parse(expected));
+    }
+
+    /**
+     * Asserts two JSON Lines (newline-delimited JSON) streams hold equal records.
+     * <p>
+     * Records are read and compared one at a time; ignore and compareOnly fields apply to every record,
+     * and the compare mode rules for arrays apply to the sequence of records. Differences are reported
+     * with record lines. Both streams are closed.
+     * <p>
+     * The default implementation reads the records into arrays and compares them with
+     * {@link #jsonEquals(JSONArray, JSONArray)}.
+     *
+     * @param actual   actual JSON Lines (UTF-8)
+     * @param expected expected JSON Lines (UTF-8)
+     * @throws AssertionError if assertion failed.
+     */
+    default void jsonLinesEquals(final InputStream actual, final InputStream expected) {
+        jsonEquals(AssertDefaults.readRecords(actual), AssertDefaults.readRecords(expected));
+    }
+
+    /**
+     * Asserts two JSON Lines (newline-delimited JSON) files hold equal records.
+     * <p>
+     * Files are memory-mapped; records are compared as described in {@link #jsonLinesEquals(InputStream, InputStream)}.
+     * Without ignore and compareOnly fields, byte-identical files are equal without being parsed.
+     * <p>
+     * The default implementation reads the records into arrays and compares them with
+     * {@link #jsonEquals(JSONArray, JSONArray)}.
+     *
+     * @param actual   actual JSON Lines file
+     * @param expected expected JSON Lines file
+     * @throws AssertionError if assertion failed.
+     */
+    default void jsonLinesEquals(final Path actual, final Path expected) {
+        jsonLinesEquals(MappedInputStream.open(actual), MappedInputStream.open(expected));
+    }
+
     /**
      * Asserts two objects are equal.
      * <p>
@@ -127,6 +257,64 @@ public interface Assert {
      */
     void jsonNotEquals(JSONArray actual, JSONArray expected);
 
+    /**
+     * Asserts two JSON documents are not equal.
+     * <p>
+     * Each text is parsed once; documents of different types are not equal.
+     * <p>
+     * The default implementation parses the documents and compares them with
+     * {@link #jsonNotEquals(JSONObject, JSONObject)} or {@link #jsonNotEquals(JSONArray, JSONArray)}.
+     *
+     * @param actual   actual JSON text
+     * @param expected expected JSON text
+     * @throws AssertionError if assertion failed.
+     */
+    default void jsonNotEquals(final String actual, final String expected) {
+        AssertDefaults.assertNotEquals(this, JsonReader.parse(actual), JsonReader.parse(expected));
+    }
+
+    /**
+     * Asserts two UTF-8 encoded JSON documents are not equal.
+     * <p>
+     * The default implementation parses the documents and compares them with
+     * {@link #jsonNotEquals(JSONObject, JSONObject)} or {@link #jsonNotEquals(JSONArray, JSONArray)}.
+     *
+     * @param actual   actual JSON bytes
+     * @param expected expected JSON bytes
+     * @throws AssertionError if assertion failed.
+     */
+    default void jsonNotEquals(final byte[] actual, final byte[] expected) {
+        AssertDefaults.assertNotEquals(this, JsonReader.parse(actual), JsonReader.parse(expected));
+    }
+
+    /**
+     * Asserts two UTF-8 encoded JSON documents held by buffers are not equal.
+     * <p>
+     * The default implementation parses the documents and compares them with
+     * {@link #jsonNotEquals(JSONObject, JSONObject)} or {@link #jsonNotEquals(JSONArray, JSONArray)}.
+     *
+     * @param actual   actual JSON between the position and the limit; the position is not changed
+     * @param expected expected JSON between the position and the limit; the position is not changed
+     * @throws AssertionError if assertion failed.
+     */
+    default void jsonNotEquals(final ByteBuffer actual, final ByteBuffer expected) {
+        AssertDefaults.assertNotEquals(this, JsonReader.parse(actual), JsonReader.parse(expected));
+    }
+
+    /**
+     * Asserts two JSON streams hold documents that are not equal.
+     * <p>
+     * The default implementation parses the documents and compares them with
+     * {@link #jsonNotEquals(JSONObject, JSONObject)} or {@link #jsonNotEquals(JSONArray, JSONArray)}.
+     *
+     * @param actual   actual JSON stream (UTF-8); closed after reading
+     * @param expected expected JSON stream (UTF-8); closed after reading
+     * @throws AssertionError if assertion failed.
+     */
+    default void jsonNotEquals(final InputStream actual, final InputStream expected) {
+        AssertDefaults.assertNotEquals(this, JsonReader.parse(actual), JsonReader.parse(expected));
+    }
+
     /**
      * Mode objects will be compared with.
      * Available compare mode list see {@link com.mbi.CompareMode}
@@ -151,4 +339,92 @@ public interface Assert {
      * @return JsonAssert.class.
      */
     Assert compareOnly(String... compareFieldNames);
+
+    /**
+     * Match the elements of arrays at a path by key fields, e.g. {@code matchArrayBy("items[]", "id")}, when
+     * arrays are compared in any order. Elements are paired by key in linear time, and each pair is reported by
+     * its own field differences rather than as an element without a match; expected keys missing from the actual
+     * array and extra actual keys are reported too. Paths use {@code []} for every index, explicit indexes are
+     * rejected ({@code orders[].lines[]}); {@code []} alone is a root array. Can be called for several arrays.
+     * <p>
+     * The default implementation throws {@link UnsupportedOperationException}: elements cannot be paired
+     * differently through the other methods.
+     *
+     * @param arrayPath path of the array elements, ending with {@code []}.
+     * @param keyFields fields identifying an element.
+     * @return JsonAssert.class.
+     */
+    default Assert matchArrayBy(final String arrayPath, final String... keyFields) {
+        throw new UnsupportedOperationException("matchArrayBy");
+    }
+
+    /**
+     * Maximum length of a failure message; longer messages are truncated.
+     * Defaults to 100 000 characters.
+     * <p>
+     * The default implementation ignores the limit.
+     *
+     * @param maxLength maximum number of characters.
+     * @return JsonAssert.class.
+     */
+    default Assert withMaxMessageLength(final int maxLength) {
+        return this;
+    }
+
+    /**
+     * Number of document lines shown before and after each difference in a failure message.
+     * By default, documents are shown in full.
+     * <p>
+     * The default implementation ignores it and shows documents in full.
+     *
+     * @param contextLines number of lines.
+     * @return JsonAssert.class.
+     */
+    default Assert withContextLines(final int contextLines) {
+        return this;
+    }
+
+    /**
+     * Compare response bodies while reading them as a stream, stopping at the first difference.
+     * Memory is bounded by nesting depth rather than body size; arrays compared in any order
+     * keep one element at a time. The body is read once, so failure messages list the differences only,
+     * without the documents. Falls back to reading the whole body if fields are ignored or compared only,
+     * or arrays are extensible.
+     * <p>
+     * The default implementation ignores it and reads whole bodies.
+     *
+     * @return JsonAssert.class.
+     */
+    default Assert withStreaming() {
+        return this;
+    }
+
+    /**
+     * Compare large arrays and objects in parallel. Arrays and objects with at least 1000 elements or fields
+     * are split into fork/join tasks; failure messages are identical to the sequential comparison.
+     * Threads are shared by all assertions with the same parallelism.
+     * <p>
+     * The default implementation ignores it and compares sequentially.
+     *
+     * @param parallelism number of threads, positive; 1 compares sequentially.
+     * @return JsonAssert.class.
+     */
+    default Assert withParallelism(final int parallelism) {
+        return this;
+    }
+
+    /**
+     * Stop the comparison after the given number of differences instead of collecting all of them: 1 fails on
+     * the first difference. The walk over the documents ends as soon as the limit is reached, so a systematic
+     * difference in a large document is reported without visiting the rest of it. The reported differences
+     * are the first ones of the full comparison.
+     * <p>
+     * The default implementation ignores the limit.
+     *
+     * @param maxDifferences number of differences, positive.
+     * @return JsonAssert.class.
+     */
+    default Assert withMaxDifferences(final int maxDifferences) {
+        return this;
+    }
 }
@@ -0,0 +1,80 @@
+package com.mbi;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.InputStream;
+import java.util.function.Function;
+
+/**
+ * Default implementations of the {@link Assert} methods added after the interface was first published, so that
+ * implementations written against the original interface keep compiling and linking.
+ * <p>
+ * Inputs are parsed into documents and passed to the original {@link JSONObject} and {@link JSONArray} methods
+ * of the implementation, which apply its own configuration. Documents of other types (scalars, or an object and
+ * an array) are compared with {@link AssertionSpec#DEFAULT}: field paths and compare modes do not apply to them.
+ */
+final class AssertDefaults {
+
+    /**
+     * Prevent instantiation.
+     */
+    private AssertDefaults() {
+    }
+
+    /**
+     * Asserts two documents are equal with the original methods of an implementation.
+     *
+     * @param assertion implementation.
+     * @param actual    actual document.
+     * @param expected  expected document.
+     */
+    public static void assertEquals(final Assert assertion, final Object actual, final Object expected) {
+        if (actual instanceof JSONObject object && expected instanceof JSONObject other) {
+            assertion.jsonEquals(object, other);
+        } else if (actual instanceof JSONArray array && expected instanceof JSONArray other) {
+            assertion.jsonEquals(array, other);
+        } else {
+            AssertionSpec.DEFAULT.assertParsedEquals(Function.identity(), actual, expected);
+        }
+    }
+
+    /**
+     * Asserts two documents are not equal with the original methods of an implementation.
+     *
+     * @param assertion implementation.
+     * @param actual    actual document.
+     * @param expected  expected document.
+     */
+    public static void assertNotEquals(final Assert assertion, final Object actual, final Object expected) {
+        if (actual instanceof JSONObject object && expected instanceof JSONObject other) {
+            assertion.jsonNotEquals(object, other);
+        } else if (actual instanceof JSONArray array && expected instanceof JSONArray other) {
+            assertion.jsonNotEquals(array, other);
+        } else {
+            AssertionSpec.DEFAULT.assertParsedNotEquals(Function.identity(), actual, expected);
+        }
+    }
+
+    /**
+     * Reads all records of a JSON Lines source into an array.
+     *
+     * @param input UTF-8 encoded JSON Lines; closed after reading.
+     * @return records in source order.
+     * @throws JSONException if a line holds more than one value or the input is not valid JSON.
+     */
+    public static JSONArray readRecords(final InputStream input) {
+        final var records = new JSONArray();
+        try (var reader = new JsonReader(input)) {
+            while (!reader.isAtEnd()) {
+                final int line = reader.getLine();
+                records.put(reader.readValue());
+                if (!reader.isAtEnd() && reader.getLine() == line) {
+                    throw new JSONException("Expected a single JSON value at line " + line);
+                }
+            }
+        }
+        return records;
+    }
+}
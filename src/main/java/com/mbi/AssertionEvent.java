@@ -0,0 +1,192 @@
+package com.mbi;
+
+import java.util.Arrays;
+
+/**
+ * Immutable record of one assertion passed to {@link AssertionListener}s: outcome, phase durations, document
+ * sizes and element counts.
+ * <p>
+ * Sizes and counts that are not known without extra work are reported as {@code -1}: byte sizes are known for
+ * files only, element counts for documents compared as trees.
+ */
+public final class AssertionEvent {
+
+    /**
+     * Value of sizes and counts that are not known.
+     */
+    public static final int UNKNOWN = -1;
+
+    /**
+     * Name of the assertion method.
+     */
+    private final String operation;
+
+    /**
+     * Comparison mode.
+     */
+    private final CompareMode mode;
+
+    /**
+     * Whether the assertion passed.
+     */
+    private final boolean passed;
+
+    /**
+     * Number of differences found.
+     */
+    private final int differenceCount;
+
+    /**
+     * Phase durations in nanoseconds by phase ordinal.
+     */
+    private final long[] durations;
+
+    /**
+     * Duration of the whole assertion in nanoseconds.
+     */
+    private final long totalDuration;
+
+    /**
+     * Size of the expected source in bytes.
+     */
+    private final long expectedSize;
+
+    /**
+     * Size of the actual source in bytes.
+     */
+    private final long actualSize;
+
+    /**
+     * Number of members or elements of the expected document.
+     */
+    private final int expectedElements;
+
+    /**
+     * Number of members or elements of the actual document.
+     */
+    private final int actualElements;
+
+    /**
+     * Constructor; takes a snapshot of the recorded measurements.
+     *
+     * @param recorder        measurements of the assertion.
+     * @param passed          whether the assertion passed.
+     * @param differenceCount number of differences found.
+     */
+    /* default */ AssertionEvent(final AssertionRecorder recorder, final boolean passed, final int differenceCount) {
+        this.operation = recorder.getOperation();
+        this.mode = recorder.getMode();
+        this.passed = passed;
+        this.differenceCount = differenceCount;
+        this.durations = recorder.getDurations();
+        this.totalDuration = recorder.getElapsed();
+        this.expectedSize = recorder.getExpectedSize();
+        this.actualSize = recorder.getActualSize();
+        this.expectedElements = recorder.getExpectedElements();
+        this.actualElements = recorder.getActualElements();
+    }
+
+    /**
+     * Returns the name of the assertion method: {@code jsonEquals}, {@code jsonNotEquals}, {@code jsonLinesEquals}
+     * or {@code assertMatches}.
+     *
+     * @return operation name.
+     */
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * Returns the comparison mode.
+     *
+     * @return comparison mode.
+     */
+    public CompareMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Returns whether the assertion passed.
+     *
+     * @return true if no error was thrown.
+     */
+    public boolean isPassed() {
+        return passed;
+    }
+
+    /**
+     * Returns the number of differences found; 0 for passed assertions and for unexpectedly equal documents.
+     *
+     * @return difference count.
+     */
+    public int getDifferenceCount() {
+        return differenceCount;
+    }
+
+    /**
+     * Returns the time spent in a phase. {@link AssertionPhase#RENDER} is always 0, see
+     * {@link AssertionListener#onMessageRendered}.
+     *
+     * @param phase assertion phase.
+     * @return duration in nanoseconds; 0 if the assertion did not go through the phase.
+     */
+    public long getDuration(final AssertionPhase phase) {
+        return durations[phase.ordinal()];
+    }
+
+    /**
+     * Returns the duration of the whole assertion, including work outside the timed phases.
+     *
+     * @return duration in nanoseconds.
+     */
+    public long getTotalDuration() {
+        return totalDuration;
+    }
+
+    /**
+     * Returns the size of the expected source.
+     *
+     * @return size in bytes, or {@link #UNKNOWN}.
+     */
+    public long getExpectedSize() {
+        return expectedSize;
+    }
+
+    /**
+     * Returns the size of the actual source.
+     *
+     * @return size in bytes, or {@link #UNKNOWN}.
+     */
+    public long getActualSize() {
+        return actualSize;
+    }
+
+    /**
+     * Returns the number of top-level members or elements of the expected document.
+     *
+     * @return element count, or {@link #UNKNOWN}.
+     */
+    public int getExpectedElements() {
+        return expectedElements;
+    }
+
+    /**
+     * Returns the number of top-level members or elements of the actual document.
+     *
+     * @return element count, or {@link #UNKNOWN}.
+     */
+    public int getActualElements() {
+        return actualElements;
+    }
+
+    /**
+     * Describes the event for logging.
+     *
+     * @return description.
+     */
+    @Override
+    public String toString() {
+        return String.format("%s[mode=%s, passed=%s, differences=%d, total=%dns, phases=%s]",
+                operation, mode, passed, differenceCount, totalDuration, Arrays.toString(durations));
+    }
+}
@@ -0,0 +1,53 @@
+package com.mbi;
+
+/**
+ * Receives an {@link AssertionEvent} after each assertion, e.g. to feed phase durations into metrics.
+ * <p>
+ * Listeners are registered per configuration with {@link AssertionSpec#withListener} or
+ * {@link JsonAssert#JsonAssert(AssertionListener...)}, or for all assertions of the JVM with {@link #register}
+ * or a {@code META-INF/services/com.mbi.AssertionListener} provider file. Without listeners, assertions are not
+ * timed at all. Listeners are called on the asserting thread, so they must be thread-safe and should be fast;
+ * an exception thrown by a listener fails the assertion.
+ * <pre>{@code
+ * AssertionListener.register(event -> metrics.record(event.getOperation(), event.getTotalDuration()));
+ * }</pre>
+ */
+@FunctionalInterface
+public interface AssertionListener {
+
+    /**
+     * Called when an assertion passes or fails, before its error is thrown.
+     *
+     * @param event outcome, phase durations and document sizes of the assertion.
+     */
+    void onAssertion(AssertionEvent event);
+
+    /**
+     * Called when the failure message of an assertion is rendered, on the thread reading it. Does nothing
+     * by default.
+     *
+     * @param event         event of the failed assertion.
+     * @param durationNanos rendering duration in nanoseconds.
+     */
+    default void onMessageRendered(final AssertionEvent event, final long durationNanos) {
+        // Rendering is not reported unless overridden
+    }
+
+    /**
+     * Registers a listener of all assertions of the JVM.
+     *
+     * @param listener listener.
+     */
+    static void register(final AssertionListener listener) {
+        AssertionRecorder.register(listener);
+    }
+
+    /**
+     * Unregisters a listener of all assertions of the JVM.
+     *
+     * @param listener listener registered with {@link #register}.
+     */
+    static void unregister(final AssertionListener listener) {
+        AssertionRecorder.unregister(listener);
+    }
+}
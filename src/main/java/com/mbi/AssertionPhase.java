@@ -0,0 +1,36 @@
+package com.mbi;
+
+/**
+ * Phases of an assertion timed for {@link AssertionListener}s.
+ * <p>
+ * A phase that an assertion does not go through is reported with a zero duration, e.g. {@link #PARSE} for
+ * documents passed as trees or {@link #ARRAY_MATCHING} outside extensible modes.
+ */
+public enum AssertionPhase {
+
+    /**
+     * Reading documents from response bodies or files into trees, or copying Jackson trees.
+     */
+    PARSE,
+
+    /**
+     * Applying ignored and compared-only fields.
+     */
+    FILTER,
+
+    /**
+     * Selecting the actual array elements present in the expected array, in extensible modes.
+     */
+    ARRAY_MATCHING,
+
+    /**
+     * Comparison of the documents, including reading of documents compared while they are read.
+     */
+    COMPARE,
+
+    /**
+     * Rendering of the failure message. Messages are rendered when first read, after the assertion event is emitted,
+     * so this phase is reported by {@link AssertionListener#onMessageRendered}.
+     */
+    RENDER
+}
@@ -0,0 +1,421 @@
+package com.mbi;
+
+import org.apache.commons.lang3.Validate;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Measurements of one assertion, emitted to {@link AssertionListener}s as an {@link AssertionEvent} and to
+ * Flight Recorder as {@link JfrAssertionEvent} and {@link JfrPhaseEvent}s.
+ * <p>
+ * Phases are timed with {@link #begin} and {@link #end}; an assertion without listeners that is not recorded
+ * by Flight Recorder uses {@link #NONE}, which neither reads the clock nor records anything. An assertion emits
+ * one event, when it passes or fails. Instances are confined to the asserting thread, except for the rendering
+ * of the failure message.
+ */
+final class AssertionRecorder {
+
+    /**
+     * Operation name of equality assertions.
+     */
+    public static final String JSON_EQUALS = "jsonEquals";
+
+    /**
+     * Operation name of inequality assertions.
+     */
+    public static final String JSON_NOT_EQUALS = "jsonNotEquals";
+
+    /**
+     * Operation name of JSON Lines assertions.
+     */
+    public static final String JSON_LINES_EQUALS = "jsonLinesEquals";
+
+    /**
+     * Operation name of compiled document assertions.
+     */
+    public static final String ASSERT_MATCHES = "assertMatches";
+
+    /**
+     * Recorder of assertions that are not measured.
+     */
+    public static final AssertionRecorder NONE =
+            new AssertionRecorder(null, AssertionSpec.DEFAULT, List.of(), null);
+
+    /**
+     * Listeners of all assertions: registered ones and service providers.
+     */
+    private static final List<AssertionListener> GLOBAL = new CopyOnWriteArrayList<>(
+            ServiceLoader.load(AssertionListener.class).stream().map(ServiceLoader.Provider::get).toList());
+
+    /**
+     * Name of the assertion method.
+     */
+    private final String operation;
+
+    /**
+     * Comparison mode.
+     */
+    private final CompareMode mode;
+
+    /**
+     * Number of ignored and compared-only field paths.
+     */
+    private final int paths;
+
+    /**
+     * Listeners to notify.
+     */
+    private final List<AssertionListener> listeners;
+
+    /**
+     * Flight Recorder event of the assertion; {@code null} if not recorded.
+     */
+    private final JfrAssertionEvent recording;
+
+    /**
+     * Started Flight Recorder events by phase ordinal; {@code null} if not recorded.
+     */
+    private final JfrPhaseEvent[] phases;
+
+    /**
+     * Whether the assertion is measured.
+     */
+    private final boolean enabled;
+
+    /**
+     * Phase durations in nanoseconds by phase ordinal.
+     */
+    private final long[] durations = new long[AssertionPhase.values().length];
+
+    /**
+     * Start time of the assertion.
+     */
+    private final long started;
+
+    /**
+     * Size of the expected source in bytes.
+     */
+    private long expectedSize = AssertionEvent.UNKNOWN;
+
+    /**
+     * Size of the actual source in bytes.
+     */
+    private long actualSize = AssertionEvent.UNKNOWN;
+
+    /**
+     * Number of members or elements of the expected document.
+     */
+    private int expectedElements = AssertionEvent.UNKNOWN;
+
+    /**
+     * Number of members or elements of the actual document.
+     */
+    private int actualElements = AssertionEvent.UNKNOWN;
+
+    /**
+     * Emitted event; {@code null} until the assertion passes or fails.
+     */
+    private AssertionEvent event;
+
+    /**
+     * Constructor; starts the clock if the assertion is measured.
+     *
+     * @param operation name of the assertion method.
+     * @param spec      assertion configuration.
+     * @param listeners listeners to notify.
+     * @param recording started Flight Recorder event; {@code null} if not recorded.
+     */
+    private AssertionRecorder(final String operation, final AssertionSpec spec,
+                              final List<AssertionListener> listeners, final JfrAssertionEvent recording) {
+        this.operation = operation;
+        this.mode = spec.getMode();
+        this.paths = spec.getPathCount();
+        this.listeners = listeners;
+        this.recording = recording;
+        this.phases = recording == null ? null : new JfrPhaseEvent[durations.length];
+        this.enabled = recording != null || !listeners.isEmpty();
+        this.started = enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Starts recording an assertion for the listeners of the spec, the global ones and Flight Recorder.
+     *
+     * @param operation name of the assertion method.
+     * @param spec      assertion configuration.
+     * @return new recorder, or {@link #NONE} if the assertion is not measured.
+     */
+    public static AssertionRecorder start(final String operation, final AssertionSpec spec) {
+        final var recording = new JfrAssertionEvent();
+        AssertionRecorder recorder = NONE;
+        if (recording.isEnabled() || !spec.getListeners().isEmpty() || !GLOBAL.isEmpty()) {
+            final var all = new ArrayList<>(spec.getListeners());
+            all.addAll(GLOBAL);
+            recording.begin();
+            recorder = new AssertionRecorder(operation, spec, all, recording.isEnabled() ? recording : null);
+        }
+        return recorder;
+    }
+
+    /**
+     * Registers a listener of all assertions.
+     *
+     * @param listener listener.
+     */
+    public static void register(final AssertionListener listener) {
+        Validate.notNull(listener, "Assertion listener is null");
+        GLOBAL.add(listener);
+    }
+
+    /**
+     * Unregisters a listener of all assertions.
+     *
+     * @param listener listener.
+     */
+    public static void unregister(final AssertionListener listener) {
+        GLOBAL.remove(listener);
+    }
+
+    /**
+     * Starts timing a phase.
+     *
+     * @param phase assertion phase.
+     * @return start time to pass to {@link #end}; 0 if the assertion is not measured.
+     */
+    public long begin(final AssertionPhase phase) {
+        long begun = 0;
+        if (enabled) {
+            if (phases != null) {
+                final var recorded = new JfrPhaseEvent();
+                recorded.begin();
+                phases[phase.ordinal()] = recorded;
+            }
+            begun = System.nanoTime();
+        }
+        return begun;
+    }
+
+    /**
+     * Adds the time elapsed since {@link #begin} to a phase.
+     *
+     * @param phase assertion phase.
+     * @param begun start time returned by {@link #begin}.
+     */
+    public void end(final AssertionPhase phase, final long begun) {
+        if (enabled) {
+            durations[phase.ordinal()] += System.nanoTime() - begun;
+            if (phases != null) {
+                phases[phase.ordinal()].record(operation, mode, phase);
+            }
+        }
+    }
+
+    /**
+     * Records the sizes of compared files.
+     *
+     * @param expected expected file.
+     * @param actual   actual file.
+     */
+    public void sizes(final Path expected, final Path actual) {
+        if (enabled) {
+            expectedSize = size(expected);
+            actualSize = size(actual);
+        }
+    }
+
+    /**
+     * Records the element counts of compared documents.
+     *
+     * @param expected expected document.
+     * @param actual   actual document; {@code null} if not kept as a tree.
+     */
+    public void elements(final Object expected, final Object actual) {
+        if (enabled) {
+            expectedElements = count(expected);
+            actualElements = count(actual);
+        }
+    }
+
+    /**
+     * Records the element counts of compared documents, for an actual document counted while it was read.
+     *
+     * @param expected       expected document.
+     * @param actualElements number of members or elements of the actual document, or {@link AssertionEvent#UNKNOWN}.
+     */
+    public void elements(final Object expected, final int actualElements) {
+        if (enabled) {
+            expectedElements = count(expected);
+            this.actualElements = actualElements;
+        }
+    }
+
+    /**
+     * Emits the event of a passed assertion.
+     */
+    public void passed() {
+        emit(true, 0);
+    }
+
+    /**
+     * Emits the event of a failed assertion and times the rendering of its message.
+     *
+     * @param error assertion error about to be thrown.
+     * @return the error.
+     */
+    public JsonAssertionError failed(final JsonAssertionError error) {
+        emit(false, error.getDifferences().size());
+        if (enabled) {
+            error.setRecorder(this);
+        }
+        return error;
+    }
+
+    /**
+     * Renders a failure message and reports the rendering duration.
+     *
+     * @param renderer message renderer.
+     * @return failure message.
+     */
+    public String render(final Supplier<String> renderer) {
+        final long begun = begin(AssertionPhase.RENDER);
+        final var message = renderer.get();
+        if (enabled) {
+            final long duration = System.nanoTime() - begun;
+            end(AssertionPhase.RENDER, begun);
+            for (final var listener : listeners) {
+                listener.onMessageRendered(event, duration);
+            }
+        }
+        return message;
+    }
+
+    /**
+     * Returns the name of the assertion method.
+     *
+     * @return operation name.
+     */
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * Returns the comparison mode.
+     *
+     * @return comparison mode.
+     */
+    public CompareMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Returns a copy of the phase durations.
+     *
+     * @return durations in nanoseconds by phase ordinal.
+     */
+    public long[] getDurations() {
+        return durations.clone();
+    }
+
+    /**
+     * Returns the time elapsed since the assertion started.
+     *
+     * @return duration in nanoseconds.
+     */
+    public long getElapsed() {
+        return System.nanoTime() - started;
+    }
+
+    /**
+     * Returns the size of the expected source.
+     *
+     * @return size in bytes, or {@link AssertionEvent#UNKNOWN}.
+     */
+    public long getExpectedSize() {
+        return expectedSize;
+    }
+
+    /**
+     * Returns the size of the actual source.
+     *
+     * @return size in bytes, or {@link AssertionEvent#UNKNOWN}.
+     */
+    public long getActualSize() {
+        return actualSize;
+    }
+
+    /**
+     * Returns the number of members or elements of the expected document.
+     *
+     * @return element count, or {@link AssertionEvent#UNKNOWN}.
+     */
+    public int getExpectedElements() {
+        return expectedElements;
+    }
+
+    /**
+     * Returns the number of members or elements of the actual document.
+     *
+     * @return element count, or {@link AssertionEvent#UNKNOWN}.
+     */
+    public int getActualElements() {
+        return actualElements;
+    }
+
+    /**
+     * Returns the size of a file.
+     *
+     * @param file file.
+     * @return size in bytes, or {@link AssertionEvent#UNKNOWN} if it cannot be read.
+     */
+    private static long size(final Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return AssertionEvent.UNKNOWN;
+        }
+    }
+
+    /**
+     * Returns the number of top-level members or elements of a document.
+     *
+     * @param document JSON object or array.
+     * @return element count, or {@link AssertionEvent#UNKNOWN} for other values.
+     */
+    private static int count(final Object document) {
+        final int count;
+        if (document instanceof JSONObject object) {
+            count = object.length();
+        } else if (document instanceof JSONArray array) {
+            count = array.length();
+        } else {
+            count = AssertionEvent.UNKNOWN;
+        }
+        return count;
+    }
+
+    /**
+     * Notifies the listeners and commits the Flight Recorder event once per assertion.
+     *
+     * @param passed          whether the assertion passed.
+     * @param differenceCount number of differences found.
+     */
+    private void emit(final boolean passed, final int differenceCount) {
+        if (enabled && event == null) {
+            event = new AssertionEvent(this, passed, differenceCount);
+            if (recording != null) {
+                recording.record(event, paths);
+            }
+            for (final var listener : listeners) {
+                listener.onAssertion(event);
+            }
+        }
+    }
+}
@@ -0,0 +1,719 @@
+package com.mbi;
+
+import io.restassured.response.Response;
+import org.apache.commons.lang3.Validate;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+import static com.mbi.AssertionUtils.objectsToArray;
+
+/**
+ * Immutable JSON assertion configuration: compare mode, ignored and compared-only fields, failure message limits,
+ * streaming, parallelism, the number of differences to collect and assertion listeners.
+ * <p>
+ * Field paths are compiled once, when the spec is built. Every {@code with*}, {@code ignore} and
+ * {@code compareOnly} call returns a new spec and leaves this one unchanged, so a spec can be kept in a constant
+ * and shared by tests running in parallel:
+ * <pre>{@code
+ * private static final AssertionSpec SPEC = AssertionSpec.DEFAULT
+ *         .withMode(CompareMode.ORDERED)
+ *         .ignore("id", "createdAt");
+ *
+ * SPEC.jsonEquals(actual, expected);
+ * }</pre>
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class AssertionSpec implements Assert {
+
+    /**
+     * Default configuration: {@link CompareMode#NOT_ORDERED}, all fields compared, documents compared as trees
+     * on the calling thread, all differences collected, no listeners.
+     */
+    public static final AssertionSpec DEFAULT = new AssertionSpec(new Settings());
+
+    /**
+     * Assertion engine that handles low-level equality logic; stateless.
+     */
+    private static final EqualityAsserter ASSERTER = new EqualityAsserter();
+
+    /**
+     * Comparison mode.
+     */
+    private final CompareMode mode;
+
+    /**
+     * Fields to exclude from comparison.
+     */
+    private final Set<String> blackList;
+
+    /**
+     * Fields to include in comparison (others are ignored).
+     */
+    private final Set<String> whiteList;
+
+    /**
+     * Compiled {@link #blackList} and {@link #whiteList}.
+     */
+    private final FieldFilter filter;
+
+    /**
+     * Identity keys of array elements.
+     */
+    private final ArrayKeys arrayKeys;
+
+    /**
+     * Failure message rendering limits.
+     */
+    private final MessageLimits limits;
+
+    /**
+     * Whether response bodies are compared while they are read.
+     */
+    private final boolean streaming;
+
+    /**
+     * Fork/join configuration of tree comparisons.
+     */
+    private final Parallelism parallelism;
+
+    /**
+     * Number of differences after which a comparison stops.
+     */
+    private final int maxDifferences;
+
+    /**
+     * Listeners notified after each assertion.
+     */
+    private final List<AssertionListener> listeners;
+
+    /**
+     * Constructor; compiles the field paths unless the settings carry a compiled filter.
+     *
+     * @param settings configuration values.
+     */
+    private AssertionSpec(final Settings settings) {
+        this.mode = settings.mode;
+        this.blackList = settings.blackList;
+        this.whiteList = settings.whiteList;
+        this.filter = settings.filter == null ? FieldFilter.of(blackList, whiteList) : settings.filter;
+        this.arrayKeys = settings.arrayKeys;
+        this.limits = settings.limits;
+        this.streaming = settings.streaming;
+        this.parallelism = settings.parallelism;
+        this.maxDifferences = settings.maxDifferences;
+        this.listeners = settings.listeners;
+    }
+
+    /**
+     * Compares two JSON objects for equality.
+     */
+    @Override
+    public void jsonEquals(final JSONObject actual, final JSONObject expected) {
+        ASSERTER.assertEquals(actual, expected, this, AssertionRecorder.start(AssertionRecorder.JSON_EQUALS, this));
+    }
+
+    /**
+     * Compares two JSON arrays for equality.
+     */
+    @Override
+    public void jsonEquals(final JSONArray actual, final JSONArray expected) {
+        ASSERTER.assertEquals(actual, expected, this, AssertionRecorder.start(AssertionRecorder.JSON_EQUALS, this));
+    }
+
+    /**
+     * Compares a JSON array with one or more expected JSON objects.
+     * Treats expected objects as array elements.
+     */
+    @Override
+    public void jsonEquals(final JSONArray actual, final JSONObject... expected) {
+        jsonEquals(actual, objectsToArray(expected));
+    }
+
+    /**
+     * Compares a REST-assured response (array body) with expected JSON array.
+     */
+    @Override
+    public void jsonEquals(final Response actual, final JSONArray expected) {
+        final var recorder = AssertionRecorder.start(AssertionRecorder.JSON_EQUALS, this);
+        if (streaming) {
+            ASSERTER.assertStreamEquals(actual.asInputStream(), expected, this, recorder);
+        } else if (!filter.isEmpty()) {
+            final byte[] body = actual.asByteArray();
+            ASSERTER.assertEquals(() -> JsonReader.open(body), expected, this, recorder);
+        } else {
+            final long parsing = recorder.begin(AssertionPhase.PARSE);
+            final var document = new JSONArray(actual.asString());
+            recorder.end(AssertionPhase.PARSE, parsing);
+            ASSERTER.assertEquals(document, expected, this, recorder);
+        }
+    }
+
+    /**
+     * Compares a REST-assured response (object body) with expected JSON object.
+     */
+    @Override
+    public void jsonEquals(final Response actual, final JSONObject expected) {
+        final var recorder = AssertionRecorder.start(AssertionRecorder.JSON_EQUALS, this);
+        if (streaming) {
+            ASSERTER.assertStreamEquals(actual.asInputStream(), expected, this, recorder);
+        } else if (!filter.isEmpty()) {
+            final byte[] body = actual.asByteArray();
+            ASSERTER.assertEquals(() -> JsonReader.open(body), expected, this, recorder);
+        } else {
+            final long parsing = recorder.begin(AssertionPhase.PARSE);
+            final var document = new JSONObject(actual.asString());
+            recorder.end(AssertionPhase.PARSE, parsing);
+            ASSERTER.assertEquals(document, expected, this, recorder);
+        }
+    }
+
+    /**
+     * Compares a REST-assured response (array body) with expected JSON objects (as array).
+     */
+    @Override
+    public void jsonEquals(final Response actual, final JSONObject... expected) {
+        jsonEquals(actual, objectsToArray(expected));
+    }
+
+    /**
+     * Compares two JSON files. Both files are memory-mapped; byte-identical files are not compared as trees,
+     * otherwise the actual file is compared while it is read.
+     */
+    @Override
+    public void jsonEquals(final Path actual, final Path expected) {
+        ASSERTER.assertEquals(actual, expected, this, AssertionRecorder.start(AssertionRecorder.JSON_EQUALS, this));
+    }
+
+    /**
+     * Parses two documents once and compares them for equality; with field filters, the actual document
+     * is filtered while it is parsed. Without field filters, identical inputs are equal without being parsed.
+     */
+    @Override
+    public void jsonEquals(final String actual, final String expected) {
+        assertSourceEquals(JsonReader::open, RawContent::isIdentical, actual, expected);
+    }
+
+    /**
+     * Parses two documents once and compares them for equality; with field filters, the actual document
+     * is filtered while it is parsed. Without field filters, identical inputs are equal without being parsed.
+     */
+    @Override
+    public void jsonEquals(final byte[] actual, final byte[] expected) {
+        assertSourceEquals(JsonReader::open, RawContent::isIdentical, actual, expected);
+    }
+
+    /**
+     * Parses two documents once and compares them for equality; with field filters, the actual document
+     * is filtered while it is parsed. Without field filters, identical inputs are equal without being parsed.
+     */
+    @Override
+    public void jsonEquals(final ByteBuffer actual, final ByteBuffer expected) {
+        assertSourceEquals(JsonReader::open, RawContent::isIdentical, actual, expected);
+    }
+
+    /**
+     * Parses two documents once and compares them for equality.
+     */
+    @Override
+    public void jsonEquals(final InputStream actual, final InputStream expected) {
+        assertParsedEquals(JsonReader::parse, actual, expected);
+    }
+
+    /**
+     * Compares two JSON Lines streams record by record. Both streams are closed.
+     */
+    @Override
+    public void jsonLinesEquals(final InputStream actual, final InputStream expected) {
+        ASSERTER.assertJsonLinesEquals(actual, expected, this,
+                AssertionRecorder.start(AssertionRecorder.JSON_LINES_EQUALS, this));
+    }
+
+    /**
+     * Compares two JSON Lines files record by record. Both files are memory-mapped; byte-identical files are not
+     * parsed unless fields are filtered.
+     */
+    @Override
+    public void jsonLinesEquals(final Path actual, final Path expected) {
+        ASSERTER.assertJsonLinesEquals(actual, expected, this,
+                AssertionRecorder.start(AssertionRecorder.JSON_LINES_EQUALS, this));
+    }
+
+    /**
+     * Asserts that two JSON objects are not equal.
+     */
+    @Override
+    public void jsonNotEquals(final JSONObject actual, final JSONObject expected) {
+        ASSERTER.assertNotEquals(actual, expected, this,
+                AssertionRecorder.start(AssertionRecorder.JSON_NOT_EQUALS, this));
+    }
+
+    /**
+     * Asserts that two JSON arrays are not equal.
+     */
+    @Override
+    public void jsonNotEquals(final JSONArray actual, final JSONArray expected) {
+        ASSERTER.assertNotEquals(actual, expected, this,
+                AssertionRecorder.start(AssertionRecorder.JSON_NOT_EQUALS, this));
+    }
+
+    /**
+     * Parses two documents once and asserts that they are not equal.
+     */
+    @Override
+    public void jsonNotEquals(final String actual, final String expected) {
+        assertParsedNotEquals(JsonReader::parse, actual, expected);
+    }
+
+    /**
+     * Parses two documents once and asserts that they are not equal.
+     */
+    @Override
+    public void jsonNotEquals(final byte[] actual, final byte[] expected) {
+        assertParsedNotEquals(JsonReader::parse, actual, expected);
+    }
+
+    /**
+     * Parses two documents once and asserts that they are not equal.
+     */
+    @Override
+    public void jsonNotEquals(final ByteBuffer actual, final ByteBuffer expected) {
+        assertParsedNotEquals(JsonReader::parse, actual, expected);
+    }
+
+    /**
+     * Parses two documents once and asserts that they are not equal.
+     */
+    @Override
+    public void jsonNotEquals(final InputStream actual, final InputStream expected) {
+        assertParsedNotEquals(JsonReader::parse, actual, expected);
+    }
+
+    /**
+     * Compiles an expected object with this configuration for repeated comparisons.
+     *
+     * @param expected expected JSON object; must not be modified afterwards
+     * @return matcher of actual documents
+     */
+    public JsonMatcher compile(final JSONObject expected) {
+        return new JsonMatcher(this, expected);
+    }
+
+    /**
+     * Compiles an expected array with this configuration for repeated comparisons.
+     *
+     * @param expected expected JSON array; must not be modified afterwards
+     * @return matcher of actual documents
+     */
+    public JsonMatcher compile(final JSONArray expected) {
+        return new JsonMatcher(this, expected);
+    }
+
+    /**
+     * Returns a spec with another comparison mode.
+     *
+     * @param mode comparison mode
+     * @return new spec
+     */
+    @Override
+    public AssertionSpec withMode(final CompareMode mode) {
+        Validate.notNull(mode, "Compare mode is null");
+        final var settings = new Settings(this);
+        settings.mode = mode;
+        return new AssertionSpec(settings);
+    }
+
+    /**
+     * Returns a spec ignoring the given fields instead of the current ones.
+     *
+     * @param ignoreFieldNames field paths to ignore
+     * @return new spec
+     */
+    @Override
+    public AssertionSpec ignore(final String... ignoreFieldNames) {
+        final var settings = new Settings(this);
+        settings.blackList = Set.copyOf(Arrays.asList(ignoreFieldNames));
+        settings.filter = null;
+        return new AssertionSpec(settings);
+    }
+
+    /**
+     * Returns a spec comparing only the given fields instead of the current ones.
+     *
+     * @param compareFieldNames field paths to include
+     * @return new spec
+     */
+    @Override
+    public AssertionSpec compareOnly(final String... compareFieldNames) {
+        final var settings = new Settings(this);
+        settings.whiteList = Set.copyOf(Arrays.asList(compareFieldNames));
+        settings.filter = null;
+        return new AssertionSpec(settings);
+    }
+
+    /**
+     * Returns a spec matching the elements of arrays at the given path by key fields, in addition to the arrays
+     * already matched by key.
+     *
+     * @param arrayPath path of the array elements, e.g. {@code items[]}
+     * @param keyFields fields identifying an element
+     * @return new spec
+     */
+    @Override
+    public AssertionSpec matchArrayBy(final String arrayPath, final String... keyFields) {
+        final var settings = new Settings(this);
+        settings.arrayKeys = arrayKeys.with(arrayPath, keyFields);
+        return new AssertionSpec(settings);
+    }
+
+    /**
+     * Returns a spec with another maximum failure message length.
+     *
+     * @param maxLength maximum number of characters
+     * @return new spec
+     */
+    @Override
+    public AssertionSpec withMaxMessageLength(final int maxLength) {
+        final var settings = new Settings(this);
+        settings.limits = limits.withMaxLength(maxLength);
+        return new AssertionSpec(settings);
+    }
+
+    /**
+     * Returns a spec with another number of document lines shown around each difference in a failure message.
+     *
+     * @param contextLines number of lines before and after each difference
+     * @return new spec
+     */
+    @Override
+    public AssertionSpec withContextLines(final int contextLines) {
+        final var settings = new Settings(this);
+        settings.limits = limits.withContextLines(contextLines);
+        return new AssertionSpec(settings);
+    }
+
+    /**
+     * Returns a spec comparing response bodies while they are read. Failure messages list the differences only.
+     *
+     * @return new spec
+     */
+    @Override
+    public AssertionSpec withStreaming() {
+        final var settings = new Settings(this);
+        settings.streaming = true;
+        return new AssertionSpec(settings);
+    }
+
+    /**
+     * Returns a spec splitting the comparison of large arrays and objects into fork/join tasks.
+     *
+     * @param parallelism number of threads; 1 compares sequentially
+     * @return new spec
+     */
+    @Override
+    public AssertionSpec withParallelism(final int parallelism) {
+        final var settings = new Settings(this);
+        settings.parallelism = Parallelism.of(parallelism);
+        return new AssertionSpec(settings);
+    }
+
+    /**
+     * Returns a spec stopping the comparison after the given number of differences.
+     *
+     * @param maxDifferences number of differences; 1 fails on the first difference
+     * @return new spec
+     */
+    @Override
+    public AssertionSpec withMaxDifferences(final int maxDifferences) {
+        Validate.isTrue(maxDifferences > 0, "Max differences must be positive: %d", maxDifferences);
+        final var settings = new Settings(this);
+        settings.maxDifferences = maxDifferences;
+        return new AssertionSpec(settings);
+    }
+
+    /**
+     * Returns a spec notifying the listener after each assertion, in addition to the current listeners.
+     *
+     * @param listener assertion listener
+     * @return new spec
+     */
+    public AssertionSpec withListener(final AssertionListener listener) {
+        Validate.notNull(listener, "Assertion listener is null");
+        final var settings = new Settings(this);
+        final var all = new ArrayList<>(listeners);
+        all.add(listener);
+        settings.listeners = List.copyOf(all);
+        return new AssertionSpec(settings);
+    }
+
+    /**
+     * Specs are equal if all their settings are equal.
+     *
+     * @param obj object to compare with.
+     * @return true if equal.
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        return obj instanceof AssertionSpec other
+                && mode == other.mode
+                && blackList.equals(other.blackList)
+                && whiteList.equals(other.whiteList)
+                && arrayKeys.equals(other.arrayKeys)
+                && limits.equals(other.limits)
+                && streaming == other.streaming
+                && parallelism.equals(other.parallelism)
+                && maxDifferences == other.maxDifferences
+                && listeners.equals(other.listeners);
+    }
+
+    /**
+     * Returns a hash code consistent with {@link #equals(Object)}.
+     *
+     * @return hash code.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(mode, blackList, whiteList, arrayKeys, limits, streaming, parallelism, maxDifferences,
+                listeners);
+    }
+
+    /**
+     * Reads two documents and asserts that they are equal.
+     *
+     * @param reader   reads a source into a document.
+     * @param actual   actual source.
+     * @param expected expected source.
+     * @param <T>      type of sources.
+     */
+    /* default */ <T> void assertParsedEquals(final Function<T, Object> reader, final T actual, final T expected) {
+        final var recorder = AssertionRecorder.start(AssertionRecorder.JSON_EQUALS, this);
+        final long parsing = recorder.begin(AssertionPhase.PARSE);
+        final var actualDocument = reader.apply(actual);
+        final var expectedDocument = reader.apply(expected);
+        recorder.end(AssertionPhase.PARSE, parsing);
+        ASSERTER.assertDocumentsEqual(actualDocument, expectedDocument, this, recorder);
+    }
+
+    /**
+     * Reads two documents that can be read again and asserts that they are equal. Without field filters, identical
+     * sources are equal in every mode and are accepted without being parsed. With field filters, the actual
+     * document is filtered while it is parsed, and parsed again only to render a failure message.
+     *
+     * @param opener    opens a reader of a source.
+     * @param identical tells whether two sources have the same content.
+     * @param actual    actual source.
+     * @param expected  expected source.
+     * @param <T>       type of sources.
+     */
+    private <T> void assertSourceEquals(final Function<T, JsonReader> opener, final BiPredicate<T, T> identical,
+                                        final T actual, final T expected) {
+        final var recorder = AssertionRecorder.start(AssertionRecorder.JSON_EQUALS, this);
+        final long comparing = recorder.begin(AssertionPhase.COMPARE);
+        final boolean same = filter.isEmpty() && identical.test(actual, expected);
+        recorder.end(AssertionPhase.COMPARE, comparing);
+        if (same) {
+            recorder.passed();
+        } else if (filter.isEmpty()) {
+            final long parsing = recorder.begin(AssertionPhase.PARSE);
+            final var actualDocument = JsonReader.parse(opener.apply(actual));
+            final var expectedDocument = JsonReader.parse(opener.apply(expected));
+            recorder.end(AssertionPhase.PARSE, parsing);
+            ASSERTER.assertDocumentsEqual(actualDocument, expectedDocument, this, recorder);
+        } else {
+            final long parsing = recorder.begin(AssertionPhase.PARSE);
+            final var expectedDocument = JsonReader.parse(opener.apply(expected));
+            recorder.end(AssertionPhase.PARSE, parsing);
+            ASSERTER.assertEquals(() -> opener.apply(actual), expectedDocument, this, recorder);
+        }
+    }
+
+    /**
+     * Reads two documents and asserts that they are not equal.
+     *
+     * @param reader   reads a source into a document.
+     * @param actual   actual source.
+     * @param expected expected source.
+     * @param <T>      type of sources.
+     */
+    /* default */ <T> void assertParsedNotEquals(final Function<T, Object> reader, final T actual,
+                                               final T expected) {
+        final var recorder = AssertionRecorder.start(AssertionRecorder.JSON_NOT_EQUALS, this);
+        final long parsing = recorder.begin(AssertionPhase.PARSE);
+        final var actualDocument = reader.apply(actual);
+        final var expectedDocument = reader.apply(expected);
+        recorder.end(AssertionPhase.PARSE, parsing);
+        ASSERTER.assertDocumentsNotEqual(actualDocument, expectedDocument, this, recorder);
+    }
+
+    /**
+     * Returns the comparison mode.
+     *
+     * @return comparison mode.
+     */
+    /* default */ CompareMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Returns the compiled ignore/compareOnly configuration.
+     *
+     * @return field filter.
+     */
+    /* default */ FieldFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     * Returns the identity keys of array elements.
+     *
+     * @return array keys.
+     */
+    /* default */ ArrayKeys getArrayKeys() {
+        return arrayKeys;
+    }
+
+    /**
+     * Returns whether an actual root array is reduced to the elements equal to expected ones before it is
+     * compared: in extensible modes, unless root elements are matched by key.
+     *
+     * @return true if common elements are compared.
+     */
+    /* default */ boolean usesCommonArray() {
+        return mode.isExtensibleArray() && !arrayKeys.hasRoot();
+    }
+
+    /**
+     * Returns the failure message rendering limits.
+     *
+     * @return message limits.
+     */
+    /* default */ MessageLimits getLimits() {
+        return limits;
+    }
+
+    /**
+     * Returns the fork/join configuration of tree comparisons.
+     *
+     * @return parallelism.
+     */
+    /* default */ Parallelism getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Returns the number of differences after which a comparison stops.
+     *
+     * @return maximum number of differences.
+     */
+    /* default */ int getMaxDifferences() {
+        return maxDifferences;
+    }
+
+    /**
+     * Returns the number of ignored and compared-only field paths.
+     *
+     * @return number of paths.
+     */
+    /* default */ int getPathCount() {
+        return blackList.size() + whiteList.size();
+    }
+
+    /**
+     * Returns the listeners notified after each assertion.
+     *
+     * @return listeners.
+     */
+    /* default */ List<AssertionListener> getListeners() {
+        return listeners;
+    }
+
+    /**
+     * Mutable copy of the configuration values, changed by {@code with*} methods before a spec is built.
+     */
+    private static final class Settings {
+
+        /**
+         * Comparison mode.
+         */
+        private CompareMode mode = CompareMode.NOT_ORDERED;
+
+        /**
+         * Fields to exclude from comparison.
+         */
+        private Set<String> blackList = Set.of();
+
+        /**
+         * Fields to include in comparison.
+         */
+        private Set<String> whiteList = Set.of();
+
+        /**
+         * Compiled field lists; {@code null} if they changed.
+         */
+        private FieldFilter filter;
+
+        /**
+         * Identity keys of array elements.
+         */
+        private ArrayKeys arrayKeys = ArrayKeys.NONE;
+
+        /**
+         * Failure message rendering limits.
+         */
+        private MessageLimits limits = MessageLimits.DEFAULT;
+
+        /**
+         * Whether response bodies are compared while they are read.
+         */
+        private boolean streaming;
+
+        /**
+         * Fork/join configuration of tree comparisons.
+         */
+        private Parallelism parallelism = Parallelism.NONE;
+
+        /**
+         * Number of differences after which a comparison stops.
+         */
+        private int maxDifferences = JsonComparator.ALL_DIFFERENCES;
+
+        /**
+         * Listeners notified after each assertion.
+         */
+        private List<AssertionListener> listeners = List.of();
+
+        /**
+         * Default settings.
+         */
+        private Settings() {
+        }
+
+        /**
+         * Settings of an existing spec.
+         *
+         * @param spec spec to copy.
+         */
+        private Settings(final AssertionSpec spec) {
+            this.mode = spec.mode;
+            this.blackList = spec.blackList;
+            this.whiteList = spec.whiteList;
+            this.filter = spec.filter;
+            this.arrayKeys = spec.arrayKeys;
+            this.limits = spec.limits;
+            this.streaming = spec.streaming;
+            this.parallelism = spec.parallelism;
+            this.maxDifferences = spec.maxDifferences;
+            this.listeners = spec.listeners;
+        }
+    }
+}
@@ -1,18 +1,14 @@
 package com.mbi;
 
-import com.github.wnameless.json.flattener.FlattenMode;
-import com.github.wnameless.json.flattener.JsonFlattener;
-import com.github.wnameless.json.unflattener.JsonUnflattener;
-import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.json.JSONArray;
-import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.util.*;
-import java.util.function.BiFunction;
-import java.util.function.BiPredicate;
-import java.util.function.Function;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Utility class for advanced JSON comparison and transformation logic.
@@ -24,153 +20,214 @@ import java.util.function.Function;
 final class AssertionUtils {
 
     /**
-     * Fields separator in flattened json.
+     * Prevent instantiation.
      */
-    private static final String FIELD_SEPARATOR = ".";
+    private AssertionUtils() {
+    }
 
     /**
-     * Predicate that checks if a given flattened JSON key belongs to any of the provided parent paths.
-     * Used for applying include/exclude rules based on JSON field hierarchy.
+     * Filters a JSONObject based on a blackList (ignore fields) and whiteList (include only).
+     *
+     * @param input     Original JSON object.
+     * @param blackList Fields to exclude (ignored).
+     * @param whiteList Fields to include (whiteList).
+     * @return Filtered JSON object.
+     * @see #filterFields(JSONObject, FieldFilter)
      */
-    private static final BiPredicate<String, Set<String>> IS_CHILD_FIELD = (flattenedJsonKey, parents) ->
-            parents.stream().anyMatch(parent ->
-                    flattenedJsonKey.startsWith(parent + FIELD_SEPARATOR)
-                            || flattenedJsonKey.equalsIgnoreCase(parent)
-                            || isArrayFieldMatch(parent, flattenedJsonKey));
+    public static JSONObject filterFields(final JSONObject input, final Set<String> blackList,
+                                          final Set<String> whiteList) {
+        return filterFields(input, FieldFilter.of(blackList, whiteList));
+    }
 
     /**
-     * Split field by field separator.
+     * Filters a JSONObject with a compiled ignore/compareOnly configuration.
+     * <p>
+     * The object is pruned in a single recursive walk over the original tree, following the compiled path tries.
+     * Every leaf value (scalar, null, empty object or empty array) is kept or removed as a whole, together with
+     * the subtree it belongs to. Objects and arrays left without leaves are removed; removed array elements
+     * followed by kept ones are replaced with nulls to preserve indexes. Subtrees not affected by the filter are
+     * shared with the input rather than copied. The input is never modified.
+     *
+     * @param input  Original JSON object.
+     * @param filter Compiled fields to exclude and include.
+     * @return Filtered JSON object.
      */
-    private static final Function<String, String[]> SPLIT_KEYS = s -> s.split("\\.");
+    public static JSONObject filterFields(final JSONObject input, final FieldFilter filter) {
+        Validate.notNull(input, "Json to filter is null");
 
-    /**
-     * Given a parent key, returns all children fields from the given key set that belong to that parent.
-     */
-    private static final BiFunction<Set<String>, String, List<String>> CHILD_KEYS = (parentFields, parent) -> {
-        final var list = new ArrayList<String>();
-        for (final var key : parentFields) {
-            final var regex = parent.replace("[", "\\[").replace("]", "\\]") + "\\..*";
-            if (key.equalsIgnoreCase(parent) || key.matches(regex)) {
-                list.add(key);
-            }
+        final var result = (JSONObject) pruneValue(input, filter.getWhiteList(), filter.getBlackList());
+        // Check result != {} to avoid removing all fields from json
+        if (result == null || result.isEmpty()) {
+            throw new IllegalArgumentException("You removed all fields from json!\nOriginal:\n" + input.toString(2));
         }
-        return list;
-    };
+
+        return result;
+    }
 
     /**
-     * Returns the minimum number of dot-separated segments across all children field names.
-     * Used to determine the shallowest level of nesting among a group of fields.
-     * ["as.ew.er", "ds.sd', "asd.a"] -> 1
-     * ["as.ew.er", "ds.sd', "asd"] -> 0
+     * Filters a JSONArray of JSONObjects using the same include/exclude logic as `filterFields(JSONObject)`.
+     * If any item is not a JSONObject, the original array is returned.
+     *
+     * @param input     Original array.
+     * @param blacklist Fields to exclude.
+     * @param whitelist Fields to include.
+     * @return Filtered array.
      */
-    private static final Function<List<String>, Integer> MIN_DOT_DEPTH = children ->
-            children.stream()
-                    .mapToInt(child -> StringUtils.countMatches(child, FIELD_SEPARATOR))
-                    .min()
-                    .orElse(0);
+    public static JSONArray filterFields(final JSONArray input, final Set<String> blacklist,
+                                         final Set<String> whitelist) {
+        return filterFields(input, FieldFilter.of(blacklist, whitelist));
+    }
 
     /**
-     * Reduces a list of deeply nested fields into their top-level path up to the shallowest shared depth.
-     * Example: ["a.b.c", "a.b.d"] → ["a.b"]
+     * Filters a JSONArray of JSONObjects with a compiled ignore/compareOnly configuration.
+     * If any item is not a JSONObject, the original array is returned.
+     *
+     * @param input  Original array.
+     * @param filter Compiled fields to exclude and include.
+     * @return Filtered array.
      */
-    private static final Function<List<String>, Set<String>> TOP_LEVEL_FIELDS = children -> {
-        final var result = new HashSet<String>();
-        final int depth = MIN_DOT_DEPTH.apply(children);
+    public static JSONArray filterFields(final JSONArray input, final FieldFilter filter) {
+        // Json array may consist of not json objects (e.g.: [1, 2, 5]).
+        // In this case return original json array
+        for (final var item : input) {
+            if (!(item instanceof JSONObject)) {
+                return input; // skip filtering if any item is not a JSONObject
+            }
+        }
 
-        for (final var key : children) {
-            final var parts = SPLIT_KEYS.apply(key);
-            result.add(String.join(FIELD_SEPARATOR, Arrays.copyOf(parts, depth + 1)));
+        final var result = new JSONArray(input.length());
+        for (final var item : input) {
+            result.put(filterFields((JSONObject) item, filter));
         }
 
         return result;
-    };
+    }
 
     /**
-     * Reduces a full set of field names to their minimal distinguishable top-level segments.
-     * Helps simplify field path matching.
+     * Filters a JSON value of any type: objects and arrays as described above, scalars are returned as they are.
+     *
+     * @param input  Original value.
+     * @param filter Compiled fields to exclude and include.
+     * @return Filtered value.
      */
-    private static final Function<Set<String>, Set<String>> REDUCE_TO_TOP_LEVEL = keys -> {
-        final var result = new HashSet<String>();
-        for (final var key : keys) {
-            final var top = SPLIT_KEYS.apply(key)[0];
-            result.addAll(TOP_LEVEL_FIELDS.apply(CHILD_KEYS.apply(keys, top)));
+    public static Object filterValue(final Object input, final FieldFilter filter) {
+        final Object result;
+        if (input instanceof JSONObject object) {
+            result = filterFields(object, filter);
+        } else if (input instanceof JSONArray array) {
+            result = filterFields(array, filter);
+        } else {
+            result = input;
         }
         return result;
-    };
+    }
 
     /**
-     * Prevent instantiation.
+     * Prunes a value following the whitelist and blacklist tries.
+     *
+     * @param value     value to prune.
+     * @param whiteList remaining whitelist below the value; {@code null} if everything is included.
+     * @param blackList remaining blacklist below the value; {@code null} if nothing is excluded.
+     * @return the value itself if nothing below is filtered, a pruned copy, or {@code null} if nothing is kept.
      */
-    private AssertionUtils() {
+    private static Object pruneValue(final Object value, final PathTrie whiteList, final PathTrie blackList) {
+        final Object result;
+        if (whiteList == null && blackList == null) {
+            result = value; // nothing to filter below
+        } else if (value instanceof JSONObject object && !object.isEmpty()) {
+            result = prune(object, whiteList, blackList);
+        } else if (value instanceof JSONArray array && !array.isEmpty()) {
+            result = prune(array, whiteList, blackList);
+        } else {
+            result = whiteList == null ? value : null; // leaf is kept only if whitelisted
+        }
+        return result;
     }
 
     /**
-     * Filters a JSONObject based on a blackList (ignore fields) and whiteList (include only).
-     * The object is flattened first, filtered, and then rebuilt into nested form.
+     * Copies the kept fields of an object.
      *
-     * @param input     Original JSON object.
-     * @param blackList Fields to exclude (ignored).
-     * @param whiteList Fields to include (whiteList).
-     * @return Filtered JSON object.
+     * @param input     object to prune.
+     * @param whiteList remaining whitelist; {@code null} if everything is included.
+     * @param blackList remaining blacklist; {@code null} if nothing is excluded.
+     * @return pruned copy; {@code null} if nothing is kept.
      */
-    public static JSONObject filterFields(final JSONObject input, final Set<String> blackList,
-                                          final Set<String> whiteList) {
-        final var original = new JSONObject(input.toString());
-
-        // Flattened json
-        final var flattened = new JsonFlattener(original.toString())
-                .withFlattenMode(FlattenMode.NORMAL)
-                .flatten();
-
-        final var flat = new JSONObject(flattened);
-
-        final Set<String> keys = flat.keySet();
-        final Set<String> whitelistTop = REDUCE_TO_TOP_LEVEL.apply(whiteList);
-        final Set<String> blacklistTop = REDUCE_TO_TOP_LEVEL.apply(blackList);
-
-        for (final var key : new HashSet<>(keys)) {
-            if (!whiteList.isEmpty() && !IS_CHILD_FIELD.test(key, whitelistTop)) {
-                flat.remove(key); // remove fields not listed in whiteList
-            }
-
-            if (!blackList.isEmpty() && IS_CHILD_FIELD.test(key, blacklistTop)) {
-                flat.remove(key); // remove blacklisted fields
+    private static JSONObject prune(final JSONObject input, final PathTrie whiteList, final PathTrie blackList) {
+        final var result = new JSONObject();
+        for (final var key : input.keySet()) {
+            final var value = pruneField(key, input.opt(key), whiteList, blackList);
+            if (value != null) {
+                result.put(key, value);
             }
         }
+        return result.isEmpty() ? null : result;
+    }
 
-        final var result = new JSONObject(JsonUnflattener.unflatten(flat.toString()));
-        // Check result != {} to avoid removing all fields from json
-        Validate.isTrue(!result.similar(new JSONObject()),
-                "You removed all fields from json!\nOriginal:\n" + input.toString(2));
-
-        return result;
+    /**
+     * Prunes the value of an object field. A leaf value (a scalar or an empty container) also matches a path
+     * ending with the field name in another case.
+     *
+     * @param key       field name.
+     * @param value     field value.
+     * @param whiteList remaining whitelist at the object; {@code null} if everything is included.
+     * @param blackList remaining blacklist at the object; {@code null} if nothing is excluded.
+     * @return the value itself if nothing below is filtered, a pruned copy, or {@code null} if nothing is kept.
+     */
+    public static Object pruneField(final String key, final Object value, final PathTrie whiteList,
+                                    final PathTrie blackList) {
+        final boolean leaf = !(value instanceof JSONObject object && !object.isEmpty())
+                && !(value instanceof JSONArray array && !array.isEmpty());
+        final var white = whiteList == null ? null : whiteList.field(key, leaf);
+        final var black = blackList == null ? null : blackList.field(key, leaf);
+        return isKept(whiteList, white, black) ? pruneValue(value, remaining(white), black) : null;
     }
 
     /**
-     * Filters a JSONArray of JSONObjects using the same include/exclude logic as `filterFields(JSONObject)`.
-     * If any item is not a JSONObject, the original array is returned.
+     * Copies the kept elements of an array. Removed elements that precede kept ones become nulls.
      *
-     * @param input     Original array.
-     * @param blacklist Fields to exclude.
-     * @param whitelist Fields to include.
-     * @return Filtered array.
+     * @param input     array to prune.
+     * @param whiteList remaining whitelist; {@code null} if everything is included.
+     * @param blackList remaining blacklist; {@code null} if nothing is excluded.
+     * @return pruned copy; {@code null} if nothing is kept.
      */
-    public static JSONArray filterFields(final JSONArray input, final Set<String> blacklist,
-                                         final Set<String> whitelist) {
+    private static JSONArray prune(final JSONArray input, final PathTrie whiteList, final PathTrie blackList) {
         final var result = new JSONArray();
-
         for (int i = 0; i < input.length(); i++) {
-            // Json array may consist of not json objects (e.g.: [1, 2, 5]).
-            // In this case return original json array
-            try {
-                final var obj = new JSONObject(input.get(i).toString());
-                result.put(filterFields(obj, blacklist, whitelist));
-            } catch (JSONException ignored) {
-                return input; // skip filtering if any item is not a JSONObject
+            final var white = whiteList == null ? null : whiteList.index(i);
+            final var black = blackList == null ? null : blackList.index(i);
+            final var value = isKept(whiteList, white, black)
+                    ? pruneValue(input.opt(i), remaining(white), black)
+                    : null;
+            if (value != null) {
+                while (result.length() < i) {
+                    result.put(JSONObject.NULL);
+                }
+                result.put(value);
             }
         }
+        return result.isEmpty() ? null : result;
+    }
 
-        return result;
+    /**
+     * Decides whether a child may be kept after one step down the tries.
+     *
+     * @param whiteList whitelist at the parent; {@code null} if everything is included.
+     * @param white     whitelist at the child.
+     * @param black     blacklist at the child.
+     * @return false if the child is not whitelisted or is blacklisted as a whole.
+     */
+    public static boolean isKept(final PathTrie whiteList, final PathTrie white, final PathTrie black) {
+        return (whiteList == null || white != null) && (black == null || !black.isTerminal());
+    }
+
+    /**
+     * Returns the part of the whitelist still to be applied below a child.
+     *
+     * @param white whitelist at the child.
+     * @return whitelist node; {@code null} if the whole child subtree is included.
+     */
+    public static PathTrie remaining(final PathTrie white) {
+        return white == null || white.isTerminal() ? null : white;
     }
 
     /**
@@ -188,86 +245,54 @@ final class AssertionUtils {
     }
 
     /**
-     * Builds a formatted error message for object comparison failure.
-     * Includes expected and actual JSON formatted with indentation.
+     * Returns a JSONArray of expected elements that are present in the actual array
+     * using strict (non-extensible, not ordered) JSON equality.
+     * <p>
+     * Actual elements are counted by their structural hash, so each expected element is compared
+     * only with the actual elements sharing its hash: near linear time instead of expected × actual comparisons.
+     * Each actual element is paired with at most one expected element, so duplicate expected elements need as many
+     * actual ones.
      *
-     * @param error    assertion error.
-     * @param expected expected json object.
-     * @param actual   actual json object.
-     * @return formatted error message.
-     */
-    public static String getErrorMessage(final AssertionError error, final JSONObject expected,
-                                         final JSONObject actual) {
-        return formatError(error, expected.toString(4), actual.toString(4));
-    }
-
-    /**
-     * Builds a formatted error message for array comparison failure.
-     *
-     * @param error    assertion error.
      * @param expected expected json array.
      * @param actual   actual json array.
-     * @return formatted error message.
-     */
-    public static String getErrorMessage(final AssertionError error, final JSONArray expected, final JSONArray actual) {
-        return formatError(error, expected.toString(4), actual.toString(4));
-    }
-
-    /**
-     * Formats error message.
-     *
-     * @param error    assertion error.
-     * @param expected expected json as string with indentations.
-     * @param actual   actual json as string with indentations.
-     * @return error message.
+     * @return json array with common elements, in expected order.
      */
-    private static String formatError(final AssertionError error, final String expected, final String actual) {
-        return String.format("%s%n%nExpected: %s%n%nBut found: %s", error.getMessage(), expected, actual);
+    public static JSONArray getCommonArray(final JSONArray expected, final JSONArray actual) {
+        final var expectedElements = new ArrayList<ComparableObject>(expected.length());
+        for (final var exp : expected) {
+            expectedElements.add(new ComparableObject(exp));
+        }
+        return getCommonArray(expectedElements, actual);
     }
 
     /**
-     * Returns a JSONArray of objects that are present in both expected and actual arrays
-     * using strict (non-extensible) JSON equality.
+     * Returns a JSONArray of expected elements that are present in the actual array, like
+     * {@link #getCommonArray(JSONArray, JSONArray)}, for expected elements wrapped in advance.
      *
-     * @param expected expected json array.
+     * @param expected wrapped expected elements, e.g. with precomputed hashes.
      * @param actual   actual json array.
-     * @return json array with common objects.
+     * @return json array with common elements, in expected order.
      */
-    public static JSONArray getCommonArray(final JSONArray expected, final JSONArray actual) {
-        final Set<ComparableObject> common = new LinkedHashSet<>();
+    public static JSONArray getCommonArray(final List<ComparableObject> expected, final JSONArray actual) {
+        final Map<ComparableObject, Integer> actualCounts = new HashMap<>();
+        for (final var act : actual) {
+            actualCounts.merge(new ComparableObject(act), 1, Integer::sum);
+        }
 
-        // Get a set of expected objects that are common for actual
+        // Get expected elements that are common for actual, each actual element paired at most once
+        final var result = new JSONArray();
         for (final var exp : expected) {
-            final var expectedObj = new ComparableObject(exp);
-            for (final var act : actual) {
-                if (expectedObj.equals(new ComparableObject(act))) {
-                    common.add(expectedObj);
+            final Integer count = actualCounts.get(exp);
+            if (count != null) {
+                result.put(exp.getObject());
+                if (count == 1) {
+                    actualCounts.remove(exp);
+                } else {
+                    actualCounts.put(exp, count - 1);
                 }
             }
         }
 
-        final var result = new JSONArray();
-        for (final var obj : common) {
-            result.put(obj.toJsonObject());
-        }
-
         return result;
     }
-
-    /**
-     * Determines whether a flattened array reference should match the key.
-     * Example:
-     * parentField = "array", key = "array[0].id" => true
-     */
-    private static boolean isArrayFieldMatch(final String parent, final String key) {
-        final boolean parentIsNotIndex = !parent.matches("^\\[\\d+].*");
-        final boolean keyStartsWithParent = key.startsWith(parent);
-
-        if (!keyStartsWithParent || !parentIsNotIndex) {
-            return false;
-        }
-
-        final var suffix = key.substring(parent.length());
-        return suffix.matches("^\\[\\d+].*");
-    }
 }
@@ -0,0 +1,199 @@
+package com.mbi;
+
+import java.util.Arrays;
+
+/**
+ * Minimum-cost bipartite assignment (Hungarian algorithm with potentials, O(rows² × columns)).
+ * <p>
+ * Used to pair unordered array elements that have no equal counterpart with their closest counterparts,
+ * so that a failure reports the differences of the most similar elements rather than whole unmatched elements.
+ */
+final class Assignment {
+
+    /**
+     * Larger than any reachable sum of costs and potentials.
+     */
+    private static final long INFINITY = Long.MAX_VALUE / 4;
+
+    /**
+     * Cost matrix; rows never outnumber columns.
+     */
+    private final int[][] cost;
+
+    /**
+     * Number of columns.
+     */
+    private final int columns;
+
+    /**
+     * Row potentials, 1-based.
+     */
+    private final long[] rowPotential;
+
+    /**
+     * Column potentials, 1-based; index 0 is the virtual column.
+     */
+    private final long[] columnPotential;
+
+    /**
+     * Row assigned to each column, 1-based; 0 if the column is free.
+     */
+    private final int[] columnOwner;
+
+    /**
+     * Previous column on the shortest augmenting path.
+     */
+    private final int[] way;
+
+    /**
+     * Smallest reduced cost reaching each column in the current search.
+     */
+    private final long[] minSlack;
+
+    /**
+     * Columns visited by the current search.
+     */
+    private final boolean[] visited;
+
+    /**
+     * Constructor.
+     *
+     * @param cost cost matrix with no more rows than columns.
+     */
+    private Assignment(final int[][] cost) {
+        this.cost = cost;
+        this.columns = cost[0].length;
+        this.rowPotential = new long[cost.length + 1];
+        this.columnPotential = new long[columns + 1];
+        this.columnOwner = new int[columns + 1];
+        this.way = new int[columns + 1];
+        this.minSlack = new long[columns + 1];
+        this.visited = new boolean[columns + 1];
+    }
+
+    /**
+     * Finds the assignment of rows to columns with the minimum total cost.
+     * Every row is assigned if there are at least as many columns, and vice versa.
+     *
+     * @param cost rectangular cost matrix, {@code cost[row][column]}.
+     * @return column assigned to each row; -1 for rows left without a column.
+     */
+    public static int[] solve(final int[][] cost) {
+        final int[] result;
+        if (cost.length == 0 || cost[0].length == 0) {
+            result = new int[cost.length];
+            Arrays.fill(result, -1);
+        } else if (cost.length <= cost[0].length) {
+            result = new Assignment(cost).run();
+        } else {
+            result = invert(new Assignment(transpose(cost)).run(), cost.length);
+        }
+        return result;
+    }
+
+    /**
+     * Transposes a matrix.
+     *
+     * @param matrix rectangular matrix.
+     * @return transposed matrix.
+     */
+    private static int[][] transpose(final int[][] matrix) {
+        final var transposed = new int[matrix[0].length][matrix.length];
+        for (int row = 0; row < matrix.length; row++) {
+            for (int column = 0; column < matrix[0].length; column++) {
+                transposed[column][row] = matrix[row][column];
+            }
+        }
+        return transposed;
+    }
+
+    /**
+     * Inverts an assignment of the transposed problem.
+     *
+     * @param assignment column assigned to each row of the transposed matrix.
+     * @param rows       number of rows of the original matrix.
+     * @return column assigned to each row of the original matrix; -1 if none.
+     */
+    private static int[] invert(final int[] assignment, final int rows) {
+        final var result = new int[rows];
+        Arrays.fill(result, -1);
+        for (int i = 0; i < assignment.length; i++) {
+            result[assignment[i]] = i;
+        }
+        return result;
+    }
+
+    /**
+     * Assigns all rows one by one.
+     *
+     * @return column assigned to each row.
+     */
+    private int[] run() {
+        for (int row = 1; row <= cost.length; row++) {
+            addRow(row);
+        }
+        final var result = new int[cost.length];
+        for (int column = 1; column <= columns; column++) {
+            if (columnOwner[column] != 0) {
+                result[columnOwner[column] - 1] = column - 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Assigns a row along the shortest augmenting path, reassigning rows on the path.
+     *
+     * @param row 1-based row.
+     */
+    private void addRow(final int row) {
+        columnOwner[0] = row;
+        Arrays.fill(minSlack, INFINITY);
+        Arrays.fill(visited, false);
+        int column = 0;
+        do {
+            column = visit(column);
+        } while (columnOwner[column] != 0);
+
+        do {
+            final int previous = way[column];
+            columnOwner[column] = columnOwner[previous];
+            column = previous;
+        } while (column != 0);
+    }
+
+    /**
+     * Visits a column of the search: relaxes reduced costs from its owner row and updates potentials.
+     *
+     * @param column column to visit.
+     * @return next column to visit, the cheapest unvisited one.
+     */
+    private int visit(final int column) {
+        visited[column] = true;
+        final int row = columnOwner[column];
+        long delta = INFINITY;
+        int next = 0;
+        for (int j = 1; j <= columns; j++) {
+            if (!visited[j]) {
+                final long slack = cost[row - 1][j - 1] - rowPotential[row] - columnPotential[j];
+                if (slack < minSlack[j]) {
+                    minSlack[j] = slack;
+                    way[j] = column;
+                }
+                if (minSlack[j] < delta) {
+                    delta = minSlack[j];
+                    next = j;
+                }
+            }
+        }
+        for (int j = 0; j <= columns; j++) {
+            if (visited[j]) {
+                rowPotential[columnOwner[j]] += delta;
+                columnPotential[j] -= delta;
+            } else {
+                minSlack[j] -= delta;
+            }
+        }
+        return next;
+    }
+}
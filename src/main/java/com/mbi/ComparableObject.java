@@ -2,20 +2,30 @@ package com.mbi;
 
 import org.apache.commons.lang3.Validate;
 import org.json.JSONObject;
-import org.skyscreamer.jsonassert.JSONAssert;
-import org.skyscreamer.jsonassert.JSONCompareMode;
 
 /**
  * Wrapper class to compare JSON-like objects based on content rather than reference.
- * Internally uses {@link JSONAssert} with {@link JSONCompareMode#NON_EXTENSIBLE}.
+ * Equality is strict (non-extensible, not ordered) JSON equality; the hash code is the order-insensitive
+ * structural {@link JsonHash}, computed once and cached, so instances work as keys of hash-based collections.
+ * The wrapped value must not be modified while wrapped.
  */
 final class ComparableObject {
 
     /**
-     * The object to compare. Should be convertible to JSONObject via toString().
+     * The object to compare: JSON object, array or scalar.
      */
     private final Object object;
 
+    /**
+     * Cached structural hash; valid when {@link #hashed} is set.
+     */
+    private int hash;
+
+    /**
+     * Whether the structural hash has been computed.
+     */
+    private boolean hashed;
+
     /**
      * Constructs a wrapper for the object.
      *
@@ -26,6 +36,27 @@ final class ComparableObject {
         this.object = object;
     }
 
+    /**
+     * Constructs a wrapper for the object with its precomputed structural hash.
+     *
+     * @param object object to wrap; must not be null.
+     * @param hash   structural hash of the object, see {@link JsonHash}.
+     */
+    public ComparableObject(final Object object, final int hash) {
+        this(object);
+        this.hash = hash;
+        this.hashed = true;
+    }
+
+    /**
+     * Returns the wrapped object.
+     *
+     * @return wrapped JSON value.
+     */
+    public Object getObject() {
+        return object;
+    }
+
     /**
      * Converts the wrapped object to a {@link JSONObject}.
      *
@@ -36,46 +67,33 @@ final class ComparableObject {
     }
 
     /**
-     * Returns the hash code of the wrapped object.
+     * Returns the structural hash of the wrapped object, consistent with {@link #equals(Object)}.
+     * Computed on first call and cached.
      *
      * @return hash code.
      */
     @Override
     public int hashCode() {
-        return object.hashCode();
+        if (!hashed) {
+            hash = JsonHash.of(object);
+            hashed = true;
+        }
+        return hash;
     }
 
     /**
      * Compares this object to another using strict JSON equality.
      * Returns true if both represent the same JSON structure and values.
+     * Objects with different structural hashes are rejected without a deep comparison.
      *
      * @param obj other object to compare to.
      * @return true if equal based on JSON content; false otherwise.
      */
     @Override
     public boolean equals(final Object obj) {
-        if (!(obj instanceof ComparableObject other)) {
-            return false;
-        }
-
-        return isEqual(this.toJsonObject(), new JSONObject(other.object.toString()));
-    }
-
-    /**
-     * Compares two JSONObjects using NON_EXTENSIBLE mode.
-     * Returns true if they are considered equal, false otherwise.
-     *
-     * @param json1 1st json object.
-     * @param json2 2nd json object.
-     * @return equality result.
-     */
-    private boolean isEqual(final JSONObject json1, final JSONObject json2) {
-        try {
-            JSONAssert.assertEquals(json1, json2, JSONCompareMode.NON_EXTENSIBLE);
-            return true;
-        } catch (AssertionError e) {
-            return false;
-        }
+        return obj instanceof ComparableObject other
+                && hashCode() == other.hashCode()
+                && new JsonComparator(CompareMode.NOT_ORDERED).isEqual(object, other.object);
     }
 
     /**
@@ -1,7 +1,5 @@
 package com.mbi;
 
-import org.skyscreamer.jsonassert.JSONCompareMode;
-
 /**
  * Supported comparison modes for JSON equality checks.
  * <p>
@@ -54,18 +52,6 @@ public enum CompareMode {
         this.extensibleArray = extensibleArray;
     }
 
-    /**
-     * Maps custom CompareMode to the closest JSONCompareMode.
-     *
-     * @param mode compare mode
-     * @return json compare mode
-     */
-    protected static JSONCompareMode getCompareMode(final CompareMode mode) {
-        return mode.isOrdered()
-                ? JSONCompareMode.STRICT
-                : JSONCompareMode.NON_EXTENSIBLE;
-    }
-
     /**
      * Returns if objects in array should be ordered.
      *
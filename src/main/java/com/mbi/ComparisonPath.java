@@ -0,0 +1,143 @@
+package com.mbi;
+
+import java.util.Arrays;
+
+/**
+ * Reusable stack of path segments tracking the current position during a JSON walk.
+ * <p>
+ * Pushing and popping segments does not allocate, so the path costs nothing while values match.
+ * A printable path (e.g. {@code data[0].id}) is built only on demand, once a difference is found.
+ */
+final class ComparisonPath {
+
+    /**
+     * Index value representing the "any element" segment, rendered as {@code []}.
+     */
+    public static final int ANY_INDEX = -1;
+
+    /**
+     * Initial stack capacity; grows when documents are nested deeper.
+     */
+    private static final int INITIAL_DEPTH = 16;
+
+    /**
+     * Field names by depth; {@code null} marks an array index segment.
+     */
+    private String[] names = new String[INITIAL_DEPTH];
+
+    /**
+     * Array indexes by depth, meaningful only where the name is {@code null}.
+     */
+    private int[] indexes = new int[INITIAL_DEPTH];
+
+    /**
+     * Current number of segments.
+     */
+    private int depth;
+
+    /**
+     * Pushes a field name segment.
+     *
+     * @param name field name.
+     */
+    public void push(final String name) {
+        ensureCapacity();
+        names[depth] = name;
+        depth++;
+    }
+
+    /**
+     * Pushes an array index segment.
+     *
+     * @param index element index or {@link #ANY_INDEX}.
+     */
+    public void push(final int index) {
+        ensureCapacity();
+        names[depth] = null;
+        indexes[depth] = index;
+        depth++;
+    }
+
+    /**
+     * Removes the last segment.
+     */
+    public void pop() {
+        depth--;
+        names[depth] = null;
+    }
+
+    /**
+     * Copies the current path, e.g. to continue the walk of a subtree on another thread.
+     *
+     * @return independent path with the same segments.
+     */
+    public ComparisonPath copy() {
+        final var copy = new ComparisonPath();
+        copy.names = Arrays.copyOf(names, names.length);
+        copy.indexes = Arrays.copyOf(indexes, indexes.length);
+        copy.depth = depth;
+        return copy;
+    }
+
+    /**
+     * Renders the current path in flattened notation, e.g. {@code items[2].price}.
+     *
+     * @return current path; empty string for the document root.
+     */
+    public String render() {
+        final var builder = new StringBuilder(depth * 8);
+        for (int i = 0; i < depth; i++) {
+            if (names[i] == null) {
+                builder.append('[');
+                if (indexes[i] != ANY_INDEX) {
+                    builder.append(indexes[i]);
+                }
+                builder.append(']');
+            } else {
+                if (!builder.isEmpty()) {
+                    builder.append('.');
+                }
+                builder.append(names[i]);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Returns whether the walk is at the document root.
+     *
+     * @return true if the path has no segments.
+     */
+    public boolean isRoot() {
+        return depth == 0;
+    }
+
+    /**
+     * Returns the current number of segments, e.g. to match configuration against the path segment by segment.
+     *
+     * @return depth of the path; 0 at the document root.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Returns the field name of a segment.
+     *
+     * @param level segment index, from 0 at the root to {@link #getDepth()} excluded.
+     * @return field name; {@code null} for an array index segment.
+     */
+    public String getName(final int level) {
+        return names[level];
+    }
+
+    /**
+     * Grows the stack if it is full.
+     */
+    private void ensureCapacity() {
+        if (depth == names.length) {
+            names = Arrays.copyOf(names, depth * 2);
+            indexes = Arrays.copyOf(indexes, depth * 2);
+        }
+    }
+}
@@ -0,0 +1,397 @@
+package com.mbi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Shortest edit script between two sequences (Myers' O(ND) difference algorithm, linear-space variant).
+ * <p>
+ * Elements of ordered arrays are matched in order so that as many as possible are equal; the elements left
+ * between matched ones form hunks of deleted expected and inserted actual elements. Each range is trimmed of its
+ * equal ends, its middle snake is found by searching from both ends at once, and both halves are diffed
+ * recursively: memory is bounded by the number of edits searched and time is O((N + M) × D) for D edits.
+ * The search gives up beyond a maximum number of edits, leaving sequences that differ almost everywhere
+ * to another comparison.
+ */
+final class EditScript {
+
+    /**
+     * Tells whether elements of both sequences are equal.
+     */
+    private final Elements elements;
+
+    /**
+     * Maximum number of edits searched from each end of a range.
+     */
+    private final int maxDepth;
+
+    /**
+     * Hunks found so far, in sequence order.
+     */
+    private final List<Hunk> hunks = new ArrayList<>();
+
+    /**
+     * Furthest expected offset reached on each diagonal by the forward search, -1 if none.
+     */
+    private int[] forward;
+
+    /**
+     * Furthest expected offset from the end reached on each diagonal by the backward search, -1 if none.
+     */
+    private int[] backward;
+
+    /**
+     * Index of the diagonal {@code 0} in the search arrays.
+     */
+    private int offset;
+
+    /**
+     * First expected index of the range searched.
+     */
+    private int expectedStart;
+
+    /**
+     * First actual index of the range searched.
+     */
+    private int actualStart;
+
+    /**
+     * Number of expected elements of the range searched.
+     */
+    private int expectedLength;
+
+    /**
+     * Number of actual elements of the range searched.
+     */
+    private int actualLength;
+
+    /**
+     * Diagonals skipped at the bottom by the forward search, having left the range.
+     */
+    private int forwardLow;
+
+    /**
+     * Diagonals skipped at the top by the forward search.
+     */
+    private int forwardHigh;
+
+    /**
+     * Diagonals skipped at the bottom by the backward search.
+     */
+    private int backwardLow;
+
+    /**
+     * Diagonals skipped at the top by the backward search.
+     */
+    private int backwardHigh;
+
+    /**
+     * Whether a range needs more edits than searched.
+     */
+    private boolean exceeded;
+
+    /**
+     * Constructor.
+     *
+     * @param elements tells whether elements of both sequences are equal.
+     * @param maxDepth maximum number of edits searched from each end of a range.
+     */
+    private EditScript(final Elements elements, final int maxDepth) {
+        this.elements = elements;
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Computes the hunks of a shortest edit script turning the expected sequence into the actual one.
+     *
+     * @param from           first index of both sequences to compare; elements before are equal.
+     * @param expectedLength length of the expected sequence.
+     * @param actualLength   length of the actual sequence.
+     * @param elements       tells whether elements of both sequences are equal.
+     * @param maxEdits       maximum number of deleted and inserted elements searched, about.
+     * @return hunks in sequence order, empty if the sequences are equal; {@code null} if more edits are needed.
+     */
+    public static List<Hunk> compute(final int from, final int expectedLength, final int actualLength,
+                                     final Elements elements, final int maxEdits) {
+        final var script = new EditScript(elements, maxEdits / 2 + 1);
+        script.diff(from, expectedLength, from, actualLength);
+        return script.exceeded ? null : List.copyOf(script.hunks);
+    }
+
+    /**
+     * Diffs a range of both sequences.
+     *
+     * @param expectedFrom first expected index, inclusive.
+     * @param expectedTo   last expected index, exclusive.
+     * @param actualFrom   first actual index, inclusive.
+     * @param actualTo     last actual index, exclusive.
+     */
+    private void diff(final int expectedFrom, final int expectedTo, final int actualFrom, final int actualTo) {
+        int expectedLow = expectedFrom;
+        int actualLow = actualFrom;
+        while (expectedLow < expectedTo && actualLow < actualTo && elements.equal(expectedLow, actualLow)) {
+            expectedLow++;
+            actualLow++;
+        }
+        int expectedHigh = expectedTo;
+        int actualHigh = actualTo;
+        while (expectedLow < expectedHigh && actualLow < actualHigh
+                && elements.equal(expectedHigh - 1, actualHigh - 1)) {
+            expectedHigh--;
+            actualHigh--;
+        }
+
+        final int[] split = expectedLow == expectedHigh || actualLow == actualHigh
+                ? null
+                : bisect(expectedLow, expectedHigh, actualLow, actualHigh);
+        final boolean divided = split != null && split[0] + split[1] > expectedLow + actualLow
+                && split[0] + split[1] < expectedHigh + actualHigh;
+        if (divided && !exceeded) {
+            diff(expectedLow, split[0], actualLow, split[1]);
+            diff(split[0], expectedHigh, split[1], actualHigh);
+        } else {
+            add(expectedLow, expectedHigh, actualLow, actualHigh);
+        }
+    }
+
+    /**
+     * Appends a hunk, merged with the previous one if they are adjacent.
+     *
+     * @param expectedFrom first deleted expected index, inclusive.
+     * @param expectedTo   last deleted expected index, exclusive.
+     * @param actualFrom   first inserted actual index, inclusive.
+     * @param actualTo     last inserted actual index, exclusive.
+     */
+    private void add(final int expectedFrom, final int expectedTo, final int actualFrom, final int actualTo) {
+        if (expectedFrom < expectedTo || actualFrom < actualTo) {
+            final var last = hunks.isEmpty() ? null : hunks.get(hunks.size() - 1);
+            if (last != null && last.expectedTo == expectedFrom && last.actualTo == actualFrom) {
+                hunks.set(hunks.size() - 1, new Hunk(last.expectedFrom, expectedTo, last.actualFrom, actualTo));
+            } else {
+                hunks.add(new Hunk(expectedFrom, expectedTo, actualFrom, actualTo));
+            }
+        }
+    }
+
+    /**
+     * Finds the middle snake of a range whose ends differ: searches forward from its start and backward from
+     * its end, one more edit at a time, until the paths overlap.
+     *
+     * @param expectedFrom first expected index, inclusive.
+     * @param expectedTo   last expected index, exclusive.
+     * @param actualFrom   first actual index, inclusive.
+     * @param actualTo     last actual index, exclusive.
+     * @return expected and actual index splitting the range; {@code null} if no element is common or more edits
+     *         than searched are needed.
+     */
+    private int[] bisect(final int expectedFrom, final int expectedTo, final int actualFrom, final int actualTo) {
+        expectedStart = expectedFrom;
+        actualStart = actualFrom;
+        expectedLength = expectedTo - expectedFrom;
+        actualLength = actualTo - actualFrom;
+        final int longest = (expectedLength + actualLength + 1) / 2;
+        final int depth = Math.min(longest, maxDepth);
+        offset = depth;
+        forward = new int[2 * depth + 2];
+        backward = new int[2 * depth + 2];
+        Arrays.fill(forward, -1);
+        Arrays.fill(backward, -1);
+        forward[offset + 1] = 0;
+        backward[offset + 1] = 0;
+        forwardLow = 0;
+        forwardHigh = 0;
+        backwardLow = 0;
+        backwardHigh = 0;
+
+        int[] split = null;
+        for (int d = 0; d < depth && split == null; d++) {
+            split = searchForward(d);
+            if (split == null) {
+                split = searchBackward(d);
+            }
+        }
+        if (split == null && depth < longest) {
+            exceeded = true;
+        }
+        return split;
+    }
+
+    /**
+     * Extends the forward search by one edit. The paths can overlap here only if the lengths of the range
+     * differ by an odd number.
+     *
+     * @param d number of edits.
+     * @return split point where the paths overlap; {@code null} if they do not.
+     */
+    private int[] searchForward(final int d) {
+        final int delta = expectedLength - actualLength;
+        int[] split = null;
+        for (int k = -d + forwardLow; k <= d - forwardHigh && split == null; k += 2) {
+            final int index = offset + k;
+            int x = k == -d || k != d && forward[index - 1] < forward[index + 1]
+                    ? forward[index + 1]
+                    : forward[index - 1] + 1;
+            int y = x - k;
+            while (x < expectedLength && y < actualLength && elements.equal(expectedStart + x, actualStart + y)) {
+                x++;
+                y++;
+            }
+            forward[index] = x;
+            if (x > expectedLength) {
+                forwardHigh += 2;
+            } else if (y > actualLength) {
+                forwardLow += 2;
+            } else if (delta % 2 != 0) {
+                final int opposite = offset + delta - k;
+                if (opposite >= 0 && opposite < backward.length && backward[opposite] >= 0
+                        && x >= expectedLength - backward[opposite]) {
+                    split = new int[]{expectedStart + x, actualStart + y};
+                }
+            }
+        }
+        return split;
+    }
+
+    /**
+     * Extends the backward search by one edit. The paths can overlap here only if the lengths of the range
+     * differ by an even number.
+     *
+     * @param d number of edits.
+     * @return split point where the paths overlap; {@code null} if they do not.
+     */
+    private int[] searchBackward(final int d) {
+        final int delta = expectedLength - actualLength;
+        int[] split = null;
+        for (int k = -d + backwardLow; k <= d - backwardHigh && split == null; k += 2) {
+            final int index = offset + k;
+            int x = k == -d || k != d && backward[index - 1] < backward[index + 1]
+                    ? backward[index + 1]
+                    : backward[index - 1] + 1;
+            int y = x - k;
+            while (x < expectedLength && y < actualLength && elements.equal(
+                    expectedStart + expectedLength - x - 1, actualStart + actualLength - y - 1)) {
+                x++;
+                y++;
+            }
+            backward[index] = x;
+            if (x > expectedLength) {
+                backwardHigh += 2;
+            } else if (y > actualLength) {
+                backwardLow += 2;
+            } else if (delta % 2 == 0) {
+                final int opposite = offset + delta - k;
+                if (opposite >= 0 && opposite < forward.length && forward[opposite] >= 0
+                        && forward[opposite] >= expectedLength - x) {
+                    final int reached = forward[opposite];
+                    split = new int[]{expectedStart + reached, actualStart + reached - (opposite - offset)};
+                }
+            }
+        }
+        return split;
+    }
+
+    /**
+     * Equality of elements of both sequences.
+     */
+    @FunctionalInterface
+    interface Elements {
+
+        /**
+         * Tells whether two elements are equal.
+         *
+         * @param expectedIndex index in the expected sequence.
+         * @param actualIndex   index in the actual sequence.
+         * @return true if the elements are equal.
+         */
+        boolean equal(int expectedIndex, int actualIndex);
+    }
+
+    /**
+     * Range of deleted expected elements and inserted actual elements between two equal ones. Either range
+     * may be empty; paired elements of both ranges are changes.
+     */
+    static final class Hunk {
+
+        /**
+         * First deleted expected index, inclusive.
+         */
+        private final int expectedFrom;
+
+        /**
+         * Last deleted expected index, exclusive.
+         */
+        private final int expectedTo;
+
+        /**
+         * First inserted actual index, inclusive.
+         */
+        private final int actualFrom;
+
+        /**
+         * Last inserted actual index, exclusive.
+         */
+        private final int actualTo;
+
+        /**
+         * Constructor.
+         *
+         * @param expectedFrom first deleted expected index, inclusive.
+         * @param expectedTo   last deleted expected index, exclusive.
+         * @param actualFrom   first inserted actual index, inclusive.
+         * @param actualTo     last inserted actual index, exclusive.
+         */
+        Hunk(final int expectedFrom, final int expectedTo, final int actualFrom, final int actualTo) {
+            this.expectedFrom = expectedFrom;
+            this.expectedTo = expectedTo;
+            this.actualFrom = actualFrom;
+            this.actualTo = actualTo;
+        }
+
+        /**
+         * Returns the first deleted expected index.
+         *
+         * @return index, inclusive.
+         */
+        public int getExpectedFrom() {
+            return expectedFrom;
+        }
+
+        /**
+         * Returns the end of the deleted expected elements.
+         *
+         * @return index, exclusive.
+         */
+        public int getExpectedTo() {
+            return expectedTo;
+        }
+
+        /**
+         * Returns the first inserted actual index.
+         *
+         * @return index, inclusive.
+         */
+        public int getActualFrom() {
+            return actualFrom;
+        }
+
+        /**
+         * Returns the end of the inserted actual elements.
+         *
+         * @return index, exclusive.
+         */
+        public int getActualTo() {
+            return actualTo;
+        }
+
+        /**
+         * Renders the hunk for diagnostics.
+         *
+         * @return e.g. {@code -[2, 4) +[2, 3)}.
+         */
+        @Override
+        public String toString() {
+            return "-[" + expectedFrom + ", " + expectedTo + ") +[" + actualFrom + ", " + actualTo + ")";
+        }
+    }
+}
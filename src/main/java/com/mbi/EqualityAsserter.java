@@ -2,18 +2,21 @@ package com.mbi;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
-import org.skyscreamer.jsonassert.JSONAssert;
 
-import java.util.Set;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Supplier;
 
 import static com.mbi.AssertionUtils.getCommonArray;
-import static com.mbi.AssertionUtils.getErrorMessage;
 
 /**
  * Low-level engine for asserting JSON equality and inequality.
  * <p>
  * Provides filtering logic (ignore/include fields), supports array extensibility and ordering options
- * via {@link CompareMode}. All comparisons are delegated to JSONAssert.
+ * via {@link CompareMode}. All comparisons are performed by the native {@link JsonComparator} engine.
+ * Failures are reported as {@link JsonAssertionError}s that render their message lazily. Phases of each assertion
+ * are timed with an {@link AssertionRecorder}.
  */
 final class EqualityAsserter {
 
@@ -22,29 +25,34 @@ final class EqualityAsserter {
     /**
      * Asserts that two JSON objects are equal based on the specified comparison mode and field filters.
      *
-     * @param actual    actual JSON object
-     * @param expected  expected JSON object
-     * @param mode      comparison mode (e.g., strict, non-extensible)
-     * @param blackList field names to ignore
-     * @param whiteList field names to compare only
+     * @param actual   actual JSON object
+     * @param expected expected JSON object
+     * @param spec     assertion configuration
+     * @param recorder measurements of the assertion
      * @throws AssertionError if the objects are not equal
      */
     public void assertEquals(
             final JSONObject actual,
             final JSONObject expected,
-            final CompareMode mode,
-            final Set<String> blackList,
-            final Set<String> whiteList) {
+            final AssertionSpec spec,
+            final AssertionRecorder recorder) {
+        recorder.elements(expected, actual);
+
         // Remove redundant fields
-        final var actualFiltered = AssertionUtils.filterFields(actual, blackList, whiteList);
-        final var expectedFiltered = AssertionUtils.filterFields(expected, blackList, whiteList);
+        final long filtering = recorder.begin(AssertionPhase.FILTER);
+        final var filter = spec.getFilter();
+        final var actualFiltered = AssertionUtils.filterFields(actual, filter);
+        final var expectedFiltered = AssertionUtils.filterFields(expected, filter);
+        recorder.end(AssertionPhase.FILTER, filtering);
 
         // Compare
-        try {
-            JSONAssert.assertEquals(expectedFiltered, actualFiltered, CompareMode.getCompareMode(mode));
-        } catch (AssertionError error) {
-            throw new AssertionError(getErrorMessage(error, expected, actual), error);
+        final long comparing = recorder.begin(AssertionPhase.COMPARE);
+        final var differences = comparator(spec).compare(expectedFiltered, actualFiltered, spec.getMaxDifferences());
+        recorder.end(AssertionPhase.COMPARE, comparing);
+        if (!differences.isEmpty()) {
+            throw recorder.failed(new JsonAssertionError(null, differences, expected, actual, spec.getLimits()));
         }
+        recorder.passed();
     }
 
     /**
@@ -52,102 +60,451 @@ final class EqualityAsserter {
      * <p>
      * Supports array extensibility (partial matching) if allowed by mode.
      *
-     * @param actual    actual JSON array
-     * @param expected  expected JSON array
-     * @param mode      comparison mode (ordered, extensible)
-     * @param blackList fields to ignore
-     * @param whiteList fields to include
+     * @param actual   actual JSON array
+     * @param expected expected JSON array
+     * @param spec     assertion configuration
+     * @param recorder measurements of the assertion
      * @throws AssertionError if the arrays are not equal
      */
     public void assertEquals(
             final JSONArray actual,
             final JSONArray expected,
-            final CompareMode mode,
-            final Set<String> blackList,
-            final Set<String> whiteList) {
+            final AssertionSpec spec,
+            final AssertionRecorder recorder) {
+        recorder.elements(expected, actual);
+
         // Remove redundant fields
-        final var actualFiltered = AssertionUtils.filterFields(actual, blackList, whiteList);
-        final var expectedFiltered = AssertionUtils.filterFields(expected, blackList, whiteList);
+        final long filtering = recorder.begin(AssertionPhase.FILTER);
+        final var filter = spec.getFilter();
+        final var actualFiltered = AssertionUtils.filterFields(actual, filter);
+        final var expectedFiltered = AssertionUtils.filterFields(expected, filter);
+        recorder.end(AssertionPhase.FILTER, filtering);
 
         // Creates common objects array of expected and actual arrays if compare mode assumes extensibility
         // of actual array. For cases when it is needed to check if actual array contains expected array.
-        final var actualToCompare = mode.isExtensibleArray()
+        final long matching = recorder.begin(AssertionPhase.ARRAY_MATCHING);
+        final var actualToCompare = spec.usesCommonArray()
                 ? getCommonArray(expectedFiltered, actualFiltered)
                 : actualFiltered;
+        recorder.end(AssertionPhase.ARRAY_MATCHING, matching);
 
         // Compare
-        try {
-            JSONAssert.assertEquals(expectedFiltered, actualToCompare, CompareMode.getCompareMode(mode));
-        } catch (AssertionError error) {
-            throw new AssertionError(getErrorMessage(error, expected, actual), error);
+        final long comparing = recorder.begin(AssertionPhase.COMPARE);
+        final var differences = comparator(spec).compare(expectedFiltered, actualToCompare, spec.getMaxDifferences());
+        recorder.end(AssertionPhase.COMPARE, comparing);
+        if (!differences.isEmpty()) {
+            throw recorder.failed(new JsonAssertionError(null, differences, expected, actual, spec.getLimits()));
+        }
+        recorder.passed();
+    }
+
+    /**
+     * Asserts that a streamed JSON document equals the expected object or array.
+     * <p>
+     * Without field filters, extensible arrays and array keys, the document is compared while it is read and
+     * reading stops at the first difference. Equal documents are thus read once; different ones are read again,
+     * to render the failure message or, if more than one difference is collected, to compare them as trees.
+     * With field filters, the document is filtered while it is parsed (see {@link FieldProjection}), so that
+     * excluded fields are never materialized, and compared as a tree. Otherwise, the document is parsed
+     * from the source and compared as a tree.
+     *
+     * @param actual   opens the actual JSON document; may be called more than once
+     * @param expected expected JSON object or array
+     * @param spec     assertion configuration
+     * @param recorder measurements of the assertion
+     * @throws AssertionError if the documents are not equal
+     */
+    public void assertEquals(
+            final Supplier<JsonReader> actual,
+            final Object expected,
+            final AssertionSpec spec,
+            final AssertionRecorder recorder) {
+        if (isStreamed(spec)) {
+            final JsonDifference difference;
+            try (var reader = actual.get()) {
+                difference = compareStreamed(reader, expected, spec, recorder);
+            }
+            if (difference == null) {
+                recorder.passed();
+            } else if (spec.getMaxDifferences() > 1) {
+                final long parsing = recorder.begin(AssertionPhase.PARSE);
+                final var document = JsonReader.parse(actual.get());
+                recorder.end(AssertionPhase.PARSE, parsing);
+                assertDocumentsEqual(document, expected, spec, recorder);
+            } else {
+                throw recorder.failed(new JsonAssertionError(null, List.of(difference), expected,
+                        () -> JsonReader.parse(actual.get()), spec.getLimits()));
+            }
+        } else if (spec.getFilter().isEmpty()) {
+            final long parsing = recorder.begin(AssertionPhase.PARSE);
+            final var document = JsonReader.parse(actual.get());
+            recorder.end(AssertionPhase.PARSE, parsing);
+            assertDocumentsEqual(document, expected, spec, recorder);
+        } else {
+            final var projection = new FieldProjection(spec.getFilter());
+            final long parsing = recorder.begin(AssertionPhase.PARSE);
+            final var document = projection.parse(actual);
+            recorder.end(AssertionPhase.PARSE, parsing);
+            recorder.elements(expected, projection.getSize());
+            assertProjectedEquals(document, () -> JsonReader.parse(actual.get()), expected, spec, recorder);
+        }
+    }
+
+    /**
+     * Asserts that a JSON document read once from a stream equals the expected object or array.
+     * <p>
+     * Without field filters, extensible arrays and array keys, the document is compared while it is read and
+     * reading stops at the first difference. As the stream cannot be read again, the failure message lists
+     * the difference only, with nested actual values named by type. Otherwise the document is parsed once and
+     * compared as a tree.
+     *
+     * @param actual   actual JSON document (UTF-8); closed once read
+     * @param expected expected JSON object or array
+     * @param spec     assertion configuration
+     * @param recorder measurements of the assertion
+     * @throws AssertionError if the documents are not equal
+     */
+    public void assertStreamEquals(
+            final InputStream actual,
+            final Object expected,
+            final AssertionSpec spec,
+            final AssertionRecorder recorder) {
+        if (isStreamed(spec)) {
+            final JsonDifference difference;
+            try (var reader = new JsonReader(actual)) {
+                difference = compareStreamed(reader, expected, spec, recorder);
+            }
+            if (difference != null) {
+                throw recorder.failed(new JsonAssertionError(List.of(difference), spec.getLimits()));
+            }
+            recorder.passed();
+        } else {
+            final long parsing = recorder.begin(AssertionPhase.PARSE);
+            final var document = JsonReader.parse(actual);
+            recorder.end(AssertionPhase.PARSE, parsing);
+            assertDocumentsEqual(document, expected, spec, recorder);
+        }
+    }
+
+    /**
+     * Asserts that two JSON documents of any type are equal. Objects and arrays are compared as by
+     * the typed methods; documents of different types differ at the root.
+     *
+     * @param actual   actual JSON document
+     * @param expected expected JSON document
+     * @param spec     assertion configuration
+     * @param recorder measurements of the assertion
+     * @throws AssertionError if the documents are not equal
+     */
+    public void assertDocumentsEqual(
+            final Object actual,
+            final Object expected,
+            final AssertionSpec spec,
+            final AssertionRecorder recorder) {
+        if (expected instanceof JSONObject expectedObject && actual instanceof JSONObject actualObject) {
+            assertEquals(actualObject, expectedObject, spec, recorder);
+        } else if (expected instanceof JSONArray expectedArray && actual instanceof JSONArray actualArray) {
+            assertEquals(actualArray, expectedArray, spec, recorder);
+        } else {
+            recorder.elements(expected, actual);
+            final long comparing = recorder.begin(AssertionPhase.COMPARE);
+            final var differences = comparator(spec).compare(expected, actual, spec.getMaxDifferences());
+            recorder.end(AssertionPhase.COMPARE, comparing);
+            if (!differences.isEmpty()) {
+                throw recorder.failed(new JsonAssertionError(null, differences, expected, actual, spec.getLimits()));
+            }
+            recorder.passed();
+        }
+    }
+
+    /**
+     * Asserts that two JSON files are equal.
+     * <p>
+     * Byte-identical files are equal in every mode and are accepted without comparing their trees: without field
+     * filters and extensible arrays neither file is parsed, otherwise only the expected file is parsed and filtered,
+     * so that filter errors are reported as for different files. Other files are compared with
+     * {@link #assertEquals(Supplier, Object, AssertionSpec, AssertionRecorder)}, the actual file while it is read.
+     *
+     * @param actual   actual JSON file (UTF-8)
+     * @param expected expected JSON file (UTF-8)
+     * @param spec     assertion configuration
+     * @param recorder measurements of the assertion
+     * @throws AssertionError if the documents are not equal
+     */
+    public void assertEquals(
+            final Path actual,
+            final Path expected,
+            final AssertionSpec spec,
+            final AssertionRecorder recorder) {
+        recorder.sizes(expected, actual);
+        final long comparing = recorder.begin(AssertionPhase.COMPARE);
+        final boolean identical = RawContent.isIdentical(actual, expected);
+        recorder.end(AssertionPhase.COMPARE, comparing);
+        if (identical) {
+            if (!isStreamed(spec)) {
+                final long parsing = recorder.begin(AssertionPhase.PARSE);
+                final var expectedDocument = JsonReader.parse(MappedInputStream.open(expected));
+                recorder.end(AssertionPhase.PARSE, parsing);
+                final long filtering = recorder.begin(AssertionPhase.FILTER);
+                AssertionUtils.filterValue(expectedDocument, spec.getFilter());
+                recorder.end(AssertionPhase.FILTER, filtering);
+            }
+            recorder.passed();
+        } else {
+            final long parsing = recorder.begin(AssertionPhase.PARSE);
+            final var expectedDocument = JsonReader.parse(MappedInputStream.open(expected));
+            recorder.end(AssertionPhase.PARSE, parsing);
+            assertEquals(() -> new JsonReader(MappedInputStream.open(actual)), expectedDocument, spec, recorder);
+        }
+    }
+
+    /**
+     * Asserts that two JSON Lines sources hold equal records.
+     * <p>
+     * Records are read and compared one by one (see {@link JsonLinesComparator}); both streams are closed.
+     *
+     * @param actual   actual JSON Lines (UTF-8)
+     * @param expected expected JSON Lines (UTF-8)
+     * @param spec     assertion configuration; array rules of the mode apply to the sequence of records
+     * @param recorder measurements of the assertion
+     * @throws AssertionError if the records are not equal
+     */
+    public void assertJsonLinesEquals(
+            final InputStream actual,
+            final InputStream expected,
+            final AssertionSpec spec,
+            final AssertionRecorder recorder) {
+        final long comparing = recorder.begin(AssertionPhase.COMPARE);
+        final List<JsonDifference> differences;
+        try (var actualReader = new JsonReader(actual); var expectedReader = new JsonReader(expected)) {
+            differences = new JsonLinesComparator(spec.getMode(), spec.getFilter(), spec.getMaxDifferences())
+                    .compare(expectedReader, actualReader);
+        }
+        recorder.end(AssertionPhase.COMPARE, comparing);
+        if (!differences.isEmpty()) {
+            throw recorder.failed(new JsonAssertionError(differences, spec.getLimits()));
+        }
+        recorder.passed();
+    }
+
+    /**
+     * Asserts that two JSON Lines files hold equal records.
+     * <p>
+     * Without field filters, byte-identical files are accepted without being parsed.
+     *
+     * @param actual   actual JSON Lines file (UTF-8)
+     * @param expected expected JSON Lines file (UTF-8)
+     * @param spec     assertion configuration; array rules of the mode apply to the sequence of records
+     * @param recorder measurements of the assertion
+     * @throws AssertionError if the records are not equal
+     */
+    public void assertJsonLinesEquals(
+            final Path actual,
+            final Path expected,
+            final AssertionSpec spec,
+            final AssertionRecorder recorder) {
+        recorder.sizes(expected, actual);
+        final long comparing = recorder.begin(AssertionPhase.COMPARE);
+        final boolean identical = spec.getFilter().isEmpty() && RawContent.isIdentical(actual, expected);
+        recorder.end(AssertionPhase.COMPARE, comparing);
+        if (identical) {
+            recorder.passed();
+        } else {
+            assertJsonLinesEquals(MappedInputStream.open(actual), MappedInputStream.open(expected), spec, recorder);
         }
     }
 
     /**
      * Asserts that two JSON objects are NOT equal.
      *
-     * @param actual    actual JSON object
-     * @param expected  expected JSON object
-     * @param mode      comparison mode
-     * @param blackList fields to ignore
-     * @param whiteList fields to include
+     * @param actual   actual JSON object
+     * @param expected expected JSON object
+     * @param spec     assertion configuration
+     * @param recorder measurements of the assertion
      * @throws AssertionError if the objects are equal
      */
     public void assertNotEquals(
             final JSONObject actual,
             final JSONObject expected,
-            final CompareMode mode,
-            final Set<String> blackList,
-            final Set<String> whiteList) {
+            final AssertionSpec spec,
+            final AssertionRecorder recorder) {
+        recorder.elements(expected, actual);
+
         // Remove redundant fields
-        final var actualFiltered = AssertionUtils.filterFields(actual, blackList, whiteList);
-        final var expectedFiltered = AssertionUtils.filterFields(expected, blackList, whiteList);
+        final long filtering = recorder.begin(AssertionPhase.FILTER);
+        final var filter = spec.getFilter();
+        final var actualFiltered = AssertionUtils.filterFields(actual, filter);
+        final var expectedFiltered = AssertionUtils.filterFields(expected, filter);
+        recorder.end(AssertionPhase.FILTER, filtering);
 
         // Compare
-        try {
-            JSONAssert.assertNotEquals(NOT_EQUALS_ERROR_MESSAGE,
-                    expectedFiltered,
-                    actualFiltered,
-                    CompareMode.getCompareMode(mode));
-        } catch (AssertionError error) {
-            throw new AssertionError(getErrorMessage(error, expected, actual), error);
-        }
+        assertNotEqual(actualFiltered, expectedFiltered, actual, expected, spec, recorder);
     }
 
     /**
      * Asserts that two JSON arrays are NOT equal.
      *
-     * @param actual    actual JSON array
-     * @param expected  expected JSON array
-     * @param mode      comparison mode
-     * @param blackList fields to ignore
-     * @param whiteList fields to include
+     * @param actual   actual JSON array
+     * @param expected expected JSON array
+     * @param spec     assertion configuration
+     * @param recorder measurements of the assertion
      * @throws AssertionError if the arrays are equal
      */
     public void assertNotEquals(
             final JSONArray actual,
             final JSONArray expected,
-            final CompareMode mode,
-            final Set<String> blackList,
-            final Set<String> whiteList) {
+            final AssertionSpec spec,
+            final AssertionRecorder recorder) {
+        recorder.elements(expected, actual);
+
         // Remove redundant fields
-        final var actualFiltered = AssertionUtils.filterFields(actual, blackList, whiteList);
-        final var expectedFiltered = AssertionUtils.filterFields(expected, blackList, whiteList);
+        final long filtering = recorder.begin(AssertionPhase.FILTER);
+        final var filter = spec.getFilter();
+        final var actualFiltered = AssertionUtils.filterFields(actual, filter);
+        final var expectedFiltered = AssertionUtils.filterFields(expected, filter);
+        recorder.end(AssertionPhase.FILTER, filtering);
 
         // Creates common objects array of expected and actual arrays if compare mode assumes extensibility
         // of actual array. For cases when it is needed to check if actual array contains expected array.
-        final var actualToCompare = mode.isExtensibleArray()
+        final long matching = recorder.begin(AssertionPhase.ARRAY_MATCHING);
+        final var actualToCompare = spec.usesCommonArray()
                 ? getCommonArray(expectedFiltered, actualFiltered)
                 : actualFiltered;
+        recorder.end(AssertionPhase.ARRAY_MATCHING, matching);
 
         // Compare
-        try {
-            JSONAssert.assertNotEquals(NOT_EQUALS_ERROR_MESSAGE,
-                    expectedFiltered,
-                    actualToCompare,
-                    CompareMode.getCompareMode(mode));
-        } catch (AssertionError error) {
-            throw new AssertionError(getErrorMessage(error, expected, actual), error);
+        assertNotEqual(actualToCompare, expectedFiltered, actual, expected, spec, recorder);
+    }
+
+    /**
+     * Asserts that two JSON documents of any type are NOT equal. Objects and arrays are compared as by
+     * the typed methods; documents of different types are never equal.
+     *
+     * @param actual   actual JSON document
+     * @param expected expected JSON document
+     * @param spec     assertion configuration
+     * @param recorder measurements of the assertion
+     * @throws AssertionError if the documents are equal
+     */
+    public void assertDocumentsNotEqual(
+            final Object actual,
+            final Object expected,
+            final AssertionSpec spec,
+            final AssertionRecorder recorder) {
+        if (expected instanceof JSONObject expectedObject && actual instanceof JSONObject actualObject) {
+            assertNotEquals(actualObject, expectedObject, spec, recorder);
+        } else if (expected instanceof JSONArray expectedArray && actual instanceof JSONArray actualArray) {
+            assertNotEquals(actualArray, expectedArray, spec, recorder);
+        } else {
+            recorder.elements(expected, actual);
+            assertNotEqual(actual, expected, actual, expected, spec, recorder);
+        }
+    }
+
+    /**
+     * Asserts that filtered documents are NOT equal.
+     *
+     * @param actualToCompare  filtered actual document
+     * @param expectedFiltered filtered expected document
+     * @param actual           actual document, for the failure message
+     * @param expected         expected document, for the failure message
+     * @param spec             assertion configuration
+     * @param recorder         measurements of the assertion
+     * @throws AssertionError if the documents are equal
+     */
+    private static void assertNotEqual(
+            final Object actualToCompare,
+            final Object expectedFiltered,
+            final Object actual,
+            final Object expected,
+            final AssertionSpec spec,
+            final AssertionRecorder recorder) {
+        final long comparing = recorder.begin(AssertionPhase.COMPARE);
+        final boolean equal = comparator(spec).isEqual(expectedFiltered, actualToCompare);
+        recorder.end(AssertionPhase.COMPARE, comparing);
+        if (equal) {
+            throw recorder.failed(
+                    new JsonAssertionError(NOT_EQUALS_ERROR_MESSAGE, List.of(), expected, actual, spec.getLimits()));
+        }
+        recorder.passed();
+    }
+
+    /**
+     * Asserts that a document filtered while it was parsed equals the expected one.
+     *
+     * @param actualFiltered filtered actual document
+     * @param actual         source of the whole actual document, for the failure message
+     * @param expected       expected document
+     * @param spec           assertion configuration
+     * @param recorder       measurements of the assertion
+     * @throws AssertionError if the documents are not equal
+     */
+    private static void assertProjectedEquals(
+            final Object actualFiltered,
+            final Supplier<Object> actual,
+            final Object expected,
+            final AssertionSpec spec,
+            final AssertionRecorder recorder) {
+        final long filtering = recorder.begin(AssertionPhase.FILTER);
+        final var expectedFiltered = AssertionUtils.filterValue(expected, spec.getFilter());
+        recorder.end(AssertionPhase.FILTER, filtering);
+
+        // Only common elements are compared if the actual array may hold more elements than the expected one
+        var actualToCompare = actualFiltered;
+        if (spec.usesCommonArray() && expectedFiltered instanceof JSONArray expectedArray
+                && actualFiltered instanceof JSONArray actualArray) {
+            final long matching = recorder.begin(AssertionPhase.ARRAY_MATCHING);
+            actualToCompare = getCommonArray(expectedArray, actualArray);
+            recorder.end(AssertionPhase.ARRAY_MATCHING, matching);
+        }
+
+        final long comparing = recorder.begin(AssertionPhase.COMPARE);
+        final var differences = comparator(spec).compare(expectedFiltered, actualToCompare, spec.getMaxDifferences());
+        recorder.end(AssertionPhase.COMPARE, comparing);
+        if (!differences.isEmpty()) {
+            throw recorder.failed(new JsonAssertionError(null, differences, expected, actual, spec.getLimits()));
         }
+        recorder.passed();
+    }
+
+    /**
+     * Compares a document while it is read, stopping at the first difference.
+     *
+     * @param actual   reader of the actual document
+     * @param expected expected JSON object or array
+     * @param spec     assertion configuration
+     * @param recorder measurements of the assertion
+     * @return first difference; {@code null} if the documents are equal
+     */
+    private static JsonDifference compareStreamed(
+            final JsonReader actual,
+            final Object expected,
+            final AssertionSpec spec,
+            final AssertionRecorder recorder) {
+        recorder.elements(expected, null);
+        final long comparing = recorder.begin(AssertionPhase.COMPARE);
+        final var difference = new StreamingComparator(spec.getMode()).compare(expected, actual);
+        recorder.end(AssertionPhase.COMPARE, comparing);
+        return difference;
+    }
+
+    /**
+     * Checks whether documents read from a stream are compared while they are read.
+     *
+     * @param spec assertion configuration
+     * @return true without field filters, extensible arrays and array keys
+     */
+    private static boolean isStreamed(final AssertionSpec spec) {
+        return spec.getFilter().isEmpty() && !spec.getMode().isExtensibleArray() && spec.getArrayKeys().isEmpty();
+    }
+
+    /**
+     * Creates a comparator of trees.
+     *
+     * @param spec assertion configuration
+     * @return comparator with the mode, parallelism and array keys of the configuration
+     */
+    private static JsonComparator comparator(final AssertionSpec spec) {
+        return new JsonComparator(spec.getMode(), spec.getParallelism(), spec.getArrayKeys());
     }
 }
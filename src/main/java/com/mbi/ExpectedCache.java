@@ -0,0 +1,350 @@
+package com.mbi;
+
+import org.apache.commons.lang3.Validate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded LRU cache of expected (golden) documents compiled into {@link JsonMatcher}s.
+ * <p>
+ * Entries are keyed by the document source and the {@link AssertionSpec} it was compiled with, so a document
+ * is read, parsed, filtered and hashed once per configuration. Classpath resources are keyed by their name;
+ * files are keyed by the SHA-256 digest of their content, so a changed file is compiled again and equal files
+ * share an entry. When the number of entries or the total size of the cached sources exceeds its limit,
+ * the least recently used entries are evicted. Hits and misses are counted.
+ * <p>
+ * The cache is thread-safe; a document requested by several threads at once may be compiled more than once.
+ * <pre>{@code
+ * private static final AssertionSpec SPEC = AssertionSpec.DEFAULT.ignore("id");
+ *
+ * ExpectedCache.shared().resource("golden/user.json", SPEC).assertMatches(actual);
+ * }</pre>
+ */
+public final class ExpectedCache {
+
+    /**
+     * Default maximum number of entries.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 1_000;
+
+    /**
+     * Default maximum total size of cached sources: 256 MB.
+     */
+    public static final long DEFAULT_MAX_BYTES = 256L << 20;
+
+    /**
+     * Cache shared by all tests of the JVM, with default limits.
+     */
+    private static final ExpectedCache SHARED = new ExpectedCache(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_BYTES);
+
+    /**
+     * Guards entries and counters.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Entries by source key and spec, least recently used first.
+     */
+    private final Map<List<Object>, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Maximum number of entries.
+     */
+    private final int maxEntries;
+
+    /**
+     * Maximum total size of cached sources in bytes.
+     */
+    private final long maxBytes;
+
+    /**
+     * Total size of cached sources in bytes.
+     */
+    private long bytes;
+
+    /**
+     * Number of lookups that found a compiled document.
+     */
+    private long hits;
+
+    /**
+     * Number of lookups that compiled a document.
+     */
+    private long misses;
+
+    /**
+     * Constructor.
+     *
+     * @param maxEntries maximum number of entries; must be positive.
+     * @param maxBytes   maximum total size of cached sources in bytes; must be positive.
+     */
+    public ExpectedCache(final int maxEntries, final long maxBytes) {
+        Validate.isTrue(maxEntries > 0, "Max cache entries must be positive: %d", maxEntries);
+        Validate.isTrue(maxBytes > 0, "Max cache size must be positive: %d", maxBytes);
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the cache shared by all tests of the JVM, limited to {@link #DEFAULT_MAX_ENTRIES} entries and
+     * {@link #DEFAULT_MAX_BYTES} bytes.
+     *
+     * @return shared cache.
+     */
+    public static ExpectedCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the classpath resource compiled with the spec, compiling it on first use.
+     *
+     * @param name resource name, e.g. {@code golden/user.json}.
+     * @param spec assertion configuration.
+     * @return matcher of the expected document.
+     * @throws IllegalArgumentException if the resource does not exist.
+     * @throws UncheckedIOException     if the resource cannot be read.
+     */
+    public JsonMatcher resource(final String name, final AssertionSpec spec) {
+        Validate.notNull(name, "Resource name is null");
+        final List<Object> key = List.of("resource:" + name, spec);
+        JsonMatcher matcher = lookup(key);
+        if (matcher == null) {
+            final byte[] content = readResource(name);
+            matcher = store(key, compile(content, spec), content.length);
+        }
+        return matcher;
+    }
+
+    /**
+     * Returns the file compiled with the spec. The file is read on every call to compute its digest; it is parsed
+     * only if no file with the same content has been compiled with the spec.
+     *
+     * @param file expected JSON file.
+     * @param spec assertion configuration.
+     * @return matcher of the expected document.
+     * @throws UncheckedIOException if the file cannot be read.
+     */
+    public JsonMatcher file(final Path file, final AssertionSpec spec) {
+        Validate.notNull(file, "File path is null");
+        final byte[] content = readFile(file);
+        final List<Object> key = List.of("sha256:" + digest(content), spec);
+        JsonMatcher matcher = lookup(key);
+        if (matcher == null) {
+            matcher = store(key, compile(content, spec), content.length);
+        }
+        return matcher;
+    }
+
+    /**
+     * Returns the number of lookups that found a compiled document.
+     *
+     * @return hit count.
+     */
+    public long getHitCount() {
+        lock.lock();
+        try {
+            return hits;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of lookups that compiled a document.
+     *
+     * @return miss count.
+     */
+    public long getMissCount() {
+        lock.lock();
+        try {
+            return misses;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of cached documents.
+     *
+     * @return entry count.
+     */
+    public int getEntryCount() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the total size of the cached sources.
+     *
+     * @return size in bytes.
+     */
+    public long getByteCount() {
+        lock.lock();
+        try {
+            return bytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes all entries and resets the counters.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+            bytes = 0;
+            hits = 0;
+            misses = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Compiles a document.
+     *
+     * @param content UTF-8 encoded JSON.
+     * @param spec    assertion configuration.
+     * @return matcher of the document.
+     */
+    private static JsonMatcher compile(final byte[] content, final AssertionSpec spec) {
+        return new JsonMatcher(spec, JsonReader.parse(new ByteArrayInputStream(content)));
+    }
+
+    /**
+     * Reads a classpath resource.
+     *
+     * @param name resource name.
+     * @return resource content.
+     */
+    private static byte[] readResource(final String name) {
+        final var loader = Thread.currentThread().getContextClassLoader() == null
+                ? ExpectedCache.class.getClassLoader()
+                : Thread.currentThread().getContextClassLoader();
+        try (InputStream input = loader.getResourceAsStream(name)) {
+            Validate.isTrue(input != null, "Resource not found: %s", name);
+            return input.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read resource " + name, e);
+        }
+    }
+
+    /**
+     * Reads a file.
+     *
+     * @param file file path.
+     * @return file content.
+     */
+    private static byte[] readFile(final Path file) {
+        try {
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read file " + file, e);
+        }
+    }
+
+    /**
+     * Computes the SHA-256 digest of content.
+     *
+     * @param content content.
+     * @return hex encoded digest.
+     */
+    private static String digest(final byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    /**
+     * Looks up a compiled document and counts the hit or miss.
+     *
+     * @param key source key and spec.
+     * @return matcher; {@code null} on a miss.
+     */
+    private JsonMatcher lookup(final List<Object> key) {
+        lock.lock();
+        try {
+            final var entry = entries.get(key);
+            if (entry == null) {
+                misses++;
+            } else {
+                hits++;
+            }
+            return entry == null ? null : entry.matcher;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stores a compiled document and evicts the least recently used entries above the limits.
+     * The latest entry is always kept, even if it alone exceeds the size limit.
+     *
+     * @param key     source key and spec.
+     * @param matcher matcher of the document.
+     * @param size    size of the source in bytes.
+     * @return matcher.
+     */
+    private JsonMatcher store(final List<Object> key, final JsonMatcher matcher, final long size) {
+        lock.lock();
+        try {
+            final var previous = entries.put(key, new Entry(matcher, size));
+            bytes += size - (previous == null ? 0 : previous.size);
+            final var iterator = entries.values().iterator();
+            while (entries.size() > 1 && (entries.size() > maxEntries || bytes > maxBytes)) {
+                bytes -= iterator.next().size;
+                iterator.remove();
+            }
+            return matcher;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Cached document with the size of its source.
+     */
+    private static final class Entry {
+
+        /**
+         * Matcher of the document.
+         */
+        private final JsonMatcher matcher;
+
+        /**
+         * Size of the source in bytes.
+         */
+        private final long size;
+
+        /**
+         * Constructor.
+         *
+         * @param matcher matcher of the document.
+         * @param size    size of the source in bytes.
+         */
+        private Entry(final JsonMatcher matcher, final long size) {
+            this.matcher = matcher;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.mbi;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Renders an assertion failure message within {@link MessageLimits}.
+ * <p>
+ * Documents are pretty-printed line by line straight into a bounded buffer instead of being serialized
+ * as a whole: rendering stops as soon as the maximum length is reached, and with limited context only
+ * the lines around differences are kept (in a small sliding window), so the cost does not depend on
+ * the size of the documents.
+ */
+final class FailureMessage {
+
+    /**
+     * Separator between differences.
+     */
+    private static final String SEPARATOR = " ; ";
+
+    /**
+     * Line separator inside rendered documents.
+     */
+    private static final String NEW_LINE = "\n";
+
+    /**
+     * Indentation of one nesting level.
+     */
+    private static final String INDENT = "    ";
+
+    /**
+     * Placeholder for omitted document lines.
+     */
+    private static final String OMITTED = "...";
+
+    /**
+     * Message being rendered.
+     */
+    private final StringBuilder text = new StringBuilder();
+
+    /**
+     * Rendering limits.
+     */
+    private final MessageLimits limits;
+
+    /**
+     * Lines preceding the next difference, kept while rendering with limited context.
+     */
+    private final Deque<String> context = new ArrayDeque<>();
+
+    /**
+     * Number of lines still to render after the last difference.
+     */
+    private int trailing;
+
+    /**
+     * Whether lines were omitted since the last rendered one.
+     */
+    private boolean omitted;
+
+    /**
+     * Whether the next document line is the first one of the document.
+     */
+    private boolean firstLine;
+
+    /**
+     * Whether the maximum length was reached.
+     */
+    private boolean truncated;
+
+    /**
+     * Constructor.
+     *
+     * @param limits rendering limits.
+     */
+    private FailureMessage(final MessageLimits limits) {
+        this.limits = limits;
+    }
+
+    /**
+     * Renders a failure message: the differences (or the summary if there are none) followed by both documents.
+     * Documents are omitted if both are absent, e.g. for sources compared record by record.
+     *
+     * @param summary     message used when there are no differences.
+     * @param differences differences found by the comparison.
+     * @param expected    expected document; {@code null} if absent.
+     * @param actual      actual document; {@code null} if absent.
+     * @param limits      rendering limits.
+     * @return failure message.
+     */
+    public static String render(final String summary, final List<JsonDifference> differences,
+                                final Object expected, final Object actual, final MessageLimits limits) {
+        final var message = new FailureMessage(limits);
+        if (differences.isEmpty()) {
+            message.append(summary);
+        }
+        for (int i = 0; i < differences.size() && !message.truncated; i++) {
+            message.append(i == 0 ? "" : SEPARATOR);
+            message.append(differences.get(i).toString());
+        }
+
+        if (expected != null || actual != null) {
+            final var marks = marks(differences);
+            message.append(System.lineSeparator() + System.lineSeparator() + "Expected: ");
+            message.document(expected, marks);
+            message.append(System.lineSeparator() + System.lineSeparator() + "But found: ");
+            message.document(actual, marks);
+        }
+        return message.finish();
+    }
+
+    /**
+     * Compiles the locations of differences. A difference of an unordered array element ({@code a[]})
+     * is located at the array itself.
+     *
+     * @param differences differences.
+     * @return compiled locations; {@code null} if there are none.
+     */
+    private static PathTrie marks(final List<JsonDifference> differences) {
+        final var paths = new ArrayList<String>();
+        for (final var difference : differences) {
+            final var path = difference.getPath();
+            paths.add(path.endsWith("[]") ? path.substring(0, path.length() - 2) : path);
+        }
+        return PathTrie.compile(paths);
+    }
+
+    /**
+     * Returns the text of a scalar or an empty container.
+     *
+     * @param value JSON value.
+     * @return JSON text.
+     */
+    private static String scalar(final Object value) {
+        final String result;
+        if (value instanceof JSONObject) {
+            result = "{}";
+        } else if (value instanceof JSONArray) {
+            result = "[]";
+        } else {
+            result = JSONObject.valueToString(value);
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether a value is rendered on multiple lines.
+     *
+     * @param value JSON value.
+     * @return true for non-empty objects and arrays.
+     */
+    private static boolean isMultiline(final Object value) {
+        return value instanceof JSONObject object && !object.isEmpty()
+                || value instanceof JSONArray array && !array.isEmpty();
+    }
+
+    /**
+     * Renders a document. The first line is always rendered.
+     *
+     * @param document JSON document.
+     * @param marks    locations of differences; {@code null} if none.
+     */
+    private void document(final Object document, final PathTrie marks) {
+        context.clear();
+        trailing = 0;
+        omitted = false;
+        firstLine = true;
+        value(document, marks, "", "", 0, true);
+        if (omitted || !context.isEmpty()) {
+            append(NEW_LINE + OMITTED);
+        }
+    }
+
+    /**
+     * Renders a value and its children.
+     *
+     * @param value  JSON value.
+     * @param marks  locations of differences at this value; {@code null} if none.
+     * @param prefix text before the value (field name).
+     * @param suffix text after the value (comma).
+     * @param depth  nesting level.
+     * @param marked whether the first line is rendered regardless of differences.
+     */
+    private void value(final Object value, final PathTrie marks, final String prefix, final String suffix,
+                       final int depth, final boolean marked) {
+        final boolean difference = marked || marks != null && marks.isTerminal();
+        if (value instanceof JSONObject object && isMultiline(object)) {
+            line(depth, prefix + "{", difference);
+            final var keys = object.keySet().iterator();
+            while (keys.hasNext() && !truncated) {
+                final var key = keys.next();
+                value(object.opt(key), marks == null ? null : marks.field(key),
+                        JSONObject.quote(key) + ": ", keys.hasNext() ? "," : "", depth + 1, false);
+            }
+            line(depth, "}" + suffix, false);
+        } else if (value instanceof JSONArray array && isMultiline(array)) {
+            line(depth, prefix + "[", difference);
+            final int length = array.length();
+            for (int i = 0; i < length && !truncated; i++) {
+                value(array.opt(i), marks == null ? null : marks.index(i),
+                        "", i < length - 1 ? "," : "", depth + 1, false);
+            }
+            line(depth, "]" + suffix, false);
+        } else {
+            line(depth, prefix + scalar(value) + suffix, difference);
+        }
+    }
+
+    /**
+     * Renders a document line, or keeps it as context if it is not close enough to a difference.
+     *
+     * @param depth      nesting level.
+     * @param line       line text without indentation.
+     * @param difference whether the line holds a difference.
+     */
+    private void line(final int depth, final String line, final boolean difference) {
+        final int contextLines = limits.getContextLines();
+        final var indented = INDENT.repeat(depth) + line;
+        if (contextLines == MessageLimits.ALL_LINES) {
+            appendLine(indented);
+        } else if (difference) {
+            if (omitted) {
+                appendLine(OMITTED);
+                omitted = false;
+            }
+            context.forEach(this::appendLine);
+            context.clear();
+            appendLine(indented);
+            trailing = contextLines;
+        } else if (trailing > 0) {
+            appendLine(indented);
+            trailing--;
+        } else {
+            context.addLast(indented);
+            if (context.size() > contextLines) {
+                context.removeFirst();
+                omitted = true;
+            }
+        }
+    }
+
+    /**
+     * Appends a document line; the first line of a document continues the current line.
+     *
+     * @param line line text.
+     */
+    private void appendLine(final String line) {
+        append(firstLine ? line : NEW_LINE + line);
+        firstLine = false;
+    }
+
+    /**
+     * Appends text unless the maximum length is reached.
+     *
+     * @param value text to append.
+     */
+    private void append(final String value) {
+        if (!truncated) {
+            final int available = limits.getMaxLength() - text.length();
+            if (value.length() > available) {
+                text.append(value, 0, available);
+                truncated = true;
+            } else {
+                text.append(value);
+            }
+        }
+    }
+
+    /**
+     * Completes the message.
+     *
+     * @return rendered message.
+     */
+    private String finish() {
+        if (truncated) {
+            text.append(NEW_LINE).append(OMITTED).append(" (message truncated at ")
+                    .append(limits.getMaxLength()).append(" characters)");
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,153 @@
+package com.mbi;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Compiled ignore (blackList) and compareOnly (whiteList) configuration.
+ * <p>
+ * Paths are reduced and compiled into {@link PathTrie}s once, so filtering a document costs a single walk
+ * regardless of how many paths are configured. Instances are immutable and can be shared.
+ */
+final class FieldFilter {
+
+    /**
+     * Filter that keeps everything.
+     */
+    public static final FieldFilter NONE = new FieldFilter(null, null);
+
+    /**
+     * Fields separator in flattened json.
+     */
+    private static final String FIELD_SEPARATOR = ".";
+
+    /**
+     * Split field by field separator.
+     */
+    private static final Function<String, String[]> SPLIT_KEYS = s -> s.split("\\.");
+
+    /**
+     * Given a parent key, returns all children fields from the given key set that belong to that parent.
+     */
+    private static final BiFunction<Set<String>, String, List<String>> CHILD_KEYS = (parentFields, parent) -> {
+        final var list = new ArrayList<String>();
+        final var prefix = parent + FIELD_SEPARATOR;
+        for (final var key : parentFields) {
+            if (key.equalsIgnoreCase(parent) || key.startsWith(prefix)) {
+                list.add(key);
+            }
+        }
+        return list;
+    };
+
+    /**
+     * Returns the minimum number of dot-separated segments across all children field names.
+     * Used to determine the shallowest level of nesting among a group of fields.
+     * ["as.ew.er", "ds.sd', "asd.a"] -> 1
+     * ["as.ew.er", "ds.sd', "asd"] -> 0
+     */
+    private static final Function<List<String>, Integer> MIN_DOT_DEPTH = children ->
+            children.stream()
+                    .mapToInt(child -> StringUtils.countMatches(child, FIELD_SEPARATOR))
+                    .min()
+                    .orElse(0);
+
+    /**
+     * Reduces a list of deeply nested fields into their top-level path up to the shallowest shared depth.
+     * Example: ["a.b.c", "a.d"] → ["a.b", "a.d"]
+     */
+    private static final Function<List<String>, Set<String>> TOP_LEVEL_FIELDS = children -> {
+        final var result = new HashSet<String>();
+        final int depth = MIN_DOT_DEPTH.apply(children);
+
+        for (final var key : children) {
+            final var parts = SPLIT_KEYS.apply(key);
+            result.add(String.join(FIELD_SEPARATOR, Arrays.copyOf(parts, depth + 1)));
+        }
+
+        return result;
+    };
+
+    /**
+     * Reduces a full set of field names to their minimal distinguishable top-level segments.
+     * Helps simplify field path matching.
+     */
+    private static final Function<Set<String>, Set<String>> REDUCE_TO_TOP_LEVEL = keys -> {
+        final var result = new HashSet<String>();
+        for (final var key : keys) {
+            final var top = SPLIT_KEYS.apply(key)[0];
+            result.addAll(TOP_LEVEL_FIELDS.apply(CHILD_KEYS.apply(keys, top)));
+        }
+        return result;
+    };
+
+    /**
+     * Compiled fields to exclude; {@code null} if nothing is excluded.
+     */
+    private final PathTrie blackList;
+
+    /**
+     * Compiled fields to include; {@code null} if everything is included.
+     */
+    private final PathTrie whiteList;
+
+    /**
+     * Constructor.
+     *
+     * @param blackList compiled fields to exclude.
+     * @param whiteList compiled fields to include.
+     */
+    private FieldFilter(final PathTrie blackList, final PathTrie whiteList) {
+        this.blackList = blackList;
+        this.whiteList = whiteList;
+    }
+
+    /**
+     * Compiles ignore and compareOnly paths.
+     *
+     * @param blackList fields to exclude (ignored).
+     * @param whiteList fields to include (compare only).
+     * @return compiled filter.
+     */
+    public static FieldFilter of(final Set<String> blackList, final Set<String> whiteList) {
+        return blackList.isEmpty() && whiteList.isEmpty()
+                ? NONE
+                : new FieldFilter(
+                        PathTrie.compile(REDUCE_TO_TOP_LEVEL.apply(blackList)),
+                        PathTrie.compile(REDUCE_TO_TOP_LEVEL.apply(whiteList)));
+    }
+
+    /**
+     * Returns whether the filter keeps everything.
+     *
+     * @return true if neither ignore nor compareOnly paths are set.
+     */
+    public boolean isEmpty() {
+        return blackList == null && whiteList == null;
+    }
+
+    /**
+     * Returns the root of compiled fields to exclude.
+     *
+     * @return trie root; {@code null} if nothing is excluded.
+     */
+    public PathTrie getBlackList() {
+        return blackList;
+    }
+
+    /**
+     * Returns the root of compiled fields to include.
+     *
+     * @return trie root; {@code null} if everything is included.
+     */
+    public PathTrie getWhiteList() {
+        return whiteList;
+    }
+}
@@ -0,0 +1,277 @@
+package com.mbi;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static com.mbi.AssertionUtils.isKept;
+import static com.mbi.AssertionUtils.remaining;
+
+/**
+ * Parser applying compiled ignore/compareOnly paths while a document is read.
+ * <p>
+ * The result equals {@link AssertionUtils#filterValue} applied to the whole parsed document, but fields and
+ * elements excluded by the path tries are skipped token by token and never materialized, so the work done
+ * for a large document with a few compared fields depends on those fields. Documents that the tree filter
+ * rejects or leaves as they are (objects without kept fields, top-level arrays holding other values than
+ * objects) are read again from their source and filtered as trees, so they are reported exactly the same way.
+ * Instances keep the size of the last document read and are confined to one assertion.
+ */
+final class FieldProjection {
+
+    /**
+     * Compiled fields to exclude and include.
+     */
+    private final FieldFilter filter;
+
+    /**
+     * Number of members or elements of the last container read. The outermost container is read last.
+     */
+    private int size = AssertionEvent.UNKNOWN;
+
+    /**
+     * Constructor.
+     *
+     * @param filter compiled fields to exclude and include.
+     */
+    public FieldProjection(final FieldFilter filter) {
+        this.filter = filter;
+    }
+
+    /**
+     * Reads a filtered document.
+     *
+     * @param source opens the document; opened again if the document has to be filtered as a tree.
+     * @return filtered document.
+     */
+    public Object parse(final Supplier<JsonReader> source) {
+        final Object projected;
+        try (var reader = source.get()) {
+            projected = project(reader);
+            if (projected != null) {
+                reader.endDocument();
+            }
+        }
+        final Object result;
+        if (projected == null) {
+            final var document = JsonReader.parse(source.get());
+            size = document instanceof JSONArray array ? array.length() : AssertionEvent.UNKNOWN;
+            result = AssertionUtils.filterValue(document, filter);
+        } else {
+            result = projected;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of top-level members or elements of the last document read.
+     *
+     * @return element count, or {@link AssertionEvent#UNKNOWN} for scalars.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Reads the top-level value: objects are filtered, arrays element by element, scalars are kept.
+     *
+     * @param reader reader of the document.
+     * @return filtered value; {@code null} if the document has to be filtered as a tree.
+     */
+    private Object project(final JsonReader reader) {
+        final int next = reader.peek();
+        final Object result;
+        if (next == '{') {
+            result = projectRecord(reader);
+        } else if (next == '[') {
+            result = projectRecords(reader);
+        } else {
+            size = AssertionEvent.UNKNOWN;
+            result = reader.readValue();
+        }
+        return result;
+    }
+
+    /**
+     * Reads a top-level array, filtering each element as a top-level object.
+     *
+     * @param reader reader positioned at the array.
+     * @return filtered array; {@code null} once an element is not an object or has no kept fields.
+     */
+    private JSONArray projectRecords(final JsonReader reader) {
+        final var result = new JSONArray();
+        boolean projected = true;
+        reader.beginArray();
+        while (projected && reader.hasNext()) {
+            final var object = reader.peek() == '{' ? projectRecord(reader) : null;
+            if (object == null) {
+                projected = false;
+            } else {
+                result.put(object);
+            }
+        }
+        if (projected) {
+            reader.endArray();
+            size = result.length();
+        }
+        return projected ? result : null;
+    }
+
+    /**
+     * Reads an object filtered from the roots of the tries.
+     *
+     * @param reader reader positioned at the object.
+     * @return filtered object; {@code null} if no field is kept.
+     */
+    private JSONObject projectRecord(final JsonReader reader) {
+        final var object = projectObject(reader, filter.getWhiteList(), filter.getBlackList());
+        return object == null || object.isEmpty() ? null : object;
+    }
+
+    /**
+     * Reads a value, following the whitelist and blacklist tries as {@code AssertionUtils.pruneValue} does.
+     *
+     * @param reader    reader positioned at the value.
+     * @param whiteList remaining whitelist below the value; {@code null} if everything is included.
+     * @param blackList remaining blacklist below the value; {@code null} if nothing is excluded.
+     * @return filtered value; {@code null} if nothing is kept.
+     */
+    private Object projectValue(final JsonReader reader, final PathTrie whiteList, final PathTrie blackList) {
+        final int next = reader.peek();
+        final Object result;
+        if (whiteList == null && blackList == null) {
+            result = reader.readValue(); // nothing to filter below
+        } else if (next == '{') {
+            result = projectObject(reader, whiteList, blackList);
+        } else if (next == '[') {
+            result = projectArray(reader, whiteList, blackList);
+        } else if (whiteList == null) {
+            result = reader.nextScalar();
+        } else {
+            reader.skipValue(); // leaf is kept only if whitelisted
+            result = null;
+        }
+        return result;
+    }
+
+    /**
+     * Reads the kept fields of an object and skips the others.
+     *
+     * @param reader    reader positioned at the object.
+     * @param whiteList remaining whitelist; {@code null} if everything is included.
+     * @param blackList remaining blacklist; {@code null} if nothing is excluded.
+     * @return filtered object, empty if the object is an empty leaf; {@code null} if nothing is kept.
+     */
+    private JSONObject projectObject(final JsonReader reader, final PathTrie whiteList, final PathTrie blackList) {
+        final var result = new JSONObject();
+        final Set<String> names = new HashSet<>();
+        int members = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            members++;
+            final var key = reader.nextName();
+            if (!names.add(key)) {
+                throw reader.duplicateKey(key);
+            }
+            final var value = projectField(reader, key, whiteList, blackList);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        reader.endObject();
+        size = members;
+        return isContainerKept(members, result.isEmpty(), whiteList) ? result : null;
+    }
+
+    /**
+     * Reads the kept part of a field value and skips the rest.
+     *
+     * @param reader    reader positioned at the value.
+     * @param key       field name.
+     * @param whiteList remaining whitelist at the object; {@code null} if everything is included.
+     * @param blackList remaining blacklist at the object; {@code null} if nothing is excluded.
+     * @return filtered value; {@code null} if nothing is kept.
+     */
+    private Object projectField(final JsonReader reader, final String key, final PathTrie whiteList,
+                                final PathTrie blackList) {
+        final int next = reader.peek();
+        final boolean container = next == '{' || next == '[';
+        final var white = whiteList == null ? null : whiteList.field(key, !container);
+        final var black = blackList == null ? null : blackList.field(key, !container);
+        final Object value;
+        if (container && (isCaseDependent(whiteList, key) || isCaseDependent(blackList, key))) {
+            // only an empty container matches the path in another case, so it has to be read
+            value = AssertionUtils.pruneField(key, reader.readValue(), whiteList, blackList);
+        } else if (isKept(whiteList, white, black)) {
+            value = projectValue(reader, remaining(white), black);
+        } else {
+            reader.skipValue();
+            value = null;
+        }
+        return value;
+    }
+
+    /**
+     * Returns whether a field is matched differently depending on whether its value is a leaf, i.e. a path ends
+     * with the field name in another case.
+     *
+     * @param trie remaining whitelist or blacklist at the object; {@code null} if none.
+     * @param key  field name.
+     * @return true if the value has to be read to find its node.
+     */
+    private static boolean isCaseDependent(final PathTrie trie, final String key) {
+        return trie != null && trie.field(key, true) != trie.field(key);
+    }
+
+    /**
+     * Reads the kept elements of an array and skips the others. Removed elements that precede kept ones
+     * become nulls.
+     *
+     * @param reader    reader positioned at the array.
+     * @param whiteList remaining whitelist; {@code null} if everything is included.
+     * @param blackList remaining blacklist; {@code null} if nothing is excluded.
+     * @return filtered array, empty if the array is an empty leaf; {@code null} if nothing is kept.
+     */
+    private JSONArray projectArray(final JsonReader reader, final PathTrie whiteList, final PathTrie blackList) {
+        final var result = new JSONArray();
+        int index = 0;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            final var white = whiteList == null ? null : whiteList.index(index);
+            final var black = blackList == null ? null : blackList.index(index);
+            final Object value;
+            if (isKept(whiteList, white, black)) {
+                value = projectValue(reader, remaining(white), black);
+            } else {
+                reader.skipValue();
+                value = null;
+            }
+            if (value != null) {
+                while (result.length() < index) {
+                    result.put(JSONObject.NULL);
+                }
+                result.put(value);
+            }
+            index++;
+        }
+        reader.endArray();
+        size = index;
+        return isContainerKept(index, result.isEmpty(), whiteList) ? result : null;
+    }
+
+    /**
+     * Decides whether a filtered container is kept: an empty container is a leaf, kept only if whitelisted,
+     * others are kept if anything below them is.
+     *
+     * @param length    number of members or elements read.
+     * @param pruned    whether nothing below the container is kept.
+     * @param whiteList remaining whitelist; {@code null} if everything is included.
+     * @return true if the container is kept.
+     */
+    private static boolean isContainerKept(final int length, final boolean pruned, final PathTrie whiteList) {
+        return length == 0 ? whiteList == null : !pruned;
+    }
+}
@@ -0,0 +1,65 @@
+package com.mbi;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Asserts Jackson trees equal or not equal with an {@link AssertionSpec}.
+ * <p>
+ * Trees are copied into the compared documents by a single walk, without being written to text and parsed again.
+ * Requires {@code com.fasterxml.jackson.core:jackson-databind}, an optional dependency of this library; the
+ * Jackson methods are kept out of {@link Assert}, {@link JsonAssert} and {@link AssertionSpec} so that those
+ * types can be used and reflected on without it. Instances are immutable and can be shared by tests running
+ * in parallel.
+ * <pre>{@code
+ * private static final JacksonAssert ASSERTION = new JacksonAssert(AssertionSpec.DEFAULT.ignore("id"));
+ *
+ * ASSERTION.jsonNodeEquals(mapper.readTree(body), expectedNode);
+ * }</pre>
+ */
+public final class JacksonAssert {
+
+    /**
+     * Assertion configuration.
+     */
+    private final AssertionSpec spec;
+
+    /**
+     * Constructor of assertions with the default configuration.
+     */
+    public JacksonAssert() {
+        this(AssertionSpec.DEFAULT);
+    }
+
+    /**
+     * Constructor of assertions with the given configuration.
+     *
+     * @param spec assertion configuration
+     */
+    public JacksonAssert(final AssertionSpec spec) {
+        Validate.notNull(spec, "Assertion spec is null");
+        this.spec = spec;
+    }
+
+    /**
+     * Asserts two Jackson trees are equal.
+     *
+     * @param actual   actual JSON tree
+     * @param expected expected JSON tree
+     * @throws AssertionError if assertion failed.
+     */
+    public void jsonNodeEquals(final JsonNode actual, final JsonNode expected) {
+        spec.assertParsedEquals(JacksonTrees::toDocument, actual, expected);
+    }
+
+    /**
+     * Asserts two Jackson trees are not equal.
+     *
+     * @param actual   actual JSON tree
+     * @param expected expected JSON tree
+     * @throws AssertionError if assertion failed.
+     */
+    public void jsonNodeNotEquals(final JsonNode actual, final JsonNode expected) {
+        spec.assertParsedNotEquals(JacksonTrees::toDocument, actual, expected);
+    }
+}
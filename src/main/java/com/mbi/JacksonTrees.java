@@ -0,0 +1,82 @@
+package com.mbi;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.apache.commons.lang3.Validate;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.Map;
+
+/**
+ * Adapts Jackson trees to the documents compared by the assertion engine.
+ * <p>
+ * Nodes are copied by a single walk of the tree: scalars keep their Java values (numbers keep the type Jackson
+ * parsed them with) and no text is written or parsed. Jackson is an optional dependency; this class is only loaded
+ * by {@link JacksonAssert}.
+ */
+final class JacksonTrees {
+
+    /**
+     * Prevent instantiation.
+     */
+    private JacksonTrees() {
+    }
+
+    /**
+     * Converts a Jackson tree to a document.
+     *
+     * @param node Jackson tree.
+     * @return JSON object, array or scalar.
+     * @throws NullPointerException if the node is {@code null}.
+     */
+    public static Object toDocument(final JsonNode node) {
+        Validate.notNull(node, "Json node is null");
+        return toValue(node);
+    }
+
+    /**
+     * Converts a node of any type. Binary and POJO nodes are compared by their text, as Jackson writes them.
+     *
+     * @param node Jackson node.
+     * @return document value.
+     */
+    private static Object toValue(final JsonNode node) {
+        return switch (node.getNodeType()) {
+            case OBJECT -> toObject(node);
+            case ARRAY -> toArray(node);
+            case NUMBER -> node.numberValue();
+            case BOOLEAN -> node.booleanValue();
+            case STRING -> node.textValue();
+            case NULL, MISSING -> JSONObject.NULL;
+            default -> node.asText();
+        };
+    }
+
+    /**
+     * Converts an object node.
+     *
+     * @param node object node.
+     * @return JSON object.
+     */
+    private static JSONObject toObject(final JsonNode node) {
+        final var object = new JSONObject(node.size());
+        for (final Map.Entry<String, JsonNode> field : node.properties()) {
+            object.put(field.getKey(), toValue(field.getValue()));
+        }
+        return object;
+    }
+
+    /**
+     * Converts an array node.
+     *
+     * @param node array node.
+     * @return JSON array.
+     */
+    private static JSONArray toArray(final JsonNode node) {
+        final var array = new JSONArray(node.size());
+        for (final var element : node) {
+            array.put(toValue(element));
+        }
+        return array;
+    }
+}
@@ -0,0 +1,99 @@
+package com.mbi;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event of one assertion, from its start until it passes or fails.
+ * <p>
+ * Instances are created for every assertion; while the event is not enabled in a recording, creating one and
+ * checking {@link #isEnabled()} costs next to nothing.
+ */
+@Name("com.mbi.Assertion")
+@Label("JSON Assertion")
+@Category("JSON Assert")
+@Description("JSON assertion with its outcome and document sizes")
+final class JfrAssertionEvent extends Event {
+
+    /**
+     * Name of the assertion method.
+     */
+    @Label("Operation")
+    private String operation;
+
+    /**
+     * Comparison mode.
+     */
+    @Label("Compare Mode")
+    private String mode;
+
+    /**
+     * Whether the assertion passed.
+     */
+    @Label("Passed")
+    private boolean passed;
+
+    /**
+     * Number of differences found.
+     */
+    @Label("Differences")
+    private int differences;
+
+    /**
+     * Number of ignored and compared-only field paths.
+     */
+    @Label("Field Paths")
+    private int paths;
+
+    /**
+     * Size of the expected source; -1 if unknown.
+     */
+    @Label("Expected Size")
+    @DataAmount
+    private long expectedSize;
+
+    /**
+     * Size of the actual source; -1 if unknown.
+     */
+    @Label("Actual Size")
+    @DataAmount
+    private long actualSize;
+
+    /**
+     * Number of top-level members or elements of the expected document; -1 if unknown.
+     */
+    @Label("Expected Elements")
+    private int expectedElements;
+
+    /**
+     * Number of top-level members or elements of the actual document; -1 if unknown.
+     */
+    @Label("Actual Elements")
+    private int actualElements;
+
+    /**
+     * Ends the event and commits it with the outcome of the assertion.
+     *
+     * @param event outcome and sizes of the assertion.
+     * @param count number of ignored and compared-only field paths.
+     */
+    public void record(final AssertionEvent event, final int count) {
+        end();
+        if (shouldCommit()) {
+            operation = event.getOperation();
+            mode = event.getMode().name();
+            passed = event.isPassed();
+            differences = event.getDifferenceCount();
+            paths = count;
+            expectedSize = event.getExpectedSize();
+            actualSize = event.getActualSize();
+            expectedElements = event.getExpectedElements();
+            actualElements = event.getActualElements();
+            commit();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.mbi;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event of one {@link AssertionPhase} of an assertion.
+ */
+@Name("com.mbi.AssertionPhase")
+@Label("JSON Assertion Phase")
+@Category("JSON Assert")
+@Description("Parsing, filtering, array matching, comparison or failure message rendering of a JSON assertion")
+final class JfrPhaseEvent extends Event {
+
+    /**
+     * Name of the assertion method.
+     */
+    @Label("Operation")
+    private String operation;
+
+    /**
+     * Comparison mode.
+     */
+    @Label("Compare Mode")
+    private String mode;
+
+    /**
+     * Assertion phase.
+     */
+    @Label("Phase")
+    private String phase;
+
+    /**
+     * Ends the event and commits it.
+     *
+     * @param name      name of the assertion method.
+     * @param compare   comparison mode.
+     * @param completed assertion phase.
+     */
+    public void record(final String name, final CompareMode compare, final AssertionPhase completed) {
+        end();
+        if (shouldCommit()) {
+            operation = name;
+            mode = compare.name();
+            phase = completed.name();
+            commit();
+        }
+    }
+}
@@ -4,48 +4,59 @@ import io.restassured.response.Response;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Set;
-
-import static com.mbi.AssertionUtils.objectsToArray;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.function.Consumer;
 
 /**
  * Performs JSON equality and inequality assertions.
  * <p>
  * Supports different comparison modes ({@link CompareMode}) and filtering via ignore/include fields.
- * Can compare {@link JSONObject}, {@link JSONArray} or {@link Response} bodies.
+ * Can compare {@link JSONObject}, {@link JSONArray}, {@link Response} bodies or JSON files;
+ * response bodies can be compared while they are streamed (see {@link #withStreaming()}).
  * Automatically resets its state after each assertion.
  * Designed for use in test scenarios where JSON structure or partial matching is required.
+ * <p>
+ * The configuration set up before an assertion is kept per thread, so an instance can be shared by tests running
+ * in parallel. Configurations reused by many assertions are better built once as an {@link AssertionSpec}.
+ * {@link AssertionListener}s passed to the constructor are notified after every assertion.
  */
 public final class JsonAssert implements Assert {
 
     /**
-     * Assertion engine that handles low-level equality logic.
+     * Configuration of the next assertion of the current thread.
      */
-    private final EqualityAsserter asserter = new EqualityAsserter();
+    private final ThreadLocal<AssertionSpec> spec;
 
     /**
-     * Comparison mode. Defaults to {@link CompareMode#NOT_ORDERED}.
+     * Constructor of assertions with the default configuration.
      */
-    private CompareMode mode = CompareMode.NOT_ORDERED;
-
-    /**
-     * Fields to exclude from comparison.
-     */
-    private Set<String> blackList = new HashSet<>();
+    public JsonAssert() {
+        this.spec = ThreadLocal.withInitial(() -> AssertionSpec.DEFAULT);
+    }
 
     /**
-     * Fields to include in comparison (others are ignored).
+     * Constructor of assertions notifying listeners; the listeners are kept when the configuration is reset
+     * after each assertion.
+     *
+     * @param listeners listeners notified after each assertion
      */
-    private Set<String> whiteList = new HashSet<>();
+    public JsonAssert(final AssertionListener... listeners) {
+        AssertionSpec initial = AssertionSpec.DEFAULT;
+        for (final var listener : listeners) {
+            initial = initial.withListener(listener);
+        }
+        final var defaults = initial;
+        this.spec = ThreadLocal.withInitial(() -> defaults);
+    }
 
     /**
      * Compares two JSON objects for equality.
      */
     @Override
     public void jsonEquals(final JSONObject actual, final JSONObject expected) {
-        perform(() -> asserter.assertEquals(actual, expected, mode, blackList, whiteList));
+        perform(assertion -> assertion.jsonEquals(actual, expected));
     }
 
     /**
@@ -53,7 +64,7 @@ public final class JsonAssert implements Assert {
      */
     @Override
     public void jsonEquals(final JSONArray actual, final JSONArray expected) {
-        perform(() -> asserter.assertEquals(actual, expected, mode, blackList, whiteList));
+        perform(assertion -> assertion.jsonEquals(actual, expected));
     }
 
     /**
@@ -62,7 +73,7 @@ public final class JsonAssert implements Assert {
      */
     @Override
     public void jsonEquals(final JSONArray actual, final JSONObject... expected) {
-        perform(() -> asserter.assertEquals(actual, objectsToArray(expected), mode, blackList, whiteList));
+        perform(assertion -> assertion.jsonEquals(actual, expected));
     }
 
     /**
@@ -70,7 +81,7 @@ public final class JsonAssert implements Assert {
      */
     @Override
     public void jsonEquals(final Response actual, final JSONArray expected) {
-        perform(() -> asserter.assertEquals(new JSONArray(actual.asString()), expected, mode, blackList, whiteList));
+        perform(assertion -> assertion.jsonEquals(actual, expected));
     }
 
     /**
@@ -78,7 +89,7 @@ public final class JsonAssert implements Assert {
      */
     @Override
     public void jsonEquals(final Response actual, final JSONObject expected) {
-        perform(() -> asserter.assertEquals(new JSONObject(actual.asString()), expected, mode, blackList, whiteList));
+        perform(assertion -> assertion.jsonEquals(actual, expected));
     }
 
     /**
@@ -86,10 +97,63 @@ public final class JsonAssert implements Assert {
      */
     @Override
     public void jsonEquals(final Response actual, final JSONObject... expected) {
-        perform(() -> asserter.assertEquals(
-                new JSONArray(actual.asString()),
-                objectsToArray(expected),
-                mode, blackList, whiteList));
+        perform(assertion -> assertion.jsonEquals(actual, expected));
+    }
+
+    /**
+     * Compares two JSON files. Both files are memory-mapped; the actual file is compared while it is read.
+     */
+    @Override
+    public void jsonEquals(final Path actual, final Path expected) {
+        perform(assertion -> assertion.jsonEquals(actual, expected));
+    }
+
+    /**
+     * Parses two documents once and compares them for equality.
+     */
+    @Override
+    public void jsonEquals(final String actual, final String expected) {
+        perform(assertion -> assertion.jsonEquals(actual, expected));
+    }
+
+    /**
+     * Parses two documents once and compares them for equality.
+     */
+    @Override
+    public void jsonEquals(final byte[] actual, final byte[] expected) {
+        perform(assertion -> assertion.jsonEquals(actual, expected));
+    }
+
+    /**
+     * Parses two documents once and compares them for equality.
+     */
+    @Override
+    public void jsonEquals(final ByteBuffer actual, final ByteBuffer expected) {
+        perform(assertion -> assertion.jsonEquals(actual, expected));
+    }
+
+    /**
+     * Parses two documents once and compares them for equality.
+     */
+    @Override
+    public void jsonEquals(final InputStream actual, final InputStream expected) {
+        perform(assertion -> assertion.jsonEquals(actual, expected));
+    }
+
+    /**
+     * Compares two JSON Lines streams record by record. Both streams are closed.
+     */
+    @Override
+    public void jsonLinesEquals(final InputStream actual, final InputStream expected) {
+        perform(assertion -> assertion.jsonLinesEquals(actual, expected));
+    }
+
+    /**
+     * Compares two JSON Lines files record by record. Both files are memory-mapped.
+     */
+    @Override
+    public void jsonLinesEquals(final Path actual, final Path expected) {
+        perform(assertion -> assertion.jsonLinesEquals(actual, expected));
     }
 
     /**
@@ -97,7 +161,7 @@ public final class JsonAssert implements Assert {
      */
     @Override
     public void jsonNotEquals(final JSONObject actual, final JSONObject expected) {
-        perform(() -> asserter.assertNotEquals(actual, expected, mode, blackList, whiteList));
+        perform(assertion -> assertion.jsonNotEquals(actual, expected));
     }
 
     /**
@@ -105,7 +169,39 @@ public final class JsonAssert implements Assert {
      */
     @Override
     public void jsonNotEquals(final JSONArray actual, final JSONArray expected) {
-        perform(() -> asserter.assertNotEquals(actual, expected, mode, blackList, whiteList));
+        perform(assertion -> assertion.jsonNotEquals(actual, expected));
+    }
+
+    /**
+     * Parses two documents once and asserts that they are not equal.
+     */
+    @Override
+    public void jsonNotEquals(final String actual, final String expected) {
+        perform(assertion -> assertion.jsonNotEquals(actual, expected));
+    }
+
+    /**
+     * Parses two documents once and asserts that they are not equal.
+     */
+    @Override
+    public void jsonNotEquals(final byte[] actual, final byte[] expected) {
+        perform(assertion -> assertion.jsonNotEquals(actual, expected));
+    }
+
+    /**
+     * Parses two documents once and asserts that they are not equal.
+     */
+    @Override
+    public void jsonNotEquals(final ByteBuffer actual, final ByteBuffer expected) {
+        perform(assertion -> assertion.jsonNotEquals(actual, expected));
+    }
+
+    /**
+     * Parses two documents once and asserts that they are not equal.
+     */
+    @Override
+    public void jsonNotEquals(final InputStream actual, final InputStream expected) {
+        perform(assertion -> assertion.jsonNotEquals(actual, expected));
     }
 
     /**
@@ -116,7 +212,7 @@ public final class JsonAssert implements Assert {
      */
     @Override
     public JsonAssert withMode(final CompareMode mode) {
-        this.mode = mode;
+        spec.set(spec.get().withMode(mode));
         return this;
     }
 
@@ -128,7 +224,7 @@ public final class JsonAssert implements Assert {
      */
     @Override
     public JsonAssert ignore(final String... ignoreFieldNames) {
-        this.blackList = new HashSet<>(Arrays.asList(ignoreFieldNames));
+        spec.set(spec.get().ignore(ignoreFieldNames));
         return this;
     }
 
@@ -140,34 +236,92 @@ public final class JsonAssert implements Assert {
      */
     @Override
     public JsonAssert compareOnly(final String... compareFieldNames) {
-        this.whiteList = new HashSet<>(Arrays.asList(compareFieldNames));
+        spec.set(spec.get().compareOnly(compareFieldNames));
         return this;
     }
 
     /**
-     * Executes assertion logic and resets internal state.
+     * Matches the elements of arrays at a path by key fields.
      *
-     * @param assertion lambda that performs the actual comparison
+     * @param arrayPath path of the array elements, e.g. {@code items[]}
+     * @param keyFields fields identifying an element
+     * @return this for method chaining
      */
-    private void perform(final Runnable assertion) {
-        try {
-            assertion.run();
-        } finally {
-            reset();
-        }
+    @Override
+    public JsonAssert matchArrayBy(final String arrayPath, final String... keyFields) {
+        spec.set(spec.get().matchArrayBy(arrayPath, keyFields));
+        return this;
+    }
+
+    /**
+     * Sets the maximum length of a failure message; longer messages are truncated.
+     *
+     * @param maxLength maximum number of characters
+     * @return this for method chaining
+     */
+    @Override
+    public JsonAssert withMaxMessageLength(final int maxLength) {
+        spec.set(spec.get().withMaxMessageLength(maxLength));
+        return this;
+    }
+
+    /**
+     * Sets the number of document lines shown around each difference in a failure message.
+     *
+     * @param contextLines number of lines before and after each difference
+     * @return this for method chaining
+     */
+    @Override
+    public JsonAssert withContextLines(final int contextLines) {
+        spec.set(spec.get().withContextLines(contextLines));
+        return this;
+    }
+
+    /**
+     * Compares response bodies while they are read, without building them as a string or a tree.
+     *
+     * @return this for method chaining
+     */
+    @Override
+    public JsonAssert withStreaming() {
+        spec.set(spec.get().withStreaming());
+        return this;
     }
 
     /**
-     * Resets compare mode and field filters to their default state.
+     * Splits the comparison of large arrays and objects into fork/join tasks run by the given number of threads.
+     *
+     * @param parallelism number of threads; 1 compares sequentially
+     * @return this for method chaining
+     */
+    @Override
+    public JsonAssert withParallelism(final int parallelism) {
+        spec.set(spec.get().withParallelism(parallelism));
+        return this;
+    }
+
+    /**
+     * Stops the comparison after the given number of differences; 1 fails on the first difference.
+     *
+     * @param maxDifferences number of differences
+     * @return this for method chaining
+     */
+    @Override
+    public JsonAssert withMaxDifferences(final int maxDifferences) {
+        spec.set(spec.get().withMaxDifferences(maxDifferences));
+        return this;
+    }
+
+    /**
+     * Executes assertion logic with the configuration of the current thread and resets it.
      * Ensures assertions are stateless between uses, every new comparison starts from scratch: previous compare mode,
      * ignore and compare fields should be reinstalled.
+     *
+     * @param assertion assertion performed with the configuration
      */
-    private void reset() {
-        // Default mode
-        this.mode = CompareMode.NOT_ORDERED;
-        // Default fields to ignore
-        this.blackList.clear();
-        // Default fields to compare
-        this.whiteList.clear();
+    private void perform(final Consumer<AssertionSpec> assertion) {
+        final var current = spec.get();
+        spec.remove();
+        assertion.accept(current);
     }
 }
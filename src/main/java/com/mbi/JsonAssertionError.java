@@ -0,0 +1,130 @@
+package com.mbi;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Assertion error of a JSON comparison.
+ * <p>
+ * Carries the compared documents and the differences found, and renders its message only when
+ * the message is first read (within {@link MessageLimits}), so throwing the error is cheap
+ * even for huge documents.
+ */
+final class JsonAssertionError extends AssertionError {
+
+    /**
+     * Serialization version.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Message used when there are no differences (e.g. documents are unexpectedly equal).
+     */
+    private final String summary;
+
+    /**
+     * Differences found by the comparison.
+     */
+    private final List<JsonDifference> differences;
+
+    /**
+     * Expected document.
+     */
+    private final Object expected;
+
+    /**
+     * Source of the actual document, read when the message is rendered.
+     */
+    private final Supplier<Object> actual;
+
+    /**
+     * Rendering limits of the message.
+     */
+    private final MessageLimits limits;
+
+    /**
+     * Measurements of the assertion, reporting the rendering of the message.
+     */
+    private AssertionRecorder recorder = AssertionRecorder.NONE;
+
+    /**
+     * Rendered message; {@code null} until first read.
+     */
+    private String message;
+
+    /**
+     * Constructor for sources that are not kept as documents, e.g. compared record by record.
+     * The message lists the differences only.
+     *
+     * @param differences differences found by the comparison.
+     * @param limits      rendering limits of the message.
+     */
+    public JsonAssertionError(final List<JsonDifference> differences, final MessageLimits limits) {
+        this(null, differences, null, () -> null, limits);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param summary     message used when there are no differences.
+     * @param differences differences found by the comparison.
+     * @param expected    expected document.
+     * @param actual      actual document.
+     * @param limits      rendering limits of the message.
+     */
+    public JsonAssertionError(final String summary, final List<JsonDifference> differences,
+                              final Object expected, final Object actual, final MessageLimits limits) {
+        this(summary, differences, expected, () -> actual, limits);
+    }
+
+    /**
+     * Constructor for an actual document that is not kept in memory, e.g. a streamed one.
+     *
+     * @param summary     message used when there are no differences.
+     * @param differences differences found by the comparison.
+     * @param expected    expected document.
+     * @param actual      source of the actual document, read only if the message is rendered.
+     * @param limits      rendering limits of the message.
+     */
+    public JsonAssertionError(final String summary, final List<JsonDifference> differences,
+                              final Object expected, final Supplier<Object> actual, final MessageLimits limits) {
+        super();
+        this.summary = summary;
+        this.differences = differences;
+        this.expected = expected;
+        this.actual = actual;
+        this.limits = limits;
+    }
+
+    /**
+     * Returns the differences found by the comparison.
+     *
+     * @return differences; empty if documents were unexpectedly equal.
+     */
+    public List<JsonDifference> getDifferences() {
+        return differences;
+    }
+
+    /**
+     * Sets the measurements of the assertion that report the rendering of the message.
+     *
+     * @param recorder measurements of the assertion.
+     */
+    public void setRecorder(final AssertionRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Renders the message on first call.
+     *
+     * @return failure message.
+     */
+    @Override
+    public String getMessage() {
+        if (message == null) {
+            message = recorder.render(
+                    () -> FailureMessage.render(summary, differences, expected, actual.get(), limits));
+        }
+        return message;
+    }
+}
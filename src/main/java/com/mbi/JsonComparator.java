@@ -0,0 +1,1023 @@
+package com.mbi;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Native structural comparison engine for {@link JSONObject} and {@link JSONArray} trees.
+ * <p>
+ * Walks expected and actual documents once, honouring the array ordering rules of {@link CompareMode}.
+ * Objects never allow extra or missing fields; arrays must have the same number of elements.
+ * Nothing is allocated while values match: the current path lives on a reusable stack,
+ * and differences (with their paths and messages) are built only once a mismatch is found.
+ * <p>
+ * With a {@link Parallelism}, large arrays and objects are split into fork/join tasks, each walking its part
+ * with its own comparator; the parts' differences are concatenated in sequential order, so the result is
+ * identical to the sequential one. Probe comparisons always run sequentially.
+ * <p>
+ * A comparison may be limited to a number of differences: the walk stops as soon as the limit is reached, and the
+ * differences found are the first ones a full comparison would report.
+ * <p>
+ * Instances are cheap, stateful and not thread-safe; create one per comparison.
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+final class JsonComparator {
+
+    /**
+     * Difference limit meaning that all differences are collected.
+     */
+    public static final int ALL_DIFFERENCES = Integer.MAX_VALUE;
+
+    /**
+     * Maximum number of leftover containers per side paired by closest match in an unordered array.
+     * Bounds the quadratic cost matrix and the cubic assignment for arrays that differ a lot.
+     */
+    private static final int MAX_CLOSEST_PAIRS = 100;
+
+    /**
+     * Maximum number of deleted and inserted elements searched to align different ordered arrays.
+     * Arrays that differ more are compared index by index, or by length.
+     */
+    private static final int MAX_ORDERED_EDITS = 1_000;
+
+    /**
+     * Distance between containers that cannot be paired.
+     */
+    private static final int INCOMPARABLE = Integer.MAX_VALUE;
+
+    /**
+     * Comparison mode; only array ordering is relevant here.
+     */
+    private final CompareMode mode;
+
+    /**
+     * Fork/join configuration.
+     */
+    private final Parallelism parallelism;
+
+    /**
+     * Precomputed structural hashes of expected containers by identity (see {@link JsonHash#index}).
+     */
+    private final Map<Object, Integer> expectedHashes;
+
+    /**
+     * Identity keys of array elements.
+     */
+    private final ArrayKeys keys;
+
+    /**
+     * Path of the value being compared.
+     */
+    private final ComparisonPath path;
+
+    /**
+     * Differences found by the current comparison.
+     */
+    private final List<JsonDifference> differences = new ArrayList<>();
+
+    /**
+     * Maximum number of differences of the current comparison.
+     */
+    private int maxDifferences = ALL_DIFFERENCES;
+
+    /**
+     * Nesting level of probe comparisons. While probing, differences are not recorded and
+     * the walk stops at the first mismatch.
+     */
+    private int probeDepth;
+
+    /**
+     * Constructor.
+     *
+     * @param mode comparison mode.
+     */
+    public JsonComparator(final CompareMode mode) {
+        this(mode, Parallelism.NONE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param mode        comparison mode.
+     * @param parallelism fork/join configuration.
+     */
+    public JsonComparator(final CompareMode mode, final Parallelism parallelism) {
+        this(mode, parallelism, ArrayKeys.NONE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param mode        comparison mode.
+     * @param parallelism fork/join configuration.
+     * @param keys        identity keys of array elements.
+     */
+    public JsonComparator(final CompareMode mode, final Parallelism parallelism, final ArrayKeys keys) {
+        this(mode, parallelism, Map.of(), keys);
+    }
+
+    /**
+     * Constructor for an expected document compared many times.
+     *
+     * @param mode           comparison mode.
+     * @param parallelism    fork/join configuration.
+     * @param expectedHashes precomputed structural hashes of expected containers by identity.
+     * @param keys           identity keys of array elements.
+     */
+    public JsonComparator(final CompareMode mode, final Parallelism parallelism,
+                          final Map<Object, Integer> expectedHashes, final ArrayKeys keys) {
+        this(mode, parallelism, expectedHashes, keys, new ComparisonPath());
+    }
+
+    /**
+     * Constructor of a comparator continuing the walk at the given path.
+     *
+     * @param mode           comparison mode.
+     * @param parallelism    fork/join configuration.
+     * @param expectedHashes precomputed structural hashes of expected containers by identity.
+     * @param keys           identity keys of array elements.
+     * @param path           path of the subtree to compare.
+     */
+    private JsonComparator(final CompareMode mode, final Parallelism parallelism,
+                           final Map<Object, Integer> expectedHashes, final ArrayKeys keys,
+                           final ComparisonPath path) {
+        this.mode = mode;
+        this.parallelism = parallelism;
+        this.expectedHashes = expectedHashes;
+        this.keys = keys;
+        this.path = path;
+    }
+
+    /**
+     * Compares two JSON values and collects all differences.
+     *
+     * @param expected expected value.
+     * @param actual   actual value.
+     * @return differences; empty if values are equal.
+     */
+    public List<JsonDifference> compare(final Object expected, final Object actual) {
+        return compare(expected, actual, ALL_DIFFERENCES);
+    }
+
+    /**
+     * Compares two JSON values until the given number of differences is found.
+     *
+     * @param expected       expected value.
+     * @param actual         actual value.
+     * @param maxDifferences maximum number of differences; {@link #ALL_DIFFERENCES} to collect all.
+     * @return differences in walk order, at most {@code maxDifferences}; empty if values are equal.
+     */
+    public List<JsonDifference> compare(final Object expected, final Object actual, final int maxDifferences) {
+        differences.clear();
+        this.maxDifferences = maxDifferences;
+        compareValues(expected, actual);
+        return differences.isEmpty() ? List.of() : List.copyOf(differences);
+    }
+
+    /**
+     * Checks whether two JSON values are equal, stopping at the first difference.
+     *
+     * @param expected expected value.
+     * @param actual   actual value.
+     * @return true if values are equal.
+     */
+    public boolean isEqual(final Object expected, final Object actual) {
+        probeDepth++;
+        try {
+            return compareValues(expected, actual);
+        } finally {
+            probeDepth--;
+        }
+    }
+
+    /**
+     * Compares two scalar JSON values. Numbers are compared by value regardless of their Java type.
+     *
+     * @param expected expected value.
+     * @param actual   actual value.
+     * @return true if both values are equal scalars.
+     */
+    public static boolean scalarsEqual(final Object expected, final Object actual) {
+        final boolean equal;
+        if (expected instanceof Number expectedNumber && actual instanceof Number actualNumber) {
+            equal = numbersEqual(expectedNumber, actualNumber);
+        } else {
+            equal = expected != null && !isContainer(expected) && expected.equals(actual);
+        }
+        return equal;
+    }
+
+    /**
+     * Checks whether the value is a JSON object or array.
+     *
+     * @param value value to check.
+     * @return true for {@link JSONObject} and {@link JSONArray}.
+     */
+    public static boolean isContainer(final Object value) {
+        return value instanceof JSONObject || value instanceof JSONArray;
+    }
+
+    /**
+     * Compares two numbers: integral values exactly, everything else by double value.
+     *
+     * @param expected expected number.
+     * @param actual   actual number.
+     * @return true if numbers are equal.
+     */
+    private static boolean numbersEqual(final Number expected, final Number actual) {
+        return isIntegral(expected) && isIntegral(actual)
+                ? expected.longValue() == actual.longValue()
+                : expected.doubleValue() == actual.doubleValue();
+    }
+
+    /**
+     * Checks whether the number is one of the primitive-backed integral types.
+     *
+     * @param number number to check.
+     * @return true for Integer, Long, Short and Byte.
+     */
+    private static boolean isIntegral(final Number number) {
+        return number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte;
+    }
+
+    /**
+     * Compares two values of any JSON type.
+     *
+     * @param expected expected value.
+     * @param actual   actual value.
+     * @return true if equal.
+     */
+    private boolean compareValues(final Object expected, final Object actual) {
+        final boolean equal;
+        if (expected instanceof JSONObject expectedObject && actual instanceof JSONObject actualObject) {
+            equal = compareObjects(expectedObject, actualObject);
+        } else if (expected instanceof JSONArray expectedArray && actual instanceof JSONArray actualArray) {
+            equal = compareArrays(expectedArray, actualArray);
+        } else {
+            equal = scalarsEqual(expected, actual) || report(JsonDifference.Kind.MISMATCH, expected, actual);
+        }
+        return equal;
+    }
+
+    /**
+     * Compares two objects field by field. Missing and unexpected fields are both differences.
+     *
+     * @param expected expected object.
+     * @param actual   actual object.
+     * @return true if equal.
+     */
+    private boolean compareObjects(final JSONObject expected, final JSONObject actual) {
+        if (isProbing() && expected.length() != actual.length()) {
+            return false;
+        }
+
+        boolean equal = true;
+        int found = 0;
+        if (isSplit(expected.length())) {
+            final var keys = List.copyOf(expected.keySet());
+            equal = forkEach(keys.size(), (branch, i) -> branch.compareField(
+                    keys.get(i), expected.opt(keys.get(i)), actual.opt(keys.get(i))));
+            found = (int) keys.stream().filter(actual::has).count();
+        } else {
+            for (final String key : expected.keySet()) {
+                final Object actualValue = actual.opt(key);
+                if (actualValue != null) {
+                    found++;
+                }
+                equal = compareField(key, expected.opt(key), actualValue) && equal;
+                if (isStopped(equal)) {
+                    break;
+                }
+            }
+        }
+
+        // Actual object has fields that are not expected; look for them only when it is known they exist
+        if (found < actual.length()) {
+            equal = !isStopped(false) && reportUnexpectedFields(expected, actual);
+        }
+        return equal;
+    }
+
+    /**
+     * Compares the values of a field.
+     *
+     * @param key           field name.
+     * @param expectedValue expected value.
+     * @param actualValue   actual value; {@code null} if the field is missing.
+     * @return true if equal.
+     */
+    private boolean compareField(final String key, final Object expectedValue, final Object actualValue) {
+        path.push(key);
+        final boolean equal = actualValue == null
+                ? report(JsonDifference.Kind.MISSING, expectedValue, null)
+                : compareValues(expectedValue, actualValue);
+        path.pop();
+        return equal;
+    }
+
+    /**
+     * Records every field of the actual object that is absent in the expected one.
+     *
+     * @param expected expected object.
+     * @param actual   actual object.
+     * @return always false.
+     */
+    private boolean reportUnexpectedFields(final JSONObject expected, final JSONObject actual) {
+        for (final String key : actual.keySet()) {
+            if (!expected.has(key) && !isStopped(false)) {
+                path.push(key);
+                report(JsonDifference.Kind.UNEXPECTED, null, actual.opt(key));
+                path.pop();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compares two arrays according to the ordering rule of the comparison mode; arrays with identity keys
+     * are matched by key when order is ignored. Probes compare ordered arrays index by index.
+     *
+     * @param expected expected array.
+     * @param actual   actual array.
+     * @return true if equal.
+     */
+    private boolean compareArrays(final JSONArray expected, final JSONArray actual) {
+        final var keyFields = mode.isOrdered() ? null : keys.find(path);
+        final boolean equal;
+        if (keyFields == null) {
+            if (mode.isOrdered() && !isProbing()) {
+                equal = compareSequences(expected, actual);
+            } else if (expected.length() == actual.length()) {
+                equal = mode.isOrdered() ? compareInOrder(expected, actual) : compareInAnyOrder(expected, actual);
+            } else {
+                equal = report(JsonDifference.Kind.LENGTH, expected.length(), actual.length());
+            }
+        } else {
+            equal = compareByKey(expected, actual, keyFields);
+        }
+        return equal;
+    }
+
+    /**
+     * Compares arrays whose elements are identified by key fields, ignoring their order.
+     * <p>
+     * Actual elements are indexed by key once (a hash join), so each expected element finds its counterpart
+     * in constant time and the pair is compared field by field at the index of the expected element. Expected
+     * elements without a counterpart are reported as not matched and actual ones left over as unexpected,
+     * unless the root array may hold extra elements. Elements without a key are paired by equality.
+     *
+     * @param expected  expected array.
+     * @param actual    actual array.
+     * @param keyFields key fields of the elements.
+     * @return true if equal.
+     */
+    private boolean compareByKey(final JSONArray expected, final JSONArray actual, final List<String> keyFields) {
+        final boolean extensible = mode.isExtensibleArray() && path.isRoot();
+        if (isProbing() && !extensible && expected.length() != actual.length()) {
+            return false;
+        }
+
+        final Map<Object, Integer> firstByKey = new HashMap<>();
+        final int[] nextWithKey = new int[actual.length()];
+        final Map<Integer, List<Integer>> unkeyedByHash = new HashMap<>();
+        indexByKey(actual, keyFields, firstByKey, nextWithKey, unkeyedByHash);
+
+        final boolean[] matched = new boolean[actual.length()];
+        boolean equal = true;
+        for (int i = 0; i < expected.length() && !isStopped(equal); i++) {
+            final var value = expected.opt(i);
+            final var key = ArrayKeys.keyOf(value, keyFields);
+            final int pair = key == null
+                    ? takeEqual(value, actual, unkeyedByHash.getOrDefault(expectedHash(value), List.of()))
+                    : takeKeyed(key, firstByKey, nextWithKey);
+            if (pair < 0) {
+                reportUnmatchedExpected(value, i);
+                equal = false;
+            } else {
+                matched[pair] = true;
+                path.push(i);
+                equal = compareValues(value, actual.opt(pair)) && equal;
+                path.pop();
+            }
+        }
+        return (extensible || reportUnexpectedElements(actual, matched)) && equal;
+    }
+
+    /**
+     * Indexes the elements of an array by key. Elements of the same key are chained in index order: the first
+     * one is found by key, the next ones by index.
+     *
+     * @param actual        actual array.
+     * @param keyFields     key fields of the elements.
+     * @param firstByKey    index of the first element by key, filled in.
+     * @param nextWithKey   index of the next element with the same key by index, -1 for the last one; filled in.
+     * @param unkeyedByHash indexes of elements without a key by structural hash, in index order; filled in.
+     */
+    private static void indexByKey(final JSONArray actual, final List<String> keyFields,
+                                   final Map<Object, Integer> firstByKey, final int[] nextWithKey,
+                                   final Map<Integer, List<Integer>> unkeyedByHash) {
+        for (int i = actual.length() - 1; i >= 0; i--) {
+            final var key = ArrayKeys.keyOf(actual.opt(i), keyFields);
+            if (key == null) {
+                unkeyedByHash.computeIfAbsent(JsonHash.of(actual.opt(i)), hash -> new ArrayList<>(1)).add(i);
+            } else {
+                final Integer next = firstByKey.put(key, i);
+                nextWithKey[i] = next == null ? -1 : next;
+            }
+        }
+        unkeyedByHash.values().forEach(Collections::reverse);
+    }
+
+    /**
+     * Records every actual array element that found no pair.
+     *
+     * @param actual  actual array.
+     * @param matched flags of actual elements that found a pair.
+     * @return true if every element found a pair.
+     */
+    private boolean reportUnexpectedElements(final JSONArray actual, final boolean[] matched) {
+        boolean equal = true;
+        path.push(ComparisonPath.ANY_INDEX);
+        for (int i = 0; i < actual.length() && !isStopped(equal); i++) {
+            if (!matched[i]) {
+                equal = report(JsonDifference.Kind.UNEXPECTED, null, actual.opt(i));
+            }
+        }
+        path.pop();
+        return equal;
+    }
+
+    /**
+     * Takes the first actual element of a key that is not paired yet.
+     *
+     * @param key         key of the expected element.
+     * @param firstByKey  index of the first unpaired actual element by key, updated.
+     * @param nextWithKey index of the next actual element with the same key by index; -1 for the last one.
+     * @return index of the actual element; -1 if there is none.
+     */
+    private static int takeKeyed(final Object key, final Map<Object, Integer> firstByKey, final int[] nextWithKey) {
+        final Integer first = firstByKey.get(key);
+        int found = -1;
+        if (first != null) {
+            found = first;
+            if (nextWithKey[found] < 0) {
+                firstByKey.remove(key);
+            } else {
+                firstByKey.put(key, nextWithKey[found]);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Compares ordered arrays by a shortest edit script (see {@link EditScript}).
+     * <p>
+     * After the common prefix, the remaining elements are aligned so that as many as possible are equal, with
+     * structural hashes sparing most element comparisons. Only the edits are reported: paired deleted and inserted
+     * elements as changes at the expected index, the other deleted elements as missing, the other inserted ones as
+     * unexpected at the actual index. An element inserted near the start of a long array is thus a single
+     * difference rather than one per following index. Arrays that need more than {@link #MAX_ORDERED_EDITS} edits
+     * are compared index by index if they have the same length, by length otherwise.
+     *
+     * @param expected expected array.
+     * @param actual   actual array.
+     * @return true if equal.
+     */
+    private boolean compareSequences(final JSONArray expected, final JSONArray actual) {
+        final int length = expected.length();
+        final boolean sameLength = length == actual.length();
+        final int start = sameLength && isSplit(length)
+                ? forkFirstMismatch(expected, actual)
+                : firstMismatch(expected, actual, 0, Math.min(length, actual.length()));
+        final var hunks = sameLength && start == length
+                ? List.<EditScript.Hunk>of()
+                : EditScript.compute(start, length, actual.length(), elementsEqual(expected, actual, start),
+                        MAX_ORDERED_EDITS);
+        final boolean equal;
+        if (hunks == null) {
+            equal = sameLength
+                    ? compareInOrder(expected, actual)
+                    : report(JsonDifference.Kind.LENGTH, length, actual.length());
+        } else {
+            for (int h = 0; h < hunks.size() && !isStopped(false); h++) {
+                reportHunk(expected, actual, hunks.get(h));
+            }
+            equal = hunks.isEmpty();
+        }
+        return equal;
+    }
+
+    /**
+     * Returns the equality of elements of two ordered arrays starting at the given index: structural hashes
+     * are computed once, and only elements of equal hashes are compared.
+     *
+     * @param expected expected array.
+     * @param actual   actual array.
+     * @param start    index of the first element compared.
+     * @return element equality by index.
+     */
+    private EditScript.Elements elementsEqual(final JSONArray expected, final JSONArray actual, final int start) {
+        final int[] expectedElementHashes = new int[expected.length()];
+        for (int i = start; i < expected.length(); i++) {
+            expectedElementHashes[i] = expectedHash(expected.opt(i));
+        }
+        final int[] actualHashes = new int[actual.length()];
+        for (int i = start; i < actual.length(); i++) {
+            actualHashes[i] = JsonHash.of(actual.opt(i));
+        }
+        return (expectedIndex, actualIndex) -> expectedElementHashes[expectedIndex] == actualHashes[actualIndex]
+                && isElementEqual(expected.opt(expectedIndex), actual.opt(actualIndex));
+    }
+
+    /**
+     * Records the differences of one hunk of an edit script.
+     *
+     * @param expected expected array.
+     * @param actual   actual array.
+     * @param hunk     deleted expected and inserted actual elements.
+     */
+    private void reportHunk(final JSONArray expected, final JSONArray actual, final EditScript.Hunk hunk) {
+        final int changed = Math.min(hunk.getExpectedTo() - hunk.getExpectedFrom(),
+                hunk.getActualTo() - hunk.getActualFrom());
+        for (int k = 0; k < changed && !isStopped(false); k++) {
+            compareElement(expected, hunk.getExpectedFrom() + k, actual, hunk.getActualFrom() + k);
+        }
+        for (int i = hunk.getExpectedFrom() + changed; i < hunk.getExpectedTo() && !isStopped(false); i++) {
+            path.push(i);
+            report(JsonDifference.Kind.MISSING, expected.opt(i), null);
+            path.pop();
+        }
+        for (int i = hunk.getActualFrom() + changed; i < hunk.getActualTo() && !isStopped(false); i++) {
+            path.push(i);
+            report(JsonDifference.Kind.UNEXPECTED, null, actual.opt(i));
+            path.pop();
+        }
+    }
+
+    /**
+     * Compares arrays of the same length element by element.
+     *
+     * @param expected expected array.
+     * @param actual   actual array.
+     * @return true if equal.
+     */
+    private boolean compareInOrder(final JSONArray expected, final JSONArray actual) {
+        boolean equal = true;
+        if (isSplit(expected.length())) {
+            equal = forkEach(expected.length(), (branch, i) -> branch.compareElement(expected, actual, i));
+        } else {
+            for (int i = 0; i < expected.length() && !isStopped(equal); i++) {
+                equal = compareElement(expected, actual, i) && equal;
+            }
+        }
+        return equal;
+    }
+
+    /**
+     * Compares the elements of two arrays at the same index.
+     *
+     * @param expected expected array.
+     * @param actual   actual array.
+     * @param index    element index.
+     * @return true if equal.
+     */
+    private boolean compareElement(final JSONArray expected, final JSONArray actual, final int index) {
+        path.push(index);
+        final boolean equal = compareValues(expected.opt(index), actual.opt(index));
+        path.pop();
+        return equal;
+    }
+
+    /**
+     * Compares elements of two arrays at different indexes, at the path of the expected one.
+     *
+     * @param expected      expected array.
+     * @param expectedIndex expected element index.
+     * @param actual        actual array.
+     * @param actualIndex   actual element index.
+     */
+    private void compareElement(final JSONArray expected, final int expectedIndex,
+                                final JSONArray actual, final int actualIndex) {
+        path.push(expectedIndex);
+        compareValues(expected.opt(expectedIndex), actual.opt(actualIndex));
+        path.pop();
+    }
+
+    /**
+     * Compares arrays of the same length ignoring element order.
+     * <p>
+     * The common prefix of equal elements is skipped without any allocation. The remaining elements are
+     * compared as sorted values if they are scalars of one kind (see {@link ScalarMultiset}), and reported
+     * as a single difference listing the values without a counterpart; other elements are paired through
+     * a structural hash index of the actual elements.
+     *
+     * @param expected expected array.
+     * @param actual   actual array.
+     * @return true if equal.
+     */
+    private boolean compareInAnyOrder(final JSONArray expected, final JSONArray actual) {
+        final int length = expected.length();
+        final int start = isSplit(length)
+                ? forkFirstMismatch(expected, actual)
+                : firstMismatch(expected, actual, 0, length);
+        final var scalars = start == length ? null : ScalarMultiset.compare(expected, actual, start);
+        final boolean equal;
+        if (scalars == null) {
+            equal = start == length || matchRemaining(expected, actual, start);
+        } else {
+            equal = scalars.isEqual() || reportValues(scalars);
+        }
+        return equal;
+    }
+
+    /**
+     * Checks whether an element of the array at the current path equals an actual element, stopping at the first
+     * difference. The element segment is pushed so that configuration of nested arrays applies during the probe.
+     *
+     * @param expected expected element.
+     * @param actual   actual element.
+     * @return true if the elements are equal.
+     */
+    private boolean isElementEqual(final Object expected, final Object actual) {
+        path.push(ComparisonPath.ANY_INDEX);
+        final boolean equal = isEqual(expected, actual);
+        path.pop();
+        return equal;
+    }
+
+    /**
+     * Finds the first index in a range where the elements of two arrays differ.
+     *
+     * @param expected expected array.
+     * @param actual   actual array.
+     * @param from     first index, inclusive.
+     * @param to       last index, exclusive.
+     * @return index of the first different elements; {@code to} if all are equal.
+     */
+    private int firstMismatch(final JSONArray expected, final JSONArray actual, final int from, final int to) {
+        int index = from;
+        while (index < to && isElementEqual(expected.opt(index), actual.opt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Finds the first index where the elements of two arrays of the same length differ, probing parts in parallel.
+     *
+     * @param expected expected array.
+     * @param actual   actual array.
+     * @return index of the first different elements; the array length if all are equal.
+     */
+    private int forkFirstMismatch(final JSONArray expected, final JSONArray actual) {
+        final var prefix = path.copy();
+        final List<Integer> mismatches = parallelism.collect(expected.length(), (from, to) -> {
+            final var probe = new JsonComparator(mode, Parallelism.NONE, expectedHashes, keys, prefix.copy());
+            final int index = probe.firstMismatch(expected, actual, from, to);
+            return index < to ? List.of(index) : List.of();
+        });
+        return mismatches.isEmpty() ? expected.length() : mismatches.get(0);
+    }
+
+    /**
+     * Pairs the elements of two arrays starting at the given index and reports the ones left without a pair.
+     * <p>
+     * Actual elements are bucketed by {@link JsonHash}, so an expected element is compared only with the actual
+     * elements of its bucket: matching is linear in the array length. Since element equality is an equivalence
+     * consistent with the hash, greedy pairing within a bucket never misses a match.
+     *
+     * @param expected expected array.
+     * @param actual   actual array.
+     * @param start    index of the first element that is not matched in order.
+     * @return true if every element found a pair.
+     */
+    private boolean matchRemaining(final JSONArray expected, final JSONArray actual, final int start) {
+        final int length = expected.length();
+        final boolean[] matched = new boolean[length];
+        final boolean[] unmatchedExpected = new boolean[length];
+        boolean equal = true;
+        if (isSplit(length - start)) {
+            equal = forkMatch(expected, actual, start, matched, unmatchedExpected);
+        } else {
+            final Map<Integer, List<Integer>> actualByHash = new HashMap<>();
+            for (int i = start; i < length; i++) {
+                actualByHash.computeIfAbsent(JsonHash.of(actual.opt(i)), hash -> new ArrayList<>(1)).add(i);
+            }
+            for (int i = start; i < length && !isStopped(equal); i++) {
+                final var value = expected.opt(i);
+                final var candidates = actualByHash.getOrDefault(expectedHash(value), List.<Integer>of());
+                final int candidate = takeEqual(value, actual, candidates);
+                if (candidate < 0) {
+                    unmatchedExpected[i] = true;
+                    equal = false;
+                } else {
+                    matched[candidate] = true;
+                }
+            }
+        }
+
+        if (!equal && !isProbing()) {
+            reportUnmatched(expected, actual, unmatchedExpected, matched, start);
+        }
+        return equal;
+    }
+
+    /**
+     * Pairs the elements of two arrays starting at the given index like {@link #matchRemaining}, in parallel:
+     * element hashes are computed in parallel parts, then hash buckets are matched in parallel parts.
+     * Buckets are independent and each is matched in element order, so pairs are the same as sequential ones.
+     *
+     * @param expected          expected array.
+     * @param actual            actual array.
+     * @param start             index of the first element that is not matched in order.
+     * @param matched           flags of actual elements that found a pair, filled in.
+     * @param unmatchedExpected flags of expected elements without a pair, filled in.
+     * @return true if every element found a pair.
+     */
+    private boolean forkMatch(final JSONArray expected, final JSONArray actual, final int start,
+                              final boolean[] matched, final boolean[] unmatchedExpected) {
+        final int length = expected.length();
+        final int[] expectedElementHashes = new int[length];
+        final int[] actualHashes = new int[length];
+        parallelism.collect(length - start, (from, to) -> {
+            for (int i = start + from; i < start + to; i++) {
+                expectedElementHashes[i] = expectedHash(expected.opt(i));
+                actualHashes[i] = JsonHash.of(actual.opt(i));
+            }
+            return List.of();
+        });
+
+        final var expectedByHash = byHash(expectedElementHashes, start);
+        final var actualByHash = byHash(actualHashes, start);
+        final var hashes = List.copyOf(expectedByHash.keySet());
+        final var prefix = path.copy();
+        final List<Integer> unmatched = parallelism.collect(hashes.size(), (from, to) -> {
+            final var probe = new JsonComparator(mode, Parallelism.NONE, expectedHashes, keys, prefix.copy());
+            final var result = new ArrayList<Integer>();
+            for (int k = from; k < to; k++) {
+                final var candidates = actualByHash.getOrDefault(hashes.get(k), List.of());
+                for (final int i : expectedByHash.get(hashes.get(k))) {
+                    final int candidate = probe.takeEqual(expected.opt(i), actual, candidates);
+                    if (candidate < 0) {
+                        result.add(i);
+                    } else {
+                        matched[candidate] = true;
+                    }
+                }
+            }
+            return result;
+        });
+        unmatched.forEach(i -> unmatchedExpected[i] = true);
+        return unmatched.isEmpty();
+    }
+
+    /**
+     * Groups element indexes by structural hash, in index order.
+     *
+     * @param hashes element hashes.
+     * @param start  first index to group.
+     * @return indexes by hash.
+     */
+    private static Map<Integer, List<Integer>> byHash(final int[] hashes, final int start) {
+        final Map<Integer, List<Integer>> result = new HashMap<>();
+        for (int i = start; i < hashes.length; i++) {
+            result.computeIfAbsent(hashes[i], hash -> new ArrayList<>(1)).add(i);
+        }
+        return result;
+    }
+
+    /**
+     * Finds an actual element equal to the expected one and removes it from the candidates.
+     *
+     * @param value      expected element.
+     * @param actual     actual array.
+     * @param candidates indexes of not yet paired actual elements with the structural hash of the expected one.
+     * @return index of the equal actual element; -1 if there is none.
+     */
+    private int takeEqual(final Object value, final JSONArray actual, final List<Integer> candidates) {
+        int found = -1;
+        for (int k = 0; k < candidates.size() && found < 0; k++) {
+            if (isElementEqual(value, actual.opt(candidates.get(k)))) {
+                found = candidates.remove(k);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Records unordered array elements left without a pair.
+     * <p>
+     * Leftover containers are first paired with their closest counterparts (see {@link #closestPairs});
+     * a paired element is reported by its own differences at its expected index.
+     *
+     * @param expected          expected array.
+     * @param actual            actual array.
+     * @param unmatchedExpected flags of expected elements without a pair.
+     * @param matchedActual     flags of actual elements that found a pair.
+     * @param start             index of the first element that is not matched in order.
+     */
+    private void reportUnmatched(final JSONArray expected, final JSONArray actual,
+                                 final boolean[] unmatchedExpected, final boolean[] matchedActual, final int start) {
+        final var pairs = closestPairs(expected, actual, unmatchedExpected, matchedActual, start);
+        for (int i = start; i < expected.length() && !isStopped(false); i++) {
+            final Integer pair = pairs.get(i);
+            if (pair == null) {
+                if (unmatchedExpected[i]) {
+                    reportUnmatchedExpected(expected.opt(i), i);
+                }
+            } else {
+                matchedActual[pair] = true;
+                path.push(i);
+                compareValues(expected.opt(i), actual.opt(pair));
+                path.pop();
+            }
+        }
+        path.push(ComparisonPath.ANY_INDEX);
+        for (int i = start; i < actual.length() && !isStopped(false); i++) {
+            if (!matchedActual[i]) {
+                report(JsonDifference.Kind.UNEXPECTED, null, actual.opt(i));
+            }
+        }
+        path.pop();
+    }
+
+    /**
+     * Pairs leftover expected and actual containers of the same type so that the total number of differences
+     * between paired elements is minimal (optimal bipartite {@link Assignment}).
+     * Skipped when either side has more than {@link #MAX_CLOSEST_PAIRS} leftover containers.
+     *
+     * @param expected          expected array.
+     * @param actual            actual array.
+     * @param unmatchedExpected flags of expected elements without a pair.
+     * @param matchedActual     flags of actual elements that found a pair.
+     * @param start             index of the first element that is not matched in order.
+     * @return actual element index by expected element index.
+     */
+    private Map<Integer, Integer> closestPairs(final JSONArray expected, final JSONArray actual,
+                                               final boolean[] unmatchedExpected, final boolean[] matchedActual,
+                                               final int start) {
+        final var rows = new ArrayList<Integer>();
+        final var columns = new ArrayList<Integer>();
+        for (int i = start; i < expected.length(); i++) {
+            if (unmatchedExpected[i] && isContainer(expected.opt(i))) {
+                rows.add(i);
+            }
+            if (!matchedActual[i] && isContainer(actual.opt(i))) {
+                columns.add(i);
+            }
+        }
+
+        final Map<Integer, Integer> pairs = new HashMap<>();
+        if (!rows.isEmpty() && !columns.isEmpty()
+                && rows.size() <= MAX_CLOSEST_PAIRS && columns.size() <= MAX_CLOSEST_PAIRS) {
+            final var cost = new int[rows.size()][columns.size()];
+            path.push(ComparisonPath.ANY_INDEX);
+            for (int row = 0; row < rows.size(); row++) {
+                for (int column = 0; column < columns.size(); column++) {
+                    cost[row][column] = distance(expected.opt(rows.get(row)), actual.opt(columns.get(column)));
+                }
+            }
+            path.pop();
+            final int[] assignment = Assignment.solve(cost);
+            for (int row = 0; row < rows.size(); row++) {
+                if (assignment[row] >= 0 && cost[row][assignment[row]] < INCOMPARABLE) {
+                    pairs.put(rows.get(row), columns.get(assignment[row]));
+                }
+            }
+        }
+        return pairs;
+    }
+
+    /**
+     * Counts the differences between two containers at the current path.
+     *
+     * @param expected expected container.
+     * @param actual   actual container.
+     * @return number of differences; {@link #INCOMPARABLE} if the containers are of different types.
+     */
+    private int distance(final Object expected, final Object actual) {
+        return expected instanceof JSONObject == actual instanceof JSONObject
+                ? new JsonComparator(mode, Parallelism.NONE, expectedHashes, keys, path.copy())
+                        .compare(expected, actual).size()
+                : INCOMPARABLE;
+    }
+
+    /**
+     * Records an expected element of an unordered array that has no pair.
+     * Scalars are reported as missing values, containers by their index.
+     *
+     * @param value expected element.
+     * @param index element index.
+     */
+    private void reportUnmatchedExpected(final Object value, final int index) {
+        if (isContainer(value)) {
+            path.push(index);
+            report(JsonDifference.Kind.NO_MATCH, value, null);
+        } else {
+            path.push(ComparisonPath.ANY_INDEX);
+            report(JsonDifference.Kind.MISSING, value, null);
+        }
+        path.pop();
+    }
+
+    /**
+     * Records a difference at the current path unless probing or the difference limit is reached.
+     *
+     * @param kind     kind of difference.
+     * @param expected expected value.
+     * @param actual   actual value.
+     * @return always false, so it can terminate equality expressions.
+     */
+    private boolean report(final JsonDifference.Kind kind, final Object expected, final Object actual) {
+        if (!isStopped(false)) {
+            differences.add(new JsonDifference(kind, path.render(), expected, actual));
+        }
+        return false;
+    }
+
+    /**
+     * Records the values of unordered scalar arrays without a counterpart.
+     *
+     * @param scalars compared values.
+     * @return always false.
+     */
+    private boolean reportValues(final ScalarMultiset scalars) {
+        path.push(ComparisonPath.ANY_INDEX);
+        report(JsonDifference.Kind.VALUES, scalars.getMissing(), scalars.getUnexpected());
+        path.pop();
+        return false;
+    }
+
+    /**
+     * Returns the structural hash of an expected value, precomputed for containers if available.
+     *
+     * @param value expected value.
+     * @return structural hash.
+     */
+    private int expectedHash(final Object value) {
+        final Integer hash = isContainer(value) ? expectedHashes.get(value) : null;
+        return hash == null ? JsonHash.of(value) : hash;
+    }
+
+    /**
+     * Checks whether work over the given number of elements or members is split into fork/join tasks.
+     * Probes are never split: they stop at the first difference.
+     *
+     * @param size number of elements or members.
+     * @return true if the work is split.
+     */
+    private boolean isSplit(final int size) {
+        return !isProbing() && parallelism.splits(size);
+    }
+
+    /**
+     * Applies a comparison step to indexes {@code [0, size)} in parallel parts, each with its own comparator
+     * continuing at the current path, and appends the parts' differences in index order. Every part stops at the
+     * remaining difference limit, so the parts together find at least as many leading differences as needed.
+     *
+     * @param size number of indexes.
+     * @param step comparison of one index by a part's comparator.
+     * @return true if no part found a difference.
+     */
+    private boolean forkEach(final int size, final ObjIntConsumer<JsonComparator> step) {
+        final var prefix = path.copy();
+        final int limit = maxDifferences - differences.size();
+        final List<JsonDifference> found = parallelism.collect(size, (from, to) -> {
+            final var branch = new JsonComparator(mode, parallelism, expectedHashes, keys, prefix.copy());
+            branch.maxDifferences = limit;
+            for (int i = from; i < to && !branch.isStopped(true); i++) {
+                step.accept(branch, i);
+            }
+            return branch.differences;
+        });
+        differences.addAll(found.subList(0, Math.min(found.size(), limit)));
+        return found.isEmpty();
+    }
+
+    /**
+     * Checks whether the walk stops: a probe at the first difference, a comparison once the difference limit
+     * is reached.
+     *
+     * @param equal whether the values compared so far are equal.
+     * @return true if no further values need to be compared.
+     */
+    private boolean isStopped(final boolean equal) {
+        return isProbing() ? !equal : differences.size() >= maxDifferences;
+    }
+
+    /**
+     * Returns whether the comparison is a probe that only needs a yes/no answer.
+     *
+     * @return true while probing.
+     */
+    private boolean isProbing() {
+        return probeDepth > 0;
+    }
+}
@@ -0,0 +1,178 @@
+package com.mbi;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.StringJoiner;
+
+/**
+ * Single difference found while comparing two JSON documents.
+ * <p>
+ * Keeps the location and the differing values; the human-readable text is rendered only when requested.
+ */
+final class JsonDifference {
+
+    /**
+     * Maximum number of values listed by a {@link Kind#VALUES} difference.
+     */
+    private static final int MAX_LISTED_VALUES = 20;
+
+    /**
+     * Kind of difference.
+     */
+    private final Kind kind;
+
+    /**
+     * Location of the difference in flattened notation, e.g. {@code items[0].id}.
+     */
+    private final String path;
+
+    /**
+     * Expected value (element count for {@link Kind#LENGTH}, missing values for {@link Kind#VALUES}).
+     */
+    private final Object expected;
+
+    /**
+     * Actual value (element count for {@link Kind#LENGTH}, unexpected values for {@link Kind#VALUES}).
+     */
+    private final Object actual;
+
+    /**
+     * Constructor.
+     *
+     * @param kind     kind of difference.
+     * @param path     location of the difference.
+     * @param expected expected value; {@code null} if absent.
+     * @param actual   actual value; {@code null} if absent.
+     */
+    public JsonDifference(final Kind kind, final String path, final Object expected, final Object actual) {
+        this.kind = kind;
+        this.path = path;
+        this.expected = expected;
+        this.actual = actual;
+    }
+
+    /**
+     * Returns the kind of difference.
+     *
+     * @return kind of difference.
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Returns the location of the difference.
+     *
+     * @return path in flattened notation.
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Returns the expected value.
+     *
+     * @return expected value; {@code null} if absent.
+     */
+    public Object getExpected() {
+        return expected;
+    }
+
+    /**
+     * Returns the actual value.
+     *
+     * @return actual value; {@code null} if absent.
+     */
+    public Object getActual() {
+        return actual;
+    }
+
+    /**
+     * Renders the difference in a JSONAssert-like format.
+     *
+     * @return human-readable description.
+     */
+    @Override
+    public String toString() {
+        return switch (kind) {
+            case MISMATCH -> String.format("%s%nExpected: %s%n     got: %s%n",
+                    path, describe(expected), describe(actual));
+            case MISSING -> String.format("%s%nExpected: %s%n     but none found%n", path, describe(expected));
+            case UNEXPECTED -> String.format("%s%nUnexpected: %s%n", path, describe(actual));
+            case LENGTH -> String.format("%s[]: Expected %s values but got %s", path, expected, actual);
+            case NO_MATCH -> String.format("%s Could not find match for element %s", path, expected);
+            case VALUES -> String.format("%s%nMissing values: %s%nUnexpected values: %s%n",
+                    path, list((JSONArray) expected), list((JSONArray) actual));
+        };
+    }
+
+    /**
+     * Short description of a value: containers are named by type, scalars are printed as is.
+     *
+     * @param value value to describe.
+     * @return description.
+     */
+    private static String describe(final Object value) {
+        final String description;
+        if (value instanceof JSONObject) {
+            description = "a JSON object";
+        } else if (value instanceof JSONArray) {
+            description = "a JSON array";
+        } else {
+            description = String.valueOf(value);
+        }
+        return description;
+    }
+
+    /**
+     * Lists the first values of an array, followed by the number of values left out.
+     *
+     * @param values scalar values.
+     * @return description, e.g. {@code [1, 2] and 3 more}.
+     */
+    private static String list(final JSONArray values) {
+        final var joiner = new StringJoiner(", ", "[", "]");
+        for (int i = 0; i < Math.min(values.length(), MAX_LISTED_VALUES); i++) {
+            joiner.add(JSONObject.valueToString(values.opt(i)));
+        }
+        final int more = values.length() - MAX_LISTED_VALUES;
+        return more > 0 ? joiner + " and " + more + " more" : joiner.toString();
+    }
+
+    /**
+     * Kinds of differences.
+     */
+    enum Kind {
+
+        /**
+         * Values at the same path differ.
+         */
+        MISMATCH,
+
+        /**
+         * Expected value is absent in the actual document.
+         */
+        MISSING,
+
+        /**
+         * Actual document has a value the expected one does not.
+         */
+        UNEXPECTED,
+
+        /**
+         * Arrays have different number of elements.
+         */
+        LENGTH,
+
+        /**
+         * No element of the actual unordered array matches the expected element.
+         */
+        NO_MATCH,
+
+        /**
+         * Unordered arrays of scalars of the same length hold different values.
+         */
+        VALUES
+    }
+}
@@ -0,0 +1,140 @@
+package com.mbi;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Canonical structural hash of JSON values, consistent with {@link JsonComparator} equality.
+ * <p>
+ * Object fields and array elements are combined with a commutative sum of well-mixed hashes, so the hash
+ * does not depend on field or element order. Numbers are hashed by value, so {@code 1}, {@code 1L}
+ * and {@code 1.0} share a hash. Values equal in any {@link CompareMode} therefore always have equal hashes.
+ */
+final class JsonHash {
+
+    /**
+     * Seed distinguishing objects from other values.
+     */
+    private static final int OBJECT_SEED = 0x4f626a;
+
+    /**
+     * Seed distinguishing arrays from other values.
+     */
+    private static final int ARRAY_SEED = 0x417272;
+
+    /**
+     * Prevent instantiation.
+     */
+    private JsonHash() {
+    }
+
+    /**
+     * Computes the structural hash of a JSON value.
+     *
+     * @param value JSON value: object, array, scalar or {@link JSONObject#NULL}.
+     * @return structural hash.
+     */
+    public static int of(final Object value) {
+        return of(value, null);
+    }
+
+    /**
+     * Computes the structural hash of a JSON value, optionally recording the hashes of containers.
+     *
+     * @param value JSON value.
+     * @param index hashes of containers by identity, filled in; {@code null} if not recorded.
+     * @return structural hash.
+     */
+    private static int of(final Object value, final Map<Object, Integer> index) {
+        final int hash;
+        if (value instanceof JSONObject object) {
+            hash = ofObject(object, index);
+        } else if (value instanceof JSONArray array) {
+            hash = ofArray(array, index);
+        } else if (value instanceof Number number) {
+            hash = ofNumber(number);
+        } else {
+            hash = value == null ? 0 : value.hashCode();
+        }
+        return hash;
+    }
+
+    /**
+     * Computes the structural hashes of a JSON value and of all objects and arrays nested in it, in one walk.
+     *
+     * @param value JSON value.
+     * @return hashes of the value's containers, by identity.
+     */
+    public static Map<Object, Integer> index(final Object value) {
+        final Map<Object, Integer> index = new IdentityHashMap<>();
+        of(value, index);
+        return index;
+    }
+
+    /**
+     * Hashes object fields independently of their order.
+     *
+     * @param object JSON object.
+     * @param index  hashes of containers by identity, filled in; {@code null} if not recorded.
+     * @return structural hash.
+     */
+    private static int ofObject(final JSONObject object, final Map<Object, Integer> index) {
+        int hash = OBJECT_SEED + object.length();
+        for (final String key : object.keySet()) {
+            hash += mix(key.hashCode() * 31 + of(object.opt(key), index));
+        }
+        if (index != null) {
+            index.put(object, hash);
+        }
+        return hash;
+    }
+
+    /**
+     * Hashes array elements independently of their order.
+     *
+     * @param array JSON array.
+     * @param index hashes of containers by identity, filled in; {@code null} if not recorded.
+     * @return structural hash.
+     */
+    private static int ofArray(final JSONArray array, final Map<Object, Integer> index) {
+        final int length = array.length();
+        int hash = ARRAY_SEED + length;
+        for (int i = 0; i < length; i++) {
+            hash += mix(of(array.opt(i), index));
+        }
+        if (index != null) {
+            index.put(array, hash);
+        }
+        return hash;
+    }
+
+    /**
+     * Hashes a number by its double value; negative zero is treated as zero.
+     *
+     * @param number number.
+     * @return hash.
+     */
+    private static int ofNumber(final Number number) {
+        final double value = number.doubleValue();
+        return Double.hashCode(value == 0 ? 0 : value);
+    }
+
+    /**
+     * Spreads hash bits (MurmurHash3 finalizer) so that sums of element hashes rarely collide.
+     *
+     * @param hash hash to mix.
+     * @return mixed hash.
+     */
+    private static int mix(final int hash) {
+        int mixed = hash;
+        mixed ^= mixed >>> 16;
+        mixed *= 0x85ebca6b;
+        mixed ^= mixed >>> 13;
+        mixed *= 0xc2b2ae35;
+        mixed ^= mixed >>> 16;
+        return mixed;
+    }
+}
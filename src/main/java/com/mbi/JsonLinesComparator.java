@@ -0,0 +1,299 @@
+package com.mbi;
+
+import org.json.JSONException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares two JSON Lines (newline-delimited JSON) sources record by record while they are read.
+ * <p>
+ * Every record is filtered with the ignore/compareOnly configuration and compared with {@link JsonComparator},
+ * so the usual semantics apply inside records. The records themselves are treated like the elements of
+ * a top-level array:
+ * <ul>
+ *     <li>ordered, non-extensible modes compare records pairwise by position, keeping one record of each source
+ *     in memory;</li>
+ *     <li>other modes match records in any order: records that have not found a pair yet are kept in structural
+ *     hash indexes, so memory is bounded by how far apart equal records are in the two sources. Extensible modes
+ *     allow extra actual records.</li>
+ * </ul>
+ * Differences are reported with the line of the record they belong to. With a difference limit, ordered
+ * comparison stops reading both sources once the limit is reached.
+ * Instances are stateful and not thread-safe; create one per comparison.
+ */
+final class JsonLinesComparator {
+
+    /**
+     * Comparison mode.
+     */
+    private final CompareMode mode;
+
+    /**
+     * Compiled ignore/compareOnly configuration applied to every record.
+     */
+    private final FieldFilter filter;
+
+    /**
+     * Comparator of single records.
+     */
+    private final JsonComparator comparator;
+
+    /**
+     * Maximum number of differences.
+     */
+    private final int maxDifferences;
+
+    /**
+     * Differences found.
+     */
+    private final List<JsonDifference> differences = new ArrayList<>();
+
+    /**
+     * Constructor.
+     *
+     * @param mode   comparison mode.
+     * @param filter compiled ignore/compareOnly configuration.
+     */
+    public JsonLinesComparator(final CompareMode mode, final FieldFilter filter) {
+        this(mode, filter, JsonComparator.ALL_DIFFERENCES);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param mode           comparison mode.
+     * @param filter         compiled ignore/compareOnly configuration.
+     * @param maxDifferences maximum number of differences.
+     */
+    public JsonLinesComparator(final CompareMode mode, final FieldFilter filter, final int maxDifferences) {
+        this.mode = mode;
+        this.filter = filter;
+        this.comparator = new JsonComparator(mode);
+        this.maxDifferences = maxDifferences;
+    }
+
+    /**
+     * Compares all records of two sources.
+     *
+     * @param expected reader of expected records.
+     * @param actual   reader of actual records.
+     * @return differences; empty if sources are equal.
+     */
+    public List<JsonDifference> compare(final JsonReader expected, final JsonReader actual) {
+        differences.clear();
+        if (mode.isOrdered() && !mode.isExtensibleArray()) {
+            compareInOrder(expected, actual);
+        } else {
+            compareInAnyOrder(expected, actual);
+        }
+        return differences.isEmpty() ? List.of() : List.copyOf(differences);
+    }
+
+    /**
+     * Prefixes a difference path with the record line.
+     *
+     * @param line record line.
+     * @param path path inside the record.
+     * @return path for reporting.
+     */
+    private static String atLine(final int line, final String path) {
+        return path.isEmpty() ? "line " + line : "line " + line + ": " + path;
+    }
+
+    /**
+     * Compares records pairwise by position.
+     *
+     * @param expected reader of expected records.
+     * @param actual   reader of actual records.
+     */
+    private void compareInOrder(final JsonReader expected, final JsonReader actual) {
+        Record expectedRecord = next(expected);
+        Record actualRecord = next(actual);
+        while (expectedRecord != null && actualRecord != null && !isFull()) {
+            final int limit = maxDifferences - differences.size();
+            for (final var difference : comparator.compare(expectedRecord.value, actualRecord.value, limit)) {
+                final var path = atLine(actualRecord.line, difference.getPath());
+                differences.add(new JsonDifference(difference.getKind(), path,
+                        difference.getExpected(), difference.getActual()));
+            }
+            expectedRecord = next(expected);
+            actualRecord = next(actual);
+        }
+        for (; expectedRecord != null && !isFull(); expectedRecord = next(expected)) {
+            report(JsonDifference.Kind.MISSING, expectedRecord.line, expectedRecord.value, null);
+        }
+        for (; actualRecord != null && !isFull(); actualRecord = next(actual)) {
+            report(JsonDifference.Kind.UNEXPECTED, actualRecord.line, null, actualRecord.value);
+        }
+    }
+
+    /**
+     * Matches records in any order, reading both sources alternately.
+     *
+     * @param expected reader of expected records.
+     * @param actual   reader of actual records.
+     */
+    private void compareInAnyOrder(final JsonReader expected, final JsonReader actual) {
+        final Map<Integer, List<Record>> pendingExpected = new HashMap<>();
+        final Map<Integer, List<Record>> pendingActual = new HashMap<>();
+        Record expectedRecord = next(expected);
+        Record actualRecord = next(actual);
+        while (expectedRecord != null || actualRecord != null) {
+            if (expectedRecord != null) {
+                match(expectedRecord, pendingActual, pendingExpected);
+                expectedRecord = next(expected);
+            }
+            if (actualRecord != null) {
+                match(actualRecord, pendingExpected, pendingActual);
+                actualRecord = next(actual);
+            }
+        }
+
+        for (final var record : sorted(pendingExpected)) {
+            report(JsonDifference.Kind.MISSING, record.line, record.value, null);
+        }
+        if (!mode.isExtensibleArray()) {
+            for (final var record : sorted(pendingActual)) {
+                report(JsonDifference.Kind.UNEXPECTED, record.line, null, record.value);
+            }
+        }
+    }
+
+    /**
+     * Pairs a record with an equal pending record of the other source, or keeps it pending.
+     *
+     * @param record record to match.
+     * @param others pending records of the other source by structural hash.
+     * @param own    pending records of the record's source by structural hash.
+     */
+    private void match(final Record record, final Map<Integer, List<Record>> others,
+                       final Map<Integer, List<Record>> own) {
+        final var candidates = others.getOrDefault(record.hash(), List.of());
+        int found = -1;
+        for (int k = 0; k < candidates.size() && found < 0; k++) {
+            if (comparator.isEqual(record.value, candidates.get(k).value)) {
+                found = k;
+            }
+        }
+        if (found < 0) {
+            own.computeIfAbsent(record.hash(), hash -> new ArrayList<>(1)).add(record);
+        } else if (candidates.size() == 1) {
+            others.remove(record.hash());
+        } else {
+            candidates.remove(found);
+        }
+    }
+
+    /**
+     * Returns pending records in line order.
+     *
+     * @param pending pending records by structural hash.
+     * @return records sorted by line.
+     */
+    private static List<Record> sorted(final Map<Integer, List<Record>> pending) {
+        final var records = new ArrayList<Record>();
+        pending.values().forEach(records::addAll);
+        records.sort(Comparator.comparingInt(record -> record.line));
+        return records;
+    }
+
+    /**
+     * Reads and filters the next record.
+     *
+     * @param reader reader of records.
+     * @return next record; {@code null} at the end of the source.
+     */
+    private Record next(final JsonReader reader) {
+        Record record = null;
+        if (!reader.isAtEnd()) {
+            final int line = reader.getLine();
+            final var value = reader.readValue();
+            if (!reader.isAtEnd() && reader.getLine() == line) {
+                throw new JSONException("Expected a single JSON value at line " + line);
+            }
+            record = new Record(line, filter(value));
+        }
+        return record;
+    }
+
+    /**
+     * Applies the ignore/compareOnly configuration to a record.
+     *
+     * @param value record value.
+     * @return filtered record.
+     */
+    private Object filter(final Object value) {
+        return filter.isEmpty() ? value : AssertionUtils.filterValue(value, filter);
+    }
+
+    /**
+     * Records a difference of a whole record.
+     *
+     * @param kind     kind of difference.
+     * @param line     record line.
+     * @param expected expected record.
+     * @param actual   actual record.
+     */
+    private void report(final JsonDifference.Kind kind, final int line, final Object expected, final Object actual) {
+        if (!isFull()) {
+            differences.add(new JsonDifference(kind, atLine(line, ""), expected, actual));
+        }
+    }
+
+    /**
+     * Checks whether the difference limit is reached.
+     *
+     * @return true if no more differences are recorded.
+     */
+    private boolean isFull() {
+        return differences.size() >= maxDifferences;
+    }
+
+    /**
+     * Filtered record with its line and structural hash.
+     */
+    private static final class Record {
+
+        /**
+         * Line of the record.
+         */
+        private final int line;
+
+        /**
+         * Filtered record value.
+         */
+        private final Object value;
+
+        /**
+         * Structural hash of the filtered value; computed on first use.
+         */
+        private Integer hash;
+
+        /**
+         * Constructor.
+         *
+         * @param line  line of the record.
+         * @param value filtered record value.
+         */
+        private Record(final int line, final Object value) {
+            this.line = line;
+            this.value = value;
+        }
+
+        /**
+         * Returns the structural hash of the filtered value.
+         *
+         * @return structural hash.
+         */
+        private int hash() {
+            if (hash == null) {
+                hash = JsonHash.of(value);
+            }
+            return hash;
+        }
+    }
+}
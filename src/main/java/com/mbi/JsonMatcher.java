@@ -0,0 +1,183 @@
+package com.mbi;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Expected JSON document compiled with an {@link AssertionSpec} for repeated comparisons.
+ * <p>
+ * The expected side is prepared once: ignore/compareOnly fields are applied, the structural hashes of all
+ * its objects and arrays are computed, and the elements of an expected array are wrapped for extensible
+ * matching. Each {@link #matches} or {@link #assertMatches} call then only filters and walks the actual document.
+ * Instances are immutable and can be shared by tests running in parallel; the expected document must not be
+ * modified after compilation. Listeners of the spec are notified by {@link #assertMatches} only.
+ * <pre>{@code
+ * private static final JsonMatcher EXPECTED = AssertionSpec.DEFAULT.ignore("updatedAt").compile(expected);
+ *
+ * await().until(() -> EXPECTED.matches(fetchStatus()));
+ * EXPECTED.assertMatches(fetchStatus());
+ * }</pre>
+ */
+public final class JsonMatcher {
+
+    /**
+     * Assertion configuration.
+     */
+    private final AssertionSpec spec;
+
+    /**
+     * Expected document as passed, for failure messages.
+     */
+    private final Object expected;
+
+    /**
+     * Expected document with ignore/compareOnly fields applied.
+     */
+    private final Object expectedFiltered;
+
+    /**
+     * Structural hashes of the filtered expected containers by identity.
+     */
+    private final Map<Object, Integer> expectedHashes;
+
+    /**
+     * Wrapped elements of the filtered expected array for extensible modes; {@code null} otherwise.
+     */
+    private final List<ComparableObject> expectedElements;
+
+    /**
+     * Constructor; compiles the expected document.
+     *
+     * @param spec     assertion configuration.
+     * @param expected expected JSON object or array.
+     */
+    /* default */ JsonMatcher(final AssertionSpec spec, final Object expected) {
+        this.spec = spec;
+        this.expected = expected;
+        this.expectedFiltered = AssertionUtils.filterValue(expected, spec.getFilter());
+        this.expectedHashes = JsonHash.index(expectedFiltered);
+        this.expectedElements = expectedFiltered instanceof JSONArray array && spec.usesCommonArray()
+                ? wrap(array)
+                : null;
+    }
+
+    /**
+     * Checks whether the actual object matches the expected document, stopping at the first difference.
+     *
+     * @param actual actual JSON object.
+     * @return true if the object matches.
+     */
+    public boolean matches(final JSONObject actual) {
+        return newComparator(Parallelism.NONE).isEqual(expectedFiltered, prepare(actual));
+    }
+
+    /**
+     * Checks whether the actual array matches the expected document, stopping at the first difference.
+     *
+     * @param actual actual JSON array.
+     * @return true if the array matches.
+     */
+    public boolean matches(final JSONArray actual) {
+        return newComparator(Parallelism.NONE).isEqual(expectedFiltered, prepare(actual));
+    }
+
+    /**
+     * Asserts that the actual object matches the expected document.
+     *
+     * @param actual actual JSON object.
+     * @throws AssertionError if the object does not match, with the same message as
+     *                        {@link AssertionSpec#jsonEquals(JSONObject, JSONObject)}.
+     */
+    public void assertMatches(final JSONObject actual) {
+        assertMatches((Object) actual);
+    }
+
+    /**
+     * Asserts that the actual array matches the expected document.
+     *
+     * @param actual actual JSON array.
+     * @throws AssertionError if the array does not match, with the same message as
+     *                        {@link AssertionSpec#jsonEquals(JSONArray, JSONArray)}.
+     */
+    public void assertMatches(final JSONArray actual) {
+        assertMatches((Object) actual);
+    }
+
+    /**
+     * Asserts that the actual document matches the expected one.
+     *
+     * @param actual actual JSON object or array.
+     */
+    private void assertMatches(final Object actual) {
+        final var recorder = AssertionRecorder.start(AssertionRecorder.ASSERT_MATCHES, spec);
+        recorder.elements(expected, actual);
+
+        final long filtering = recorder.begin(AssertionPhase.FILTER);
+        final var actualFiltered = AssertionUtils.filterValue(actual, spec.getFilter());
+        recorder.end(AssertionPhase.FILTER, filtering);
+
+        final long matching = recorder.begin(AssertionPhase.ARRAY_MATCHING);
+        final var actualToCompare = common(actualFiltered);
+        recorder.end(AssertionPhase.ARRAY_MATCHING, matching);
+
+        final long comparing = recorder.begin(AssertionPhase.COMPARE);
+        final var differences = newComparator(spec.getParallelism())
+                .compare(expectedFiltered, actualToCompare, spec.getMaxDifferences());
+        recorder.end(AssertionPhase.COMPARE, comparing);
+        if (!differences.isEmpty()) {
+            throw recorder.failed(new JsonAssertionError(null, differences, expected, actual, spec.getLimits()));
+        }
+        recorder.passed();
+    }
+
+    /**
+     * Wraps array elements with their precomputed hashes.
+     *
+     * @param array filtered expected array.
+     * @return wrapped elements.
+     */
+    private List<ComparableObject> wrap(final JSONArray array) {
+        final var elements = new ArrayList<ComparableObject>(array.length());
+        for (final var element : array) {
+            final var hash = JsonComparator.isContainer(element) ? expectedHashes.get(element) : null;
+            elements.add(hash == null ? new ComparableObject(element) : new ComparableObject(element, hash));
+        }
+        return elements;
+    }
+
+    /**
+     * Filters the actual document and, in extensible modes, keeps the array elements present in the expected one.
+     *
+     * @param actual actual JSON object or array.
+     * @return actual document to compare.
+     */
+    private Object prepare(final Object actual) {
+        return common(AssertionUtils.filterValue(actual, spec.getFilter()));
+    }
+
+    /**
+     * In extensible modes, keeps the array elements present in the expected document.
+     *
+     * @param actualFiltered filtered actual JSON object or array.
+     * @return actual document to compare.
+     */
+    private Object common(final Object actualFiltered) {
+        return expectedElements != null && actualFiltered instanceof JSONArray array
+                ? AssertionUtils.getCommonArray(expectedElements, array)
+                : actualFiltered;
+    }
+
+    /**
+     * Creates a comparator using the precomputed expected hashes.
+     *
+     * @param parallelism fork/join configuration.
+     * @return comparator.
+     */
+    private JsonComparator newComparator(final Parallelism parallelism) {
+        return new JsonComparator(spec.getMode(), parallelism, expectedHashes, spec.getArrayKeys());
+    }
+}
@@ -0,0 +1,735 @@
+package com.mbi;
+
+import org.apache.commons.lang3.Validate;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Pull parser reading a JSON document token by token from a UTF-8 stream or from text.
+ * <p>
+ * Only a fixed-size character buffer and one flag per open container are kept, so memory does not depend on
+ * the size of the document unless values are materialized with {@link #readValue()}. Values are represented
+ * as org.json values: {@link JSONObject}, {@link JSONArray}, {@link String}, {@link Boolean}, numbers
+ * ({@link Integer}, {@link Long}, {@link BigInteger} or {@link BigDecimal}) and {@link JSONObject#NULL}.
+ * A stream may hold a sequence of documents (e.g. JSON Lines); line numbers are tracked for them.
+ * Malformed input, including numbers outside the JSON grammar and field names repeated in a materialized object,
+ * and I/O failures are reported as {@link JSONException}s, positioned at the offending character.
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+final class JsonReader implements Closeable {
+
+    /**
+     * Size of the character buffer.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Integers with fewer characters always fit into a long.
+     */
+    private static final int MAX_LONG_DIGITS = 19;
+
+    /**
+     * Value returned by {@link #peek()} at the end of input.
+     */
+    private static final int END = -1;
+
+    /**
+     * Source of characters.
+     */
+    private final Reader reader;
+
+    /**
+     * Buffered characters.
+     */
+    private final char[] buffer = new char[BUFFER_SIZE];
+
+    /**
+     * Text of the string or number being read.
+     */
+    private final StringBuilder token = new StringBuilder();
+
+    /**
+     * Position of the next character in the buffer.
+     */
+    private int position;
+
+    /**
+     * Number of valid characters in the buffer.
+     */
+    private int limit;
+
+    /**
+     * Number of characters consumed before the buffer start.
+     */
+    private long offset;
+
+    /**
+     * Whether no element has been read yet, for each open container.
+     */
+    private boolean[] empty = new boolean[16];
+
+    /**
+     * Number of open containers.
+     */
+    private int depth;
+
+    /**
+     * Current line number, starting with 1.
+     */
+    private int line = 1;
+
+    /**
+     * Constructor.
+     *
+     * @param input UTF-8 encoded JSON; closed with this reader.
+     */
+    public JsonReader(final InputStream input) {
+        this(new InputStreamReader(Validate.notNull(input, "JSON stream is null"), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param input JSON text; closed with this reader.
+     */
+    public JsonReader(final Reader input) {
+        this.reader = input;
+    }
+
+    /**
+     * Opens a reader over text, without copying it.
+     *
+     * @param text JSON text.
+     * @return new reader.
+     */
+    public static JsonReader open(final String text) {
+        return new JsonReader(new StringReader(Validate.notNull(text, "JSON text is null")));
+    }
+
+    /**
+     * Opens a reader over bytes, without copying them.
+     *
+     * @param bytes UTF-8 encoded JSON.
+     * @return new reader.
+     */
+    public static JsonReader open(final byte[] bytes) {
+        return new JsonReader(new ByteArrayInputStream(Validate.notNull(bytes, "JSON byte array is null")));
+    }
+
+    /**
+     * Opens a reader over the remaining bytes of a buffer, without copying them. The position of the buffer
+     * is not changed, so a buffer can be read again.
+     *
+     * @param buffer UTF-8 encoded JSON.
+     * @return new reader.
+     */
+    public static JsonReader open(final ByteBuffer buffer) {
+        return new JsonReader(new BufferInputStream(Validate.notNull(buffer, "JSON buffer is null").duplicate()));
+    }
+
+    /**
+     * Reads a whole document.
+     *
+     * @param input UTF-8 encoded JSON; closed after reading.
+     * @return JSON value.
+     */
+    public static Object parse(final InputStream input) {
+        return parse(new JsonReader(input));
+    }
+
+    /**
+     * Reads a whole document from text, without copying it.
+     *
+     * @param text JSON text.
+     * @return JSON value.
+     */
+    public static Object parse(final String text) {
+        return parse(open(text));
+    }
+
+    /**
+     * Reads a whole document from bytes, without copying them.
+     *
+     * @param bytes UTF-8 encoded JSON.
+     * @return JSON value.
+     */
+    public static Object parse(final byte[] bytes) {
+        return parse(open(bytes));
+    }
+
+    /**
+     * Reads a whole document from the remaining bytes of a buffer, without copying them. The position of
+     * the buffer is not changed.
+     *
+     * @param buffer UTF-8 encoded JSON.
+     * @return JSON value.
+     */
+    public static Object parse(final ByteBuffer buffer) {
+        return parse(open(buffer));
+    }
+
+    /**
+     * Reads a whole document and closes the reader.
+     *
+     * @param jsonReader reader of the document.
+     * @return JSON value.
+     */
+    public static Object parse(final JsonReader jsonReader) {
+        try (jsonReader) {
+            final var value = jsonReader.readValue();
+            jsonReader.endDocument();
+            return value;
+        }
+    }
+
+    /**
+     * Returns the first character of the next token without consuming it.
+     *
+     * @return {@code {}, {@code [}, {@code }}, {@code ]}, {@code "}, the first character of a literal or number,
+     *         or -1 at the end of input.
+     */
+    public int peek() {
+        int next = current();
+        while (next == ' ' || next == '\n' || next == '\r' || next == '\t') {
+            if (next == '\n') {
+                line++;
+            }
+            position++;
+            next = current();
+        }
+        return next;
+    }
+
+    /**
+     * Checks whether only whitespace is left.
+     *
+     * @return true at the end of input.
+     */
+    public boolean isAtEnd() {
+        return peek() == END;
+    }
+
+    /**
+     * Returns the line of the next token; line breaks can occur only between tokens.
+     *
+     * @return line number, starting with 1.
+     */
+    public int getLine() {
+        peek();
+        return line;
+    }
+
+    /**
+     * Consumes the start of an object.
+     */
+    public void beginObject() {
+        begin('{');
+    }
+
+    /**
+     * Consumes the end of an object.
+     */
+    public void endObject() {
+        end('}');
+    }
+
+    /**
+     * Consumes the start of an array.
+     */
+    public void beginArray() {
+        begin('[');
+    }
+
+    /**
+     * Consumes the end of an array.
+     */
+    public void endArray() {
+        end(']');
+    }
+
+    /**
+     * Checks whether the current object or array has another element, consuming the separating comma.
+     *
+     * @return true if another field or element follows.
+     */
+    public boolean hasNext() {
+        final int next = peek();
+        final boolean result;
+        if (next == '}' || next == ']') {
+            result = false;
+        } else if (empty[depth - 1]) {
+            empty[depth - 1] = false;
+            result = true;
+        } else {
+            expect(',');
+            result = true;
+        }
+        return result;
+    }
+
+    /**
+     * Reads a field name and the following colon.
+     *
+     * @return field name.
+     */
+    public String nextName() {
+        final var name = readString();
+        expect(':');
+        return name;
+    }
+
+    /**
+     * Reads a scalar value: string, number, boolean or null.
+     *
+     * @return scalar value.
+     */
+    public Object nextScalar() {
+        final int next = peek();
+        final Object value;
+        if (next == '"') {
+            value = readString();
+        } else if (next == 't') {
+            value = literal("true", Boolean.TRUE);
+        } else if (next == 'f') {
+            value = literal("false", Boolean.FALSE);
+        } else if (next == 'n') {
+            value = literal("null", JSONObject.NULL);
+        } else if (next == '-' || isDigit(next)) {
+            value = readNumber();
+        } else {
+            throw syntaxError("a value");
+        }
+        return value;
+    }
+
+    /**
+     * Reads the next value, materializing objects and arrays.
+     *
+     * @return JSON value.
+     */
+    public Object readValue() {
+        final int next = peek();
+        final Object value;
+        if (next == '{') {
+            final var object = new JSONObject();
+            beginObject();
+            while (hasNext()) {
+                final var name = nextName();
+                if (object.has(name)) {
+                    throw duplicateKey(name);
+                }
+                object.put(name, readValue());
+            }
+            endObject();
+            value = object;
+        } else if (next == '[') {
+            final var array = new JSONArray();
+            beginArray();
+            while (hasNext()) {
+                array.put(readValue());
+            }
+            endArray();
+            value = array;
+        } else {
+            value = nextScalar();
+        }
+        return value;
+    }
+
+    /**
+     * Skips the next value without materializing it; field names and strings are validated but not decoded.
+     */
+    public void skipValue() {
+        final int next = peek();
+        if (next == '{') {
+            beginObject();
+            while (hasNext()) {
+                skipString();
+                expect(':');
+                skipValue();
+            }
+            endObject();
+        } else if (next == '[') {
+            beginArray();
+            while (hasNext()) {
+                skipValue();
+            }
+            endArray();
+        } else if (next == '"') {
+            skipString();
+        } else {
+            nextScalar();
+        }
+    }
+
+    /**
+     * Creates an exception for a field name read twice in the same object, positioned after the name.
+     *
+     * @param name field name just read.
+     * @return exception to throw.
+     */
+    public JSONException duplicateKey(final String name) {
+        return new JSONException("Duplicate key \"" + name + "\" at character " + (offset + position));
+    }
+
+    /**
+     * Checks that nothing but whitespace follows the document.
+     */
+    public void endDocument() {
+        if (!isAtEnd()) {
+            throw syntaxError("end of input");
+        }
+    }
+
+    /**
+     * Closes the underlying stream.
+     */
+    @Override
+    public void close() {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            throw new JSONException("Failed to close JSON stream", e);
+        }
+    }
+
+    /**
+     * Consumes the start of a container and opens a nesting level.
+     *
+     * @param bracket opening bracket.
+     */
+    private void begin(final char bracket) {
+        expect(bracket);
+        if (depth == empty.length) {
+            empty = Arrays.copyOf(empty, depth * 2);
+        }
+        empty[depth++] = true;
+    }
+
+    /**
+     * Consumes the end of a container and closes its nesting level.
+     *
+     * @param bracket closing bracket.
+     */
+    private void end(final char bracket) {
+        expect(bracket);
+        depth--;
+    }
+
+    /**
+     * Consumes the expected character after optional whitespace.
+     *
+     * @param expected expected character.
+     */
+    private void expect(final char expected) {
+        if (peek() != expected) {
+            throw syntaxError("'" + expected + "'");
+        }
+        position++;
+    }
+
+    /**
+     * Reads a literal.
+     *
+     * @param text  literal text.
+     * @param value literal value.
+     * @return literal value.
+     */
+    private Object literal(final String text, final Object value) {
+        for (int i = 0; i < text.length(); i++) {
+            if (current() != text.charAt(i)) {
+                throw syntaxError(text);
+            }
+            position++;
+        }
+        return value;
+    }
+
+    /**
+     * Reads a quoted string, decoding escapes.
+     *
+     * @return string value.
+     */
+    private String readString() {
+        expect('"');
+        token.setLength(0);
+        int next = read();
+        while (next != '"') {
+            if (next == END || next < ' ') {
+                throw syntaxError("a string character");
+            }
+            token.append(next == '\\' ? readEscape() : (char) next);
+            next = read();
+        }
+        return token.toString();
+    }
+
+    /**
+     * Skips a quoted string, checking it as {@link #readString()} does.
+     */
+    private void skipString() {
+        expect('"');
+        int next = read();
+        while (next != '"') {
+            if (next == END || next < ' ') {
+                throw syntaxError("a string character");
+            }
+            if (next == '\\') {
+                readEscape();
+            }
+            next = read();
+        }
+    }
+
+    /**
+     * Reads an escape sequence after a backslash.
+     *
+     * @return escaped character.
+     */
+    private char readEscape() {
+        final int next = read();
+        final char result;
+        switch (next) {
+            case 'b' -> result = '\b';
+            case 'f' -> result = '\f';
+            case 'n' -> result = '\n';
+            case 'r' -> result = '\r';
+            case 't' -> result = '\t';
+            case 'u' -> result = readUnicode();
+            case '"', '\\', '/' -> result = (char) next;
+            default -> throw syntaxError("an escape sequence");
+        }
+        return result;
+    }
+
+    /**
+     * Reads the four hex digits of a unicode escape.
+     *
+     * @return escaped character.
+     */
+    private char readUnicode() {
+        int code = 0;
+        for (int i = 0; i < 4; i++) {
+            final int digit = Character.digit(read(), 16);
+            if (digit < 0) {
+                throw syntaxError("a hex digit");
+            }
+            code = code * 16 + digit;
+        }
+        return (char) code;
+    }
+
+    /**
+     * Reads a number: integers as {@link Integer}, {@link Long} or {@link BigInteger} depending on their size,
+     * numbers with a fraction or an exponent as {@link BigDecimal}. The number must follow the JSON grammar:
+     * an optional minus, an integer part without leading zeros, an optional fraction and an optional exponent.
+     *
+     * @return number.
+     */
+    private Number readNumber() {
+        token.setLength(0);
+        if (current() == '-') {
+            consume();
+        }
+        if (current() == '0') {
+            consume();
+            if (isDigit(current())) {
+                throw syntaxError("'.', an exponent or the end of the number");
+            }
+        } else {
+            consumeDigits();
+        }
+        boolean decimal = false;
+        if (current() == '.') {
+            consume();
+            consumeDigits();
+            decimal = true;
+        }
+        if (current() == 'e' || current() == 'E') {
+            consume();
+            if (current() == '+' || current() == '-') {
+                consume();
+            }
+            consumeDigits();
+            decimal = true;
+        }
+        final var text = token.toString();
+        try {
+            return decimal ? new BigDecimal(text) : integer(text);
+        } catch (NumberFormatException e) {
+            throw new JSONException("Invalid number " + text + " at character " + (offset + position), e);
+        }
+    }
+
+    /**
+     * Appends the current character to the token and consumes it.
+     */
+    private void consume() {
+        token.append((char) current());
+        position++;
+    }
+
+    /**
+     * Appends one or more digits to the token and consumes them.
+     */
+    private void consumeDigits() {
+        if (!isDigit(current())) {
+            throw syntaxError("a digit");
+        }
+        while (isDigit(current())) {
+            consume();
+        }
+    }
+
+    /**
+     * Checks whether a character is a decimal digit.
+     *
+     * @param next character; -1 at the end of input.
+     * @return true for {@code 0-9}.
+     */
+    private static boolean isDigit(final int next) {
+        return next >= '0' && next <= '9';
+    }
+
+    /**
+     * Converts integer text to the smallest fitting type.
+     *
+     * @param text integer text.
+     * @return integer value.
+     */
+    private static Number integer(final String text) {
+        final var value = text.length() < MAX_LONG_DIGITS ? null : new BigInteger(text);
+        final Number result;
+        if (value != null && value.bitLength() >= Long.SIZE) {
+            result = value;
+        } else {
+            final long number = value == null ? Long.parseLong(text) : value.longValue();
+            if (number == (int) number) {
+                result = (int) number;
+            } else {
+                result = number;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Consumes the current character.
+     *
+     * @return consumed character; -1 at the end of input.
+     */
+    private int read() {
+        final int next = current();
+        if (next != END) {
+            position++;
+        }
+        return next;
+    }
+
+    /**
+     * Returns the current character without consuming it, refilling the buffer if needed.
+     *
+     * @return current character; -1 at the end of input.
+     */
+    private int current() {
+        if (position == limit && !fill()) {
+            return END;
+        }
+        return buffer[position];
+    }
+
+    /**
+     * Reads the next chunk of characters into the buffer.
+     *
+     * @return false at the end of input.
+     */
+    private boolean fill() {
+        try {
+            offset += limit;
+            position = 0;
+            limit = Math.max(reader.read(buffer), 0);
+            return limit > 0;
+        } catch (IOException e) {
+            throw new JSONException("Failed to read JSON stream", e);
+        }
+    }
+
+    /**
+     * Creates an exception for unexpected input.
+     *
+     * @param expected description of the expected input.
+     * @return exception to throw.
+     */
+    private JSONException syntaxError(final String expected) {
+        final int next = current();
+        final var found = next == END ? "end of input" : "'" + (char) next + "'";
+        return new JSONException("Expected " + expected + " but found " + found + " at character "
+                + (offset + position));
+    }
+
+    /**
+     * Input stream over the remaining bytes of a buffer.
+     */
+    private static final class BufferInputStream extends InputStream {
+
+        /**
+         * Buffer to read; its position advances while reading.
+         */
+        private final ByteBuffer buffer;
+
+        /**
+         * Constructor.
+         *
+         * @param buffer buffer to read.
+         */
+        private BufferInputStream(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        /**
+         * Reads a byte.
+         *
+         * @return byte value; -1 at the end of the buffer.
+         */
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        /**
+         * Reads bytes.
+         *
+         * @param bytes  destination.
+         * @param offset destination offset.
+         * @param length maximum number of bytes.
+         * @return number of bytes read; -1 at the end of the buffer.
+         */
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length) {
+            final int count;
+            if (length == 0) {
+                count = 0;
+            } else if (buffer.hasRemaining()) {
+                count = Math.min(length, buffer.remaining());
+                buffer.get(bytes, offset, count);
+            } else {
+                count = -1;
+            }
+            return count;
+        }
+    }
+}
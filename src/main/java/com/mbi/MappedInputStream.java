@@ -0,0 +1,150 @@
+package com.mbi;
+
+import org.apache.commons.lang3.Validate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Input stream over a memory-mapped file.
+ * <p>
+ * The file is mapped in segments of at most {@link #SEGMENT_SIZE} bytes, one at a time, so files of any size
+ * (including larger than 2 GB, the limit of a single mapping) are read without copying them to the heap.
+ */
+final class MappedInputStream extends InputStream {
+
+    /**
+     * Default maximum size of a mapped segment: 1 GB.
+     */
+    private static final long SEGMENT_SIZE = 1L << 30;
+
+    /**
+     * Channel of the mapped file.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Maximum size of a mapped segment.
+     */
+    private final long segmentSize;
+
+    /**
+     * Size of the file.
+     */
+    private final long size;
+
+    /**
+     * File position of the next segment.
+     */
+    private long next;
+
+    /**
+     * Currently mapped segment; {@code null} before the first read.
+     */
+    private MappedByteBuffer segment;
+
+    /**
+     * Constructor.
+     *
+     * @param channel     channel of the file to read.
+     * @param segmentSize maximum size of a mapped segment.
+     * @throws IOException if the file size cannot be read.
+     */
+    private MappedInputStream(final FileChannel channel, final long segmentSize) throws IOException {
+        this.channel = channel;
+        this.segmentSize = segmentSize;
+        this.size = channel.size();
+    }
+
+    /**
+     * Opens a file for reading.
+     *
+     * @param path file path.
+     * @return stream over the mapped file.
+     * @throws UncheckedIOException if the file cannot be opened.
+     */
+    public static MappedInputStream open(final Path path) {
+        return open(path, SEGMENT_SIZE);
+    }
+
+    /**
+     * Opens a file for reading with the given segment size.
+     *
+     * @param path        file path.
+     * @param segmentSize maximum size of a mapped segment.
+     * @return stream over the mapped file.
+     * @throws UncheckedIOException if the file cannot be opened.
+     */
+    public static MappedInputStream open(final Path path, final long segmentSize) {
+        Validate.notNull(path, "File path is null");
+        try {
+            return new MappedInputStream(FileChannel.open(path, StandardOpenOption.READ), segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open " + path, e);
+        }
+    }
+
+    /**
+     * Reads a byte.
+     *
+     * @return byte value; -1 at the end of the file.
+     * @throws IOException if a segment cannot be mapped.
+     */
+    @Override
+    public int read() throws IOException {
+        return hasRemaining() ? segment.get() & 0xFF : -1;
+    }
+
+    /**
+     * Reads bytes from the current segment.
+     *
+     * @param bytes  destination.
+     * @param offset destination offset.
+     * @param length maximum number of bytes.
+     * @return number of bytes read; -1 at the end of the file.
+     * @throws IOException if a segment cannot be mapped.
+     */
+    @Override
+    public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+        final int count;
+        if (length == 0) {
+            count = 0;
+        } else if (hasRemaining()) {
+            count = Math.min(length, segment.remaining());
+            segment.get(bytes, offset, count);
+        } else {
+            count = -1;
+        }
+        return count;
+    }
+
+    /**
+     * Closes the file channel. Mapped segments are released by the garbage collector.
+     *
+     * @throws IOException if the channel cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Maps the next segment if the current one is read.
+     *
+     * @return false at the end of the file.
+     * @throws IOException if a segment cannot be mapped.
+     */
+    private boolean hasRemaining() throws IOException {
+        while ((segment == null || !segment.hasRemaining()) && next < size) {
+            final long length = Math.min(segmentSize, size - next);
+            segment = channel.map(FileChannel.MapMode.READ_ONLY, next, length);
+            next += length;
+        }
+        return segment != null && segment.hasRemaining();
+    }
+}
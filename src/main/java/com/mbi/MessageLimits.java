@@ -0,0 +1,109 @@
+package com.mbi;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Limits applied when a failure message is rendered.
+ * <p>
+ * The maximum length bounds the whole message; the number of context lines restricts the rendered documents
+ * to the lines around each difference. Instances are immutable.
+ */
+final class MessageLimits {
+
+    /**
+     * Default maximum number of characters of a failure message.
+     */
+    public static final int DEFAULT_MAX_LENGTH = 100_000;
+
+    /**
+     * Context lines value meaning that documents are rendered in full.
+     */
+    public static final int ALL_LINES = Integer.MAX_VALUE;
+
+    /**
+     * Default limits: documents rendered in full, message up to {@link #DEFAULT_MAX_LENGTH} characters.
+     */
+    public static final MessageLimits DEFAULT = new MessageLimits(DEFAULT_MAX_LENGTH, ALL_LINES);
+
+    /**
+     * Maximum number of characters of a message.
+     */
+    private final int maxLength;
+
+    /**
+     * Number of document lines rendered before and after each difference.
+     */
+    private final int contextLines;
+
+    /**
+     * Constructor.
+     *
+     * @param maxLength    maximum number of characters of a message.
+     * @param contextLines number of document lines rendered before and after each difference.
+     */
+    private MessageLimits(final int maxLength, final int contextLines) {
+        this.maxLength = maxLength;
+        this.contextLines = contextLines;
+    }
+
+    /**
+     * Returns limits with another maximum message length.
+     *
+     * @param length maximum number of characters; must be positive.
+     * @return new limits.
+     */
+    public MessageLimits withMaxLength(final int length) {
+        Validate.isTrue(length > 0, "Max message length must be positive: %d", length);
+        return new MessageLimits(length, contextLines);
+    }
+
+    /**
+     * Returns limits with another number of context lines.
+     *
+     * @param lines number of lines before and after each difference; must not be negative.
+     * @return new limits.
+     */
+    public MessageLimits withContextLines(final int lines) {
+        Validate.isTrue(lines >= 0, "Context lines must not be negative: %d", lines);
+        return new MessageLimits(maxLength, lines);
+    }
+
+    /**
+     * Returns the maximum number of characters of a message.
+     *
+     * @return maximum message length.
+     */
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * Returns the number of document lines rendered before and after each difference.
+     *
+     * @return number of context lines; {@link #ALL_LINES} if documents are rendered in full.
+     */
+    public int getContextLines() {
+        return contextLines;
+    }
+
+    /**
+     * Limits are equal if both the maximum length and the number of context lines are equal.
+     *
+     * @param obj object to compare with.
+     * @return true if equal.
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        return obj instanceof MessageLimits other && maxLength == other.maxLength && contextLines == other.contextLines;
+    }
+
+    /**
+     * Returns a hash code consistent with {@link #equals(Object)}.
+     *
+     * @return hash code.
+     */
+    @Override
+    public int hashCode() {
+        return 31 * maxLength + contextLines;
+    }
+}
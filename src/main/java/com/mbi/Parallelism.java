@@ -0,0 +1,205 @@
+package com.mbi;
+
+import org.apache.commons.lang3.Validate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork/join configuration of a comparison: the pool to run on and the size above which arrays and objects are split.
+ * <p>
+ * Work over an index range is split in halves until the parts are below the threshold; part results are
+ * concatenated in index order, so the outcome does not depend on scheduling and equals the sequential one.
+ * Pools are shared by all comparisons with the same parallelism level; their worker threads are daemons
+ * and terminate when idle.
+ */
+final class Parallelism {
+
+    /**
+     * Default number of array elements or object members from which work is split.
+     */
+    public static final int DEFAULT_THRESHOLD = 1_000;
+
+    /**
+     * Sequential comparison.
+     */
+    public static final Parallelism NONE = new Parallelism(null, Integer.MAX_VALUE);
+
+    /**
+     * Shared pools by parallelism level.
+     */
+    private static final Map<Integer, ForkJoinPool> POOLS = new ConcurrentHashMap<>();
+
+    /**
+     * Pool running the tasks; {@code null} for sequential comparison.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Minimum number of elements or members to split.
+     */
+    private final int threshold;
+
+    /**
+     * Constructor.
+     *
+     * @param pool      pool running the tasks.
+     * @param threshold minimum number of elements or members to split.
+     */
+    public Parallelism(final ForkJoinPool pool, final int threshold) {
+        Validate.isTrue(threshold > 1, "Parallelism threshold must be greater than 1: %d", threshold);
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Returns the configuration for the given number of threads.
+     *
+     * @param threads number of worker threads; 1 means sequential comparison.
+     * @return fork/join configuration.
+     */
+    public static Parallelism of(final int threads) {
+        Validate.isTrue(threads > 0, "Parallelism must be positive: %d", threads);
+        return threads == 1
+                ? NONE
+                : new Parallelism(POOLS.computeIfAbsent(threads, ForkJoinPool::new), DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Checks whether work of the given size is worth splitting.
+     *
+     * @param size number of array elements or object members.
+     * @return true if the work should be split.
+     */
+    public boolean splits(final int size) {
+        return pool != null && size >= threshold;
+    }
+
+    /**
+     * Applies the work to index ranges covering {@code [0, size)} in parallel and concatenates the results
+     * in index order.
+     *
+     * @param size number of indexes.
+     * @param work work over an index range.
+     * @param <T>  type of result items.
+     * @return results of all ranges, in index order.
+     */
+    public <T> List<T> collect(final int size, final RangeWork<T> work) {
+        final var task = new RangeTask<>(0, size, threshold, work);
+        // Nested splits run in the pool of the calling worker
+        return ForkJoinTask.getPool() == pool ? task.invoke() : pool.invoke(task);
+    }
+
+    /**
+     * Configurations are equal if they use the same pool and threshold.
+     *
+     * @param obj object to compare with.
+     * @return true if equal.
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        return obj instanceof Parallelism other && pool == other.pool && threshold == other.threshold;
+    }
+
+    /**
+     * Returns a hash code consistent with {@link #equals(Object)}.
+     *
+     * @return hash code.
+     */
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(pool) + threshold;
+    }
+
+    /**
+     * Work over a range of indexes.
+     *
+     * @param <T> type of result items.
+     */
+    @FunctionalInterface
+    public interface RangeWork<T> {
+
+        /**
+         * Processes indexes {@code [from, to)}.
+         *
+         * @param from first index, inclusive.
+         * @param to   last index, exclusive.
+         * @return results of the range, in index order.
+         */
+        List<T> apply(int from, int to);
+    }
+
+    /**
+     * Task splitting an index range in halves until it is below the threshold.
+     *
+     * @param <T> type of result items.
+     */
+    private static final class RangeTask<T> extends RecursiveTask<List<T>> {
+
+        /**
+         * Serialization version.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * First index, inclusive.
+         */
+        private final int from;
+
+        /**
+         * Last index, exclusive.
+         */
+        private final int to;
+
+        /**
+         * Minimum size of a range to split.
+         */
+        private final int threshold;
+
+        /**
+         * Work over a range.
+         */
+        private final RangeWork<T> work;
+
+        /**
+         * Constructor.
+         *
+         * @param from      first index, inclusive.
+         * @param to        last index, exclusive.
+         * @param threshold minimum size of a range to split.
+         * @param work      work over a range.
+         */
+        private RangeTask(final int from, final int to, final int threshold, final RangeWork<T> work) {
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.work = work;
+        }
+
+        /**
+         * Processes the range directly or in two halves, left results first.
+         *
+         * @return results of the range, in index order.
+         */
+        @Override
+        protected List<T> compute() {
+            final List<T> result;
+            if (to - from < threshold) {
+                result = work.apply(from, to);
+            } else {
+                final int middle = (from + to) >>> 1;
+                final var left = new RangeTask<>(from, middle, threshold, work);
+                left.fork();
+                final var right = new RangeTask<>(middle, to, threshold, work).compute();
+                result = new ArrayList<>(left.join());
+                result.addAll(right);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.mbi;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Trie of JSON paths compiled from ignore/compareOnly configuration.
+ * <p>
+ * Every path (e.g. {@code a.b}, {@code items[0].id}, {@code items[].id}) is split once into field, index
+ * and "any index" ({@code []}) segments. Any-index branches are merged into explicit index branches at compile time,
+ * so checking a JSON location is a single deterministic walk whose cost depends only on the path depth.
+ * A terminal node matches its whole subtree. Field names are matched exactly, except that a leaf value (a scalar or
+ * an empty container) also matches a path ending with its name in another case, as the flattened keys of the original
+ * filter did.
+ * Compiled tries are immutable.
+ */
+final class PathTrie {
+
+    /**
+     * Children by field name.
+     */
+    private final Map<String, PathTrie> fields = new HashMap<>();
+
+    /**
+     * Terminal children by field name, ignoring case; looked up without allocating a lower-case copy.
+     */
+    private final Map<String, PathTrie> leaves = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    /**
+     * Children by explicit array index.
+     */
+    private final Map<Integer, PathTrie> indexes = new HashMap<>();
+
+    /**
+     * Child matching any array index; {@code null} if none.
+     */
+    private PathTrie anyIndex;
+
+    /**
+     * Whether a configured path ends here.
+     */
+    private boolean terminal;
+
+    /**
+     * Compiles paths into a trie. Blank paths are skipped.
+     *
+     * @param paths paths in flattened notation.
+     * @return root node; {@code null} if there is nothing to match.
+     */
+    public static PathTrie compile(final Collection<String> paths) {
+        final var root = new PathTrie();
+        boolean empty = true;
+        for (final var path : paths) {
+            if (!path.isBlank()) {
+                root.insert(path);
+                empty = false;
+            }
+        }
+        root.seal();
+        return empty ? null : root;
+    }
+
+    /**
+     * Returns the child node for a field.
+     *
+     * @param name field name.
+     * @return child node; {@code null} if no path continues with this field.
+     */
+    public PathTrie field(final String name) {
+        return fields.isEmpty() ? null : fields.get(name);
+    }
+
+    /**
+     * Returns the child node for a field, given whether its value is a leaf.
+     * A leaf also matches a path ending with its name in another case.
+     *
+     * @param name field name.
+     * @param leaf whether the field value is a scalar or an empty container.
+     * @return child node; {@code null} if no path continues with this field.
+     */
+    public PathTrie field(final String name, final boolean leaf) {
+        final var loose = leaf && !leaves.isEmpty() ? leaves.get(name) : null;
+        return loose == null ? field(name) : loose;
+    }
+
+    /**
+     * Returns the child node for an array element.
+     *
+     * @param index element index.
+     * @return child node; {@code null} if no path continues with this element.
+     */
+    public PathTrie index(final int index) {
+        return indexes.isEmpty() ? anyIndex : indexes.getOrDefault(index, anyIndex);
+    }
+
+    /**
+     * Returns whether a configured path ends at this node, i.e. its whole subtree matches.
+     *
+     * @return true for terminal nodes.
+     */
+    public boolean isTerminal() {
+        return terminal;
+    }
+
+    /**
+     * Adds a path below this node.
+     *
+     * @param path path in flattened notation.
+     */
+    private void insert(final String path) {
+        PathTrie node = this;
+        int position = 0;
+        while (position < path.length()) {
+            final char current = path.charAt(position);
+            if (current == '.') {
+                position++;
+            } else if (current == '[') {
+                int end = path.indexOf(']', position);
+                end = end < 0 ? path.length() : end;
+                node = node.bracketChild(path.substring(position + 1, end));
+                position = end + 1;
+            } else {
+                int end = position;
+                while (end < path.length() && path.charAt(end) != '.' && path.charAt(end) != '[') {
+                    end++;
+                }
+                node = node.fields.computeIfAbsent(path.substring(position, end), name -> new PathTrie());
+                position = end;
+            }
+        }
+        node.terminal = true;
+    }
+
+    /**
+     * Returns (creating if needed) the child for a bracket segment: {@code []} is any index,
+     * digits are an explicit index, anything else is a (possibly quoted) field name.
+     *
+     * @param content text between the brackets.
+     * @return child node.
+     */
+    private PathTrie bracketChild(final String content) {
+        final PathTrie child;
+        if (content.isEmpty()) {
+            if (anyIndex == null) {
+                anyIndex = new PathTrie();
+            }
+            child = anyIndex;
+        } else if (content.chars().allMatch(Character::isDigit)) {
+            child = indexes.computeIfAbsent(Integer.parseInt(content), index -> new PathTrie());
+        } else {
+            final var name = content.length() > 1 && content.charAt(0) == '"' && content.endsWith("\"")
+                    ? content.substring(1, content.length() - 1)
+                    : content;
+            child = fields.computeIfAbsent(name, key -> new PathTrie());
+        }
+        return child;
+    }
+
+    /**
+     * Finishes compilation: terminal nodes lose their (redundant) children, any-index branches
+     * are merged into explicit index branches and terminal fields are indexed ignoring case, recursively.
+     */
+    private void seal() {
+        if (terminal) {
+            fields.clear();
+            indexes.clear();
+            anyIndex = null;
+        } else {
+            if (anyIndex != null) {
+                indexes.values().forEach(child -> child.mergeFrom(anyIndex));
+                anyIndex.seal();
+            }
+            fields.values().forEach(PathTrie::seal);
+            indexes.values().forEach(PathTrie::seal);
+            fields.forEach((name, child) -> {
+                if (child.terminal) {
+                    leaves.put(name, child);
+                }
+            });
+        }
+    }
+
+    /**
+     * Copies all paths of another node into this one.
+     *
+     * @param source node to copy from; left unchanged.
+     */
+    private void mergeFrom(final PathTrie source) {
+        terminal |= source.terminal;
+        source.fields.forEach((name, child) -> fields.computeIfAbsent(name, key -> new PathTrie()).mergeFrom(child));
+        source.indexes.forEach((index, child) ->
+                indexes.computeIfAbsent(index, key -> new PathTrie()).mergeFrom(child));
+        if (source.anyIndex != null) {
+            if (anyIndex == null) {
+                anyIndex = new PathTrie();
+            }
+            anyIndex.mergeFrom(source.anyIndex);
+        }
+    }
+}
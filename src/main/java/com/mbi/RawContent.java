@@ -0,0 +1,126 @@
+package com.mbi;
+
+import org.apache.commons.lang3.Validate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Byte-level comparison of JSON sources, used as a fast path before documents are parsed.
+ * <p>
+ * Equal bytes make equal documents in every {@link CompareMode}, so a byte-identical pair can be accepted without
+ * building either tree. Files are compared as memory-mapped segments of at most {@link #SEGMENT_SIZE} bytes, which
+ * the JDK compares with vectorized mismatch; comparison stops at the first differing segment and files of
+ * different sizes are not read at all. Text, byte arrays and buffers in memory are compared the same way, as a whole.
+ */
+final class RawContent {
+
+    /**
+     * Default maximum size of a mapped segment: 1 GB.
+     */
+    private static final long SEGMENT_SIZE = 1L << 30;
+
+    /**
+     * Prevent instantiation.
+     */
+    private RawContent() {
+    }
+
+    /**
+     * Checks whether two JSON texts are identical.
+     *
+     * @param first  first text.
+     * @param second second text.
+     * @return true if the texts are equal.
+     */
+    public static boolean isIdentical(final String first, final String second) {
+        Validate.notNull(first, "JSON text is null");
+        Validate.notNull(second, "JSON text is null");
+        return first.equals(second);
+    }
+
+    /**
+     * Checks whether two byte arrays are identical.
+     *
+     * @param first  first array.
+     * @param second second array.
+     * @return true if the arrays have the same content.
+     */
+    public static boolean isIdentical(final byte[] first, final byte[] second) {
+        Validate.notNull(first, "JSON byte array is null");
+        Validate.notNull(second, "JSON byte array is null");
+        return Arrays.equals(first, second);
+    }
+
+    /**
+     * Checks whether the remaining bytes of two buffers are identical. The positions of the buffers are not changed.
+     *
+     * @param first  first buffer.
+     * @param second second buffer.
+     * @return true if the remaining bytes are the same.
+     */
+    public static boolean isIdentical(final ByteBuffer first, final ByteBuffer second) {
+        Validate.notNull(first, "JSON buffer is null");
+        Validate.notNull(second, "JSON buffer is null");
+        return first.equals(second);
+    }
+
+    /**
+     * Checks whether two files have the same content.
+     *
+     * @param first  first file.
+     * @param second second file.
+     * @return true if both paths locate the same file or the files are byte-identical.
+     * @throws UncheckedIOException if a file cannot be read.
+     */
+    public static boolean isIdentical(final Path first, final Path second) {
+        return isIdentical(first, second, SEGMENT_SIZE);
+    }
+
+    /**
+     * Checks whether two files have the same content, mapping segments of the given size.
+     *
+     * @param first       first file.
+     * @param second      second file.
+     * @param segmentSize maximum size of a mapped segment.
+     * @return true if both paths locate the same file or the files are byte-identical.
+     * @throws UncheckedIOException if a file cannot be read.
+     */
+    public static boolean isIdentical(final Path first, final Path second, final long segmentSize) {
+        Validate.notNull(first, "File path is null");
+        Validate.notNull(second, "File path is null");
+        try (var firstChannel = FileChannel.open(first, StandardOpenOption.READ);
+             var secondChannel = FileChannel.open(second, StandardOpenOption.READ)) {
+            return Files.isSameFile(first, second) || isIdentical(firstChannel, secondChannel, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compare " + first + " with " + second, e);
+        }
+    }
+
+    /**
+     * Compares the content of two file channels segment by segment.
+     *
+     * @param first       first channel.
+     * @param second      second channel.
+     * @param segmentSize maximum size of a mapped segment.
+     * @return true if the content is byte-identical.
+     * @throws IOException if a segment cannot be mapped.
+     */
+    private static boolean isIdentical(final FileChannel first, final FileChannel second, final long segmentSize)
+            throws IOException {
+        final long size = first.size();
+        boolean identical = size == second.size();
+        for (long position = 0; identical && position < size; position += segmentSize) {
+            final long length = Math.min(segmentSize, size - position);
+            identical = first.map(FileChannel.MapMode.READ_ONLY, position, length)
+                    .equals(second.map(FileChannel.MapMode.READ_ONLY, position, length));
+        }
+        return identical;
+    }
+}
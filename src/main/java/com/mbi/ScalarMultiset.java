@@ -0,0 +1,289 @@
+package com.mbi;
+
+import org.json.JSONArray;
+
+import java.util.Arrays;
+
+/**
+ * Comparison of unordered arrays whose elements are scalars of one kind: integral numbers, numbers or strings.
+ * <p>
+ * The elements of both arrays are copied into {@code long}, {@code double} or {@code String} arrays, sorted and
+ * walked together once: the arrays hold the same multiset of values exactly when the sorted sequences are equal.
+ * Nothing is boxed, hashed or compared as a JSON value while the values match; only the values without a
+ * counterpart are collected, in ascending order. Numbers are equal as {@link JsonComparator#scalarsEqual} decides:
+ * integral numbers exactly, and by double value once an array mixes them with other numbers, which is supported
+ * only while the integral values are exact doubles.
+ */
+final class ScalarMultiset {
+
+    /**
+     * Largest magnitude up to which every integral value is an exact double.
+     */
+    private static final long MAX_EXACT_DOUBLE = 1L << 53;
+
+    /**
+     * Expected values without a counterpart.
+     */
+    private final JSONArray missing = new JSONArray();
+
+    /**
+     * Actual values without a counterpart.
+     */
+    private final JSONArray unexpected = new JSONArray();
+
+    /**
+     * Constructor.
+     */
+    private ScalarMultiset() {
+    }
+
+    /**
+     * Compares the elements of two arrays starting at the given index as multisets.
+     *
+     * @param expected expected array.
+     * @param actual   actual array.
+     * @param from     index of the first element compared; less than the length of the expected array.
+     * @return comparison result; {@code null} if the elements are not scalars of one kind.
+     */
+    public static ScalarMultiset compare(final JSONArray expected, final JSONArray actual, final int from) {
+        final var kind = kindOf(actual, from, kindOf(expected, from, kindOf(expected.opt(from))));
+        ScalarMultiset result = null;
+        if (kind != null) {
+            result = new ScalarMultiset();
+            switch (kind) {
+                case STRING -> result.walk(strings(expected, from), strings(actual, from));
+                case NUMBER -> result.walk(doubles(expected, from), doubles(actual, from));
+                default -> result.walk(longs(expected, from), longs(actual, from));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether both arrays hold the same values.
+     *
+     * @return true if every value found a counterpart.
+     */
+    public boolean isEqual() {
+        return missing.isEmpty() && unexpected.isEmpty();
+    }
+
+    /**
+     * Returns the expected values without a counterpart.
+     *
+     * @return values in ascending order.
+     */
+    public JSONArray getMissing() {
+        return missing;
+    }
+
+    /**
+     * Returns the actual values without a counterpart.
+     *
+     * @return values in ascending order.
+     */
+    public JSONArray getUnexpected() {
+        return unexpected;
+    }
+
+    /**
+     * Classifies a value.
+     *
+     * @param value array element.
+     * @return kind of the value; {@code null} if it is not a supported scalar.
+     */
+    private static Kind kindOf(final Object value) {
+        Kind result = null;
+        if (value instanceof String) {
+            result = Kind.STRING;
+        } else if (value instanceof Long number) {
+            result = number > MAX_EXACT_DOUBLE || number < -MAX_EXACT_DOUBLE ? Kind.WIDE_INTEGRAL : Kind.INTEGRAL;
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            result = Kind.INTEGRAL;
+        } else if (value instanceof Number number && !Double.isNaN(number.doubleValue())) {
+            result = Kind.NUMBER; // NaN equals nothing, not even itself
+        }
+        return result;
+    }
+
+    /**
+     * Classifies the elements of an array starting at the given index together with the values seen before.
+     *
+     * @param array   array.
+     * @param from    index of the first element.
+     * @param initial kind of the values seen before; {@code null} if they are not scalars of one kind.
+     * @return common kind; {@code null} if the values are not scalars of one kind.
+     */
+    private static Kind kindOf(final JSONArray array, final int from, final Kind initial) {
+        Kind kind = initial;
+        for (int i = from; i < array.length() && kind != null; i++) {
+            final var element = kindOf(array.opt(i));
+            kind = element == null ? null : combine(kind, element);
+        }
+        return kind;
+    }
+
+    /**
+     * Returns the kind common to two kinds of values: integral numbers fit with wider numbers, except numbers
+     * that are not exact doubles with other numbers.
+     *
+     * @param first  kind of some values.
+     * @param second kind of other values.
+     * @return common kind; {@code null} if the values cannot be compared as one kind.
+     */
+    private static Kind combine(final Kind first, final Kind second) {
+        final Kind wider = first.compareTo(second) < 0 ? second : first;
+        final Kind narrower = wider == first ? second : first;
+        final boolean compatible = narrower == wider || narrower == Kind.INTEGRAL && wider != Kind.STRING;
+        return compatible ? wider : null;
+    }
+
+    /**
+     * Copies the elements of an array of integral numbers.
+     *
+     * @param array array.
+     * @param from  index of the first element.
+     * @return values.
+     */
+    private static long[] longs(final JSONArray array, final int from) {
+        final var values = new long[array.length() - from];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = ((Number) array.opt(from + i)).longValue();
+        }
+        return values;
+    }
+
+    /**
+     * Copies the elements of an array of numbers.
+     *
+     * @param array array.
+     * @param from  index of the first element.
+     * @return values.
+     */
+    private static double[] doubles(final JSONArray array, final int from) {
+        final var values = new double[array.length() - from];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = ((Number) array.opt(from + i)).doubleValue();
+        }
+        return values;
+    }
+
+    /**
+     * Copies the elements of an array of strings.
+     *
+     * @param array array.
+     * @param from  index of the first element.
+     * @return values.
+     */
+    private static String[] strings(final JSONArray array, final int from) {
+        final var values = new String[array.length() - from];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (String) array.opt(from + i);
+        }
+        return values;
+    }
+
+    /**
+     * Sorts integral values and collects the ones without a counterpart.
+     *
+     * @param expected expected values, sorted in place.
+     * @param actual   actual values, sorted in place.
+     */
+    private void walk(final long[] expected, final long[] actual) {
+        Arrays.sort(expected);
+        Arrays.sort(actual);
+        int i = 0;
+        int j = 0;
+        while (i < expected.length || j < actual.length) {
+            if (j == actual.length || i < expected.length && expected[i] < actual[j]) {
+                missing.put(expected[i]);
+                i++;
+            } else if (i == expected.length || actual[j] < expected[i]) {
+                unexpected.put(actual[j]);
+                j++;
+            } else {
+                i++;
+                j++;
+            }
+        }
+    }
+
+    /**
+     * Sorts numbers and collects the ones without a counterpart. Zeros of both signs are equal.
+     *
+     * @param expected expected values, sorted in place.
+     * @param actual   actual values, sorted in place.
+     */
+    private void walk(final double[] expected, final double[] actual) {
+        Arrays.sort(expected);
+        Arrays.sort(actual);
+        int i = 0;
+        int j = 0;
+        while (i < expected.length || j < actual.length) {
+            if (j == actual.length || i < expected.length && expected[i] < actual[j]) {
+                missing.put(expected[i]);
+                i++;
+            } else if (i == expected.length || actual[j] < expected[i]) {
+                unexpected.put(actual[j]);
+                j++;
+            } else {
+                i++;
+                j++;
+            }
+        }
+    }
+
+    /**
+     * Sorts strings and collects the ones without a counterpart.
+     *
+     * @param expected expected values, sorted in place.
+     * @param actual   actual values, sorted in place.
+     */
+    private void walk(final String[] expected, final String[] actual) {
+        Arrays.sort(expected);
+        Arrays.sort(actual);
+        int i = 0;
+        int j = 0;
+        while (i < expected.length || j < actual.length) {
+            final int order = i == expected.length || j == actual.length
+                    ? Integer.compare(actual.length - j, expected.length - i)
+                    : expected[i].compareTo(actual[j]);
+            if (order < 0) {
+                missing.put(expected[i]);
+                i++;
+            } else if (order > 0) {
+                unexpected.put(actual[j]);
+                j++;
+            } else {
+                i++;
+                j++;
+            }
+        }
+    }
+
+    /**
+     * Kinds of scalar arrays, from the narrowest.
+     */
+    private enum Kind {
+
+        /**
+         * Integral numbers that are exact doubles.
+         */
+        INTEGRAL,
+
+        /**
+         * Integral numbers, some of which are not exact doubles.
+         */
+        WIDE_INTEGRAL,
+
+        /**
+         * Numbers compared by double value.
+         */
+        NUMBER,
+
+        /**
+         * Strings.
+         */
+        STRING
+    }
+}
@@ -0,0 +1,277 @@
+package com.mbi;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compares an expected JSON tree with an actual document read incrementally from a {@link JsonReader}.
+ * <p>
+ * The actual document is never built as a whole: objects and ordered arrays are compared token by token,
+ * and only single elements of unordered arrays are materialized to be matched against a structural hash index
+ * of the expected elements. Memory is therefore bounded by nesting depth and element size, not by document size.
+ * The comparison stops at the first difference, leaving the rest of the document unread.
+ * <p>
+ * Applies the same rules as {@link JsonComparator}: no missing or extra fields, arrays of the same length.
+ * Instances are stateful and not thread-safe; create one per comparison.
+ */
+final class StreamingComparator {
+
+    /**
+     * Comparison mode; only array ordering is relevant here.
+     */
+    private final CompareMode mode;
+
+    /**
+     * Path of the value being compared.
+     */
+    private final ComparisonPath path = new ComparisonPath();
+
+    /**
+     * First difference found; {@code null} while values match.
+     */
+    private JsonDifference difference;
+
+    /**
+     * Constructor.
+     *
+     * @param mode comparison mode; must not allow extensible arrays.
+     */
+    public StreamingComparator(final CompareMode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * Compares the expected value with the document of the reader.
+     *
+     * @param expected expected value.
+     * @param actual   reader positioned at the start of the actual document.
+     * @return first difference; {@code null} if the documents are equal.
+     */
+    public JsonDifference compare(final Object expected, final JsonReader actual) {
+        if (compareValues(expected, actual)) {
+            actual.endDocument();
+        }
+        return difference;
+    }
+
+    /**
+     * Returns a stand-in for the next actual value in a difference: containers are not read,
+     * as differences describe them only by their type.
+     *
+     * @param actual reader positioned at the value.
+     * @return empty container of the same type, or the scalar value.
+     */
+    private static Object placeholder(final JsonReader actual) {
+        final int next = actual.peek();
+        final Object value;
+        if (next == '{') {
+            value = new JSONObject();
+        } else if (next == '[') {
+            value = new JSONArray();
+        } else {
+            value = actual.nextScalar();
+        }
+        return value;
+    }
+
+    /**
+     * Skips the remaining elements of the current array.
+     *
+     * @param actual reader inside an array.
+     * @return number of skipped elements.
+     */
+    private static int skipRemaining(final JsonReader actual) {
+        int count = 0;
+        while (actual.hasNext()) {
+            actual.skipValue();
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Compares the next actual value with the expected one.
+     *
+     * @param expected expected value.
+     * @param actual   reader positioned at the actual value.
+     * @return true if equal.
+     */
+    private boolean compareValues(final Object expected, final JsonReader actual) {
+        final int next = actual.peek();
+        final boolean equal;
+        if (next == '{' && expected instanceof JSONObject expectedObject) {
+            equal = compareObjects(expectedObject, actual);
+        } else if (next == '[' && expected instanceof JSONArray expectedArray) {
+            equal = mode.isOrdered()
+                    ? compareInOrder(expectedArray, actual)
+                    : compareInAnyOrder(expectedArray, actual);
+        } else {
+            final var value = placeholder(actual);
+            equal = JsonComparator.scalarsEqual(expected, value)
+                    || report(JsonDifference.Kind.MISMATCH, expected, value);
+        }
+        return equal;
+    }
+
+    /**
+     * Compares the fields of the next actual object, in the order they are read.
+     *
+     * @param expected expected object.
+     * @param actual   reader positioned at the actual object.
+     * @return true if equal.
+     */
+    private boolean compareObjects(final JSONObject expected, final JsonReader actual) {
+        final Set<String> found = new HashSet<>();
+        boolean equal = true;
+        actual.beginObject();
+        while (equal && actual.hasNext()) {
+            final var key = actual.nextName();
+            if (!found.add(key)) {
+                throw actual.duplicateKey(key);
+            }
+            final var expectedValue = expected.opt(key);
+            path.push(key);
+            if (expectedValue == null) {
+                equal = report(JsonDifference.Kind.UNEXPECTED, null, placeholder(actual));
+            } else {
+                equal = compareValues(expectedValue, actual);
+            }
+            path.pop();
+        }
+
+        if (equal) {
+            actual.endObject();
+            equal = found.size() == expected.length() || reportMissingField(expected, found);
+        }
+        return equal;
+    }
+
+    /**
+     * Records the first expected field absent in the actual object.
+     *
+     * @param expected expected object.
+     * @param found    fields present in the actual object.
+     * @return always false.
+     */
+    private boolean reportMissingField(final JSONObject expected, final Set<String> found) {
+        for (final String key : expected.keySet()) {
+            if (!found.contains(key) && difference == null) {
+                path.push(key);
+                report(JsonDifference.Kind.MISSING, expected.opt(key), null);
+                path.pop();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compares the elements of the next actual array with the expected ones by position.
+     *
+     * @param expected expected array.
+     * @param actual   reader positioned at the actual array.
+     * @return true if equal.
+     */
+    private boolean compareInOrder(final JSONArray expected, final JsonReader actual) {
+        final int length = expected.length();
+        int count = 0;
+        boolean equal = true;
+        actual.beginArray();
+        while (equal && actual.hasNext()) {
+            if (count < length) {
+                path.push(count);
+                equal = compareValues(expected.opt(count), actual);
+                path.pop();
+            } else {
+                actual.skipValue();
+                equal = report(JsonDifference.Kind.LENGTH, length, count + 1 + skipRemaining(actual));
+            }
+            count++;
+        }
+
+        if (equal) {
+            actual.endArray();
+            equal = count == length || report(JsonDifference.Kind.LENGTH, length, count);
+        }
+        return equal;
+    }
+
+    /**
+     * Matches the elements of the next actual array with the expected ones in any order.
+     * Each actual element is materialized on its own and looked up in a structural hash index
+     * of the expected elements that are not matched yet.
+     *
+     * @param expected expected array.
+     * @param actual   reader positioned at the actual array.
+     * @return true if equal.
+     */
+    private boolean compareInAnyOrder(final JSONArray expected, final JsonReader actual) {
+        final int length = expected.length();
+        final Map<Integer, List<Integer>> expectedByHash = new HashMap<>();
+        for (int i = 0; i < length; i++) {
+            expectedByHash.computeIfAbsent(JsonHash.of(expected.opt(i)), hash -> new ArrayList<>(1)).add(i);
+        }
+
+        final var comparator = new JsonComparator(mode);
+        int count = 0;
+        boolean equal = true;
+        actual.beginArray();
+        while (equal && actual.hasNext()) {
+            final var element = actual.readValue();
+            final var candidates = expectedByHash.getOrDefault(JsonHash.of(element), List.of());
+            int found = -1;
+            for (int k = 0; k < candidates.size() && found < 0; k++) {
+                if (comparator.isEqual(expected.opt(candidates.get(k)), element)) {
+                    found = candidates.remove(k);
+                }
+            }
+            count++;
+            equal = found >= 0 || reportUnmatched(length, element, count + skipRemaining(actual));
+        }
+
+        if (equal) {
+            actual.endArray();
+            equal = count == length || report(JsonDifference.Kind.LENGTH, length, count);
+        }
+        return equal;
+    }
+
+    /**
+     * Records an actual element of an unordered array without a pair: as an array length difference
+     * if the lengths differ, as an unexpected element otherwise.
+     *
+     * @param length  expected number of elements.
+     * @param element actual element without a pair.
+     * @param count   actual number of elements.
+     * @return always false.
+     */
+    private boolean reportUnmatched(final int length, final Object element, final int count) {
+        if (count == length) {
+            path.push(ComparisonPath.ANY_INDEX);
+            report(JsonDifference.Kind.UNEXPECTED, null, element);
+            path.pop();
+        } else {
+            report(JsonDifference.Kind.LENGTH, length, count);
+        }
+        return false;
+    }
+
+    /**
+     * Records the difference at the current path.
+     *
+     * @param kind     kind of difference.
+     * @param expected expected value.
+     * @param actual   actual value.
+     * @return always false, so it can terminate equality expressions.
+     */
+    private boolean report(final JsonDifference.Kind kind, final Object expected, final Object actual) {
+        difference = new JsonDifference(kind, path.render(), expected, actual);
+        return false;
+    }
+}
@@ -0,0 +1,129 @@
+import com.mbi.Assert;
+import com.mbi.AssertionSpec;
+import com.mbi.CompareMode;
+import io.restassured.response.Response;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.testng.Assert.*;
+
+public class AssertDefaultsTest {
+
+    private final Assert assertion = new LegacyAssert();
+
+    @Test
+    public void testDocumentsAreComparedWithImplementationConfiguration() {
+        assertion.jsonEquals("{\"id\": 1, \"updatedAt\": 1}", "{\"id\": 1, \"updatedAt\": 2}");
+        assertion.jsonEquals(bytes("[{\"id\": 1}, {\"id\": 2}]"), bytes("[{\"id\": 1}, {\"id\": 2}]"));
+        expectThrows(AssertionError.class, () -> assertion.jsonEquals("[1, 2]", "[2, 1]"));
+        assertion.jsonNotEquals(ByteBuffer.wrap(bytes("[1, 2]")), ByteBuffer.wrap(bytes("[2, 1]")));
+        assertion.jsonNotEquals(stream("{\"id\": 1}"), stream("[{\"id\": 1}]"));
+        assertion.jsonEquals(stream("\"text\""), stream("\"text\""));
+        expectThrows(AssertionError.class, () -> assertion.jsonEquals("1", "2"));
+    }
+
+    @Test
+    public void testFilesAndJsonLines() throws Exception {
+        var actual = Files.createTempFile("actual", ".jsonl");
+        var expected = Files.createTempFile("expected", ".jsonl");
+        try {
+            Files.writeString(actual, "{\"id\": 1, \"updatedAt\": 1}\n{\"id\": 2}\n");
+            Files.writeString(expected, "{\"id\": 1, \"updatedAt\": 2}\n{\"id\": 2}\n");
+
+            assertion.jsonLinesEquals(actual, expected);
+            expectThrows(AssertionError.class, () -> assertion.jsonLinesEquals(
+                    stream("{\"id\": 2}\n{\"id\": 1}"), stream("{\"id\": 1}\n{\"id\": 2}")));
+
+            Files.writeString(actual, "{\"id\": 1, \"updatedAt\": 1}");
+            Files.writeString(expected, "{\"id\": 1, \"updatedAt\": 2}");
+            assertion.jsonEquals(actual, expected);
+        } finally {
+            Files.deleteIfExists(actual);
+            Files.deleteIfExists(expected);
+        }
+    }
+
+    @Test
+    public void testConfigurationDefaults() {
+        assertSame(assertion.withMaxDifferences(1).withParallelism(4).withStreaming()
+                .withContextLines(2).withMaxMessageLength(10), assertion);
+        expectThrows(UnsupportedOperationException.class, () -> assertion.matchArrayBy("[]", "id"));
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static ByteArrayInputStream stream(String text) {
+        return new ByteArrayInputStream(bytes(text));
+    }
+
+    /**
+     * Implementation written against the original interface: it only implements the original methods.
+     */
+    private static final class LegacyAssert implements Assert {
+
+        private final AssertionSpec spec = AssertionSpec.DEFAULT.withMode(CompareMode.ORDERED).ignore("updatedAt");
+
+        @Override
+        public void jsonEquals(JSONObject actual, JSONObject expected) {
+            spec.jsonEquals(actual, expected);
+        }
+
+        @Override
+        public void jsonEquals(JSONArray actual, JSONArray expected) {
+            spec.jsonEquals(actual, expected);
+        }
+
+        @Override
+        public void jsonEquals(JSONArray actual, JSONObject... expected) {
+            spec.jsonEquals(actual, expected);
+        }
+
+        @Override
+        public void jsonEquals(Response actual, JSONArray expected) {
+            spec.jsonEquals(actual, expected);
+        }
+
+        @Override
+        public void jsonEquals(Response actual, JSONObject expected) {
+            spec.jsonEquals(actual, expected);
+        }
+
+        @Override
+        public void jsonEquals(Response actual, JSONObject... expected) {
+            spec.jsonEquals(actual, expected);
+        }
+
+        @Override
+        public void jsonNotEquals(JSONObject actual, JSONObject expected) {
+            spec.jsonNotEquals(actual, expected);
+        }
+
+        @Override
+        public void jsonNotEquals(JSONArray actual, JSONArray expected) {
+            spec.jsonNotEquals(actual, expected);
+        }
+
+        @Override
+        public Assert withMode(CompareMode mode) {
+            return this;
+        }
+
+        @Override
+        public Assert ignore(String... ignoreFieldNames) {
+            return this;
+        }
+
+        @Override
+        public Assert compareOnly(String... compareFieldNames) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+import com.mbi.AssertionEvent;
+import com.mbi.AssertionListener;
+import com.mbi.AssertionPhase;
+import com.mbi.AssertionSpec;
+import com.mbi.CompareMode;
+import com.mbi.JsonAssert;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.testng.Assert.*;
+
+public class AssertionListenerTest {
+
+    @Test
+    public void testPassedAssertionEvent() {
+        var events = new CopyOnWriteArrayList<AssertionEvent>();
+        var spec = AssertionSpec.DEFAULT.withMode(CompareMode.NOT_ORDERED_EXTENSIBLE_ARRAY).withListener(events::add);
+
+        spec.jsonEquals(new JSONArray("[{\"id\": 1}, {\"id\": 2}, {\"id\": 3}]"), new JSONArray("[{\"id\": 2}]"));
+
+        assertEquals(events.size(), 1);
+        var event = events.get(0);
+        assertEquals(event.getOperation(), "jsonEquals");
+        assertEquals(event.getMode(), CompareMode.NOT_ORDERED_EXTENSIBLE_ARRAY);
+        assertTrue(event.isPassed());
+        assertEquals(event.getDifferenceCount(), 0);
+        assertEquals(event.getExpectedElements(), 1);
+        assertEquals(event.getActualElements(), 3);
+        assertEquals(event.getExpectedSize(), AssertionEvent.UNKNOWN);
+        assertEquals(event.getDuration(AssertionPhase.PARSE), 0);
+        assertEquals(event.getDuration(AssertionPhase.RENDER), 0);
+        assertTrue(event.getDuration(AssertionPhase.ARRAY_MATCHING) > 0);
+        assertTrue(event.getDuration(AssertionPhase.COMPARE) > 0);
+        assertTrue(event.getTotalDuration() >= event.getDuration(AssertionPhase.FILTER)
+                + event.getDuration(AssertionPhase.ARRAY_MATCHING) + event.getDuration(AssertionPhase.COMPARE));
+    }
+
+    @Test
+    public void testFailedAssertionEventAndRendering() {
+        var events = new CopyOnWriteArrayList<AssertionEvent>();
+        var rendered = new CopyOnWriteArrayList<Long>();
+        var spec = AssertionSpec.DEFAULT.withListener(new AssertionListener() {
+            @Override
+            public void onAssertion(final AssertionEvent event) {
+                events.add(event);
+            }
+
+            @Override
+            public void onMessageRendered(final AssertionEvent event, final long durationNanos) {
+                assertSame(event, events.get(0));
+                rendered.add(durationNanos);
+            }
+        });
+
+        var error = expectThrows(AssertionError.class, () -> spec.jsonEquals(
+                new JSONObject("{\"a\": 1, \"b\": 2}"), new JSONObject("{\"a\": 2, \"b\": 3}")));
+
+        assertEquals(events.size(), 1);
+        assertFalse(events.get(0).isPassed());
+        assertEquals(events.get(0).getDifferenceCount(), 2);
+        assertTrue(rendered.isEmpty());
+        error.getMessage();
+        error.getMessage();
+        assertEquals(rendered.size(), 1);
+        assertTrue(rendered.get(0) > 0);
+    }
+
+    @Test
+    public void testJsonAssertKeepsListeners() {
+        var events = new CopyOnWriteArrayList<AssertionEvent>();
+        var assertion = new JsonAssert(events::add);
+        var json = new JSONObject("{\"a\": 1}");
+
+        assertion.withMode(CompareMode.ORDERED).jsonEquals(json, json);
+        assertion.jsonNotEquals(json, new JSONObject("{\"a\": 2}"));
+        expectThrows(AssertionError.class, () -> assertion.jsonNotEquals(json, json));
+
+        assertEquals(events.stream().map(AssertionEvent::getOperation).toList(),
+                List.of("jsonEquals", "jsonNotEquals", "jsonNotEquals"));
+        assertEquals(events.stream().map(AssertionEvent::getMode).toList(),
+                List.of(CompareMode.ORDERED, CompareMode.NOT_ORDERED, CompareMode.NOT_ORDERED));
+        assertEquals(events.stream().map(AssertionEvent::isPassed).toList(), List.of(true, true, false));
+    }
+
+    @Test
+    public void testGlobalListener() {
+        var events = new CopyOnWriteArrayList<AssertionEvent>();
+        var thread = Thread.currentThread();
+        AssertionListener listener = event -> {
+            // Tests of other classes may run in parallel
+            if (Thread.currentThread() == thread) {
+                events.add(event);
+            }
+        };
+        var json = new JSONObject("{\"a\": 1}");
+
+        AssertionListener.register(listener);
+        try {
+            new JsonAssert().jsonEquals(json, json);
+            AssertionSpec.DEFAULT.compile(json).assertMatches(json);
+            assertTrue(AssertionSpec.DEFAULT.compile(json).matches(json));
+        } finally {
+            AssertionListener.unregister(listener);
+        }
+        AssertionSpec.DEFAULT.jsonEquals(json, json);
+
+        assertEquals(events.stream().map(AssertionEvent::getOperation).toList(),
+                List.of("jsonEquals", "assertMatches"));
+    }
+
+    @Test
+    public void testFileSizesAndParsing() throws IOException {
+        var actual = Files.createTempFile("actual", ".json");
+        var expected = Files.createTempFile("expected", ".json");
+        actual.toFile().deleteOnExit();
+        expected.toFile().deleteOnExit();
+        Files.writeString(actual, "{\"id\": 1, \"name\": \"a\"}");
+        Files.writeString(expected, "{\"id\": 1}");
+        var events = new CopyOnWriteArrayList<AssertionEvent>();
+
+        AssertionSpec.DEFAULT.compareOnly("id").withListener(events::add).jsonEquals(actual, expected);
+
+        var event = events.get(0);
+        assertEquals(events.size(), 1);
+        assertEquals(event.getActualSize(), 22);
+        assertEquals(event.getExpectedSize(), 9);
+        assertEquals(event.getActualElements(), 2);
+        assertTrue(event.getDuration(AssertionPhase.PARSE) > 0);
+    }
+
+    @Test
+    public void testListenersAreSpecValues() {
+        AssertionListener listener = event -> { };
+
+        assertEquals(AssertionSpec.DEFAULT.withListener(listener), AssertionSpec.DEFAULT.withListener(listener));
+        assertNotEquals(AssertionSpec.DEFAULT.withListener(listener), AssertionSpec.DEFAULT);
+        expectThrows(NullPointerException.class, () -> AssertionSpec.DEFAULT.withListener(null));
+    }
+}
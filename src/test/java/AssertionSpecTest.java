@@ -0,0 +1,90 @@
+import com.mbi.AssertionSpec;
+import com.mbi.CompareMode;
+import com.mbi.JsonAssert;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.testng.Assert.*;
+
+public class AssertionSpecTest {
+
+    private static final AssertionSpec ORDERED = AssertionSpec.DEFAULT
+            .withMode(CompareMode.ORDERED)
+            .ignore("createdAt");
+
+    @Test
+    public void testSpecIsImmutable() {
+        var expected = new JSONArray("""
+                [{"id": 1, "createdAt": 1}, {"id": 2, "createdAt": 2}]""");
+        var actual = new JSONArray("""
+                [{"id": 2, "createdAt": 3}, {"id": 1, "createdAt": 4}]""");
+
+        var unordered = ORDERED.withMode(CompareMode.NOT_ORDERED);
+        unordered.jsonEquals(actual, expected);
+        expectThrows(AssertionError.class, () -> ORDERED.jsonEquals(actual, expected));
+        expectThrows(AssertionError.class, () -> AssertionSpec.DEFAULT.jsonEquals(actual, expected));
+
+        // Spec is not reset after an assertion
+        unordered.jsonEquals(actual, expected);
+        unordered.jsonNotEquals(actual, new JSONArray("[{\"id\": 3}]"));
+    }
+
+    @Test
+    public void testIgnoreReplacesFields() {
+        var expected = new JSONObject().put("a", 1).put("b", 2);
+        var actual = new JSONObject().put("a", 3).put("b", 2);
+
+        AssertionSpec.DEFAULT.ignore("b").ignore("a").jsonEquals(actual, expected);
+        expectThrows(AssertionError.class, () -> AssertionSpec.DEFAULT.ignore("a").ignore("b")
+                .jsonEquals(actual, expected));
+        AssertionSpec.DEFAULT.compareOnly("b").jsonEquals(actual, expected);
+    }
+
+    @Test
+    public void testValueEquality() {
+        var spec = AssertionSpec.DEFAULT.withMode(CompareMode.ORDERED).ignore("a", "b").withParallelism(4);
+
+        assertEquals(AssertionSpec.DEFAULT.ignore("b", "a").withParallelism(4).withMode(CompareMode.ORDERED), spec);
+        assertEquals(spec.hashCode(), AssertionSpec.DEFAULT.withMode(CompareMode.ORDERED).ignore("a", "b")
+                .withParallelism(4).hashCode());
+        assertNotEquals(spec.withContextLines(1), spec);
+        assertNotEquals(spec.compareOnly("a"), spec);
+    }
+
+    @Test
+    public void testSpecIsSharedAcrossThreads() throws InterruptedException, ExecutionException {
+        var executor = Executors.newFixedThreadPool(8);
+        var shared = new JsonAssert();
+        var results = new ArrayList<Future<Boolean>>();
+        try {
+            for (int i = 0; i < 200; i++) {
+                var id = i;
+                results.add(executor.submit((Callable<Boolean>) () -> {
+                    var expected = new JSONArray().put(new JSONObject().put("id", id).put("createdAt", id))
+                            .put(new JSONObject().put("id", id + 1).put("createdAt", id));
+                    var actual = new JSONArray().put(new JSONObject().put("id", id).put("createdAt", -id))
+                            .put(new JSONObject().put("id", id + 1).put("createdAt", -id));
+                    ORDERED.jsonEquals(actual, expected);
+                    if (id % 2 == 0) {
+                        shared.withMode(CompareMode.ORDERED).ignore("createdAt").jsonEquals(actual, expected);
+                    } else {
+                        expectThrows(AssertionError.class, () -> shared.jsonEquals(actual, expected));
+                    }
+                    return true;
+                }));
+            }
+            for (var result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
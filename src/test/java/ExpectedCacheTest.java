@@ -0,0 +1,134 @@
+import com.mbi.AssertionSpec;
+import com.mbi.CompareMode;
+import com.mbi.ExpectedCache;
+import org.json.JSONObject;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.testng.Assert.*;
+
+public class ExpectedCacheTest {
+
+    private static final AssertionSpec SPEC = AssertionSpec.DEFAULT.ignore("createdAt");
+
+    private static final JSONObject USER = new JSONObject("""
+            {"id": 1, "name": "Alice", "createdAt": "2025-05-05T00:00:00Z", "roles": ["user", "admin"]}""");
+
+    @Test
+    public void testResourceIsCompiledOnce() {
+        var cache = new ExpectedCache(10, 1_000);
+
+        var first = cache.resource("golden/user.json", SPEC);
+        var second = cache.resource("golden/user.json", AssertionSpec.DEFAULT.ignore("createdAt"));
+
+        assertSame(second, first);
+        first.assertMatches(USER);
+        assertEquals(cache.getMissCount(), 1);
+        assertEquals(cache.getHitCount(), 1);
+        assertEquals(cache.getEntryCount(), 1);
+    }
+
+    @Test
+    public void testSpecIsPartOfTheKey() {
+        var cache = new ExpectedCache(10, 1_000);
+
+        var ignoring = cache.resource("golden/user.json", SPEC);
+        var strict = cache.resource("golden/user.json", SPEC.withMode(CompareMode.ORDERED));
+
+        assertNotSame(strict, ignoring);
+        assertFalse(strict.matches(USER));
+        assertEquals(cache.getMissCount(), 2);
+        assertEquals(cache.getEntryCount(), 2);
+    }
+
+    @Test
+    public void testFilesAreKeyedByContent() throws IOException {
+        var cache = new ExpectedCache(10, 1_000);
+        var first = Files.createTempFile("expected", ".json");
+        var second = Files.createTempFile("expected", ".json");
+        try {
+            Files.writeString(first, "{\"a\": 1}");
+            Files.writeString(second, "{\"a\": 1}");
+
+            var matcher = cache.file(first, SPEC);
+            assertSame(cache.file(second, SPEC), matcher);
+
+            Files.writeString(first, "{\"a\": 2}");
+            assertTrue(cache.file(first, SPEC).matches(new JSONObject("{\"a\": 2}")));
+            assertEquals(cache.getHitCount(), 1);
+            assertEquals(cache.getMissCount(), 2);
+            assertEquals(cache.getByteCount(), 16);
+        } finally {
+            Files.delete(first);
+            Files.delete(second);
+        }
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted() {
+        var cache = new ExpectedCache(2, 1_000);
+        var a = cache.resource("golden/user.json", SPEC);
+        var b = cache.resource("golden/user.json", AssertionSpec.DEFAULT);
+        cache.resource("golden/user.json", SPEC);
+
+        cache.resource("golden/user.json", SPEC.withMode(CompareMode.ORDERED));
+
+        assertEquals(cache.getEntryCount(), 2);
+        assertSame(cache.resource("golden/user.json", SPEC), a);
+        assertNotSame(cache.resource("golden/user.json", AssertionSpec.DEFAULT), b);
+    }
+
+    @Test
+    public void testSizeLimit() throws IOException {
+        var size = ExpectedCacheTest.class.getClassLoader().getResourceAsStream("golden/user.json")
+                .readAllBytes().length;
+        var cache = new ExpectedCache(10, size + 1L);
+
+        cache.resource("golden/user.json", SPEC);
+        cache.resource("golden/user.json", AssertionSpec.DEFAULT);
+
+        assertEquals(cache.getEntryCount(), 1);
+        assertEquals(cache.getByteCount(), size);
+
+        var tiny = new ExpectedCache(10, 1);
+        tiny.resource("golden/user.json", SPEC).assertMatches(USER);
+        assertEquals(tiny.getEntryCount(), 1);
+    }
+
+    @Test
+    public void testClear() {
+        var cache = new ExpectedCache(10, 1_000);
+        cache.resource("golden/user.json", SPEC);
+        cache.resource("golden/user.json", SPEC);
+
+        cache.clear();
+
+        assertEquals(cache.getEntryCount(), 0);
+        assertEquals(cache.getByteCount(), 0);
+        assertEquals(cache.getHitCount(), 0);
+        assertEquals(cache.getMissCount(), 0);
+    }
+
+    @Test
+    public void testMissingResource() {
+        var ex = expectThrows(IllegalArgumentException.class,
+                () -> ExpectedCache.shared().resource("golden/missing.json", SPEC));
+        assertEquals(ex.getMessage(), "Resource not found: golden/missing.json");
+    }
+
+    @Test
+    public void testMissingFile() {
+        expectThrows(UncheckedIOException.class,
+                () -> ExpectedCache.shared().file(Path.of("missing.json"), SPEC));
+    }
+
+    @Test
+    public void testInvalidLimits() {
+        expectThrows(IllegalArgumentException.class, () -> new ExpectedCache(0, 1));
+        expectThrows(IllegalArgumentException.class, () -> new ExpectedCache(1, 0));
+    }
+}
@@ -1,10 +1,20 @@
+import com.mbi.AssertionEvent;
+import com.mbi.AssertionPhase;
+import com.mbi.AssertionSpec;
 import com.mbi.CompareMode;
 import com.mbi.JsonAssert;
+import io.restassured.response.Response;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.testng.annotations.Test;
 
-import java.lang.reflect.Method;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
 
 import static org.testng.Assert.*;
 
@@ -104,6 +114,39 @@ public class JsonAssertTest {
                 .jsonEquals(actual, expected);
     }
 
+    @Test
+    public void testIgnoreMatchesLeafFieldsIgnoringCase() {
+        var expected = new JSONObject("""
+                {"id": 1, "user": {"ID": 1, "name": "a"}}""");
+        var actual = new JSONObject("""
+                {"id": 2, "user": {"ID": 2, "name": "a"}}""");
+
+        assertion
+                .ignore("ID", "user.id")
+                .jsonEquals(expected, actual);
+        var ex = expectThrows(AssertionError.class,
+                () -> assertion.compareOnly("ID", "user.name").jsonEquals(expected, actual));
+        assertTrue(ex.getMessage().contains("But found"));
+    }
+
+    @Test
+    public void testFieldPathsMatchObjectsCaseSensitively() {
+        var expected = new JSONObject("""
+                {"a": {"b": 1}, "c": 1}""");
+        var actual = new JSONObject("""
+                {"a": {"b": 2}, "c": 1}""");
+
+        var ex = expectThrows(AssertionError.class, () -> assertion.ignore("A").jsonEquals(expected, actual));
+        assertTrue(ex.getMessage().contains("But found"));
+        ex = expectThrows(AssertionError.class, () -> assertion.ignore("A.b").jsonEquals(expected, actual));
+        assertTrue(ex.getMessage().contains("But found"));
+        assertion
+                .compareOnly("A", "c")
+                .jsonEquals(expected, actual);
+        ex = expectThrows(AssertionError.class, () -> assertion.compareOnly("a.B", "c").jsonEquals(expected, actual));
+        assertTrue(ex.getMessage().contains("But found"));
+    }
+
     @Test
     public void testArraysWithIgnore() {
         var expected = new JSONArray("""
@@ -207,6 +250,22 @@ public class JsonAssertTest {
         assertTrue(ex.getMessage().contains("But found"));
     }
 
+    @Test
+    public void testExtensibleArrayWithDuplicateExpectedElements() {
+        var expected = new JSONArray("""
+                [{"a": 1}, {"a": 1}]""");
+
+        for (var mode : new CompareMode[]{CompareMode.NOT_ORDERED_EXTENSIBLE_ARRAY,
+                CompareMode.ORDERED_EXTENSIBLE_ARRAY}) {
+            var spec = AssertionSpec.DEFAULT.withMode(mode);
+            expectThrows(AssertionError.class, () -> spec.jsonEquals(new JSONArray("[{\"a\": 1}]"), expected));
+            expectThrows(AssertionError.class, () -> spec.jsonEquals(new JSONArray("""
+                    [{"a": 1}, {"b": 2}]"""), expected));
+            spec.jsonEquals(new JSONArray("""
+                    [{"a": 1}, {"b": 2}, {"a": 1}]"""), expected);
+        }
+    }
+
     @Test
     public void testNoCommonObjects() {
         var expected = new JSONArray("""
@@ -1118,60 +1177,409 @@ public class JsonAssertTest {
     }
 
     @Test
-    public void testIsArrayFieldMatch_MissingBranch() throws Exception {
-        // Get class and method using reflection
-        final Class<?> clazz = Class.forName("com.mbi.AssertionUtils");
-        final Method method = clazz.getDeclaredMethod("isArrayFieldMatch", String.class, String.class);
-        method.setAccessible(true);
+    public void testCanIgnoreFieldInEveryArrayElement() {
+        var json1 = new JSONObject("""
+                {"items": [{"id": 1, "name": "a"}, {"id": 2, "name": "b"}]}""");
+        var json2 = new JSONObject("""
+                {"items": [{"id": 3, "name": "a"}, {"id": 4, "name": "b"}]}""");
+
+        assertion
+                .ignore("items[].id")
+                .jsonEquals(json1, json2);
+
+        var ex = expectThrows(AssertionError.class, () -> assertion
+                .ignore("items[0].id")
+                .jsonEquals(json1, json2));
+        assertTrue(ex.getMessage().contains("But found"));
+    }
+
+    @Test
+    public void testExtensibleArrayOfPrimitives() {
+        var actual = new JSONArray("[5, 3, 1, 4, 2]");
+        var expected = new JSONArray("[1, 2, 3]");
+
+        assertion
+                .withMode(CompareMode.NOT_ORDERED_EXTENSIBLE_ARRAY)
+                .jsonEquals(actual, expected);
+
+        var ex = expectThrows(AssertionError.class, () -> assertion
+                .withMode(CompareMode.NOT_ORDERED_EXTENSIBLE_ARRAY)
+                .jsonEquals(actual, new JSONArray("[1, 6]")));
+        assertTrue(ex.getMessage().contains("Expected 2 values but got 1"));
+    }
+
+    @Test
+    public void testFailureMessageIsTruncated() {
+        var expected = new JSONObject();
+        var actual = new JSONObject();
+        for (int i = 0; i < 1000; i++) {
+            expected.put("field" + i, "value" + i);
+            actual.put("field" + i, "value" + i);
+        }
+        actual.put("field1", "changed");
+
+        var ex = expectThrows(AssertionError.class, () -> assertion
+                .withMaxMessageLength(200)
+                .jsonEquals(actual, expected));
+        assertTrue(ex.getMessage().startsWith("field1"));
+        assertTrue(ex.getMessage().contains("message truncated at 200 characters"));
+        assertTrue(ex.getMessage().length() < 300);
+    }
+
+    @Test
+    public void testFailureMessageShowsContextLines() {
+        var expected = new JSONArray();
+        var actual = new JSONArray();
+        for (int i = 0; i < 100; i++) {
+            expected.put(new JSONObject().put("id", i));
+            actual.put(new JSONObject().put("id", i == 50 ? -1 : i));
+        }
+
+        var ex = expectThrows(AssertionError.class, () -> assertion
+                .withMode(CompareMode.ORDERED)
+                .withContextLines(1)
+                .jsonEquals(actual, expected));
+        var message = ex.getMessage();
+        assertTrue(message.contains("\n...\n    {\n        \"id\": -1\n    },\n..."), message);
+        assertFalse(message.contains("\"id\": 49"));
+    }
+
+    @Test
+    public void testFailureMessageLimitsAreReset() {
+        var expected = new JSONObject().put("a", 1).put("b", 2);
+        var actual = new JSONObject().put("a", 1).put("b", 3);
+
+        expectThrows(AssertionError.class, () -> assertion
+                .withMaxMessageLength(10)
+                .withContextLines(0)
+                .jsonEquals(actual, expected));
+        var ex = expectThrows(AssertionError.class, () -> assertion.jsonEquals(actual, expected));
+        assertTrue(ex.getMessage().contains("But found"));
+        assertFalse(ex.getMessage().contains("truncated"));
+    }
+
+    @Test
+    public void testFailureMessageLimitsMustBeValid() {
+        expectThrows(IllegalArgumentException.class, () -> assertion.withMaxMessageLength(0));
+        expectThrows(IllegalArgumentException.class, () -> assertion.withContextLines(-1));
+    }
+
+    private static Response response(String body) {
+        return (Response) Proxy.newProxyInstance(Response.class.getClassLoader(), new Class<?>[]{Response.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "asInputStream" -> new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+                    case "asByteArray" -> body.getBytes(StandardCharsets.UTF_8);
+                    case "asString" -> body;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static Response singleUseResponse(String body) {
+        var stream = new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+        return (Response) Proxy.newProxyInstance(Response.class.getClassLoader(), new Class<?>[]{Response.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "asInputStream" -> stream;
+                    case "asByteArray" -> stream.readAllBytes();
+                    case "asString" -> new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    @Test
+    public void testStreamingResponseEquals() {
+        var actual = response("""
+                [{"id": 2, "tags": ["b", "a"]}, {"id": 1, "tags": []}]""");
+
+        assertion
+                .withStreaming()
+                .jsonEquals(actual, new JSONArray("""
+                        [{"id": 1, "tags": []}, {"id": 2, "tags": ["a", "b"]}]"""));
+        assertion
+                .withStreaming()
+                .jsonEquals(actual, new JSONObject("""
+                        {"id": 1, "tags": []}"""), new JSONObject("""
+                        {"id": 2, "tags": ["a", "b"]}"""));
+    }
+
+    @Test
+    public void testStreamingResponseNotEquals() {
+        var actual = response("""
+                {"a": 1, "b": {"c": "d"}}""");
+
+        var ex = expectThrows(AssertionError.class, () -> assertion
+                .withStreaming()
+                .jsonEquals(actual, new JSONObject("""
+                        {"a": 1, "b": {"c": "e"}}""")));
+        assertTrue(ex.getMessage().startsWith("b.c"));
+        assertTrue(ex.getMessage().contains("got: d"));
+        assertFalse(ex.getMessage().contains("But found"));
+    }
+
+    @Test
+    public void testStreamingResponseReadsBodyOnce() {
+        var ex = expectThrows(AssertionError.class, () -> assertion
+                .withStreaming()
+                .jsonEquals(singleUseResponse("""
+                        {"a": 1, "b": {"c": "d"}}"""), new JSONObject("""
+                        {"a": 1, "b": {"c": "e"}}""")));
+        assertTrue(ex.getMessage().startsWith("b.c"), ex.getMessage());
+        assertTrue(ex.getMessage().contains("Expected: e"), ex.getMessage());
+
+        ex = expectThrows(AssertionError.class, () -> assertion
+                .withStreaming()
+                .withMode(CompareMode.NOT_ORDERED_EXTENSIBLE_ARRAY)
+                .jsonEquals(singleUseResponse("""
+                        {"a": 1, "b": [{"c": "d"}]}"""), new JSONObject("""
+                        {"a": 2, "b": [{"c": "d"}]}""")));
+        assertTrue(ex.getMessage().contains("But found: {"), ex.getMessage());
+    }
+
+    @Test
+    public void testStreamingResponseWithIgnoredFields() {
+        var actual = response("""
+                {"a": 1, "b": 2}""");
+
+        assertion
+                .withStreaming()
+                .ignore("b")
+                .jsonEquals(actual, new JSONObject().put("a", 1).put("b", 3));
+        expectThrows(AssertionError.class, () -> assertion
+                .withStreaming()
+                .jsonEquals(actual, new JSONArray()));
+    }
+
+    @Test
+    public void testFilteredResponseReadsBodyOnce() {
+        var ex = expectThrows(AssertionError.class, () -> assertion
+                .ignore("id")
+                .jsonEquals(singleUseResponse("""
+                        {"id": 1, "b": {"c": "d"}}"""), new JSONObject("""
+                        {"id": 2, "b": {"c": "e"}}""")));
+        assertTrue(ex.getMessage().startsWith("b.c"), ex.getMessage());
+        assertTrue(ex.getMessage().contains("But found: {"), ex.getMessage());
+        assertTrue(ex.getMessage().contains("\"c\": \"d\""), ex.getMessage());
+    }
+
+    @Test
+    public void testFilesEquals() throws IOException {
+        var actual = Files.createTempFile("actual", ".json");
+        var expected = Files.createTempFile("expected", ".json");
+        actual.toFile().deleteOnExit();
+        expected.toFile().deleteOnExit();
+        Files.writeString(actual, """
+                {"items": [{"id": 2}, {"id": 1}], "total": 2}""");
+        Files.writeString(expected, """
+                {"total": 2, "items": [{"id": 1}, {"id": 2}]}""");
+
+        assertion.jsonEquals(actual, expected);
+
+        var ex = expectThrows(AssertionError.class, () -> assertion
+                .withMode(CompareMode.ORDERED)
+                .jsonEquals(actual, expected));
+        assertTrue(ex.getMessage().startsWith("items[0]" + System.lineSeparator() + "Expected: a JSON object"));
+        assertTrue(ex.getMessage().contains("But found"));
+    }
 
-        // Create input values that cover the missing branch:
-        // parent = "[0]id", key = "other[0]id"
-        // -> key does not start with parent
-        // -> parent is an index (i.e. !parentIsNotIndex == false)
-        boolean result = (boolean) method.invoke(null, "[0]id", "other[0]id");
+    @Test
+    public void testFilesReportAllDifferences() throws IOException {
+        var actual = Files.createTempFile("actual", ".json");
+        var expected = Files.createTempFile("expected", ".json");
+        actual.toFile().deleteOnExit();
+        expected.toFile().deleteOnExit();
+        Files.writeString(actual, """
+                {"a": 1, "b": 2, "items": [1, 2, 4, 5]}""");
+        Files.writeString(expected, """
+                {"a": 0, "b": 0, "items": [1, 2, 3, 4, 5]}""");
+
+        var ex = expectThrows(AssertionError.class, () -> assertion
+                .withMode(CompareMode.ORDERED)
+                .jsonEquals(actual, expected));
+        assertTrue(ex.getMessage().startsWith("a"), ex.getMessage());
+        assertTrue(ex.getMessage().contains("b" + System.lineSeparator() + "Expected: 0"), ex.getMessage());
+        assertTrue(ex.getMessage().contains("items[2]" + System.lineSeparator() + "Expected: 3"), ex.getMessage());
+        assertEquals(ex.getMessage().split("Expected: ").length, 5, ex.getMessage());
 
-        assertFalse(result);
+        ex = expectThrows(AssertionError.class, () -> assertion
+                .withMaxDifferences(1)
+                .jsonEquals(actual, expected));
+        assertFalse(ex.getMessage().contains("b" + System.lineSeparator() + "Expected"), ex.getMessage());
     }
 
     @Test
-    public void testIsArrayFieldMatchMissingBranch() throws Exception {
-        // parent = "array[0]", key = "something"
-        // -> parentIsNotIndex = false (it is array), keyStartsWithParent = false
-        // -> !keyStartsWithParent || !parentIsNotIndex == true
-        // → return false
-        // Get class and method using reflection
-        final Class<?> clazz = Class.forName("com.mbi.AssertionUtils");
-        final Method method = clazz.getDeclaredMethod("isArrayFieldMatch", String.class, String.class);
-        method.setAccessible(true);
-        boolean result = (boolean) method.invoke(null, "array[0]", "something");
-        assertFalse(result);
+    public void testIdenticalFilesEquals() throws IOException {
+        var actual = Files.createTempFile("actual", ".json");
+        var expected = Files.createTempFile("expected", ".json");
+        actual.toFile().deleteOnExit();
+        expected.toFile().deleteOnExit();
+        var json = """
+                {"items": [{"id": 2}, {"id": 1}], "total": 2}""";
+        Files.writeString(actual, json);
+        Files.writeString(expected, json);
+
+        assertion.withMode(CompareMode.ORDERED).jsonEquals(actual, expected);
+        assertion.withMode(CompareMode.NOT_ORDERED_EXTENSIBLE_ARRAY).ignore("total").jsonEquals(actual, expected);
+        assertion.jsonLinesEquals(actual, expected);
+        expectThrows(IllegalArgumentException.class, () -> assertion
+                .compareOnly("missing")
+                .jsonEquals(actual, expected));
     }
 
     @Test
-    public void testIsArrayFieldMatchKeyDoesNotStartWithParent() throws Exception {
-        // parent does NOT end with index (=> parentIsNotIndex = true)
-        // key does NOT start with parent (=> keyStartsWithParent = false)
-        // Get class and method using reflection
-        final Class<?> clazz = Class.forName("com.mbi.AssertionUtils");
-        final Method method = clazz.getDeclaredMethod("isArrayFieldMatch", String.class, String.class);
-        method.setAccessible(true);
-        boolean result = (boolean) method.invoke(null, "array", "different[0].id");
-        assertFalse(result);
+    public void testJsonLinesEquals() {
+        var expected = """
+                {"id": 1, "status": "done"}
+                {"id": 2, "status": "new"}
+                """;
+
+        assertion.jsonLinesEquals(stream("{\"id\": 2, \"status\": \"new\"}\n{\"id\": 1, \"status\": \"done\"}"),
+                stream(expected));
+        assertion.ignore("status").jsonLinesEquals(stream("{\"id\": 1}\n{\"id\": 2}"), stream(expected));
+
+        var ex = expectThrows(AssertionError.class, () -> assertion
+                .withMode(CompareMode.ORDERED)
+                .jsonLinesEquals(stream("{\"id\": 1, \"status\": \"done\"}\n{\"id\": 2, \"status\": \"old\"}"),
+                        stream(expected)));
+        assertTrue(ex.getMessage().startsWith("line 2: status"));
+        assertFalse(ex.getMessage().contains("But found"));
     }
 
     @Test
-    public void testIsArrayFieldMatchParentIsIndexKeyStartsWithParent() throws Exception {
-        // parent = "[0]id", key = "[0]id.something"
-        // parent is index (matches ^\\[\\d+].*) → parentIsNotIndex = false
-        // key starts with parent → keyStartsWithParent = true
-        // !keyStartsWithParent = false
-        // !parentIsNotIndex = true
-        // => if (false || true) → enters → return false
-        // Get class and method using reflection
-        final Class<?> clazz = Class.forName("com.mbi.AssertionUtils");
-        final Method method = clazz.getDeclaredMethod("isArrayFieldMatch", String.class, String.class);
-        method.setAccessible(true);
-        var result = (boolean) method.invoke(null, "[0]id", "[0]id.something");
-        assertFalse(result);
+    public void testParallelism() {
+        var expected = new JSONArray();
+        var actual = new JSONArray();
+        for (int i = 0; i < 5000; i++) {
+            expected.put(new JSONObject().put("id", i).put("name", "item" + i));
+            actual.put(new JSONObject().put("id", 4999 - i).put("name", "item" + (4999 - i)));
+        }
+
+        assertion.withParallelism(4).jsonEquals(actual, expected);
+
+        actual.getJSONObject(10).put("name", "changed");
+        var sequential = expectThrows(AssertionError.class, () -> assertion.jsonEquals(actual, expected));
+        var parallel = expectThrows(AssertionError.class, () -> assertion
+                .withParallelism(4)
+                .jsonEquals(actual, expected));
+        assertEquals(parallel.getMessage(), sequential.getMessage());
+        expectThrows(IllegalArgumentException.class, () -> assertion.withParallelism(0));
+    }
+
+    @Test
+    public void testMaxDifferences() {
+        var expected = new JSONArray();
+        var actual = new JSONArray();
+        for (int i = 0; i < 1000; i++) {
+            expected.put(new JSONObject().put("id", i).put("name", "item" + i));
+            actual.put(new JSONObject().put("id", i).put("title", "item" + i));
+        }
+
+        var all = expectThrows(AssertionError.class, () -> assertion
+                .withMode(CompareMode.ORDERED)
+                .withContextLines(0)
+                .jsonEquals(actual, expected));
+        var first = expectThrows(AssertionError.class, () -> assertion
+                .withMode(CompareMode.ORDERED)
+                .withContextLines(0)
+                .withMaxDifferences(1)
+                .jsonEquals(actual, expected));
+        var three = expectThrows(AssertionError.class, () -> assertion
+                .withMode(CompareMode.ORDERED)
+                .withMaxDifferences(3)
+                .jsonEquals(actual, expected));
+
+        assertTrue(first.getMessage().startsWith("[0].name"));
+        assertFalse(first.getMessage().contains("[1].name"));
+        assertTrue(all.getMessage().contains("[1].name"));
+        assertEquals(three.getMessage().split(" ; ").length, 3);
+        expectThrows(IllegalArgumentException.class, () -> assertion.withMaxDifferences(0));
+    }
+
+    @Test
+    public void testRawInputsEquals() {
+        var expected = """
+                {"id": 1, "tags": ["a", "b"], "name": "é"}""";
+        var actual = """
+                {"name": "é", "tags": ["b", "a"], "id": 1, "createdAt": 5}""";
+
+        assertion.ignore("createdAt").jsonEquals(actual, expected);
+        assertion.ignore("createdAt").jsonEquals(actual.getBytes(StandardCharsets.UTF_8),
+                expected.getBytes(StandardCharsets.UTF_8));
+        assertion.ignore("createdAt").jsonEquals(stream(actual), stream(expected));
+
+        var direct = ByteBuffer.allocateDirect(64).put(actual.getBytes(StandardCharsets.UTF_8)).flip();
+        assertion.ignore("createdAt").jsonEquals(direct, ByteBuffer.wrap(expected.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(direct.position(), 0);
+
+        var error = expectThrows(AssertionError.class, () -> assertion.jsonEquals(actual, expected));
+        assertTrue(error.getMessage().contains("createdAt"), error.getMessage());
+    }
+
+    @Test
+    public void testRawInputsOfAnyType() {
+        assertion.jsonEquals("[3, 1, 2]", "[1, 2, 3]");
+        assertion.jsonEquals("\"text\"", " \"text\" ");
+        expectThrows(AssertionError.class, () -> assertion.jsonEquals("[{\"id\": 1}]", "{\"id\": 1}"));
+        assertion.jsonNotEquals("[{\"id\": 1}]", "{\"id\": 1}");
+        assertion.jsonNotEquals("{\"id\": 2}".getBytes(StandardCharsets.UTF_8),
+                "{\"id\": 1}".getBytes(StandardCharsets.UTF_8));
+
+        var error = expectThrows(AssertionError.class, () -> assertion.jsonNotEquals("{\"id\": 1}", "{\"id\": 1}"));
+        assertTrue(error.getMessage().contains("Objects are equal!"));
+        var invalid = expectThrows(RuntimeException.class, () -> assertion.jsonEquals("{\"id\": 1", "{\"id\": 1}"));
+        assertTrue(invalid.getMessage().contains("end of input"), invalid.getMessage());
+        var missing = expectThrows(NullPointerException.class, () -> assertion.jsonEquals((String) null, "{}"));
+        assertTrue(missing.getMessage().contains("is null"));
+    }
+
+    @Test
+    public void testIdenticalRawInputsAreNotParsed() {
+        var events = new ArrayList<AssertionEvent>();
+        var spec = AssertionSpec.DEFAULT.withMode(CompareMode.ORDERED).withListener(events::add);
+        var json = """
+                {"id": 1, "tags": ["a", "b"]}""";
+        var bytes = json.getBytes(StandardCharsets.UTF_8);
+        var buffer = ByteBuffer.wrap(bytes).position(1);
+
+        spec.jsonEquals(json, new String(json));
+        spec.jsonEquals(bytes, bytes.clone());
+        spec.jsonEquals(ByteBuffer.wrap(bytes), ByteBuffer.wrap(bytes.clone()));
+
+        assertEquals(events.size(), 3);
+        for (var event : events) {
+            assertTrue(event.isPassed());
+            assertEquals(event.getDuration(AssertionPhase.PARSE), 0);
+        }
+        expectThrows(RuntimeException.class, () -> spec.jsonEquals(buffer, ByteBuffer.wrap(bytes)));
+        assertEquals(buffer.position(), 1);
+        expectThrows(NullPointerException.class, () -> spec.jsonEquals((byte[]) null, bytes));
+        expectThrows(NullPointerException.class, () -> spec.jsonEquals(ByteBuffer.wrap(bytes), null));
+    }
+
+    @Test
+    public void testFilteredRawInputs() {
+        var expected = """
+                {"user": {"id": 1, "email": "a@b.c"}}""";
+        var actual = """
+                {"user": {"id": 1, "email": "a@b.c", "avatar": "aGVsbG8="}, "audit": [{"at": 1}, {"at": 2}]}""";
+        var spec = AssertionSpec.DEFAULT.compareOnly("user.id", "user.email");
+
+        spec.jsonEquals(actual, expected);
+        spec.jsonEquals(actual.getBytes(StandardCharsets.UTF_8), expected.getBytes(StandardCharsets.UTF_8));
+        spec.withMode(CompareMode.ORDERED_EXTENSIBLE_ARRAY).jsonEquals(ByteBuffer.wrap(actual.getBytes(
+                StandardCharsets.UTF_8)), ByteBuffer.wrap(expected.getBytes(StandardCharsets.UTF_8)));
+        spec.jsonEquals(response(actual), new JSONObject(expected));
+        assertion.compareOnly("id").jsonEquals("[{\"id\": 2, \"a\": 1}, {\"id\": 1}]",
+                "[{\"id\": 1}, {\"id\": 2}]");
+
+        var error = expectThrows(AssertionError.class, () -> spec.jsonEquals(actual.replace("a@b.c", "x@b.c"),
+                expected));
+        assertTrue(error.getMessage().contains("But found"), error.getMessage());
+        assertTrue(error.getMessage().contains("avatar"), error.getMessage());
+        var removed = expectThrows(IllegalArgumentException.class, () -> assertion.compareOnly("name")
+                .jsonEquals(actual, expected));
+        assertTrue(removed.getMessage().contains("You removed all fields from json!"));
+    }
+
+    private static ByteArrayInputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
     }
 }
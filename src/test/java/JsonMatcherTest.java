@@ -0,0 +1,76 @@
+import com.mbi.AssertionSpec;
+import com.mbi.CompareMode;
+import com.mbi.JsonMatcher;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+public class JsonMatcherTest {
+
+    private static final JSONObject EXPECTED = new JSONObject("""
+            {"id": 1, "status": "done", "updatedAt": 10, "items": [{"id": 1}, {"id": 2, "tags": ["a", "b"]}]}""");
+
+    private static final JsonMatcher MATCHER = AssertionSpec.DEFAULT.ignore("updatedAt").compile(EXPECTED);
+
+    @Test
+    public void testMatches() {
+        assertTrue(MATCHER.matches(new JSONObject("""
+                {"id": 1, "status": "done", "updatedAt": 20, "items": [{"id": 2, "tags": ["b", "a"]}, {"id": 1}]}""")));
+        assertFalse(MATCHER.matches(new JSONObject("""
+                {"id": 1, "status": "new", "updatedAt": 20, "items": [{"id": 1}, {"id": 2, "tags": ["a", "b"]}]}""")));
+        assertFalse(MATCHER.matches(new JSONArray().put(EXPECTED)));
+        MATCHER.assertMatches(new JSONObject(EXPECTED.toString()).put("updatedAt", 30));
+    }
+
+    @Test
+    public void testFailureMessageIsTheSameAsJsonEquals() {
+        var actual = new JSONObject("""
+                {"id": 1, "status": "new", "updatedAt": 20, "items": [{"id": 3}, {"id": 2, "tags": ["a"]}]}""");
+
+        var expected = expectThrows(AssertionError.class, () -> AssertionSpec.DEFAULT.ignore("updatedAt")
+                .jsonEquals(actual, EXPECTED));
+        var ex = expectThrows(AssertionError.class, () -> MATCHER.assertMatches(actual));
+        assertEquals(ex.getMessage(), expected.getMessage());
+        assertTrue(ex.getMessage().contains("But found"));
+    }
+
+    @Test
+    public void testExpectedIsNotModified() {
+        var expected = new JSONObject(EXPECTED.toString());
+
+        AssertionSpec.DEFAULT.compareOnly("id").compile(expected).assertMatches(new JSONObject().put("id", 1));
+
+        assertEquals(expected.toString(), EXPECTED.toString());
+    }
+
+    @Test
+    public void testArrayModes() {
+        var expected = new JSONArray("""
+                [{"id": 1}, {"id": 2}]""");
+        var actual = new JSONArray("""
+                [{"id": 3}, {"id": 2}, {"id": 1}]""");
+
+        var extensible = AssertionSpec.DEFAULT.withMode(CompareMode.NOT_ORDERED_EXTENSIBLE_ARRAY).compile(expected);
+        assertTrue(extensible.matches(actual));
+        extensible.assertMatches(actual);
+        assertFalse(extensible.matches(new JSONArray("[{\"id\": 1}]")));
+
+        var ordered = AssertionSpec.DEFAULT.withMode(CompareMode.ORDERED).compile(expected);
+        assertFalse(ordered.matches(new JSONArray("[{\"id\": 2}, {\"id\": 1}]")));
+        assertTrue(AssertionSpec.DEFAULT.compile(expected).matches(new JSONArray("[{\"id\": 2}, {\"id\": 1}]")));
+        expectThrows(AssertionError.class, () -> ordered.assertMatches(actual));
+    }
+
+    @Test
+    public void testExtensibleArrayWithDuplicateExpectedElements() {
+        var expected = new JSONArray("""
+                [{"id": 1}, {"id": 1}, {"id": 2}]""");
+        var matcher = AssertionSpec.DEFAULT.withMode(CompareMode.NOT_ORDERED_EXTENSIBLE_ARRAY).compile(expected);
+
+        assertTrue(matcher.matches(new JSONArray("[{\"id\": 1}, {\"id\": 2}, {\"id\": 3}, {\"id\": 1}]")));
+        assertFalse(matcher.matches(new JSONArray("[{\"id\": 1}, {\"id\": 2}, {\"id\": 3}]")));
+        expectThrows(AssertionError.class, () -> matcher.assertMatches(new JSONArray("[{\"id\": 2}, {\"id\": 1}]")));
+    }
+}
@@ -0,0 +1,94 @@
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.mbi.Assert;
+import com.mbi.AssertionSpec;
+import com.mbi.CompareMode;
+import com.mbi.JacksonAssert;
+import com.mbi.JsonAssert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static org.testng.Assert.*;
+
+public class JsonNodeTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final JacksonAssert assertion = new JacksonAssert();
+
+    @Test
+    public void testObjectsEqual() throws Exception {
+        var expected = MAPPER.readTree("""
+                {"id": 1, "tags": ["a", "b"], "price": 1.5, "owner": null, "active": true}""");
+        var actual = MAPPER.readTree("""
+                {"active": true, "owner": null, "price": 1.50, "tags": ["b", "a"], "id": 1}""");
+
+        assertion.jsonNodeEquals(actual, expected);
+        expectThrows(AssertionError.class, () -> new JacksonAssert(AssertionSpec.DEFAULT.withMode(CompareMode.ORDERED))
+                .jsonNodeEquals(actual, expected));
+    }
+
+    @Test
+    public void testNumbersAreComparedByValue() {
+        var factory = JsonNodeFactory.instance;
+        var expected = factory.objectNode().put("count", 10L).put("ratio", new BigDecimal("0.5"));
+        var actual = factory.objectNode().put("count", 10).put("ratio", 0.5d);
+
+        assertion.jsonNodeEquals(actual, expected);
+    }
+
+    @Test
+    public void testFailureMessageAndFilters() throws Exception {
+        var expected = MAPPER.readTree("""
+                [{"id": 1, "name": "a", "updatedAt": 1}, {"id": 2, "name": "b", "updatedAt": 2}]""");
+        var actual = MAPPER.readTree("""
+                [{"id": 1, "name": "a", "updatedAt": 3}, {"id": 2, "name": "c", "updatedAt": 4}, {"id": 3}]""");
+
+        var error = expectThrows(AssertionError.class, () -> new JacksonAssert(AssertionSpec.DEFAULT.ignore("updatedAt"))
+                .jsonNodeEquals(actual, expected));
+        assertTrue(error.getMessage().contains("But found"), error.getMessage());
+
+        new JacksonAssert(AssertionSpec.DEFAULT.withMode(CompareMode.NOT_ORDERED_EXTENSIBLE_ARRAY).compareOnly("id"))
+                .jsonNodeEquals(actual, expected);
+    }
+
+    @Test
+    public void testDifferentTypesAreNotEqual() throws Exception {
+        var object = MAPPER.readTree("{\"id\": 1}");
+        var array = MAPPER.readTree("[{\"id\": 1}]");
+
+        expectThrows(AssertionError.class, () -> assertion.jsonNodeEquals(array, object));
+        assertion.jsonNodeNotEquals(array, object);
+        assertion.jsonNodeEquals(MAPPER.readTree("\"text\""), MAPPER.readTree("\"text\""));
+    }
+
+    @Test
+    public void testNotEquals() throws Exception {
+        var expected = MAPPER.readTree("{\"id\": 1}");
+
+        assertion.jsonNodeNotEquals(MAPPER.readTree("{\"id\": 2}"), expected);
+        var error = expectThrows(AssertionError.class, () -> assertion
+                .jsonNodeNotEquals(MAPPER.readTree("{\"id\": 1}"), expected));
+        assertTrue(error.getMessage().contains("Objects are equal!"));
+    }
+
+    @Test
+    public void testNullNode() {
+        var error = expectThrows(NullPointerException.class, () -> assertion
+                .jsonNodeEquals(null, JsonNodeFactory.instance.objectNode()));
+        assertTrue(error.getMessage().contains("is null"));
+    }
+
+    @Test
+    public void testCoreTypesDoNotReferenceJackson() {
+        for (var type : new Class<?>[]{Assert.class, JsonAssert.class, AssertionSpec.class}) {
+            for (Method method : type.getMethods()) {
+                assertTrue(Arrays.stream(method.getParameterTypes())
+                        .noneMatch(parameter -> parameter.getName().startsWith("com.fasterxml")), method.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+import com.mbi.AssertionSpec;
+import com.mbi.CompareMode;
+import com.mbi.JsonAssert;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+public class MatchArrayByTest {
+
+    private final JsonAssert assertion = new JsonAssert();
+
+    @Test
+    public void testElementsArePairedByKey() {
+        var expected = new JSONObject("""
+                {"items": [{"id": 1, "price": 10}, {"id": 2, "price": 20}, {"id": 3, "price": 30}]}""");
+        var actual = new JSONObject("""
+                {"items": [{"id": 3, "price": 30}, {"id": 1, "price": 10}, {"id": 2, "price": 25}]}""");
+
+        var error = expectThrows(AssertionError.class, () -> assertion.matchArrayBy("items[]", "id")
+                .jsonEquals(actual, expected));
+
+        assertTrue(error.getMessage().startsWith("items[1].price"), error.getMessage());
+        assertTrue(error.getMessage().contains("Expected: 20"), error.getMessage());
+        assertFalse(error.getMessage().contains("Could not find match"), error.getMessage());
+        assertion.matchArrayBy("items[]", "id").jsonEquals(actual, new JSONObject(actual.toString()));
+    }
+
+    @Test
+    public void testMissingAndExtraKeys() {
+        var expected = new JSONArray("""
+                [{"id": 1, "name": "a"}, {"id": 2, "name": "b"}]""");
+        var actual = new JSONArray("""
+                [{"id": 3, "name": "c"}, {"id": 1, "name": "a"}, {"id": 4, "name": "d"}]""");
+
+        var error = expectThrows(AssertionError.class, () -> assertion.matchArrayBy("[]", "id")
+                .jsonEquals(actual, expected));
+
+        var message = error.getMessage();
+        assertTrue(message.startsWith("[1] Could not find match for element {\"name\":\"b\",\"id\":2}")
+                || message.startsWith("[1] Could not find match for element {\"id\":2,\"name\":\"b\"}"), message);
+        assertEquals(message.split("Unexpected: a JSON object", -1).length, 3, message);
+        expectThrows(AssertionError.class, () -> assertion.withMode(CompareMode.NOT_ORDERED_EXTENSIBLE_ARRAY)
+                .matchArrayBy("[]", "id").jsonEquals(actual, expected));
+    }
+
+    @Test
+    public void testExtensibleRootArray() {
+        var spec = AssertionSpec.DEFAULT.withMode(CompareMode.NOT_ORDERED_EXTENSIBLE_ARRAY).matchArrayBy("[]", "id");
+        var actual = new JSONArray("""
+                [{"id": 3, "tags": ["x"]}, {"id": 1, "tags": ["a", "b"]}, {"id": 2, "tags": []}]""");
+
+        spec.jsonEquals(actual, new JSONArray("""
+                [{"id": 1, "tags": ["b", "a"]}, {"id": 2, "tags": []}]"""));
+        var error = expectThrows(AssertionError.class, () -> spec.jsonEquals(actual, new JSONArray("""
+                [{"id": 2, "tags": ["c"]}]""")));
+        assertTrue(error.getMessage().startsWith("[0].tags[]: Expected 1 values but got 0"), error.getMessage());
+        assertTrue(spec.compile(new JSONArray("[{\"id\": 3, \"tags\": [\"x\"]}]")).matches(actual));
+    }
+
+    @Test
+    public void testNestedArraysWithCompositeKeys() {
+        var expected = new JSONObject("""
+                {"orders": [{"no": 1, "lines": [{"sku": "a", "size": 1, "qty": 2}, {"sku": "a", "size": 2, "qty": 1}]},
+                            {"no": 2, "lines": []}]}""");
+        var actual = new JSONObject("""
+                {"orders": [{"no": 2, "lines": []},
+                            {"no": 1, "lines": [{"sku": "a", "size": 2, "qty": 3}, {"sku": "a", "size": 1.0, "qty": 2}]}]}""");
+
+        var error = expectThrows(AssertionError.class, () -> assertion.matchArrayBy("orders[]", "no")
+                .matchArrayBy("orders[].lines[]", "sku", "size")
+                .jsonEquals(actual, expected));
+
+        assertTrue(error.getMessage().startsWith("orders[0].lines[1].qty"), error.getMessage());
+        assertEquals(error.getMessage().indexOf("Expected:"), error.getMessage().lastIndexOf("Expected: 1"));
+    }
+
+    @Test
+    public void testKeysOfArraysInsideUnorderedElements() {
+        var lines = """
+                [{"sku": "a", "q": 1}, {"sku": "a", "q": 2}]""";
+        var swapped = """
+                [{"sku": "a", "q": 2}, {"sku": "a", "q": 1}]""";
+
+        var topLevel = expectThrows(AssertionError.class, () -> assertion.matchArrayBy("lines[]", "sku")
+                .jsonEquals(new JSONObject("{\"lines\": " + swapped + "}"),
+                        new JSONObject("{\"lines\": " + lines + "}")));
+        assertTrue(topLevel.getMessage().startsWith("lines[0].q"), topLevel.getMessage());
+
+        var nested = expectThrows(AssertionError.class, () -> assertion.matchArrayBy("orders[].lines[]", "sku")
+                .jsonEquals(new JSONObject("{\"orders\": [{\"no\": 1, \"lines\": " + swapped + "}]}"),
+                        new JSONObject("{\"orders\": [{\"no\": 1, \"lines\": " + lines + "}]}")));
+        assertTrue(nested.getMessage().startsWith("orders[0].lines[0].q"), nested.getMessage());
+
+        var parallel = new JSONArray();
+        var expected = new JSONArray();
+        for (int i = 0; i < 2000; i++) {
+            parallel.put(new JSONObject("{\"no\": " + i + ", \"lines\": " + (i == 1500 ? swapped : lines) + "}"));
+            expected.put(new JSONObject("{\"no\": " + i + ", \"lines\": " + lines + "}"));
+        }
+        var forked = expectThrows(AssertionError.class, () -> AssertionSpec.DEFAULT.withParallelism(4)
+                .matchArrayBy("[].lines[]", "sku").jsonEquals(parallel, expected));
+        assertTrue(forked.getMessage().startsWith("[1500].lines[0].q"), forked.getMessage().substring(0, 100));
+    }
+
+    @Test
+    public void testElementsWithoutKeyAndDuplicates() {
+        var spec = AssertionSpec.DEFAULT.matchArrayBy("[]", "id");
+
+        spec.jsonEquals(new JSONArray("[{\"id\": 1, \"v\": 1}, 5, {\"v\": 2}, {\"id\": 1, \"v\": 2}]"),
+                new JSONArray("[{\"v\": 2}, {\"id\": 1, \"v\": 1}, {\"id\": 1, \"v\": 2}, 5]"));
+        expectThrows(AssertionError.class, () -> spec.jsonEquals(new JSONArray("[{\"id\": 1, \"v\": 1}, 5]"),
+                new JSONArray("[{\"id\": 1, \"v\": 1}, 6]")));
+    }
+
+    @Test
+    public void testKeysAreIgnoredInOrderedMode() {
+        var expected = new JSONArray("[{\"id\": 1}, {\"id\": 2}]");
+        var actual = new JSONArray("[{\"id\": 2}, {\"id\": 1}]");
+
+        expectThrows(AssertionError.class, () -> assertion.withMode(CompareMode.ORDERED).matchArrayBy("[]", "id")
+                .jsonEquals(actual, expected));
+    }
+
+    @Test
+    public void testLargeArrays() {
+        int size = 200_000;
+        var expected = new JSONArray();
+        var actual = new JSONArray();
+        for (int i = 0; i < size; i++) {
+            expected.put(new JSONObject().put("id", i).put("name", "n" + i).put("total", i * 2));
+            actual.put(new JSONObject().put("id", size - 1 - i).put("name", "n" + (size - 1 - i))
+                    .put("total", (size - 1 - i) * 2));
+        }
+        var spec = AssertionSpec.DEFAULT.matchArrayBy("[]", "id");
+
+        spec.jsonEquals(actual, expected);
+        actual.getJSONObject(10).put("total", -1);
+        var error = expectThrows(AssertionError.class, () -> spec.jsonEquals(actual, expected));
+        assertTrue(error.getMessage().startsWith("[199989].total"), error.getMessage().substring(0, 100));
+    }
+
+    @Test
+    public void testInvalidKeys() {
+        expectThrows(IllegalArgumentException.class, () -> AssertionSpec.DEFAULT.matchArrayBy("items", "id"));
+        expectThrows(IllegalArgumentException.class, () -> AssertionSpec.DEFAULT.matchArrayBy("items[]"));
+        expectThrows(IllegalArgumentException.class, () -> AssertionSpec.DEFAULT.matchArrayBy("items[0].tags[]", "id"));
+        expectThrows(NullPointerException.class, () -> AssertionSpec.DEFAULT.matchArrayBy(null, "id"));
+        assertEquals(AssertionSpec.DEFAULT.matchArrayBy("a[]", "id"), AssertionSpec.DEFAULT.matchArrayBy("a[]", "id"));
+        assertNotEquals(AssertionSpec.DEFAULT.matchArrayBy("a[]", "id"), AssertionSpec.DEFAULT);
+    }
+}
@@ -0,0 +1,51 @@
+package com.mbi;
+
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+public class ArrayKeysTest {
+
+    private static ComparisonPath path(Object... segments) {
+        var path = new ComparisonPath();
+        for (var segment : segments) {
+            if (segment instanceof Integer index) {
+                path.push(index);
+            } else {
+                path.push((String) segment);
+            }
+        }
+        return path;
+    }
+
+    @Test
+    public void testArraysAreFoundBySegments() {
+        var keys = ArrayKeys.NONE.with("orders[]", "no").with("orders[].lines[]", "sku", "size");
+
+        assertEquals(keys.find(path("orders")), List.of("no"));
+        assertEquals(keys.find(path("orders", 3, "lines")), List.of("sku", "size"));
+        assertEquals(keys.find(path("orders", ComparisonPath.ANY_INDEX, "lines")), List.of("sku", "size"));
+        assertNull(keys.find(path("orders", 3)));
+        assertNull(keys.find(path("lines")));
+        assertNull(keys.find(path("Orders")));
+        assertNull(keys.find(path("a", "orders")));
+        assertNull(keys.find(path()));
+        assertFalse(keys.hasRoot());
+    }
+
+    @Test
+    public void testRootAndNestedArrays() {
+        var keys = ArrayKeys.NONE.with("[]", "id").with("[][]", "id").with("[].a.b[]", "id");
+
+        assertTrue(keys.hasRoot());
+        assertEquals(keys.find(path()), List.of("id"));
+        assertEquals(keys.find(path(0)), List.of("id"));
+        assertEquals(keys.find(path(1, "a", "b")), List.of("id"));
+        assertNull(keys.find(path(1, "a")));
+        assertNull(keys.find(path(1, "b")));
+        assertNull(ArrayKeys.NONE.find(path("a")));
+        assertFalse(ArrayKeys.NONE.hasRoot());
+    }
+}
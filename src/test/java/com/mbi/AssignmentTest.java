@@ -0,0 +1,45 @@
+package com.mbi;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+public class AssignmentTest {
+
+    @Test
+    public void testMinimumCostAssignment() {
+        int[][] cost = {
+                {4, 1, 3},
+                {2, 0, 5},
+                {3, 2, 2}
+        };
+
+        assertEquals(Assignment.solve(cost), new int[]{1, 0, 2});
+    }
+
+    @Test
+    public void testMoreColumnsThanRows() {
+        int[][] cost = {
+                {9, 1, 9, 9},
+                {9, 9, 9, 0}
+        };
+
+        assertEquals(Assignment.solve(cost), new int[]{1, 3});
+    }
+
+    @Test
+    public void testMoreRowsThanColumns() {
+        int[][] cost = {
+                {5},
+                {1},
+                {7}
+        };
+
+        assertEquals(Assignment.solve(cost), new int[]{-1, 0, -1});
+    }
+
+    @Test
+    public void testEmptyMatrix() {
+        assertEquals(Assignment.solve(new int[0][0]), new int[0]);
+    }
+}
@@ -3,6 +3,9 @@ package com.mbi;
 import org.json.JSONObject;
 import org.testng.annotations.Test;
 
+import java.util.HashSet;
+import java.util.List;
+
 import static org.testng.Assert.*;
 
 public class ComparableObjectTest {
@@ -41,4 +44,21 @@ public class ComparableObjectTest {
     public void testToStringMatchesOriginalJson() {
         assertEquals(comparableObject.toString(), json.toString());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testEqualsAndHashCodeIgnoreFieldOrder() {
+        var json1 = new ComparableObject(new JSONObject("""
+                {"a": 1, "b": [1, 2]}"""));
+        var json2 = new ComparableObject(new JSONObject("""
+                {"b": [2, 1], "a": 1}"""));
+
+        assertEquals(json1, json2);
+        assertEquals(json1.hashCode(), json2.hashCode());
+        assertTrue(new HashSet<>(List.of(json1)).contains(json2));
+    }
+
+    @Test
+    public void testNotEqualsIfExtraField() {
+        assertNotEquals(new ComparableObject(new JSONObject().put("a", 1).put("b", 2)), comparableObject);
+    }
+}
@@ -0,0 +1,72 @@
+package com.mbi;
+
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+import static org.testng.Assert.*;
+
+public class EditScriptTest {
+
+    @Test
+    public void testHunks() {
+        int[] expected = {1, 2, 3, 4, 5, 6};
+        int[] actual = {1, 9, 3, 4, 6, 7};
+
+        var hunks = EditScript.compute(0, expected.length, actual.length,
+                (i, j) -> expected[i] == actual[j], 100);
+
+        assertEquals(hunks.toString(), "[-[1, 2) +[1, 2), -[4, 5) +[4, 4), -[6, 6) +[5, 6)]");
+        assertTrue(EditScript.compute(2, 4, 4, (i, j) -> i == j, 100).isEmpty());
+        assertEquals(EditScript.compute(0, 2, 3, (i, j) -> false, 100).toString(), "[-[0, 2) +[0, 3)]");
+    }
+
+    @Test
+    public void testShortestScripts() {
+        var random = new Random(7);
+        for (int round = 0; round < 2_000; round++) {
+            int[] expected = random.ints(random.nextInt(30), 0, 4).toArray();
+            int[] actual = random.ints(random.nextInt(30), 0, 4).toArray();
+
+            var hunks = EditScript.compute(0, expected.length, actual.length,
+                    (i, j) -> expected[i] == actual[j], 1_000);
+
+            int edits = 0;
+            int i = 0;
+            int j = 0;
+            for (var hunk : hunks) {
+                for (; i < hunk.getExpectedFrom(); i++, j++) {
+                    assertEquals(expected[i], actual[j]);
+                }
+                assertEquals(hunk.getActualFrom(), j);
+                edits += hunk.getExpectedTo() - hunk.getExpectedFrom() + hunk.getActualTo() - hunk.getActualFrom();
+                i = hunk.getExpectedTo();
+                j = hunk.getActualTo();
+            }
+            for (; i < expected.length; i++, j++) {
+                assertEquals(expected[i], actual[j]);
+            }
+            assertEquals(j, actual.length);
+            assertEquals(edits, expected.length + actual.length - 2 * commonLength(expected, actual));
+        }
+    }
+
+    @Test
+    public void testSearchGivesUp() {
+        assertNull(EditScript.compute(0, 5_000, 5_000, (i, j) -> false, 100));
+        assertEquals(EditScript.compute(0, 50_000, 50_001, (i, j) -> j == (i < 10 ? i : i + 1), 100).toString(),
+                "[-[10, 10) +[10, 11)]");
+    }
+
+    private static int commonLength(int[] expected, int[] actual) {
+        var lengths = new int[expected.length + 1][actual.length + 1];
+        for (int i = expected.length - 1; i >= 0; i--) {
+            for (int j = actual.length - 1; j >= 0; j--) {
+                lengths[i][j] = expected[i] == actual[j]
+                        ? lengths[i + 1][j + 1] + 1
+                        : Math.max(lengths[i + 1][j], lengths[i][j + 1]);
+            }
+        }
+        return lengths[0][0];
+    }
+}
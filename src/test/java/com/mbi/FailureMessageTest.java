@@ -0,0 +1,52 @@
+package com.mbi;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+public class FailureMessageTest {
+
+    private final JSONObject expected = new JSONObject("""
+            {"a": 1, "b": {"c": [1, "x", {}, []]}, "d": null}""");
+
+    @Test
+    public void testDocumentsRenderedInFull() {
+        var actual = new JSONObject(expected.toString()).put("a", 2);
+        var differences = List.of(new JsonDifference(JsonDifference.Kind.MISMATCH, "a", 1, 2));
+
+        var message = FailureMessage.render(null, differences, expected, actual, MessageLimits.DEFAULT);
+
+        assertEquals(message, String.format("%s%n%nExpected: %s%n%nBut found: %s",
+                differences.get(0), expected.toString(4), actual.toString(4)));
+    }
+
+    @Test
+    public void testSummaryUsedWithoutDifferences() {
+        var message = FailureMessage.render("Objects are equal!", List.of(), new JSONArray(), new JSONArray(),
+                MessageLimits.DEFAULT);
+
+        assertEquals(message, String.format("Objects are equal!%n%nExpected: []%n%nBut found: []"));
+    }
+
+    @Test
+    public void testNoContextLines() {
+        var differences = List.of(new JsonDifference(JsonDifference.Kind.MISMATCH, "b.c[1]", "x", "y"));
+
+        var message = FailureMessage.render(null, differences, expected, expected,
+                MessageLimits.DEFAULT.withContextLines(0));
+
+        assertTrue(message.endsWith("But found: {\n...\n            \"x\",\n..."), message);
+    }
+
+    @Test
+    public void testMessageTruncated() {
+        var message = FailureMessage.render("Objects are equal!", List.of(), expected, expected,
+                MessageLimits.DEFAULT.withMaxLength(10));
+
+        assertEquals(message, "Objects ar\n... (message truncated at 10 characters)");
+    }
+}
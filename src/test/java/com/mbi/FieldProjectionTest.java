@@ -0,0 +1,106 @@
+package com.mbi;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.*;
+
+public class FieldProjectionTest {
+
+    private static final String DOCUMENT = """
+            {"user": {"id": 1, "email": "a@b.c", "address": {"city": "X", "zip": "1"}, "roles": []},
+             "items": [{"id": 1, "name": "a", "tags": ["x", "y"]}, {"id": 2, "name": "b", "meta": {}}],
+             "empty": {}, "none": null, "extra": {"a": 1}}""";
+
+    @DataProvider
+    public Object[][] filters() {
+        return new Object[][]{
+                {Set.of(), Set.of("user.id", "user.email")},
+                {Set.of(), Set.of("items[].id")},
+                {Set.of(), Set.of("items[1]", "user.address")},
+                {Set.of(), Set.of("empty", "none", "user.roles", "extra")},
+                {Set.of(), Set.of("items[].meta")},
+                {Set.of("user.address.city", "items[0]"), Set.of()},
+                {Set.of("items[].tags[0]", "extra.a"), Set.of()},
+                {Set.of("user.id"), Set.of("user")},
+                {Set.of("empty", "user.roles"), Set.of()},
+                {Set.of("USER", "Empty", "items[].ID", "user.Roles"), Set.of()},
+                {Set.of(), Set.of("User.ID", "EMPTY", "Extra", "user.ROLES")},
+        };
+    }
+
+    @Test(dataProvider = "filters")
+    public void testEqualsTreeFilter(Set<String> blackList, Set<String> whiteList) {
+        var filter = FieldFilter.of(blackList, whiteList);
+        var projection = new FieldProjection(filter);
+
+        var projected = projection.parse(() -> JsonReader.open(DOCUMENT));
+
+        var expected = (JSONObject) AssertionUtils.filterValue(JsonReader.parse(DOCUMENT), filter);
+        assertTrue(expected.similar(projected), projected + " is not " + expected);
+    }
+
+    @Test
+    public void testArrayOfRecords() {
+        var filter = FieldFilter.of(Set.of(), Set.of("id"));
+        var projection = new FieldProjection(filter);
+
+        var projected = (JSONArray) projection.parse(() -> JsonReader.open("[{\"id\": 1, \"a\": [1]}, {\"id\": 2}]"));
+
+        assertEquals(projected.toString(), "[{\"id\":1},{\"id\":2}]");
+        assertEquals(projection.getSize(), 2);
+    }
+
+    @Test
+    public void testDocumentsFilteredAsTrees() {
+        var filter = FieldFilter.of(Set.of("id"), Set.of());
+        var opened = new AtomicInteger();
+        var projection = new FieldProjection(filter);
+
+        var values = (JSONArray) projection.parse(() -> {
+            opened.incrementAndGet();
+            return JsonReader.open("[{\"id\": 1, \"a\": 2}, 3]");
+        });
+
+        assertTrue(values.similar(new JSONArray("[{\"id\": 1, \"a\": 2}, 3]")), values.toString());
+        assertEquals(opened.get(), 2);
+        assertEquals(projection.getSize(), 2);
+        var error = expectThrows(IllegalArgumentException.class, () -> new FieldProjection(filter)
+                .parse(() -> JsonReader.open("[{\"a\": 1}, {\"id\": 2}]")));
+        assertTrue(error.getMessage().contains("You removed all fields from json!"));
+        expectThrows(IllegalArgumentException.class, () -> new FieldProjection(filter)
+                .parse(() -> JsonReader.open("{}")));
+        assertEquals(new FieldProjection(filter).parse(() -> JsonReader.open(" 1 ")), 1);
+    }
+
+    @Test
+    public void testSkippedValuesAreChecked() {
+        var projection = new FieldProjection(FieldFilter.of(Set.of(), Set.of("id")));
+
+        var projected = (JSONObject) projection.parse(() -> JsonReader.open("""
+                {"id": 1, "text": "a\\"b\\u0041", "deep": {"x": [{"y": "}"}]}}"""));
+
+        assertEquals(projected.toString(), "{\"id\":1}");
+        assertEquals(projection.getSize(), 3);
+        expectThrows(RuntimeException.class, () -> projection
+                .parse(() -> JsonReader.open("{\"id\": 1, \"a\": \"\\x\"}")));
+        expectThrows(RuntimeException.class, () -> projection.parse(() -> JsonReader.open("{\"id\": 1} 2")));
+    }
+
+    @Test
+    public void testDuplicateKeysAreRejected() {
+        var projection = new FieldProjection(FieldFilter.of(Set.of(), Set.of("id")));
+
+        var kept = expectThrows(JSONException.class, () -> projection
+                .parse(() -> JsonReader.open("{\"id\": 1, \"id\": 2}")));
+        assertEquals(kept.getMessage(), "Duplicate key \"id\" at character 15");
+        expectThrows(JSONException.class, () -> projection
+                .parse(() -> JsonReader.open("{\"id\": 1, \"a\": 1, \"a\": 2}")));
+    }
+}
@@ -0,0 +1,61 @@
+package com.mbi;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.json.JSONArray;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+public class JfrEventTest {
+
+    @Test
+    public void testAssertionAndPhaseEvents() throws IOException {
+        var spec = AssertionSpec.DEFAULT.withMode(CompareMode.NOT_ORDERED_EXTENSIBLE_ARRAY).ignore("a", "b");
+        var expected = new JSONArray("[{\"id\": 1}, {\"id\": 4}]");
+        var actual = new JSONArray("[{\"id\": 1}, {\"id\": 2}, {\"id\": 3}]");
+
+        List<RecordedEvent> events;
+        try (var recording = new Recording()) {
+            recording.enable("com.mbi.Assertion").withoutThreshold();
+            recording.enable("com.mbi.AssertionPhase").withoutThreshold();
+            recording.start();
+            spec.jsonEquals(actual, new JSONArray("[{\"id\": 3}]"));
+            var error = expectThrows(AssertionError.class, () -> spec.jsonEquals(actual, expected));
+            assertTrue(error.getMessage().contains("But found"));
+            recording.stop();
+
+            var file = Files.createTempFile("assertions", ".jfr");
+            file.toFile().deleteOnExit();
+            recording.dump(file);
+            // Tests of other classes may run in parallel
+            events = RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getThread().getJavaThreadId() == Thread.currentThread().getId())
+                    .toList();
+        }
+
+        var assertions = events.stream().filter(event -> event.getEventType().getName().equals("com.mbi.Assertion"))
+                .toList();
+        assertEquals(assertions.size(), 2);
+        assertTrue(assertions.get(0).getBoolean("passed"));
+        var failed = assertions.get(1);
+        assertEquals(failed.getString("operation"), "jsonEquals");
+        assertEquals(failed.getString("mode"), "NOT_ORDERED_EXTENSIBLE_ARRAY");
+        assertFalse(failed.getBoolean("passed"));
+        assertEquals(failed.getInt("differences"), 1);
+        assertEquals(failed.getInt("paths"), 2);
+        assertEquals(failed.getInt("expectedElements"), 2);
+        assertEquals(failed.getInt("actualElements"), 3);
+
+        var phases = events.stream().filter(event -> event.getEventType().getName().equals("com.mbi.AssertionPhase"))
+                .map(event -> event.getString("phase"))
+                .toList();
+        assertEquals(phases, List.of("FILTER", "ARRAY_MATCHING", "COMPARE", "FILTER", "ARRAY_MATCHING", "COMPARE",
+                "RENDER"));
+    }
+}
@@ -0,0 +1,275 @@
+package com.mbi;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.testng.Assert.*;
+
+public class JsonComparatorTest {
+
+    @Test
+    public void testEqualObjectsHaveNoDifferences() {
+        var expected = new JSONObject("""
+                {"a": 1, "b": {"c": [1, 2, {"d": "e"}]}}""");
+        var actual = new JSONObject("""
+                {"b": {"c": [{"d": "e"}, 2, 1]}, "a": 1}""");
+
+        assertTrue(new JsonComparator(CompareMode.NOT_ORDERED).compare(expected, actual).isEmpty());
+    }
+
+    @Test
+    public void testNumbersComparedByValue() {
+        var expected = new JSONObject().put("a", 1).put("b", 2.5);
+        var actual = new JSONObject().put("a", 1L).put("b", 2.5f);
+
+        assertTrue(new JsonComparator(CompareMode.ORDERED).isEqual(expected, actual));
+    }
+
+    @Test
+    public void testValueMismatchPath() {
+        var expected = new JSONObject("""
+                {"data": [{"id": 1, "name": "a"}]}""");
+        var actual = new JSONObject("""
+                {"data": [{"id": 1, "name": "b"}]}""");
+
+        var differences = new JsonComparator(CompareMode.ORDERED).compare(expected, actual);
+        assertEquals(differences.size(), 1);
+        assertEquals(differences.get(0).getKind(), JsonDifference.Kind.MISMATCH);
+        assertEquals(differences.get(0).getPath(), "data[0].name");
+    }
+
+    @Test
+    public void testMissingAndUnexpectedFields() {
+        var expected = new JSONObject().put("a", 1).put("b", 2);
+        var actual = new JSONObject().put("a", 1).put("c", 3);
+
+        var differences = new JsonComparator(CompareMode.NOT_ORDERED).compare(expected, actual);
+        assertEquals(differences.size(), 2);
+        assertEquals(differences.get(0).getKind(), JsonDifference.Kind.MISSING);
+        assertEquals(differences.get(0).getPath(), "b");
+        assertEquals(differences.get(1).getKind(), JsonDifference.Kind.UNEXPECTED);
+        assertEquals(differences.get(1).getPath(), "c");
+    }
+
+    @Test
+    public void testArrayLengthMismatchMessage() {
+        var differences = new JsonComparator(CompareMode.NOT_ORDERED)
+                .compare(new JSONArray("[1, 2]"), new JSONArray("[1]"));
+
+        assertEquals(differences.size(), 1);
+        assertEquals(differences.get(0).toString(), "[]: Expected 2 values but got 1");
+    }
+
+    @Test
+    public void testOrderMattersOnlyInOrderedMode() {
+        var expected = new JSONArray("[1, 2, 3]");
+        var actual = new JSONArray("[3, 1, 2]");
+
+        assertTrue(new JsonComparator(CompareMode.NOT_ORDERED).isEqual(expected, actual));
+        var differences = new JsonComparator(CompareMode.ORDERED).compare(expected, actual);
+        assertEquals(differences.size(), 2);
+        assertEquals(differences.get(0).getKind(), JsonDifference.Kind.UNEXPECTED);
+        assertEquals(differences.get(0).getPath(), "[0]");
+        assertEquals(differences.get(1).getKind(), JsonDifference.Kind.MISSING);
+        assertEquals(differences.get(1).getPath(), "[2]");
+    }
+
+    @Test
+    public void testOrderedArrayReportsEdits() {
+        var rows = new ArrayList<JSONObject>();
+        for (int i = 0; i < 50_000; i++) {
+            rows.add(new JSONObject().put("id", i).put("name", "row" + i));
+        }
+        var expected = new JSONArray(rows);
+        rows.set(30_000, new JSONObject().put("id", 30_000).put("name", "changed"));
+        rows.remove(20_000);
+        rows.add(3, new JSONObject().put("id", -1));
+        var actual = new JSONArray(rows);
+
+        var differences = new JsonComparator(CompareMode.ORDERED).compare(expected, actual);
+        assertEquals(differences.toString(), String.format("[[3]%nUnexpected: a JSON object%n, "
+                + "[20000]%nExpected: a JSON object%n     but none found%n, "
+                + "[30000].name%nExpected: row30000%n     got: changed%n]"));
+        assertEquals(new JsonComparator(CompareMode.ORDERED).compare(expected, actual, 1).size(), 1);
+    }
+
+    @Test
+    public void testOrderedArraysDifferentEverywhere() {
+        var expected = new JSONArray();
+        var actual = new JSONArray();
+        for (int i = 0; i < 5_000; i++) {
+            expected.put(i);
+            actual.put(-i - 1);
+        }
+
+        assertEquals(new JsonComparator(CompareMode.ORDERED).compare(expected, actual).size(), 5_000);
+        actual.put(0);
+        assertEquals(new JsonComparator(CompareMode.ORDERED).compare(expected, actual).toString(),
+                "[[]: Expected 5000 values but got 5001]");
+    }
+
+    @Test
+    public void testUnorderedArrayReportsUnmatchedElements() {
+        var expected = new JSONArray("""
+                [1, {"a": 1}, {"a": 2}]""");
+        var actual = new JSONArray("""
+                [{"a": 3}, 1, {"a": 1}]""");
+
+        var differences = new JsonComparator(CompareMode.NOT_ORDERED).compare(expected, actual);
+        assertEquals(differences.size(), 1);
+        assertEquals(differences.get(0).getKind(), JsonDifference.Kind.MISMATCH);
+        assertEquals(differences.get(0).getPath(), "[2].a");
+    }
+
+    @Test
+    public void testUnorderedArrayReportsElementsWithoutPair() {
+        var expected = new JSONArray("""
+                [1, {"a": 1}, {"a": 2}]""");
+        var actual = new JSONArray("""
+                [[3], 1, {"a": 1}]""");
+
+        var differences = new JsonComparator(CompareMode.NOT_ORDERED).compare(expected, actual);
+        assertEquals(differences.size(), 2);
+        assertEquals(differences.get(0).getKind(), JsonDifference.Kind.NO_MATCH);
+        assertEquals(differences.get(0).getPath(), "[2]");
+        assertEquals(differences.get(1).getKind(), JsonDifference.Kind.UNEXPECTED);
+        assertEquals(differences.get(1).getPath(), "[]");
+    }
+
+    @Test
+    public void testUnorderedScalarArrayReportsValues() {
+        var expected = new JSONObject("""
+                {"tags": ["a", "b", "b", "c"], "ids": [3, 1, 2.0]}""");
+        var actual = new JSONObject("""
+                {"tags": ["a", "d", "c", "b"], "ids": [2, 3, 1]}""");
+
+        var differences = new JsonComparator(CompareMode.NOT_ORDERED).compare(expected, actual);
+        assertEquals(differences.size(), 1);
+        assertEquals(differences.get(0).getKind(), JsonDifference.Kind.VALUES);
+        assertEquals(differences.get(0).toString(), String.format(
+                "tags[]%nMissing values: [\"b\"]%nUnexpected values: [\"d\"]%n"));
+    }
+
+    @Test
+    public void testLargeUnorderedScalarArrays() {
+        var expected = new JSONArray();
+        var actual = new JSONArray();
+        for (int i = 0; i < 1_000_000; i++) {
+            expected.put((long) i);
+            actual.put(999_999L - i);
+        }
+
+        assertTrue(new JsonComparator(CompareMode.NOT_ORDERED).isEqual(expected, actual));
+        actual.put(0, -1);
+        actual.put(1, -2);
+        var differences = new JsonComparator(CompareMode.NOT_ORDERED).compare(expected, actual);
+        assertEquals(differences.size(), 1);
+        assertEquals(differences.get(0).toString(), String.format(
+                "[]%nMissing values: [999998, 999999]%nUnexpected values: [-2, -1]%n"));
+    }
+
+    @Test
+    public void testUnorderedArrayReportsClosestPairs() {
+        var expected = new JSONArray("""
+                [{"id": 1, "name": "a"}, {"id": 2, "name": "b"}, {"id": 3, "name": "c"}]""");
+        var actual = new JSONArray("""
+                [{"id": 3, "name": "x"}, {"id": 1, "name": "a"}, {"id": 2, "name": "y"}]""");
+
+        var differences = new JsonComparator(CompareMode.NOT_ORDERED).compare(expected, actual);
+        assertEquals(differences.size(), 2);
+        assertEquals(differences.get(0).getPath(), "[1].name");
+        assertEquals(differences.get(0).getActual(), "y");
+        assertEquals(differences.get(1).getPath(), "[2].name");
+        assertEquals(differences.get(1).getActual(), "x");
+    }
+
+    @Test
+    public void testLongUnorderedArrayWithOneMismatch() {
+        var expected = new JSONArray();
+        var actual = new JSONArray();
+        for (int i = 0; i < 20_000; i++) {
+            expected.put(new JSONObject().put("id", i).put("name", "row" + i));
+            actual.put(new JSONObject().put("id", 19_999 - i).put("name", "row" + (19_999 - i)));
+        }
+        actual.getJSONObject(0).put("name", "changed");
+
+        var differences = new JsonComparator(CompareMode.NOT_ORDERED).compare(expected, actual);
+        assertEquals(differences.size(), 1);
+        assertEquals(differences.get(0).getPath(), "[19999].name");
+    }
+
+    @Test
+    public void testTypeMismatch() {
+        var expected = new JSONObject().put("a", new JSONObject().put("b", 1));
+        var actual = new JSONObject().put("a", new JSONArray().put(1));
+
+        var differences = new JsonComparator(CompareMode.NOT_ORDERED).compare(expected, actual);
+        assertEquals(differences.size(), 1);
+        assertTrue(differences.get(0).toString().contains("Expected: a JSON object"));
+    }
+
+    @Test
+    public void testNullValues() {
+        var expected = new JSONObject().put("a", JSONObject.NULL);
+
+        assertTrue(new JsonComparator(CompareMode.NOT_ORDERED).isEqual(expected, new JSONObject().put("a", JSONObject.NULL)));
+        assertFalse(new JsonComparator(CompareMode.NOT_ORDERED).isEqual(expected, new JSONObject().put("a", 0)));
+    }
+
+    @Test
+    public void testParallelComparisonEqualsSequential() {
+        var parallelism = new Parallelism(new ForkJoinPool(4), 4);
+        var expected = new JSONObject();
+        var actual = new JSONObject();
+        for (int i = 0; i < 50; i++) {
+            var items = new JSONArray();
+            var shuffled = new JSONArray();
+            for (int j = 0; j < 40; j++) {
+                items.put(new JSONObject().put("id", j).put("tags", new JSONArray().put(j % 3).put("t" + j)));
+                shuffled.put(new JSONObject().put("id", (j * 7) % 40).put("tags", new JSONArray().put((j * 7) % 40 % 3)
+                        .put(j % 9 == 0 ? "changed" : "t" + (j * 7) % 40)));
+            }
+            expected.put("field" + i, items);
+            actual.put(i % 10 == 0 ? "other" + i : "field" + i, i % 2 == 0 ? items : shuffled);
+        }
+
+        for (var mode : CompareMode.values()) {
+            var sequential = new JsonComparator(mode).compare(expected, actual);
+            var parallel = new JsonComparator(mode, parallelism).compare(expected, actual);
+            assertFalse(sequential.isEmpty());
+            assertEquals(parallel.toString(), sequential.toString(), mode.name());
+        }
+        assertTrue(new JsonComparator(CompareMode.NOT_ORDERED, parallelism).compare(expected, expected).isEmpty());
+    }
+
+    @Test
+    public void testDifferenceLimitReturnsLeadingDifferences() {
+        var parallelism = new Parallelism(new ForkJoinPool(4), 4);
+        var expected = new JSONObject();
+        var actual = new JSONObject();
+        for (int i = 0; i < 30; i++) {
+            var items = new JSONArray();
+            var renamed = new JSONArray();
+            for (int j = 0; j < 20; j++) {
+                items.put(new JSONObject().put("id", j).put("name", "n" + j));
+                renamed.put(new JSONObject().put("id", j).put("title", "n" + j));
+            }
+            expected.put("field" + i, items);
+            actual.put("field" + i, i % 3 == 0 ? items : renamed);
+        }
+
+        for (var mode : CompareMode.values()) {
+            var all = new JsonComparator(mode).compare(expected, actual);
+            for (var limit : new int[]{1, 5, 37}) {
+                var limited = new JsonComparator(mode).compare(expected, actual, limit);
+                assertEquals(limited.toString(), all.subList(0, limit).toString(), mode.name());
+                assertEquals(new JsonComparator(mode, parallelism).compare(expected, actual, limit).toString(),
+                        limited.toString(), mode.name());
+            }
+        }
+    }
+}
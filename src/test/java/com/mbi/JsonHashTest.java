@@ -0,0 +1,53 @@
+package com.mbi;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+public class JsonHashTest {
+
+    @Test
+    public void testHashDoesNotDependOnFieldOrElementOrder() {
+        var json1 = new JSONObject("""
+                {"a": 1, "b": [1, 2, {"c": "d"}]}""");
+        var json2 = new JSONObject("""
+                {"b": [{"c": "d"}, 2, 1], "a": 1}""");
+
+        assertEquals(JsonHash.of(json1), JsonHash.of(json2));
+    }
+
+    @Test
+    public void testNumbersHashedByValue() {
+        assertEquals(JsonHash.of(1), JsonHash.of(1L));
+        assertEquals(JsonHash.of(1), JsonHash.of(1.0));
+        assertEquals(JsonHash.of(0.0), JsonHash.of(-0.0));
+    }
+
+    @Test
+    public void testDifferentValuesHaveDifferentHashes() {
+        assertNotEquals(JsonHash.of(new JSONObject().put("a", 1)), JsonHash.of(new JSONObject().put("a", 2)));
+        assertNotEquals(JsonHash.of(new JSONArray("[1, 1]")), JsonHash.of(new JSONArray("[1]")));
+        assertNotEquals(JsonHash.of(new JSONObject()), JsonHash.of(new JSONArray()));
+    }
+
+    @Test
+    public void testNullHash() {
+        assertEquals(JsonHash.of(JSONObject.NULL), JsonHash.of(null));
+    }
+
+    @Test
+    public void testIndexHoldsHashesOfAllContainers() {
+        var inner = new JSONArray("[1, {\"b\": 2}]");
+        var root = new JSONObject().put("a", inner);
+
+        var index = JsonHash.index(root);
+
+        assertEquals(index.size(), 3);
+        assertEquals(index.get(root).intValue(), JsonHash.of(root));
+        assertEquals(index.get(inner).intValue(), JsonHash.of(inner));
+        assertEquals(index.get(inner.get(1)).intValue(), JsonHash.of(new JSONObject().put("b", 2)));
+        assertTrue(JsonHash.index(1).isEmpty());
+    }
+}
@@ -0,0 +1,147 @@
+package com.mbi;
+
+import org.json.JSONException;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.testng.Assert.*;
+
+public class JsonLinesComparatorTest {
+
+    private static List<JsonDifference> compare(CompareMode mode, FieldFilter filter, String expected, String actual) {
+        try (var expectedReader = reader(expected); var actualReader = reader(actual)) {
+            return new JsonLinesComparator(mode, filter).compare(expectedReader, actualReader);
+        }
+    }
+
+    private static List<JsonDifference> compare(CompareMode mode, String expected, String actual) {
+        return compare(mode, FieldFilter.of(Set.of(), Set.of()), expected, actual);
+    }
+
+    private static JsonReader reader(String lines) {
+        return new JsonReader(new ByteArrayInputStream(lines.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testEqualRecords() {
+        var lines = """
+                {"id": 1, "tags": ["a", "b"]}
+                {"id": 2, "tags": []}
+                """;
+
+        assertTrue(compare(CompareMode.ORDERED, lines, lines).isEmpty());
+        assertTrue(compare(CompareMode.NOT_ORDERED, lines, """
+                {"tags": ["b", "a"], "id": 1}
+
+                {"tags": [], "id": 2}""").isEmpty());
+    }
+
+    @Test
+    public void testOrderedDifferencesHaveRecordLines() {
+        var differences = compare(CompareMode.ORDERED, """
+                {"id": 1}
+                {"id": 2, "name": "b"}
+                {"id": 3}
+                """, """
+                {"id": 1}
+                {"id": 2, "name": "c"}
+                """);
+
+        assertEquals(differences.size(), 2);
+        assertEquals(differences.get(0).getKind(), JsonDifference.Kind.MISMATCH);
+        assertEquals(differences.get(0).getPath(), "line 2: name");
+        assertEquals(differences.get(1).getKind(), JsonDifference.Kind.MISSING);
+        assertEquals(differences.get(1).getPath(), "line 3");
+    }
+
+    @Test
+    public void testUnorderedRecords() {
+        var expected = """
+                {"id": 1}
+                {"id": 2}
+                {"id": 2}
+                """;
+
+        assertTrue(compare(CompareMode.NOT_ORDERED, expected, """
+                {"id": 2}
+                {"id": 1}
+                {"id": 2}
+                """).isEmpty());
+
+        var differences = compare(CompareMode.NOT_ORDERED, expected, """
+                {"id": 2}
+                {"id": 3}
+                {"id": 1}
+                """);
+        assertEquals(differences.size(), 2);
+        assertEquals(differences.get(0).getKind(), JsonDifference.Kind.MISSING);
+        assertEquals(differences.get(0).getPath(), "line 3");
+        assertEquals(differences.get(1).getKind(), JsonDifference.Kind.UNEXPECTED);
+        assertEquals(differences.get(1).getPath(), "line 2");
+    }
+
+    @Test
+    public void testExtensibleModesAllowExtraRecords() {
+        var expected = """
+                {"id": 2}
+                """;
+        var actual = """
+                {"id": 1}
+                {"id": 2}
+                """;
+
+        assertTrue(compare(CompareMode.NOT_ORDERED_EXTENSIBLE_ARRAY, expected, actual).isEmpty());
+        assertTrue(compare(CompareMode.ORDERED_EXTENSIBLE_ARRAY, expected, actual).isEmpty());
+        assertEquals(compare(CompareMode.NOT_ORDERED, expected, actual).size(), 1);
+        assertEquals(compare(CompareMode.NOT_ORDERED_EXTENSIBLE_ARRAY, actual, expected).size(), 1);
+    }
+
+    @Test
+    public void testFilterAppliesToEveryRecord() {
+        var expected = """
+                {"id": 1, "createdAt": "2020"}
+                {"id": 2, "createdAt": "2021"}
+                """;
+        var actual = """
+                {"id": 1, "createdAt": "2024"}
+                {"id": 2, "createdAt": "2025"}
+                """;
+
+        assertEquals(compare(CompareMode.ORDERED, expected, actual).size(), 2);
+        assertTrue(compare(CompareMode.ORDERED, FieldFilter.of(Set.of("createdAt"), Set.of()), expected, actual)
+                .isEmpty());
+        assertTrue(compare(CompareMode.NOT_ORDERED, FieldFilter.of(Set.of(), Set.of("id")), expected, actual)
+                .isEmpty());
+    }
+
+    @Test
+    public void testScalarAndArrayRecords() {
+        assertTrue(compare(CompareMode.ORDERED, "1\n\"a\"\n[1, 2]\n", "1\n\"a\"\n[1, 2]").isEmpty());
+        assertEquals(compare(CompareMode.ORDERED, "[1, 2]", "[2, 1]").get(0).getPath(), "line 1: [0]");
+    }
+
+    @Test
+    public void testSeveralValuesOnOneLine() {
+        var ex = expectThrows(JSONException.class, () -> compare(CompareMode.ORDERED, "{}", "{} {}"));
+        assertTrue(ex.getMessage().contains("line 1"));
+    }
+
+    @Test
+    public void testDifferenceLimit() {
+        var expected = "{\"id\": 1}\n{\"id\": 2}\n{\"id\": 3}\n{\"id\": 4}";
+        var actual = "{\"id\": 5}\n{\"id\": 6}\n{\"id\": 7}";
+        var filter = FieldFilter.of(Set.of(), Set.of());
+
+        for (var mode : CompareMode.values()) {
+            try (var expectedReader = reader(expected); var actualReader = reader(actual)) {
+                var differences = new JsonLinesComparator(mode, filter, 2).compare(expectedReader, actualReader);
+                assertEquals(differences.toString(), compare(mode, expected, actual).subList(0, 2).toString(),
+                        mode.name());
+            }
+        }
+    }
+}
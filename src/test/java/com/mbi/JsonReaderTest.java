@@ -0,0 +1,82 @@
+package com.mbi;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+import static org.testng.Assert.*;
+
+public class JsonReaderTest {
+
+    private static Object parse(String json) {
+        return JsonReader.parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testParsesDocument() {
+        var json = (JSONObject) parse("""
+                {"a": 1, "b": [true, false, null], "c": {"d": "e"}, "f": []}""");
+
+        assertEquals(json.get("a"), 1);
+        assertEquals(json.getJSONArray("b").get(0), true);
+        assertEquals(json.getJSONArray("b").get(2), JSONObject.NULL);
+        assertEquals(json.getJSONObject("c").getString("d"), "e");
+        assertTrue(json.getJSONArray("f").isEmpty());
+    }
+
+    @Test
+    public void testParsesNumbers() {
+        var json = (JSONArray) parse("[1, -2147483649, 12345678901234567890, 1.5, 1e3]");
+
+        assertEquals(json.get(0), 1);
+        assertEquals(json.get(1), -2_147_483_649L);
+        assertEquals(json.get(2), new BigInteger("12345678901234567890"));
+        assertEquals(json.get(3), new BigDecimal("1.5"));
+        assertEquals(json.get(4), new BigDecimal("1e3"));
+    }
+
+    @Test
+    public void testParsesStrings() {
+        var json = (JSONArray) parse("""
+                ["a\\"b\\\\c\\/\\n", "\\u00e9", "ü€"]""");
+
+        assertEquals(json.get(0), "a\"b\\c/\n");
+        assertEquals(json.get(1), "é");
+        assertEquals(json.get(2), "ü€");
+    }
+
+    @Test
+    public void testRejectsMalformedDocuments() {
+        expectThrows(JSONException.class, () -> parse("[1,]"));
+        expectThrows(JSONException.class, () -> parse("{\"a\" 1}"));
+        expectThrows(JSONException.class, () -> parse("[1] 2"));
+        expectThrows(JSONException.class, () -> parse("[tru]"));
+        expectThrows(JSONException.class, () -> parse("[\"a"));
+        expectThrows(JSONException.class, () -> parse("[1-2]"));
+    }
+
+    @Test
+    public void testRejectsNumbersOutsideGrammar() {
+        assertEquals(parse("[0, -0, 0.5, -1E+2, 2e-1]").toString(), "[0,0,0.5,-1E+2,0.2]");
+        for (var number : new String[]{"01", "-", "-01", "1.", ".5", "+1", "1e", "1e+", "1.e3", "--1", "1.5.2"}) {
+            var error = expectThrows(JSONException.class, () -> parse("[" + number + "]"));
+            assertTrue(error.getMessage().contains(" at character "), error.getMessage());
+        }
+        assertEquals(expectThrows(JSONException.class, () -> parse("[01]")).getMessage(),
+                "Expected '.', an exponent or the end of the number but found '1' at character 2");
+    }
+
+    @Test
+    public void testRejectsDuplicateKeys() {
+        var error = expectThrows(JSONException.class, () -> parse("{\"a\": {\"b\": 1, \"b\": 2}}"));
+
+        assertEquals(error.getMessage(), "Duplicate key \"b\" at character 19");
+        assertEquals(((JSONObject) parse("{\"a\": {\"b\": 1}, \"b\": {\"a\": 2}}")).length(), 2);
+    }
+}
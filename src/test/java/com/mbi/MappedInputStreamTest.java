@@ -0,0 +1,41 @@
+package com.mbi;
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.testng.Assert.*;
+
+public class MappedInputStreamTest {
+
+    @Test
+    public void testReadsFileInSegments() throws IOException {
+        var text = "{\"name\": \"ünïcödé\", \"values\": [1, 2, 3]}";
+        var file = Files.createTempFile("mapped", ".json");
+        file.toFile().deleteOnExit();
+        Files.writeString(file, text);
+
+        try (var input = MappedInputStream.open(file, 3)) {
+            assertEquals(new String(input.readAllBytes(), StandardCharsets.UTF_8), text);
+        }
+    }
+
+    @Test
+    public void testReadsEmptyFile() throws IOException {
+        var file = Files.createTempFile("mapped", ".json");
+        file.toFile().deleteOnExit();
+
+        try (var input = MappedInputStream.open(file)) {
+            assertEquals(input.read(), -1);
+        }
+    }
+
+    @Test
+    public void testThrowsIfFileIsMissing() {
+        expectThrows(UncheckedIOException.class, () -> MappedInputStream.open(Path.of("missing.json")));
+    }
+}
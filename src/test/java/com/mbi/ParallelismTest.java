@@ -0,0 +1,50 @@
+package com.mbi;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.testng.Assert.*;
+
+public class ParallelismTest {
+
+    @Test
+    public void testResultsAreInIndexOrder() {
+        var parallelism = new Parallelism(new ForkJoinPool(4), 3);
+        var ranges = new ArrayList<Integer>();
+
+        List<Integer> indexes = parallelism.collect(100, (from, to) -> {
+            synchronized (ranges) {
+                ranges.add(to - from);
+            }
+            return IntStream.range(from, to).boxed().toList();
+        });
+
+        assertEquals(indexes, IntStream.range(0, 100).boxed().toList());
+        assertTrue(ranges.size() > 1);
+        assertTrue(ranges.stream().allMatch(size -> size < 3));
+    }
+
+    @Test
+    public void testNestedCollect() {
+        var parallelism = new Parallelism(new ForkJoinPool(2), 2);
+
+        List<Integer> sums = parallelism.collect(10, (from, to) -> IntStream.range(from, to)
+                .mapToObj(i -> parallelism.collect(i, (f, t) -> List.of(t - f)).stream().mapToInt(n -> n).sum())
+                .toList());
+
+        assertEquals(sums, IntStream.range(0, 10).boxed().toList());
+    }
+
+    @Test
+    public void testSplits() {
+        assertFalse(Parallelism.NONE.splits(Integer.MAX_VALUE));
+        assertSame(Parallelism.of(1), Parallelism.NONE);
+        assertTrue(Parallelism.of(2).splits(Parallelism.DEFAULT_THRESHOLD));
+        assertFalse(Parallelism.of(2).splits(Parallelism.DEFAULT_THRESHOLD - 1));
+        expectThrows(IllegalArgumentException.class, () -> Parallelism.of(0));
+    }
+}
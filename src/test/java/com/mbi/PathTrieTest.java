@@ -0,0 +1,108 @@
+package com.mbi;
+
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+public class PathTrieTest {
+
+    @Test
+    public void testFieldPathMatchesArrayElements() {
+        var trie = PathTrie.compile(List.of("array"));
+
+        assertTrue(trie.field("array").isTerminal());
+        assertNull(trie.field("different"));
+    }
+
+    @Test
+    public void testNestedFieldPath() {
+        var trie = PathTrie.compile(List.of("a.b.c"));
+
+        assertFalse(trie.field("a").isTerminal());
+        assertFalse(trie.field("a").field("b").isTerminal());
+        assertTrue(trie.field("a").field("b").field("c").isTerminal());
+        assertNull(trie.field("a").field("c"));
+    }
+
+    @Test
+    public void testFieldNamesAreCaseSensitive() {
+        var trie = PathTrie.compile(List.of("User.ID", "items[].Name"));
+
+        assertNull(trie.field("user"));
+        assertNull(trie.field("user", false));
+        assertNull(trie.field("user", true));
+        assertTrue(trie.field("User").field("ID").isTerminal());
+        assertNull(trie.field("User").field("id"));
+        assertNull(trie.field("items").index(3).field("name"));
+    }
+
+    @Test
+    public void testLeafMatchesPathEndIgnoringCase() {
+        var trie = PathTrie.compile(List.of("User.ID", "items[].Name", "A"));
+
+        assertTrue(trie.field("User").field("id", true).isTerminal());
+        assertNull(trie.field("User").field("id", false));
+        assertTrue(trie.field("items").index(3).field("NAME", true).isTerminal());
+        assertTrue(trie.field("a", true).isTerminal());
+        assertNull(trie.field("a", false));
+        assertTrue(trie.field("A", false).isTerminal());
+    }
+
+    @Test
+    public void testIndexPath() {
+        var trie = PathTrie.compile(List.of("array[0].id"));
+
+        assertTrue(trie.field("array").index(0).field("id").isTerminal());
+        assertNull(trie.field("array").index(1));
+        assertNull(trie.field("something"));
+    }
+
+    @Test
+    public void testRootIndexPath() {
+        var trie = PathTrie.compile(List.of("[0].id"));
+
+        assertTrue(trie.index(0).field("id").isTerminal());
+        assertNull(trie.field("[0]id"));
+        assertNull(trie.index(1));
+    }
+
+    @Test
+    public void testAnyIndexPath() {
+        var trie = PathTrie.compile(List.of("items[].id", "items[1].name"));
+
+        assertTrue(trie.field("items").index(0).field("id").isTerminal());
+        assertTrue(trie.field("items").index(1).field("id").isTerminal());
+        assertTrue(trie.field("items").index(1).field("name").isTerminal());
+        assertNull(trie.field("items").index(0).field("name"));
+    }
+
+    @Test
+    public void testNestedIndexes() {
+        var trie = PathTrie.compile(List.of("a[0][1]"));
+
+        assertTrue(trie.field("a").index(0).index(1).isTerminal());
+        assertNull(trie.field("a").index(0).index(0));
+    }
+
+    @Test
+    public void testQuotedFieldWithDots() {
+        var trie = PathTrie.compile(List.of("[\"a.b\"].c"));
+
+        assertTrue(trie.field("a.b").field("c").isTerminal());
+    }
+
+    @Test
+    public void testTerminalPathCoversLongerPaths() {
+        var trie = PathTrie.compile(List.of("a.b", "a"));
+
+        assertTrue(trie.field("a").isTerminal());
+        assertNull(trie.field("a").field("b"));
+    }
+
+    @Test
+    public void testBlankPathsAreSkipped() {
+        assertNull(PathTrie.compile(List.of("", " ")));
+    }
+}
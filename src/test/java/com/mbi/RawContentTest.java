@@ -0,0 +1,48 @@
+package com.mbi;
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.testng.Assert.*;
+
+public class RawContentTest {
+
+    @Test
+    public void testComparesFilesInSegments() throws IOException {
+        var first = file("{\"a\": [1, 2, 3], \"b\": \"text\"}");
+        var second = file("{\"a\": [1, 2, 3], \"b\": \"text\"}");
+        var changed = file("{\"a\": [1, 2, 3], \"b\": \"tExt\"}");
+
+        assertTrue(RawContent.isIdentical(first, second, 4));
+        assertTrue(RawContent.isIdentical(first, second));
+        assertFalse(RawContent.isIdentical(first, changed, 4));
+        assertFalse(RawContent.isIdentical(first, file("{\"a\": [1, 2, 3]}")));
+    }
+
+    @Test
+    public void testSameFileIsIdentical() throws IOException {
+        var file = file("{}");
+
+        assertTrue(RawContent.isIdentical(file, file));
+        assertTrue(RawContent.isIdentical(file(""), file("")));
+    }
+
+    @Test
+    public void testThrowsIfFileIsMissing() throws IOException {
+        var file = file("{}");
+
+        expectThrows(UncheckedIOException.class, () -> RawContent.isIdentical(file, Path.of("missing.json")));
+        expectThrows(NullPointerException.class, () -> RawContent.isIdentical(null, file));
+    }
+
+    private static Path file(String content) throws IOException {
+        var file = Files.createTempFile("raw", ".json");
+        file.toFile().deleteOnExit();
+        Files.writeString(file, content);
+        return file;
+    }
+}
@@ -0,0 +1,61 @@
+package com.mbi;
+
+import org.json.JSONArray;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+
+import static org.testng.Assert.*;
+
+public class ScalarMultisetTest {
+
+    @DataProvider
+    public Object[][] unsupported() {
+        return new Object[][]{
+                {new JSONArray("[1, \"1\"]"), new JSONArray("[1, 2]")},
+                {new JSONArray("[1, 2]"), new JSONArray("[null, 2]")},
+                {new JSONArray("[true, false]"), new JSONArray("[false, true]")},
+                {new JSONArray("[[1], 2]"), new JSONArray("[2, [1]]")},
+                {new JSONArray().put(Double.NaN).put(1), new JSONArray().put(1).put(Double.NaN)},
+                {new JSONArray().put(Long.MAX_VALUE).put(1), new JSONArray().put(1).put(1.5)},
+        };
+    }
+
+    @Test(dataProvider = "unsupported")
+    public void testOtherArraysAreNotCompared(JSONArray expected, JSONArray actual) {
+        assertNull(ScalarMultiset.compare(expected, actual, 0));
+    }
+
+    @Test
+    public void testIntegralValuesWithDuplicates() {
+        var scalars = ScalarMultiset.compare(new JSONArray().put(5).put(1L).put(5).put(3),
+                new JSONArray().put(3).put(5L).put(7).put(1), 0);
+
+        assertFalse(scalars.isEqual());
+        assertEquals(scalars.getMissing().toString(), "[5]");
+        assertEquals(scalars.getUnexpected().toString(), "[7]");
+        assertTrue(ScalarMultiset.compare(new JSONArray().put(Long.MAX_VALUE).put(Long.MIN_VALUE),
+                new JSONArray().put(Long.MIN_VALUE).put(Long.MAX_VALUE), 0).isEqual());
+    }
+
+    @Test
+    public void testNumbersComparedByValue() {
+        var expected = new JSONArray().put(1).put(new BigDecimal("2.50")).put(-0.0).put(3f);
+        var actual = new JSONArray().put(3L).put(0).put(1.0).put(2.5);
+
+        assertTrue(ScalarMultiset.compare(expected, actual, 0).isEqual());
+        var scalars = ScalarMultiset.compare(expected, new JSONArray().put(3).put(0).put(1).put(2), 0);
+        assertEquals(scalars.getMissing().toString(), "[2.5]");
+        assertEquals(scalars.getUnexpected().toString(), "[2]");
+    }
+
+    @Test
+    public void testStringsFromIndex() {
+        var scalars = ScalarMultiset.compare(new JSONArray("[1, \"b\", \"a\", \"a\"]"),
+                new JSONArray("[true, \"a\", \"c\", \"b\"]"), 1);
+
+        assertEquals(scalars.getMissing().toString(), "[\"a\"]");
+        assertEquals(scalars.getUnexpected().toString(), "[\"c\"]");
+    }
+}
@@ -0,0 +1,100 @@
+package com.mbi;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.testng.Assert.*;
+
+public class StreamingComparatorTest {
+
+    private static JsonDifference compare(CompareMode mode, Object expected, String actual) {
+        return compare(mode, expected, new ByteArrayInputStream(actual.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static JsonDifference compare(CompareMode mode, Object expected, InputStream actual) {
+        try (var reader = new JsonReader(actual)) {
+            return new StreamingComparator(mode).compare(expected, reader);
+        }
+    }
+
+    @Test
+    public void testEqualDocuments() {
+        var expected = new JSONObject("""
+                {"a": 1, "b": {"c": [1, 2, {"d": "e"}]}}""");
+
+        assertNull(compare(CompareMode.NOT_ORDERED, expected, """
+                {"b": {"c": [{"d": "e"}, 2, 1]}, "a": 1.0}"""));
+        assertNull(compare(CompareMode.ORDERED, expected, expected.toString()));
+    }
+
+    @Test
+    public void testValueMismatch() {
+        var difference = compare(CompareMode.ORDERED, new JSONObject("""
+                {"data": [{"id": 1, "name": "a"}]}"""), """
+                {"data": [{"id": 1, "name": "b"}]}""");
+
+        assertEquals(difference.getKind(), JsonDifference.Kind.MISMATCH);
+        assertEquals(difference.getPath(), "data[0].name");
+    }
+
+    @Test
+    public void testMissingAndUnexpectedFields() {
+        var expected = new JSONObject().put("a", 1).put("b", 2);
+
+        var missing = compare(CompareMode.NOT_ORDERED, expected, "{\"a\": 1}");
+        assertEquals(missing.getKind(), JsonDifference.Kind.MISSING);
+        assertEquals(missing.getPath(), "b");
+
+        var unexpected = compare(CompareMode.NOT_ORDERED, expected, "{\"a\": 1, \"c\": {\"d\": 1}, \"b\": 2}");
+        assertEquals(unexpected.getKind(), JsonDifference.Kind.UNEXPECTED);
+        assertEquals(unexpected.getPath(), "c");
+    }
+
+    @Test
+    public void testDuplicateKeysAreRejected() {
+        var expected = new JSONObject().put("a", 1).put("b", 2);
+
+        var error = expectThrows(JSONException.class, () -> compare(CompareMode.ORDERED, expected, """
+                {"a": 1, "a": 1, "b": 2}"""));
+        assertTrue(error.getMessage().startsWith("Duplicate key \"a\""), error.getMessage());
+    }
+
+    @Test
+    public void testArrayLength() {
+        var expected = new JSONArray("[1, 2]");
+
+        assertEquals(compare(CompareMode.ORDERED, expected, "[1, 2, 3, 4]").toString(),
+                "[]: Expected 2 values but got 4");
+        assertEquals(compare(CompareMode.NOT_ORDERED, expected, "[2]").toString(),
+                "[]: Expected 2 values but got 1");
+        assertEquals(compare(CompareMode.NOT_ORDERED, expected, "[3, 2, 1]").toString(),
+                "[]: Expected 2 values but got 3");
+    }
+
+    @Test
+    public void testUnorderedArrayUnexpectedElement() {
+        var difference = compare(CompareMode.NOT_ORDERED, new JSONArray("""
+                [{"a": 1}, {"a": 2}]"""), """
+                [{"a": 2}, {"a": 3}]""");
+
+        assertEquals(difference.getKind(), JsonDifference.Kind.UNEXPECTED);
+        assertEquals(difference.getPath(), "[]");
+    }
+
+    @Test
+    public void testStopsReadingAtFirstDifference() {
+        var body = "[0, 1" + ", 2".repeat(100_000) + "]";
+        var input = new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+
+        var difference = compare(CompareMode.ORDERED, new JSONArray("[0, 2]"), input);
+
+        assertEquals(difference.getPath(), "[1]");
+        assertTrue(input.available() > 100_000);
+    }
+}